@@ -13,6 +13,7 @@ import com.badlogic.gdx.backends.android.AndroidApplication;
 import com.badlogic.gdx.backends.android.AndroidEventListener;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Timer;
 import com.google.android.gms.common.ConnectionResult;
 import com.google.android.gms.common.api.GoogleApiClient;
 import com.google.android.gms.drive.Drive;
@@ -34,6 +35,8 @@ import com.google.android.gms.games.snapshot.SnapshotMetadataChange;
 import com.google.android.gms.games.snapshot.Snapshots;
 import com.google.example.games.basegameutils.BaseGameUtils;
 
+import java.util.concurrent.Executor;
+
 import de.golfgl.gdxgamesvcs.achievement.IAchievement;
 import de.golfgl.gdxgamesvcs.achievement.IFetchAchievementsResponseListener;
 import de.golfgl.gdxgamesvcs.gamestate.IFetchGameStatesListResponseListener;
@@ -41,6 +44,10 @@ import de.golfgl.gdxgamesvcs.gamestate.ILoadGameStateResponseListener;
 import de.golfgl.gdxgamesvcs.gamestate.ISaveGameStateResponseListener;
 import de.golfgl.gdxgamesvcs.leaderboard.IFetchLeaderBoardEntriesResponseListener;
 import de.golfgl.gdxgamesvcs.leaderboard.ILeaderBoardEntry;
+import de.golfgl.gdxgamesvcs.net.IScheduledRequest;
+import de.golfgl.gdxgamesvcs.net.RateLimiter;
+import de.golfgl.gdxgamesvcs.net.RequestPriority;
+import de.golfgl.gdxgamesvcs.net.RequestScheduler;
 
 /**
  * Client for Google Play Games
@@ -56,6 +63,7 @@ public class GpgsClient implements GoogleApiClient.ConnectionCallbacks, GoogleAp
 
     public static final String GAMESERVICE_ID = IGameServiceClient.GS_GOOGLEPLAYGAMES_ID;
     protected static final int MAX_CONNECTFAIL_RETRIES = 4;
+    private static final RateLimiter CONNECT_RETRY_BACKOFF = new RateLimiter(0, 1, 200, 3200);
     private static final int MAX_SNAPSHOT_RESOLVE_RETRIES = 3;
     protected Activity myContext;
     protected IGameServiceListener gameListener;
@@ -67,6 +75,7 @@ public class GpgsClient implements GoogleApiClient.ConnectionCallbacks, GoogleAp
     protected IGameServiceIdMapper<String> gpgsLeaderboardIdMapper;
     protected IGameServiceIdMapper<String> gpgsAchievementIdMapper;
     protected boolean forceRefresh;
+    protected RequestScheduler requestScheduler;
     private boolean mResolvingConnectionFailure = false;
     private boolean mSignInClicked = false;
 
@@ -92,6 +101,45 @@ public class GpgsClient implements GoogleApiClient.ConnectionCallbacks, GoogleAp
         return this;
     }
 
+    /**
+     * sets the scheduler background work is run through. Default is {@link RequestScheduler#getDefault()}
+     *
+     * @return this for method chaining
+     */
+    public GpgsClient setRequestScheduler(RequestScheduler requestScheduler) {
+        this.requestScheduler = requestScheduler;
+        return this;
+    }
+
+    /**
+     * executes the task on AsyncTask's thread pool as soon as the request scheduler allows it
+     */
+    protected void execute(AsyncTask<Void, Void, ?> task, final RequestPriority priority) {
+        final RequestScheduler scheduler = requestScheduler != null ? requestScheduler
+                : RequestScheduler.getDefault();
+
+        task.executeOnExecutor(new Executor() {
+            @Override
+            public void execute(final Runnable command) {
+                scheduler.submit(GAMESERVICE_ID, priority, new IScheduledRequest() {
+                    @Override
+                    public void execute(final Runnable onDone) {
+                        AsyncTask.THREAD_POOL_EXECUTOR.execute(new Runnable() {
+                            @Override
+                            public void run() {
+                                try {
+                                    command.run();
+                                } finally {
+                                    onDone.run();
+                                }
+                            }
+                        });
+                    }
+                });
+            }
+        });
+    }
+
     /**
      * set to true if you want to force refreshes when fetching data
      */
@@ -282,22 +330,15 @@ public class GpgsClient implements GoogleApiClient.ConnectionCallbacks, GoogleAp
             firstConnectAttempt -= 1;
             Gdx.app.log(GAMESERVICE_ID, "Retrying to connect...");
 
-            AsyncTask<Void, Void, Void> task = new AsyncTask<Void, Void, Void>() {
+            // wait some time before next try, longer with every failed attempt
+            long delay = CONNECT_RETRY_BACKOFF.getBackoffMillis(MAX_CONNECTFAIL_RETRIES - firstConnectAttempt);
+            Timer.schedule(new Timer.Task() {
                 @Override
-                protected Void doInBackground(Void... params) {
-                    try {
-                        // wait some time before next try
-                        Thread.sleep(200);
-                        if (!mGoogleApiClient.isConnected())
-                            mGoogleApiClient.connect();
-                    } catch (InterruptedException e) {
-                        //eat
-                    }
-                    return null;
+                public void run() {
+                    if (!mGoogleApiClient.isConnected())
+                        mGoogleApiClient.connect();
                 }
-            };
-
-            task.execute();
+            }, delay / 1000f);
 
         } else
             isConnectionPending = false;
@@ -385,7 +426,7 @@ public class GpgsClient implements GoogleApiClient.ConnectionCallbacks, GoogleAp
             }
         };
 
-        task.execute();
+        execute(task, RequestPriority.USER_VISIBLE);
 
         return true;
 
@@ -461,7 +502,7 @@ public class GpgsClient implements GoogleApiClient.ConnectionCallbacks, GoogleAp
             }
         };
 
-        task.execute();
+        execute(task, RequestPriority.USER_VISIBLE);
 
         return true;
     }
@@ -571,7 +612,7 @@ public class GpgsClient implements GoogleApiClient.ConnectionCallbacks, GoogleAp
             }
         };
 
-        task.execute();
+        execute(task, RequestPriority.SAVE);
     }
 
     @NonNull
@@ -666,7 +707,7 @@ public class GpgsClient implements GoogleApiClient.ConnectionCallbacks, GoogleAp
             }
         };
 
-        task.execute();
+        execute(task, RequestPriority.USER_VISIBLE);
     }
 
     @Override
@@ -684,7 +725,7 @@ public class GpgsClient implements GoogleApiClient.ConnectionCallbacks, GoogleAp
             }
         };
 
-        task.execute();
+        execute(task, RequestPriority.SAVE);
 
         return true;
     }
@@ -742,7 +783,7 @@ public class GpgsClient implements GoogleApiClient.ConnectionCallbacks, GoogleAp
             }
         };
 
-        task.execute();
+        execute(task, RequestPriority.USER_VISIBLE);
 
         return true;
     }
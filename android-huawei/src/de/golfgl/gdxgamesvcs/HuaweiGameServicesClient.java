@@ -6,6 +6,7 @@ import android.text.TextUtils;
 import com.badlogic.gdx.backends.android.AndroidApplication;
 import com.badlogic.gdx.backends.android.AndroidEventListener;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectIntMap;
 import com.huawei.hmf.tasks.OnFailureListener;
 import com.huawei.hmf.tasks.OnSuccessListener;
 import com.huawei.hmf.tasks.Task;
@@ -26,6 +27,7 @@ import com.huawei.hms.jos.games.archive.ArchiveSummary;
 import com.huawei.hms.jos.games.archive.ArchiveSummaryUpdate;
 import com.huawei.hms.jos.games.archive.OperationResult;
 import com.huawei.hms.jos.games.player.Player;
+import com.huawei.hms.jos.games.ranking.RankingScore;
 import com.huawei.hms.support.api.entity.auth.Scope;
 import com.huawei.hms.support.hwid.HuaweiIdAuthManager;
 import com.huawei.hms.support.hwid.request.HuaweiIdAuthParams;
@@ -46,18 +48,26 @@ import de.golfgl.gdxgamesvcs.gamestate.IFetchGameStatesListResponseListener;
 import de.golfgl.gdxgamesvcs.gamestate.ILoadGameStateResponseListener;
 import de.golfgl.gdxgamesvcs.gamestate.ISaveGameStateResponseListener;
 import de.golfgl.gdxgamesvcs.leaderboard.IFetchLeaderBoardEntriesResponseListener;
+import de.golfgl.gdxgamesvcs.leaderboard.IFetchLeaderboardPageListener;
 import de.golfgl.gdxgamesvcs.leaderboard.ILeaderBoardEntry;
+import de.golfgl.gdxgamesvcs.leaderboard.ILeaderboardPagingClient;
+import de.golfgl.gdxgamesvcs.leaderboard.LeaderboardPage;
 
 /**
  * Client for Huawei Game Services
  * <p>
  * Created by Francesco Stranieri on 24.07.2020.
  */
-public class HuaweiGameServicesClient implements IGameServiceClient, AndroidEventListener {
+public class HuaweiGameServicesClient implements IGameServiceClient, AndroidEventListener,
+        ILeaderboardPagingClient {
 
     private final int HUAWEI_GAMESVCS_AUTH_REQUEST = 8971;
     private final int HUAWEI_GAMESVCS_ACHIEVEMENTS_REQUEST = 8972;
     private final int HUAWEI_GAMESVCS_LEADERBOARDS_REQUEST = 8973;
+    /**
+     * Maximum number of leaderboard entries fetched with one request
+     */
+    public static final int HUAWEI_MAX_PAGE_SIZE = 21;
 
     private AndroidApplication activity;
     private IGameServiceIdMapper<String> huaweiLeaderboardIdMapper;
@@ -68,6 +78,7 @@ public class HuaweiGameServicesClient implements IGameServiceClient, AndroidEven
     protected RankingsClient leaderboardsClient;
     protected EventsClient eventsClient;
     protected ArchivesClient archivesClient;
+    protected EventAggregator eventAggregator;
     private IGameServiceListener gsListener;
     private Player currentPlayer;
 
@@ -87,6 +98,17 @@ public class HuaweiGameServicesClient implements IGameServiceClient, AndroidEven
         this.leaderboardsClient = Games.getRankingsClient(this.activity);
         this.eventsClient = Games.getEventsClient(this.activity);
         this.archivesClient = Games.getArchiveClient(this.activity);
+        this.eventAggregator = new EventAggregator(new EventAggregator.IEventBatchSink() {
+            @Override
+            public boolean sendEvents(ObjectIntMap<String> events) {
+                if (!isSessionActive)
+                    return false;
+
+                for (ObjectIntMap.Entry<String> event : events)
+                    eventsClient.grow(event.key, event.value);
+                return true;
+            }
+        });
     }
 
     /**
@@ -193,6 +215,7 @@ public class HuaweiGameServicesClient implements IGameServiceClient, AndroidEven
 
     @Override
     public void pauseSession() {
+        this.eventAggregator.flush(true);
     }
 
     @Override
@@ -408,6 +431,68 @@ public class HuaweiGameServicesClient implements IGameServiceClient, AndroidEven
         });
     }
 
+    /**
+     * The page token is the rank of the previous page's last entry, the next page is loaded from there on.
+     */
+    @Override
+    public boolean fetchLeaderboardPage(String leaderBoardId, String pageToken, int pageSize,
+                                        boolean relatedToPlayer, final IFetchLeaderboardPageListener listener) {
+        if (!this.isSessionActive) {
+            return false;
+        }
+
+        if (this.huaweiLeaderboardIdMapper != null) {
+            leaderBoardId = huaweiLeaderboardIdMapper.mapToGsId(leaderBoardId);
+        }
+
+        final int maxResults = Math.max(1, Math.min(pageSize, HUAWEI_MAX_PAGE_SIZE));
+        final long offsetRank = pageToken != null ? Long.parseLong(pageToken) : 0;
+        Task<RankingsClient.RankingScores> task;
+
+        if (pageToken == null) {
+            task = relatedToPlayer
+                    ? this.leaderboardsClient.getPlayerCenteredRankingScores(leaderBoardId, 2, maxResults, true)
+                    : this.leaderboardsClient.getRankingTopScores(leaderBoardId, 2, maxResults, true);
+        } else {
+            // page direction 0 loads the ranks following the offset
+            task = relatedToPlayer
+                    ? this.leaderboardsClient.getPlayerCenteredRankingScores(leaderBoardId, 2, maxResults,
+                    offsetRank, 0)
+                    : this.leaderboardsClient.getRankingTopScores(leaderBoardId, 2, maxResults, offsetRank, 0);
+        }
+
+        task.addOnSuccessListener(new OnSuccessListener<RankingsClient.RankingScores>() {
+            @Override
+            public void onSuccess(RankingsClient.RankingScores rankingScores) {
+                List<RankingScore> scores = new ArrayList<>(rankingScores.getRankingScores());
+
+                // the entry at the offset was on the previous page
+                if (!scores.isEmpty() && scores.get(0).getPlayerRank() == offsetRank) {
+                    scores.remove(0);
+                }
+
+                String nextPageToken = null;
+                if (!scores.isEmpty() && rankingScores.getRankingScores().size() >= maxResults) {
+                    nextPageToken = String.valueOf(scores.get(scores.size() - 1).getPlayerRank());
+                }
+
+                listener.onLeaderboardPageResponse(new LeaderboardPage(
+                        HuaweiGameServicesUtils.getILeaderboardsEntriesList(scores, currentPlayer.getPlayerId(),
+                                (int) offsetRank), nextPageToken));
+            }
+        });
+
+        task.addOnFailureListener(new OnFailureListener() {
+            @Override
+            public void onFailure(Exception e) {
+                sendError(IGameServiceListener.GsErrorType.errorUnknown, e.getMessage(), e);
+                listener.onLeaderboardPageResponse(null);
+            }
+        });
+
+        return true;
+    }
+
     @Override
     public boolean submitEvent(String eventId, int increment) {
         if (!isSessionActive) {
@@ -418,7 +503,11 @@ public class HuaweiGameServicesClient implements IGameServiceClient, AndroidEven
             eventId = huaweiGameEventIdMapper.mapToGsId(eventId);
         }
 
-        this.eventsClient.grow(eventId, increment);
+        if (eventId == null) {
+            return false;
+        }
+
+        this.eventAggregator.addEvent(eventId, increment);
 
         return true;
     }
@@ -23,11 +23,18 @@ public class HuaweiGameServicesUtils {
 
     public static Array<ILeaderBoardEntry> getILeaderboardsEntriesList(RankingsClient.RankingScores rankingScores,
                                                                        String currentPlayerId) {
-        Array<ILeaderBoardEntry> list = new Array<>();
-        List<RankingScore> scores = rankingScores.getRankingScores();
+        return getILeaderboardsEntriesList(rankingScores.getRankingScores(), currentPlayerId, 0);
+    }
+
+    /**
+     * @param offset position of the first score in the whole leaderboard
+     */
+    public static Array<ILeaderBoardEntry> getILeaderboardsEntriesList(List<RankingScore> scores,
+                                                                       String currentPlayerId, int offset) {
+        Array<ILeaderBoardEntry> list = new Array<>(scores.size());
 
         for (int i = 0; i < scores.size(); i++) {
-            list.add(new HuaweiLeadeboardScore(scores.get(i), currentPlayerId, i));
+            list.add(new HuaweiLeadeboardScore(scores.get(i), currentPlayerId, offset + i));
         }
 
         return list;
@@ -0,0 +1,73 @@
+package de.golfgl.gdxgamesvcs;
+
+import com.badlogic.gdx.Net;
+import com.badlogic.gdx.net.HttpParametersUtils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building and signing GameJolt requests, done for every call to the GameJolt API
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class GameJoltRequestBenchmark {
+    private GameJoltClient client;
+    private Map<String, String> params;
+    private String signatureInput;
+
+    @Setup
+    public void setup() {
+        client = new GameJoltClient().initialize("263351", "0123456789abcdef0123456789abcdef");
+
+        params = new HashMap<String, String>();
+        params.put("game_id", "263351");
+        params.put("username", "benchmark player");
+        params.put("user_token", "a1b2c3");
+        params.put("table_id", "123456");
+        params.put("score", "12,345 points");
+        params.put("sort", "12345");
+        params.put("extra_data", "tag with spaces & special chars");
+
+        signatureInput = client.GJ_GATEWAY + "scores/add/?format=json&"
+                + HttpParametersUtils.convertHttpParameters(params) + "0123456789abcdef0123456789abcdef";
+    }
+
+    @Benchmark
+    public Net.HttpRequest buildJsonRequest() {
+        return client.buildJsonRequest("scores/add/", params);
+    }
+
+    @Benchmark
+    public Net.HttpRequest newJsonRequest() {
+        return client.newJsonRequest("scores/add/")
+                .param("game_id", "263351")
+                .param("username", "benchmark player")
+                .param("user_token", "a1b2c3")
+                .param("table_id", 123456)
+                .param("score", "12,345 points")
+                .param("sort", 12345)
+                .param("extra_data", "tag with spaces & special chars")
+                .build();
+    }
+
+    @Benchmark
+    public String md5() throws Exception {
+        return client.md5(signatureInput);
+    }
+
+    @Benchmark
+    public String convertHttpParameters() {
+        return HttpParametersUtils.convertHttpParameters(params);
+    }
+}
@@ -0,0 +1,87 @@
+package de.golfgl.gdxgamesvcs;
+
+import com.badlogic.gdx.utils.Array;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+import de.golfgl.gdxgamesvcs.achievement.IAchievement;
+import de.golfgl.gdxgamesvcs.leaderboard.ILeaderBoardEntry;
+import de.golfgl.gdxgamesvcs.leaderboard.LeaderboardColumns;
+
+/**
+ * Parsing GameJolt's score and trophy responses with {@link GameJoltClient}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class GameJoltResponseBenchmark {
+    @Param({"10", "100", "1000"})
+    public int entries;
+
+    private String scoresJson;
+    private String trophiesJson;
+    private GameJoltClient client;
+    private LeaderboardColumns columns;
+
+    @Setup
+    public void setup() {
+        client = new GameJoltClient() {
+            @Override
+            public String getPlayerDisplayName() {
+                return "player42";
+            }
+        };
+        columns = new LeaderboardColumns(entries);
+
+        StringBuilder scores = new StringBuilder("{\"response\":{\"success\":\"true\",\"scores\":[");
+        for (int i = 0; i < entries; i++) {
+            if (i > 0)
+                scores.append(',');
+            boolean guest = i % 5 == 0;
+            scores.append("{\"score\":\"").append(100000 - i).append(" points\",\"sort\":\"")
+                    .append(100000 - i).append("\",\"extra_data\":\"tag").append(i)
+                    .append("\",\"user\":\"").append(guest ? "" : "player" + i)
+                    .append("\",\"user_id\":\"").append(guest ? "" : String.valueOf(1000 + i))
+                    .append("\",\"guest\":\"").append(guest ? "guest" + i : "")
+                    .append("\",\"stored\":\"").append(i % 60).append(" minutes ago\"}");
+        }
+        scoresJson = scores.append("]}}").toString();
+
+        StringBuilder trophies = new StringBuilder("{\"response\":{\"success\":\"true\",\"trophies\":[");
+        for (int i = 0; i < entries; i++) {
+            if (i > 0)
+                trophies.append(',');
+            trophies.append("{\"id\":\"").append(10000 + i).append("\",\"title\":\"Trophy ").append(i)
+                    .append("\",\"description\":\"Description of trophy ").append(i)
+                    .append("\",\"difficulty\":\"Bronze\",\"image_url\":\"https://m.gjcdn.net/trophy/")
+                    .append(i).append(".png\",\"achieved\":\"").append(i % 2 == 0 ? "false" : "2 days ago")
+                    .append("\"}");
+        }
+        trophiesJson = trophies.append("]}}").toString();
+    }
+
+    @Benchmark
+    public Array<ILeaderBoardEntry> parseScores() {
+        return client.parseScores(scoresJson);
+    }
+
+    @Benchmark
+    public LeaderboardColumns parseScoresToColumns() {
+        client.parseScores(scoresJson, columns);
+        return columns;
+    }
+
+    @Benchmark
+    public Array<IAchievement> parseTrophies() {
+        return client.parseTrophies(trophiesJson);
+    }
+}
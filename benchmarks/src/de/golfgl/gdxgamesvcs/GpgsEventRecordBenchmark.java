@@ -0,0 +1,44 @@
+package de.golfgl.gdxgamesvcs;
+
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.JsonWriter;
+import com.badlogic.gdx.utils.ObjectIntMap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Assembling the JSON body the html {@link GpgsClient} sends when recording events
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class GpgsEventRecordBenchmark {
+    @Param({"1", "10", "50"})
+    public int eventCount;
+
+    private GpgsClient client;
+    private ObjectIntMap<String> events;
+
+    @Setup
+    public void setup() {
+        client = new GpgsClient();
+        events = new ObjectIntMap<String>();
+        for (int i = 0; i < eventCount; i++)
+            events.put("CgkIh7v9lJUaEAIQ" + i, i + 1);
+    }
+
+    @Benchmark
+    public String buildEventRecordRequest() {
+        JsonValue root = client.buildEventRecordRequest(events, 1500000000000L);
+        return root.toJson(JsonWriter.OutputType.json);
+    }
+}
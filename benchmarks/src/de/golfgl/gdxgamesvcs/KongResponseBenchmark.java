@@ -0,0 +1,55 @@
+package de.golfgl.gdxgamesvcs;
+
+import com.badlogic.gdx.utils.Array;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+import de.golfgl.gdxgamesvcs.leaderboard.ILeaderBoardEntry;
+
+/**
+ * Parsing Kongregate's high score responses with {@link KongClient}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class KongResponseBenchmark {
+    @Param({"10", "100", "1000"})
+    public int entries;
+
+    private String statsJson;
+    private KongClient client;
+
+    @Setup
+    public void setup() {
+        client = new KongClient() {
+            @Override
+            public String getPlayerDisplayName() {
+                return "player42";
+            }
+        };
+
+        StringBuilder stats = new StringBuilder("[[");
+        for (int i = 0; i < entries; i++) {
+            if (i > 0)
+                stats.append(',');
+            stats.append("{\"username\":\"player").append(i)
+                    .append("\",\"avatar_url\":\"https://cdn4.kongcdn.com/assets/avatars/").append(i)
+                    .append(".png\",\"score\":").append(100000 - i).append('}');
+        }
+        statsJson = stats.append("]]").toString();
+    }
+
+    @Benchmark
+    public Array<ILeaderBoardEntry> parseStats() {
+        return client.parseStats(statsJson, entries);
+    }
+}
@@ -2,26 +2,42 @@ package de.golfgl.gdxgamesvcs;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Net;
-import com.badlogic.gdx.net.HttpParametersUtils;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Base64Coder;
 import com.badlogic.gdx.utils.JsonReader;
 import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.ObjectIntMap;
 import com.badlogic.gdx.utils.Timer;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
-import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.util.HashMap;
 import java.util.Map;
 
 import de.golfgl.gdxgamesvcs.achievement.IAchievement;
 import de.golfgl.gdxgamesvcs.achievement.IFetchAchievementsResponseListener;
+import de.golfgl.gdxgamesvcs.gamestate.GameStateMetadata;
+import de.golfgl.gdxgamesvcs.gamestate.GameStateStreams;
+import de.golfgl.gdxgamesvcs.gamestate.IFetchGameStateMetadataListener;
 import de.golfgl.gdxgamesvcs.gamestate.IFetchGameStatesListResponseListener;
+import de.golfgl.gdxgamesvcs.gamestate.IGameStateMetadataClient;
+import de.golfgl.gdxgamesvcs.gamestate.IGameStateStreamingClient;
+import de.golfgl.gdxgamesvcs.gamestate.ILoadGameStateStreamListener;
 import de.golfgl.gdxgamesvcs.gamestate.ILoadGameStateResponseListener;
 import de.golfgl.gdxgamesvcs.gamestate.ISaveGameStateResponseListener;
 import de.golfgl.gdxgamesvcs.leaderboard.IFetchLeaderBoardEntriesResponseListener;
+import de.golfgl.gdxgamesvcs.leaderboard.IFetchLeaderboardColumnsListener;
+import de.golfgl.gdxgamesvcs.leaderboard.IFetchLeaderboardPageListener;
 import de.golfgl.gdxgamesvcs.leaderboard.ILeaderBoardEntry;
+import de.golfgl.gdxgamesvcs.leaderboard.ILeaderboardColumnsClient;
+import de.golfgl.gdxgamesvcs.leaderboard.ILeaderboardPagingClient;
+import de.golfgl.gdxgamesvcs.leaderboard.LeaderboardColumns;
+import de.golfgl.gdxgamesvcs.leaderboard.LeaderboardPage;
+import de.golfgl.gdxgamesvcs.net.IHttpTransport;
+import de.golfgl.gdxgamesvcs.net.RequestPriority;
+import de.golfgl.gdxgamesvcs.net.RequestScheduler;
 
 /**
  * GameServiceClient for GameJolt API
@@ -36,14 +52,22 @@ import de.golfgl.gdxgamesvcs.leaderboard.ILeaderBoardEntry;
  * Created by Benjamin Schulte on 17.06.2017.
  */
 
-public class GameJoltClient implements IGameServiceClient {
+public class GameJoltClient implements IGameServiceClient, IGameStateStreamingClient,
+        IGameStateMetadataClient, ILeaderboardPagingClient, ILeaderboardColumnsClient {
     public static final String GAMESERVICE_ID = IGameServiceClient.GS_GAMEJOLT_ID;
     public static final String GJ_USERNAME_PARAM = "gjapi_username";
     public static final String GJ_USERTOKEN_PARAM = "gjapi_token";
+    /**
+     * Prefix of the data store keys the progress values of game states are stored in
+     */
+    public static final String PROGRESS_KEY_PREFIX = "_progress_";
     protected static final int GJ_PING_INTERVAL = 30;
+    protected static final int GJ_MAX_SCORES_LIMIT = 100;
 
     // This is not static and not final for overriding reasons
     public String GJ_GATEWAY = "https://gamejolt.com/api/game/v1/";
+    // paging leaderboards needs the worse_than parameter introduced with API version 1.2
+    public String GJ_GATEWAY_V1_2 = "https://api.gamejolt.com/api/game/v1_2/";
     protected IGameServiceListener gsListener;
     protected String userName;
     protected String userToken;
@@ -55,6 +79,10 @@ public class GameJoltClient implements IGameServiceClient {
     protected IGameServiceIdMapper<Integer> scoreTableMapper;
     protected IGameServiceIdMapper<Integer> trophyMapper;
     protected Timer.Task pingTask;
+    protected EventAggregator eventAggregator;
+    protected RequestScheduler requestScheduler;
+    protected IHttpTransport httpTransport;
+    protected final GjRequestSigner requestSigner = new GjRequestSigner();
     private String eventKeyPrefix;
     private String guestName;
 
@@ -95,6 +123,32 @@ public class GameJoltClient implements IGameServiceClient {
         return this;
     }
 
+    /**
+     * sets the scheduler requests to GameJolt are made through. Default is {@link RequestScheduler#getDefault()}
+     *
+     * @return this for method chaining
+     */
+    public GameJoltClient setRequestScheduler(RequestScheduler requestScheduler) {
+        this.requestScheduler = requestScheduler;
+        return this;
+    }
+
+    /**
+     * sets the transport requests to GameJolt are sent with. Default is the request scheduler's transport, see
+     * {@link RequestScheduler#setHttpTransport(IHttpTransport)}
+     *
+     * @return this for method chaining
+     */
+    public GameJoltClient setHttpTransport(IHttpTransport httpTransport) {
+        this.httpTransport = httpTransport;
+        return this;
+    }
+
+    protected void sendHttpRequest(RequestPriority priority, Net.HttpRequest http,
+                                   Net.HttpResponseListener listener) {
+        RequestScheduler scheduler = requestScheduler != null ? requestScheduler : RequestScheduler.getDefault();
+        scheduler.sendHttpRequest(GAMESERVICE_ID, priority, httpTransport, http, listener);
+    }
 
     public String getUserToken() {
         return userToken;
@@ -187,16 +241,13 @@ public class GameJoltClient implements IGameServiceClient {
             return false;
         }
 
-        Map<String, String> params = new HashMap<String, String>();
-        addGameIDUserNameUserToken(params);
-
-        final Net.HttpRequest http = buildJsonRequest("users/auth/", params);
+        final Net.HttpRequest http = addGameIDUserNameUserToken(newJsonRequest("users/auth/")).build();
         if (http == null)
             return false;
 
         connectionPending = true;
 
-        Gdx.net.sendHttpRequest(http, new Net.HttpResponseListener() {
+        sendHttpRequest(RequestPriority.USER_VISIBLE, http, new Net.HttpResponseListener() {
             @Override
             public void handleHttpResponse(Net.HttpResponse httpResponse) {
                 connectionPending = false;
@@ -248,13 +299,10 @@ public class GameJoltClient implements IGameServiceClient {
         if (!isSessionActive())
             return;
 
-        Map<String, String> params = new HashMap<String, String>();
-        addGameIDUserNameUserToken(params);
-
-        final Net.HttpRequest http = buildJsonRequest("sessions/open/", params);
+        final Net.HttpRequest http = addGameIDUserNameUserToken(newJsonRequest("sessions/open/")).build();
 
         if (http != null)
-            Gdx.net.sendHttpRequest(http, new NoOpResponseListener());
+            sendHttpRequest(RequestPriority.ANALYTICS, http, new NoOpResponseListener());
 
         pingTask = Timer.schedule(new Timer.Task() {
             @Override
@@ -269,13 +317,10 @@ public class GameJoltClient implements IGameServiceClient {
         if (!isSessionActive())
             return;
 
-        Map<String, String> params = new HashMap<String, String>();
-        addGameIDUserNameUserToken(params);
-
-        final Net.HttpRequest http = buildJsonRequest("sessions/ping/", params);
+        final Net.HttpRequest http = addGameIDUserNameUserToken(newJsonRequest("sessions/ping/")).build();
 
         if (http != null)
-            Gdx.net.sendHttpRequest(http, new NoOpResponseListener());
+            sendHttpRequest(RequestPriority.ANALYTICS, http, new NoOpResponseListener());
 
     }
 
@@ -296,6 +341,9 @@ public class GameJoltClient implements IGameServiceClient {
         if (pingTask != null)
             pingTask.cancel();
 
+        if (eventAggregator != null)
+            eventAggregator.flush(true);
+
         sendCloseSessionEvent();
 
         connected = false;
@@ -308,13 +356,10 @@ public class GameJoltClient implements IGameServiceClient {
         if (!isSessionActive())
             return;
 
-        Map<String, String> params = new HashMap<String, String>();
-        addGameIDUserNameUserToken(params);
-
-        final Net.HttpRequest http = buildJsonRequest("sessions/close/", params);
+        final Net.HttpRequest http = addGameIDUserNameUserToken(newJsonRequest("sessions/close/")).build();
 
         if (http != null)
-            Gdx.net.sendHttpRequest(http, new NoOpResponseListener());
+            sendHttpRequest(RequestPriority.ANALYTICS, http, new NoOpResponseListener());
 
     }
 
@@ -356,37 +401,21 @@ public class GameJoltClient implements IGameServiceClient {
         if (!isSessionActive())
             return false;
 
-        Map<String, String> params = new HashMap<String, String>();
-        addGameIDUserNameUserToken(params);
-
-        final Net.HttpRequest http = buildJsonRequest("trophies/", params);
+        final Net.HttpRequest http = addGameIDUserNameUserToken(newJsonRequest("trophies/")).build();
 
         if (http == null)
             return false;
 
-        Gdx.net.sendHttpRequest(http, new Net.HttpResponseListener() {
+        sendHttpRequest(RequestPriority.USER_VISIBLE, http, new Net.HttpResponseListener() {
             @Override
             public void handleHttpResponse(Net.HttpResponse httpResponse) {
 
-                JsonValue response = null;
                 String json = httpResponse.getResultAsString();
                 try {
-                    response = new JsonReader().parse(json).get("response");
-
-                    if (response == null || !response.getBoolean("success")) {
+                    Array<IAchievement> achs = parseTrophies(json);
+                    if (achs == null)
                         Gdx.app.error(GAMESERVICE_ID, "Could not parse answer from GameJolt: " + json);
-                        callback.onFetchAchievementsResponse(null);
-                    } else {
-
-                        JsonValue trophies = response.get("trophies");
-                        Array<IAchievement> achs = new Array<IAchievement>();
-                        for (JsonValue trophy = trophies.child; trophy != null; trophy = trophy.next) {
-                            IAchievement ach = achievementJsonToObject(trophy);
-                            if (ach != null)
-                                achs.add(ach);
-                        }
-                        callback.onFetchAchievementsResponse(achs);
-                    }
+                    callback.onFetchAchievementsResponse(achs);
                 } catch (Throwable t) {
                     Gdx.app.error(GAMESERVICE_ID, "Could not parse answer from GameJolt " + json, t);
                     callback.onFetchAchievementsResponse(null);
@@ -407,6 +436,25 @@ public class GameJoltClient implements IGameServiceClient {
         return true;
     }
 
+    /**
+     * Parses GameJolt's answer to a trophies fetch
+     *
+     * @return the trophies, or null if the answer is no success
+     */
+    protected Array<IAchievement> parseTrophies(String json) {
+        JsonValue response = new JsonReader().parse(json).get("response");
+        if (response == null || !response.getBoolean("success"))
+            return null;
+
+        Array<IAchievement> achs = new Array<IAchievement>();
+        for (JsonValue trophy = response.get("trophies").child; trophy != null; trophy = trophy.next) {
+            IAchievement ach = achievementJsonToObject(trophy);
+            if (ach != null)
+                achs.add(ach);
+        }
+        return achs;
+    }
+
     protected GjTrophy achievementJsonToObject(JsonValue trophy) {
         GjTrophy ach = GjTrophy.fromJson(trophy);
         ach.setTrophyMapper(trophyMapper);
@@ -434,28 +482,27 @@ public class GameJoltClient implements IGameServiceClient {
         if (boardId == null)
             return false;
 
-        Map<String, String> params = new HashMap<String, String>();
+        GjRequestBuilder request = newJsonRequest("scores/add/");
 
         if (isSessionActive())
-            addGameIDUserNameUserToken(params);
+            addGameIDUserNameUserToken(request);
         else if (guestName != null) {
-            params.put("game_id", gjAppId);
-            params.put("guest", guestName);
+            request.param("game_id", gjAppId);
+            request.param("guest", guestName);
         } else {
             Gdx.app.log(GAMESERVICE_ID, "Cannot post to scoreboard. No guest name and no user given.");
             return false;
         }
-        params.put("score", String.valueOf(score));
-        params.put("sort", String.valueOf(score));
-        if (tag != null)
-            params.put("extra_data", tag);
-        params.put("table_id", boardId.toString());
+        request.param("score", score);
+        request.param("sort", score);
+        request.param("extra_data", tag);
+        request.param("table_id", boardId.intValue());
 
-        final Net.HttpRequest http = buildJsonRequest("scores/add/", params);
+        final Net.HttpRequest http = request.build();
         if (http == null)
             return false;
 
-        Gdx.net.sendHttpRequest(http, new NoOpResponseListener());
+        sendHttpRequest(RequestPriority.SAVE, http, new NoOpResponseListener());
 
         return true;
     }
@@ -468,69 +515,292 @@ public class GameJoltClient implements IGameServiceClient {
             return false;
         }
 
-        Map<String, String> params = new HashMap<String, String>();
+        final Net.HttpRequest http = addFetchScoresParams(newJsonRequest("scores/"), leaderBoardId, limit,
+                relatedToPlayer).build();
+        if (http == null)
+            return false;
+
+        sendHttpRequest(RequestPriority.USER_VISIBLE, http, new Net.HttpResponseListener() {
+            @Override
+            public void handleHttpResponse(Net.HttpResponse httpResponse) {
+
+                String json = httpResponse.getResultAsString();
+                try {
+                    Array<ILeaderBoardEntry> les = parseScores(json);
+                    if (les == null)
+                        Gdx.app.error(GAMESERVICE_ID, "Could not parse answer from GameJolt: " + json);
+                    callback.onLeaderBoardResponse(les);
+                } catch (Throwable t) {
+                    Gdx.app.error(GAMESERVICE_ID, "Could not parse answer from GameJolt: " + json, t);
+                    callback.onLeaderBoardResponse(null);
+                }
+            }
+
+            @Override
+            public void failed(Throwable t) {
+                callback.onLeaderBoardResponse(null);
+            }
+
+            @Override
+            public void cancelled() {
+                callback.onLeaderBoardResponse(null);
+            }
+        });
+
+        return true;
+    }
+
+    /**
+     * Fetches scores like {@link #fetchLeaderboardEntries(String, int, boolean,
+     * IFetchLeaderBoardEntriesResponseListener)}, but parses them directly into the columns
+     */
+    @Override
+    public boolean fetchLeaderboardColumns(String leaderBoardId, int limit, boolean relatedToPlayer,
+                                           final LeaderboardColumns target,
+                                           final IFetchLeaderboardColumnsListener listener) {
+        if (!initialized) {
+            Gdx.app.error(GAMESERVICE_ID, "Cannot fetch leaderboard: set app ID via initialize() first");
+            return false;
+        }
+
+        final Net.HttpRequest http = addFetchScoresParams(newJsonRequest("scores/"), leaderBoardId, limit,
+                relatedToPlayer).build();
+        if (http == null)
+            return false;
+
+        sendHttpRequest(RequestPriority.USER_VISIBLE, http, new Net.HttpResponseListener() {
+            @Override
+            public void handleHttpResponse(Net.HttpResponse httpResponse) {
+                String json = httpResponse.getResultAsString();
+                try {
+                    if (!parseScores(json, target)) {
+                        Gdx.app.error(GAMESERVICE_ID, "Could not parse answer from GameJolt: " + json);
+                        listener.onLeaderboardColumnsResponse(null);
+                        return;
+                    }
+                } catch (Throwable t) {
+                    Gdx.app.error(GAMESERVICE_ID, "Could not parse answer from GameJolt: " + json, t);
+                    listener.onLeaderboardColumnsResponse(null);
+                    return;
+                }
+                listener.onLeaderboardColumnsResponse(target);
+            }
+
+            @Override
+            public void failed(Throwable t) {
+                listener.onLeaderboardColumnsResponse(null);
+            }
+
+            @Override
+            public void cancelled() {
+                listener.onLeaderboardColumnsResponse(null);
+            }
+        });
+
+        return true;
+    }
+
+    /**
+     * Parses GameJolt's answer to a scores fetch
+     *
+     * @return the entries, or null if the answer is no success
+     */
+    protected Array<ILeaderBoardEntry> parseScores(String json) {
+        JsonValue response = new JsonReader().parse(json).get("response");
+        if (response == null || !response.getBoolean("success"))
+            return null;
+
+        int rank = 0;
+        Array<ILeaderBoardEntry> les = new Array<ILeaderBoardEntry>();
+        for (JsonValue score = response.get("scores").child; score != null; score = score.next) {
+            rank++;
+            ILeaderBoardEntry gje = scoreJsonToObject(rank, score);
+            if (gje != null)
+                les.add(gje);
+        }
+        return les;
+    }
+
+    /**
+     * Parses GameJolt's answer to a scores fetch into the columns, replacing their content
+     *
+     * @return false if the answer is no success
+     */
+    protected boolean parseScores(String json, LeaderboardColumns target) {
+        JsonValue response = new JsonReader().parse(json).get("response");
+        if (response == null || !response.getBoolean("success"))
+            return false;
+
+        String currentPlayer = getPlayerDisplayName();
+        target.clear();
+        int rank = 0;
+        for (JsonValue score = response.get("scores").child; score != null; score = score.next) {
+            rank++;
+            GjScoreboardEntry.addToColumns(score, rank, currentPlayer, target);
+        }
+        return true;
+    }
+
+    /**
+     * adds the parameters of a scores fetch to the request. This method is for overriding purposes
+     */
+    protected GjRequestBuilder addFetchScoresParams(GjRequestBuilder request, String leaderBoardId, int limit,
+                                                    boolean relatedToPlayer) {
         // http://gamejolt.com/api/doc/game/scores/fetch
         if (relatedToPlayer && isSessionActive())
-            addGameIDUserNameUserToken(params);
+            addGameIDUserNameUserToken(request);
         else
-            params.put("game_id", gjAppId);
+            request.param("game_id", gjAppId);
 
-        params.put("limit", String.valueOf(limit));
+        request.param("limit", limit);
 
         if (leaderBoardId != null) {
             Integer boardId = scoreTableMapper.mapToGsId(leaderBoardId);
             if (boardId != null)
-                params.put("table_id", String.valueOf(boardId));
+                request.param("table_id", boardId.intValue());
+        }
+
+        return request;
+    }
+
+    /**
+     * Fetches the next page with the worse_than parameter, starting after the sort value of the previous page's last
+     * entry. The page token holds this sort value, the rank of the last entry, the number of entries with the same
+     * sort value already shown and the direction of the table, if known. With a known direction, the next page
+     * starts with the entries sharing the last sort value and those already shown are skipped. Without a known
+     * direction, all entries shown so far share one sort value at the top of the table, so the next page is fetched
+     * from the top and all of them are skipped.
+     * <p>
+     * GameJolt returns at most 100 scores per request, so if 100 or more entries share a sort value, the ones not
+     * returned can't be fetched. The next page then starts after them, and the ranks following them are too low.
+     *
+     * @throws IllegalArgumentException if the page token is invalid
+     */
+    @Override
+    public boolean fetchLeaderboardPage(String leaderBoardId, String pageToken, final int pageSize,
+                                        boolean relatedToPlayer, final IFetchLeaderboardPageListener listener) {
+        if (!initialized) {
+            Gdx.app.error(GAMESERVICE_ID, "Cannot fetch leaderboard: set app ID via initialize() first");
+            return false;
+        }
+
+        final long lastSort;
+        final int lastRank;
+        final int shownTies;
+        final int direction;
+        if (pageToken != null) {
+            String[] token = pageToken.split(":");
+            try {
+                if (token.length != 4)
+                    throw new NumberFormatException();
+                lastSort = Long.parseLong(token[0]);
+                lastRank = Integer.parseInt(token[1]);
+                shownTies = Integer.parseInt(token[2]);
+                direction = Integer.parseInt(token[3]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid page token " + pageToken);
+            }
+        } else {
+            lastSort = 0;
+            lastRank = 0;
+            shownTies = 0;
+            direction = 0;
         }
 
-        final Net.HttpRequest http = buildJsonRequest("scores/", params);
+        // tied entries a request can't reach anymore are passed over, otherwise all returned entries would be skipped
+        boolean passTies = shownTies >= GJ_MAX_SCORES_LIMIT;
+        if (passTies)
+            Gdx.app.log(GAMESERVICE_ID, GJ_MAX_SCORES_LIMIT + " or more scores of " + lastSort
+                    + ", continuing with worse scores");
+
+        final int skip = passTies ? 0 : shownTies;
+        final int limit = Math.min(GJ_MAX_SCORES_LIMIT, pageSize + skip);
+        GjRequestBuilder request = addFetchScoresParams(newRequest(GJ_GATEWAY_V1_2, "scores/", "json"),
+                leaderBoardId, limit, relatedToPlayer);
+        if (passTies)
+            request.param("worse_than", lastSort);
+        else if (direction != 0)
+            // worse than a value one better than the last one includes entries with the last sort value
+            request.param("worse_than", lastSort + direction);
+
+        final Net.HttpRequest http = request.build();
         if (http == null)
             return false;
 
-        Gdx.net.sendHttpRequest(http, new Net.HttpResponseListener() {
+        sendHttpRequest(RequestPriority.USER_VISIBLE, http, new Net.HttpResponseListener() {
             @Override
             public void handleHttpResponse(Net.HttpResponse httpResponse) {
-
-                JsonValue response = null;
                 String json = httpResponse.getResultAsString();
                 try {
-                    response = new JsonReader().parse(json).get("response");
+                    JsonValue response = new JsonReader().parse(json).get("response");
 
                     if (response == null || !response.getBoolean("success")) {
                         Gdx.app.error(GAMESERVICE_ID, "Could not parse answer from GameJolt: " + json);
-                        callback.onLeaderBoardResponse(null);
-                    } else {
-                        JsonValue scores = response.get("scores");
-                        int rank = 0;
-                        Array<ILeaderBoardEntry> les = new Array<ILeaderBoardEntry>();
-                        for (JsonValue score = scores.child; score != null; score = score.next) {
-                            rank++;
-                            ILeaderBoardEntry gje = scoreJsonToObject(rank, score);
-                            if (gje != null)
-                                les.add(gje);
+                        listener.onLeaderboardPageResponse(null);
+                        return;
+                    }
+
+                    JsonValue scores = response.get("scores");
+                    Array<ILeaderBoardEntry> entries = new Array<ILeaderBoardEntry>(pageSize);
+                    int received = 0;
+                    int skipped = 0;
+                    for (JsonValue score = scores.child; score != null && entries.size < pageSize;
+                         score = score.next) {
+                        received++;
+                        if (skipped < skip && score.getLong("sort") == lastSort) {
+                            skipped++;
+                            continue;
                         }
-                        callback.onLeaderBoardResponse(les);
+                        ILeaderBoardEntry gje = scoreJsonToObject(lastRank + entries.size + 1, score);
+                        if (gje != null)
+                            entries.add(gje);
                     }
+
+                    String nextPageToken = null;
+                    if (scores.size >= limit && entries.size > 0)
+                        nextPageToken = buildNextPageToken(entries, lastSort, lastRank, shownTies, direction);
+
+                    listener.onLeaderboardPageResponse(new LeaderboardPage(entries, nextPageToken));
                 } catch (Throwable t) {
                     Gdx.app.error(GAMESERVICE_ID, "Could not parse answer from GameJolt: " + json, t);
-                    callback.onLeaderBoardResponse(null);
+                    listener.onLeaderboardPageResponse(null);
                 }
             }
 
             @Override
             public void failed(Throwable t) {
-                callback.onLeaderBoardResponse(null);
+                listener.onLeaderboardPageResponse(null);
             }
 
             @Override
             public void cancelled() {
-                callback.onLeaderBoardResponse(null);
+                listener.onLeaderboardPageResponse(null);
             }
         });
 
         return true;
     }
 
+    protected static String buildNextPageToken(Array<ILeaderBoardEntry> entries, long lastSort, int lastRank,
+                                               int shownTies, int direction) {
+        long first = entries.first().getSortValue();
+        long last = entries.peek().getSortValue();
+
+        if (direction == 0) {
+            long previous = lastRank > 0 ? lastSort : first;
+            if (previous != last)
+                direction = previous > last ? 1 : -1;
+        }
+
+        int ties = 0;
+        for (int i = entries.size - 1; i >= 0 && entries.get(i).getSortValue() == last; i--)
+            ties++;
+        if (ties == entries.size && lastRank > 0 && last == lastSort)
+            ties += shownTies;
+
+        return last + ":" + (lastRank + entries.size) + ":" + ties + ":" + direction;
+    }
+
     /**
      * converts GameJolt's scoreboard return json to our own data type. This method is for overriding purposes
      */
@@ -567,6 +837,32 @@ public class GameJoltClient implements IGameServiceClient {
         return this;
     }
 
+    /**
+     * Events are summed up and sent in intervals, so high-frequency events do not cause a request every time.
+     * Set the time increments are collected before they are sent to the data store. Default is 5 seconds.
+     * Pending events are sent on {@link #pauseSession()}, regardless of this setting.
+     *
+     * @param eventFlushDelay delay in seconds, 0 to send events immediately
+     */
+    public GameJoltClient setEventFlushDelay(float eventFlushDelay) {
+        getEventAggregator().setFlushDelay(eventFlushDelay);
+        return this;
+    }
+
+    protected EventAggregator getEventAggregator() {
+        if (eventAggregator == null)
+            eventAggregator = new EventAggregator(new EventAggregator.IEventBatchSink() {
+                @Override
+                public boolean sendEvents(ObjectIntMap<String> events) {
+                    for (ObjectIntMap.Entry<String> event : events)
+                        sendEventIncrement(event.key, event.value);
+                    return true;
+                }
+            });
+
+        return eventAggregator;
+    }
+
     @Override
     public boolean submitEvent(String eventId, int increment) {
 
@@ -579,21 +875,23 @@ public class GameJoltClient implements IGameServiceClient {
             return false;
         }
 
-        Map<String, String> params = new HashMap<String, String>();
-        // no user name or token added! We want to use the global storage.
-        // http://gamejolt.com/api/doc/game/data-store/update
-        params.put("game_id", gjAppId);
-        params.put("key", eventKeyPrefix + eventId);
-        params.put("value", Integer.toString(increment));
-        params.put("operation", "add");
+        getEventAggregator().addEvent(eventId, increment);
 
-        final Net.HttpRequest http = buildJsonRequest("data-store/update/", params);
-        if (http == null)
-            return false;
+        return true;
+    }
 
-        Gdx.net.sendHttpRequest(http, new NoOpResponseListener());
+    protected void sendEventIncrement(String eventId, int increment) {
+        // no user name or token added! We want to use the global storage.
+        // http://gamejolt.com/api/doc/game/data-store/update
+        final Net.HttpRequest http = newJsonRequest("data-store/update/")
+                .param("game_id", gjAppId)
+                .param("key", eventKeyPrefix + eventId)
+                .param("value", increment)
+                .param("operation", "add")
+                .build();
 
-        return true;
+        if (http != null)
+            sendHttpRequest(RequestPriority.ANALYTICS, http, new NoOpResponseListener());
     }
 
     /**
@@ -616,7 +914,7 @@ public class GameJoltClient implements IGameServiceClient {
         Net.HttpRequest http = buildStoreDataRequest(eventKeyPrefix + eventId, true, "0");
 
         if (http != null)
-            Gdx.net.sendHttpRequest(http, new NoOpResponseListener());
+            sendHttpRequest(RequestPriority.ANALYTICS, http, new NoOpResponseListener());
 
     }
 
@@ -636,15 +934,13 @@ public class GameJoltClient implements IGameServiceClient {
         if (trophyId == null)
             return false;
 
-        Map<String, String> params = new HashMap<String, String>();
-        addGameIDUserNameUserToken(params);
-        params.put("trophy_id", String.valueOf(trophyId));
-
-        final Net.HttpRequest http = buildJsonRequest("trophies/add-achieved/", params);
+        final Net.HttpRequest http = addGameIDUserNameUserToken(newJsonRequest("trophies/add-achieved/"))
+                .param("trophy_id", trophyId.intValue())
+                .build();
         if (http == null)
             return false;
 
-        Gdx.net.sendHttpRequest(http, new NoOpResponseListener());
+        sendHttpRequest(RequestPriority.SAVE, http, new NoOpResponseListener());
 
         return true;
     }
@@ -660,19 +956,46 @@ public class GameJoltClient implements IGameServiceClient {
 
     @Override
     public void saveGameState(String fileId, byte[] gameState, long progressValue,
+                              ISaveGameStateResponseListener listener) {
+        saveGameState(fileId, new ByteArrayInputStream(gameState), gameState.length, progressValue, listener);
+    }
+
+    /**
+     * The data store needs the whole game state in a single request, so it is held in memory Base64-encoded. It is
+     * encoded chunk by chunk while reading the stream, without an intermediate copy of the raw game state.
+     * <p>
+     * The progress value is additionally stored in its own key after saving succeeded, so it can be fetched
+     * by {@link #fetchGameStateMetadata(String, IFetchGameStateMetadataListener)} without loading the game state.
+     */
+    @Override
+    public void saveGameState(final String fileId, InputStream gameState, long length, final long progressValue,
                               final ISaveGameStateResponseListener listener) {
-        if (!isSessionActive()) {
+        String content;
+        try {
+            if (!isSessionActive()) {
+                if (listener != null)
+                    listener.onGameStateSaved(false, "NOT_CONNECTED");
+                return;
+            }
+
+            // progressValue is checked before overwriting by ConflictResolvingGameServiceClient
+            content = encodeGameState(gameState, length, progressValue);
+        } catch (IOException e) {
+            Gdx.app.error(GAMESERVICE_ID, "Error reading gamestate", e);
             if (listener != null)
-                listener.onGameStateSaved(false, "NOT_CONNECTED");
+                listener.onGameStateSaved(false, "READ_ERROR");
             return;
+        } finally {
+            try {
+                gameState.close();
+            } catch (IOException e) {
+                // ignore
+            }
         }
 
-        //TODO progressValue is saved for future use, but should be checked before overwriting existing values
-
-        Net.HttpRequest http = buildStoreDataRequest(fileId, false,
-                Long.toString(progressValue) + "\n" + new String(Base64Coder.encode(gameState)));
+        Net.HttpRequest http = buildStoreDataRequest(fileId, false, content);
 
-        Gdx.net.sendHttpRequest(http, new Net.HttpResponseListener() {
+        sendHttpRequest(RequestPriority.SAVE, http, new Net.HttpResponseListener() {
             @Override
             public void handleHttpResponse(Net.HttpResponse httpResponse) {
                 String json = httpResponse.getResultAsString();
@@ -680,6 +1003,9 @@ public class GameJoltClient implements IGameServiceClient {
 
                 if (!success)
                     Gdx.app.error(GAMESERVICE_ID, "Error saving gamestate: " + json);
+                else
+                    sendHttpRequest(RequestPriority.SAVE, buildStoreDataRequest(PROGRESS_KEY_PREFIX + fileId, false,
+                            Long.toString(progressValue)), new NoOpResponseListener());
 
                 if (listener != null)
                     listener.onGameStateSaved(success, null);
@@ -701,6 +1027,29 @@ public class GameJoltClient implements IGameServiceClient {
         });
     }
 
+    /**
+     * @return progress value and Base64-encoded game state, separated by a line break
+     */
+    protected String encodeGameState(InputStream gameState, long length, long progressValue) throws IOException {
+        StringBuilder content = new StringBuilder(length > 0 ? (int) (length * 4 / 3) + 24 : 1024);
+        content.append(progressValue).append('\n');
+
+        // multiple of 3, so chunks are encoded without padding
+        byte[] buffer = new byte[3 * 1024];
+        int filled;
+        do {
+            filled = 0;
+            int read;
+            while (filled < buffer.length && (read = gameState.read(buffer, filled, buffer.length - filled)) > 0)
+                filled += read;
+
+            if (filled > 0)
+                content.append(Base64Coder.encode(buffer, 0, filled, Base64Coder.regularMap));
+        } while (filled == buffer.length);
+
+        return content.toString();
+    }
+
     /**
      * Helper method when just interested if GameJolt request was successful
      */
@@ -722,16 +1071,19 @@ public class GameJoltClient implements IGameServiceClient {
         if (!isSessionActive())
             return false;
 
-        Map<String, String> params = new HashMap<String, String>();
-
-        addGameIDUserNameUserToken(params);
-        params.put("key", fileId);
-
-        final Net.HttpRequest http = buildJsonRequest("data-store/remove/", params);
+        final Net.HttpRequest http = addGameIDUserNameUserToken(newJsonRequest("data-store/remove/"))
+                .param("key", fileId)
+                .build();
         if (http == null)
             return false;
 
-        Gdx.net.sendHttpRequest(http, new Net.HttpResponseListener() {
+        Net.HttpRequest progressHttp = addGameIDUserNameUserToken(newJsonRequest("data-store/remove/"))
+                .param("key", PROGRESS_KEY_PREFIX + fileId)
+                .build();
+        if (progressHttp != null)
+            sendHttpRequest(RequestPriority.SAVE, progressHttp, new NoOpResponseListener());
+
+        sendHttpRequest(RequestPriority.SAVE, http, new Net.HttpResponseListener() {
             @Override
             public void handleHttpResponse(Net.HttpResponse httpResponse) {
                 String json = httpResponse.getResultAsString();
@@ -768,15 +1120,11 @@ public class GameJoltClient implements IGameServiceClient {
         if (!isSessionActive())
             return false;
 
-        Map<String, String> params = new HashMap<String, String>();
-
-        addGameIDUserNameUserToken(params);
-
-        final Net.HttpRequest http = buildJsonRequest("data-store/get-keys/", params);
+        final Net.HttpRequest http = addGameIDUserNameUserToken(newJsonRequest("data-store/get-keys/")).build();
         if (http == null)
             return false;
 
-        Gdx.net.sendHttpRequest(http, new Net.HttpResponseListener() {
+        sendHttpRequest(RequestPriority.USER_VISIBLE, http, new Net.HttpResponseListener() {
             @Override
             public void handleHttpResponse(Net.HttpResponse httpResponse) {
                 JsonValue response = null;
@@ -792,7 +1140,9 @@ public class GameJoltClient implements IGameServiceClient {
                         JsonValue keysObj = response.get("keys");
                         Array<String> keysArr = new Array<String>();
                         for (JsonValue keyObj = keysObj.child; keyObj != null; keyObj = keyObj.next) {
-                            keysArr.add(keyObj.getString("key"));
+                            String key = keyObj.getString("key");
+                            if (!key.startsWith(PROGRESS_KEY_PREFIX))
+                                keysArr.add(key);
                         }
                         callback.onFetchGameStatesListResponse(keysArr);
                     }
@@ -835,19 +1185,100 @@ public class GameJoltClient implements IGameServiceClient {
         }
     }
 
+    @Override
+    public boolean fetchGameStateMetadata(final String fileId, final IFetchGameStateMetadataListener listener) {
+        if (!isSessionActive())
+            return false;
+
+        sendHttpRequest(RequestPriority.SAVE, buildLoadDataRequest(PROGRESS_KEY_PREFIX + fileId, false),
+                new Net.HttpResponseListener() {
+                    @Override
+                    public void handleHttpResponse(Net.HttpResponse httpResponse) {
+                        String response = httpResponse.getResultAsString();
+
+                        if (response == null || !response.startsWith("SUCCESS")) {
+                            // no progress key, game state was saved by an older version or does not exist
+                            fetchGameStateMetadataFromData(fileId, listener);
+                            return;
+                        }
+
+                        GameStateMetadata metadata = null;
+                        try {
+                            metadata = new GameStateMetadata(fileId, true,
+                                    Long.parseLong(response.substring(response.indexOf('\n') + 1).trim()), 0);
+                        } catch (NumberFormatException e) {
+                            Gdx.app.error(GAMESERVICE_ID, "Invalid progress value: " + response);
+                        }
+                        listener.onGameStateMetadataResponse(metadata);
+                    }
+
+                    @Override
+                    public void failed(Throwable t) {
+                        Gdx.app.error(GAMESERVICE_ID, "Gamestate metadata load failed", t);
+                        listener.onGameStateMetadataResponse(null);
+                    }
+
+                    @Override
+                    public void cancelled() {
+                        listener.onGameStateMetadataResponse(null);
+                    }
+                });
+
+        return true;
+    }
+
+    /**
+     * Reads the progress value from the first line of the game state, for game states saved without progress key
+     */
+    protected void fetchGameStateMetadataFromData(final String fileId,
+                                                  final IFetchGameStateMetadataListener listener) {
+        sendHttpRequest(RequestPriority.SAVE, buildLoadDataRequest(fileId, false), new Net.HttpResponseListener() {
+            @Override
+            public void handleHttpResponse(Net.HttpResponse httpResponse) {
+                String response = httpResponse.getResultAsString();
+
+                if (response == null || !response.startsWith("SUCCESS")) {
+                    listener.onGameStateMetadataResponse(new GameStateMetadata(fileId, false, 0, 0));
+                    return;
+                }
+
+                GameStateMetadata metadata = null;
+                try {
+                    int progressStart = response.indexOf('\n') + 1;
+                    metadata = new GameStateMetadata(fileId, true, Long.parseLong(
+                            response.substring(progressStart, response.indexOf('\n', progressStart)).trim()), 0);
+                } catch (RuntimeException e) {
+                    Gdx.app.error(GAMESERVICE_ID, "Invalid gamestate format", e);
+                }
+                listener.onGameStateMetadataResponse(metadata);
+            }
+
+            @Override
+            public void failed(Throwable t) {
+                Gdx.app.error(GAMESERVICE_ID, "Gamestate metadata load failed", t);
+                listener.onGameStateMetadataResponse(null);
+            }
+
+            @Override
+            public void cancelled() {
+                listener.onGameStateMetadataResponse(null);
+            }
+        });
+    }
+
     /**
      * content must be without special chars ampersand or question mark - use Base64 when not sure!
      */
     protected Net.HttpRequest buildStoreDataRequest(String dataKey, boolean globalKey, String content) {
-        Map<String, String> params = new HashMap<String, String>();
+        GjRequestBuilder request = newJsonRequest("data-store/set/");
 
         if (globalKey)
-            params.put("game_id", gjAppId);
+            request.param("game_id", gjAppId);
         else
-            addGameIDUserNameUserToken(params);
-        params.put("key", dataKey);
+            addGameIDUserNameUserToken(request);
+        request.param("key", dataKey);
 
-        final Net.HttpRequest http = buildJsonRequest("data-store/set/", params);
+        final Net.HttpRequest http = request.build();
         if (http == null)
             return null;
 
@@ -859,15 +1290,24 @@ public class GameJoltClient implements IGameServiceClient {
     }
 
     @Override
-    public void loadGameState(String fileId, final ILoadGameStateResponseListener listener) {
+    public void loadGameState(String fileId, ILoadGameStateResponseListener listener) {
+        loadGameState(fileId, GameStateStreams.toByteArrayListener(listener));
+    }
+
+    /**
+     * The game state is decoded chunk by chunk while it is read from the stream, without an intermediate copy of
+     * the whole decoded game state.
+     */
+    @Override
+    public void loadGameState(String fileId, final ILoadGameStateStreamListener listener) {
         if (!isSessionActive()) {
-            listener.gsGameStateLoaded(null);
+            GameStateStreams.notifyStreamListener(listener, null);
             return;
         }
 
         Net.HttpRequest http = buildLoadDataRequest(fileId, false);
 
-        Gdx.net.sendHttpRequest(http, new Net.HttpResponseListener() {
+        sendHttpRequest(RequestPriority.USER_VISIBLE, http, new Net.HttpResponseListener() {
             @Override
             public void handleHttpResponse(Net.HttpResponse httpResponse) {
                 String response = httpResponse.getResultAsString();
@@ -875,27 +1315,26 @@ public class GameJoltClient implements IGameServiceClient {
                 if (response == null || !response.startsWith("SUCCESS")) {
                     // just log, no error because loading a nonexistant gamestate fails but is no error
                     Gdx.app.log(GAMESERVICE_ID, "Gamestate load failed: " + response);
-                    listener.gsGameStateLoaded(null);
+                    GameStateStreams.notifyStreamListener(listener, null);
                 } else {
                     // indexOf is twice to cut first two lines. First one is success message,
                     // second one is progressValue
-                    byte[] gs = Base64Coder.decode(response.substring(
+                    GameStateStreams.notifyStreamListener(listener, new Base64StringInputStream(response,
                             response.indexOf('\n', response.indexOf('\n') + 1) + 1));
-                    listener.gsGameStateLoaded(gs);
                 }
             }
 
             @Override
             public void failed(Throwable t) {
                 Gdx.app.error(GAMESERVICE_ID, "Gamestate load failed", t);
-                listener.gsGameStateLoaded(null);
+                GameStateStreams.notifyStreamListener(listener, null);
             }
 
             @Override
             public void cancelled() {
                 Gdx.app.error(GAMESERVICE_ID, "Gamestate load cancelled");
 
-                listener.gsGameStateLoaded(null);
+                GameStateStreams.notifyStreamListener(listener, null);
             }
         });
     }
@@ -904,17 +1343,15 @@ public class GameJoltClient implements IGameServiceClient {
      * Load data is done with dump format
      */
     protected Net.HttpRequest buildLoadDataRequest(String dataKey, boolean globalKey) {
-        Map<String, String> params = new HashMap<String, String>();
+        GjRequestBuilder request = newRequest(GJ_GATEWAY, "data-store/", "dump");
 
         if (globalKey)
-            params.put("game_id", gjAppId);
+            request.param("game_id", gjAppId);
         else
-            addGameIDUserNameUserToken(params);
-        params.put("key", dataKey);
+            addGameIDUserNameUserToken(request);
+        request.param("key", dataKey);
 
-        final Net.HttpRequest http = buildRequest("data-store/?format=dump&", params);
-
-        return http;
+        return request.build();
 
     }
 
@@ -924,54 +1361,107 @@ public class GameJoltClient implements IGameServiceClient {
         params.put("user_token", userToken);
     }
 
+    protected GjRequestBuilder addGameIDUserNameUserToken(GjRequestBuilder request) {
+        return request.param("game_id", String.valueOf(gjAppId))
+                .param("username", userName)
+                .param("user_token", userToken);
+    }
+
+    /**
+     * @return builder for a request to the given component of {@link #GJ_GATEWAY} answered in JSON format
+     */
+    protected GjRequestBuilder newJsonRequest(String component) {
+        return newRequest(GJ_GATEWAY, component, "json");
+    }
+
+    /**
+     * @param format response format, or null if the component sets it
+     * @return builder for a request to the given component
+     */
+    protected GjRequestBuilder newRequest(String gateway, String component, String format) {
+        return new GjRequestBuilder(requestSigner, gjAppPrivateKey, gateway, component, format);
+    }
+
     protected /* @Nullable */ Net.HttpRequest buildJsonRequest(String component, Map<String, String> params) {
-        component = component + "?format=json&";
-        return buildRequest(component, params);
+        return buildJsonRequest(GJ_GATEWAY, component, params);
+    }
+
+    protected /* @Nullable */ Net.HttpRequest buildJsonRequest(String gateway, String component,
+                                                                Map<String, String> params) {
+        return newRequest(gateway, component, "json").params(params).build();
     }
 
     protected Net.HttpRequest buildRequest(String component, Map<String, String> params) {
-        String request = GJ_GATEWAY + component;
-        request += HttpParametersUtils.convertHttpParameters(params);
+        return buildRequest(GJ_GATEWAY, component, params);
+    }
 
-        /* Generate signature */
-        final String signature;
-        try {
-            signature = md5(request + gjAppPrivateKey);
-        } catch (Exception e) {
-            /* Do not leak 'gamePrivateKey' in log */
-            Gdx.app.error(GAMESERVICE_ID, "Cannot honor request: " + request, e);
-            return null;
+    protected Net.HttpRequest buildRequest(String gateway, String component, Map<String, String> params) {
+        return newRequest(gateway, component, null).params(params).build();
+    }
+
+    protected String md5(String s) throws UnsupportedEncodingException, NoSuchAlgorithmException {
+        return requestSigner.md5(s);
+    }
+
+    /**
+     * Decodes a Base64 encoded part of a string while it is read
+     */
+    protected static class Base64StringInputStream extends InputStream {
+        private final String source;
+        private final int end;
+        private final char[] chars = new char[4 * 256];
+        private int position;
+        private byte[] decoded;
+        private int decodedPosition;
+
+        protected Base64StringInputStream(String source, int start) {
+            int end = source.length();
+            while (end > start && Character.isWhitespace(source.charAt(end - 1)))
+                end--;
+
+            this.source = source;
+            this.position = start;
+            this.end = end;
         }
-        /* Append signature */
-        String complete = request;
-        complete += "&";
-        complete += "signature";
-        complete += "=";
-        complete += signature;
 
-        final Net.HttpRequest http = new Net.HttpRequest();
-        http.setMethod(Net.HttpMethods.GET);
-        http.setUrl(complete);
+        private boolean fill() throws IOException {
+            if (decoded != null && decodedPosition < decoded.length)
+                return true;
+            if (position >= end)
+                return false;
 
-        return http;
-    }
+            int length = Math.min(chars.length, end - position);
+            source.getChars(position, position + length, chars, 0);
+            position += length;
+            try {
+                decoded = Base64Coder.decode(chars, 0, length, Base64Coder.regularMap);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Invalid Base64 data: " + e.getMessage());
+            }
+            decodedPosition = 0;
+            return decoded.length > 0 || fill();
+        }
 
-    protected String md5(String s) throws UnsupportedEncodingException, NoSuchAlgorithmException {
-        final MessageDigest md = MessageDigest.getInstance("MD5");
-        final byte[] bytes = s.getBytes("UTF-8");
-        final byte[] digest = md.digest(bytes);
-        /**
-         * Magic to convert it into an String: an answer at the bottom of:
-         *
-         * <pre>
-         * http://stackoverflow.com/questions/415953/how-can-i-generate-an-md5-hash
-         * </pre>
-         */
-        final StringBuffer sb = new StringBuffer();
-        for (int i = 0; i < digest.length; ++i) {
-            sb.append(Integer.toHexString((digest[i] & 0xFF) | 0x100).substring(1, 3));
+        @Override
+        public int read() throws IOException {
+            if (!fill())
+                return -1;
+
+            return decoded[decodedPosition++] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0)
+                return 0;
+            if (!fill())
+                return -1;
+
+            int count = Math.min(len, decoded.length - decodedPosition);
+            System.arraycopy(decoded, decodedPosition, b, off, count);
+            decodedPosition += count;
+            return count;
         }
-        return sb.toString();
     }
 
     protected static class NoOpResponseListener implements Net.HttpResponseListener {
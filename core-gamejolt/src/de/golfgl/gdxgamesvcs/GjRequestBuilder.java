@@ -0,0 +1,147 @@
+package de.golfgl.gdxgamesvcs;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Net;
+
+import java.util.Map;
+
+/**
+ * Builds the signed URL of a GameJolt API request. Parameters are URL encoded directly into the URL, without
+ * collecting them in a map first.
+ * <p>
+ * Get a builder from {@link GameJoltClient#newJsonRequest(String)} or
+ * {@link GameJoltClient#newRequest(String, String, String)}.
+ */
+
+public class GjRequestBuilder {
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private final GjRequestSigner signer;
+    private final String privateKey;
+    private final StringBuilder url = new StringBuilder(256);
+    private boolean separatorNeeded;
+
+    /**
+     * @param component component of the API, possibly followed by the start of the query string
+     * @param format    response format, or null if the component sets it
+     */
+    protected GjRequestBuilder(GjRequestSigner signer, String privateKey, String gateway, String component,
+                               String format) {
+        this.signer = signer;
+        this.privateKey = privateKey;
+        url.append(gateway).append(component);
+
+        if (format != null) {
+            url.append(component.indexOf('?') < 0 ? '?' : '&').append("format=").append(format);
+            separatorNeeded = true;
+        } else {
+            char last = url.charAt(url.length() - 1);
+            if (component.indexOf('?') < 0)
+                url.append('?');
+            else
+                separatorNeeded = last != '?' && last != '&';
+        }
+    }
+
+    /**
+     * Adds a parameter. Null values are left out.
+     *
+     * @return this for method chaining
+     */
+    public GjRequestBuilder param(String key, String value) {
+        if (value == null)
+            return this;
+
+        appendKey(key);
+        appendEncoded(value);
+        return this;
+    }
+
+    /**
+     * @return this for method chaining
+     */
+    public GjRequestBuilder param(String key, long value) {
+        appendKey(key);
+        url.append(value);
+        return this;
+    }
+
+    /**
+     * Adds all parameters of the map
+     *
+     * @return this for method chaining
+     */
+    public GjRequestBuilder params(Map<String, String> params) {
+        for (Map.Entry<String, String> param : params.entrySet())
+            param(param.getKey(), param.getValue());
+        return this;
+    }
+
+    /**
+     * Signs the URL and builds a GET request for it
+     *
+     * @return the request, or null if it could not be signed
+     */
+    public /* @Nullable */ Net.HttpRequest build() {
+        try {
+            signer.sign(url, privateKey);
+        } catch (Exception e) {
+            /* Do not leak 'gamePrivateKey' in log */
+            Gdx.app.error(GameJoltClient.GAMESERVICE_ID, "Cannot honor request: " + url, e);
+            return null;
+        }
+
+        final Net.HttpRequest http = new Net.HttpRequest();
+        http.setMethod(Net.HttpMethods.GET);
+        http.setUrl(url.toString());
+
+        return http;
+    }
+
+    private void appendKey(String key) {
+        if (separatorNeeded)
+            url.append('&');
+        separatorNeeded = true;
+        appendEncoded(key);
+        url.append('=');
+    }
+
+    /**
+     * Appends the value encoded like {@link java.net.URLEncoder#encode(String, String)} with UTF-8
+     */
+    private void appendEncoded(String value) {
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9'
+                    || c == '.' || c == '-' || c == '*' || c == '_')
+                url.append(c);
+            else if (c == ' ')
+                url.append('+');
+            else if (c < 0x80)
+                appendByte(c);
+            else if (c < 0x800) {
+                appendByte(0xC0 | c >> 6);
+                appendByte(0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                appendByte(0xF0 | codePoint >> 18);
+                appendByte(0x80 | codePoint >> 12 & 0x3F);
+                appendByte(0x80 | codePoint >> 6 & 0x3F);
+                appendByte(0x80 | codePoint & 0x3F);
+            } else if (Character.isSurrogate(c)) {
+                // unpaired surrogate, encoded as '?' like URLEncoder does
+                appendByte('?');
+            } else {
+                appendByte(0xE0 | c >> 12);
+                appendByte(0x80 | c >> 6 & 0x3F);
+                appendByte(0x80 | c & 0x3F);
+            }
+        }
+    }
+
+    private void appendByte(int b) {
+        url.append('%').append(HEX[b >> 4 & 0xF]).append(HEX[b & 0xF]);
+    }
+}
@@ -0,0 +1,87 @@
+package de.golfgl.gdxgamesvcs;
+
+import java.io.UnsupportedEncodingException;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Signs GameJolt API URLs with the MD5 hash of the URL and the game's private key.
+ * <p>
+ * The digest, the encoded private key and the byte buffer are reused for all requests. Signing is synchronized,
+ * as requests are built on the render thread as well as in response listeners.
+ */
+
+public class GjRequestSigner {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private MessageDigest md5;
+    private String privateKey;
+    private byte[] privateKeyBytes;
+    private byte[] buffer = new byte[256];
+    private final byte[] digest = new byte[16];
+
+    /**
+     * Appends "&amp;signature=" and the URL's signature to the URL
+     *
+     * @param privateKey the game's private key
+     */
+    public synchronized void sign(StringBuilder url, String privateKey) throws GeneralSecurityException,
+            UnsupportedEncodingException {
+        if (md5 == null)
+            md5 = MessageDigest.getInstance("MD5");
+        else
+            md5.reset();
+
+        // the key is only encoded again when another string is given
+        if (privateKeyBytes == null || privateKey != this.privateKey) {
+            privateKeyBytes = privateKey != null ? privateKey.getBytes("UTF-8") : "null".getBytes("UTF-8");
+            this.privateKey = privateKey;
+        }
+
+        update(url);
+        md5.update(privateKeyBytes);
+        md5.digest(digest, 0, digest.length);
+
+        url.append("&signature=");
+        appendHex(url, digest);
+    }
+
+    /**
+     * @return MD5 hash of the string as lower case hex string
+     */
+    public synchronized String md5(String s) throws NoSuchAlgorithmException, UnsupportedEncodingException {
+        if (md5 == null)
+            md5 = MessageDigest.getInstance("MD5");
+        else
+            md5.reset();
+
+        StringBuilder hex = new StringBuilder(32);
+        appendHex(hex, md5.digest(s.getBytes("UTF-8")));
+        return hex.toString();
+    }
+
+    private void update(StringBuilder url) throws UnsupportedEncodingException {
+        int length = url.length();
+        if (buffer.length < length)
+            buffer = new byte[Math.max(length, buffer.length * 2)];
+
+        for (int i = 0; i < length; i++) {
+            char c = url.charAt(i);
+            if (c >= 0x80) {
+                // URL encoded parameters are ASCII, only the gateway or component could lead here
+                md5.update(url.toString().getBytes("UTF-8"));
+                return;
+            }
+            buffer[i] = (byte) c;
+        }
+        md5.update(buffer, 0, length);
+    }
+
+    private static void appendHex(StringBuilder sb, byte[] bytes) {
+        for (int i = 0; i < bytes.length; i++) {
+            sb.append(HEX[(bytes[i] >> 4) & 0xF]);
+            sb.append(HEX[bytes[i] & 0xF]);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package de.golfgl.gdxgamesvcs;
 import com.badlogic.gdx.utils.JsonValue;
 
 import de.golfgl.gdxgamesvcs.leaderboard.ILeaderBoardEntry;
+import de.golfgl.gdxgamesvcs.leaderboard.LeaderboardColumns;
 
 /**
  * GameJolt leaderboard entry
@@ -40,6 +41,26 @@ public class GjScoreboardEntry implements ILeaderBoardEntry {
         return gje;
     }
 
+    /**
+     * Adds the score to the columns without creating an entry object
+     */
+    protected static int addToColumns(JsonValue json, int rank, String currentPlayer, LeaderboardColumns columns) {
+        String userId = json.getString("user_id");
+        String displayName;
+        boolean isCurrentPlayer = false;
+
+        if (userId != null && !userId.isEmpty()) {
+            displayName = json.getString("user");
+            isCurrentPlayer = (currentPlayer != null && currentPlayer.equalsIgnoreCase(displayName));
+        } else {
+            userId = null;
+            displayName = json.getString("guest");
+        }
+
+        return columns.add(json.getLong("sort"), json.getString("score"), rank, null, json.getString("extra_data"),
+                displayName, userId, null, isCurrentPlayer);
+    }
+
     @Override
     public String getFormattedValue() {
         return score;
@@ -0,0 +1,171 @@
+package de.golfgl.gdxgamesvcs;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Net;
+import com.badlogic.gdx.net.HttpStatus;
+import com.badlogic.gdx.utils.Array;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import de.golfgl.gdxgamesvcs.leaderboard.IFetchLeaderboardPageListener;
+import de.golfgl.gdxgamesvcs.leaderboard.ILeaderBoardEntry;
+import de.golfgl.gdxgamesvcs.leaderboard.LeaderboardPage;
+import de.golfgl.gdxgamesvcs.net.RequestPriority;
+
+import static org.junit.Assert.assertEquals;
+
+public class GameJoltClientTest {
+    @BeforeClass
+    public static void setUpGdx() {
+        // only logging is used
+        Gdx.app = (Application) Proxy.newProxyInstance(Application.class.getClassLoader(),
+                new Class<?>[]{Application.class}, new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) {
+                        return null;
+                    }
+                });
+    }
+
+    @Test
+    public void pagesThroughBoardWithAllScoresTied() {
+        long[] sorts = new long[25];
+
+        assertPagedCompletely(sorts, 10);
+    }
+
+    @Test
+    public void pagesThroughTiesAcrossPageBoundaries() {
+        long[] sorts = {50, 40, 40, 40, 40, 30, 30, 30, 20, 10, 10, 10, 10, 10, 10, 5};
+
+        assertPagedCompletely(sorts, 3);
+    }
+
+    @Test
+    public void pagesThroughAscendingBoardStartingWithTies() {
+        long[] sorts = {1, 1, 1, 1, 1, 2, 3, 3, 4, 5, 6, 7};
+
+        assertPagedCompletely(sorts, 2);
+    }
+
+    private static void assertPagedCompletely(long[] sorts, int pageSize) {
+        BoardClient client = new BoardClient(sorts);
+        PageListener listener = new PageListener();
+        Array<ILeaderBoardEntry> entries = new Array<ILeaderBoardEntry>();
+        String pageToken = null;
+
+        do {
+            client.fetchLeaderboardPage(null, pageToken, pageSize, false, listener);
+            entries.addAll(listener.page.getEntries());
+            pageToken = listener.page.getNextPageToken();
+        } while (pageToken != null);
+
+        assertEquals(sorts.length, entries.size);
+        for (int i = 0; i < sorts.length; i++) {
+            assertEquals("player" + i, entries.get(i).getUserDisplayName());
+            assertEquals(String.valueOf(i + 1), entries.get(i).getScoreRank());
+        }
+    }
+
+    /**
+     * Answers score requests from a simulated table, sorted like GameJolt does
+     */
+    private static class BoardClient extends GameJoltClient {
+        private final long[] sorts;
+        private final boolean descending;
+
+        private BoardClient(long[] sorts) {
+            this.sorts = sorts;
+            this.descending = sorts[0] >= sorts[sorts.length - 1];
+            initialize("1", "key");
+        }
+
+        @Override
+        protected void sendHttpRequest(RequestPriority priority, Net.HttpRequest http,
+                                       Net.HttpResponseListener listener) {
+            int limit = Integer.parseInt(getParam(http.getUrl(), "limit"));
+            String worseThan = getParam(http.getUrl(), "worse_than");
+
+            StringBuilder json = new StringBuilder("{\"response\":{\"success\":\"true\",\"scores\":[");
+            int count = 0;
+            for (int i = 0; i < sorts.length && count < limit; i++) {
+                if (worseThan != null && (descending ? sorts[i] >= Long.parseLong(worseThan)
+                        : sorts[i] <= Long.parseLong(worseThan)))
+                    continue;
+                if (count++ > 0)
+                    json.append(',');
+                json.append("{\"score\":\"").append(sorts[i]).append("\",\"sort\":").append(sorts[i])
+                        .append(",\"extra_data\":\"\",\"user\":\"player").append(i)
+                        .append("\",\"user_id\":\"").append(i).append("\",\"guest\":\"\",\"stored\":\"\"}");
+            }
+            json.append("]}}");
+
+            listener.handleHttpResponse(new Response(json.toString()));
+        }
+
+        private static String getParam(String url, String key) {
+            for (String param : url.substring(url.indexOf('?') + 1).split("&"))
+                if (param.startsWith(key + "="))
+                    return param.substring(key.length() + 1);
+            return null;
+        }
+    }
+
+    private static class Response implements Net.HttpResponse {
+        private final String result;
+
+        private Response(String result) {
+            this.result = result;
+        }
+
+        @Override
+        public byte[] getResult() {
+            return result.getBytes();
+        }
+
+        @Override
+        public String getResultAsString() {
+            return result;
+        }
+
+        @Override
+        public InputStream getResultAsStream() {
+            return new ByteArrayInputStream(getResult());
+        }
+
+        @Override
+        public HttpStatus getStatus() {
+            return new HttpStatus(HttpStatus.SC_OK);
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return null;
+        }
+
+        @Override
+        public Map<String, List<String>> getHeaders() {
+            return Collections.emptyMap();
+        }
+    }
+
+    private static class PageListener implements IFetchLeaderboardPageListener {
+        private LeaderboardPage page;
+
+        @Override
+        public void onLeaderboardPageResponse(LeaderboardPage page) {
+            this.page = page;
+        }
+    }
+}
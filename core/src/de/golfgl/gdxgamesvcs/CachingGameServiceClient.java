@@ -0,0 +1,225 @@
+package de.golfgl.gdxgamesvcs;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.OrderedMap;
+import com.badlogic.gdx.utils.TimeUtils;
+
+import de.golfgl.gdxgamesvcs.achievement.IAchievement;
+import de.golfgl.gdxgamesvcs.achievement.IFetchAchievementsResponseListener;
+import de.golfgl.gdxgamesvcs.leaderboard.IFetchLeaderBoardEntriesResponseListener;
+import de.golfgl.gdxgamesvcs.leaderboard.ILeaderBoardEntry;
+
+/**
+ * Wrapper for a {@link IGameServiceClient} caching the results of
+ * {@link #fetchLeaderboardEntries(String, int, boolean, IFetchLeaderBoardEntriesResponseListener)} and
+ * {@link #fetchAchievements(IFetchAchievementsResponseListener)} in memory.
+ * <p>
+ * Leaderboard results are cached per leaderboard id, limit and relatedToPlayer flag. Entries are dropped when
+ * their time to live expired, when the cache exceeds its maximum size (least recently used first), and
+ * when a score is submitted to the leaderboard or an achievement is unlocked or incremented.
+ * <p>
+ * Cached responses are delivered synchronously on the calling thread. The same {@link Array} instance is given to
+ * all listeners, so don't modify it.
+ */
+
+public class CachingGameServiceClient extends GameServiceClientWrapper {
+    protected static final String ACHIEVEMENTS_KEY = "\u0000achievements";
+
+    protected final OrderedMap<String, CacheEntry> cache = new OrderedMap<String, CacheEntry>();
+    private long timeToLive = 60 * 1000;
+    private int maxEntries = 20;
+    private int invalidations;
+
+    public CachingGameServiceClient(IGameServiceClient client) {
+        super(client);
+    }
+
+    /**
+     * @param timeToLive time in milliseconds a fetched result is served from cache. Default 60 seconds
+     * @return this for method chaining
+     */
+    public CachingGameServiceClient setTimeToLive(long timeToLive) {
+        this.timeToLive = timeToLive;
+        return this;
+    }
+
+    /**
+     * @param maxEntries maximum number of cached results. Default 20
+     * @return this for method chaining
+     */
+    public CachingGameServiceClient setMaxEntries(int maxEntries) {
+        this.maxEntries = Math.max(1, maxEntries);
+        synchronized (cache) {
+            trimToSize();
+        }
+        return this;
+    }
+
+    /**
+     * Drops all cached results for the given leaderboard
+     */
+    public void invalidateLeaderboard(String leaderboardId) {
+        synchronized (cache) {
+            invalidations++;
+            Array<String> keys = cache.orderedKeys();
+            for (int i = keys.size - 1; i >= 0; i--) {
+                CacheEntry entry = cache.get(keys.get(i));
+                if (entry.leaderboardId != null && entry.leaderboardId.equals(leaderboardId))
+                    cache.remove(keys.get(i));
+            }
+        }
+    }
+
+    /**
+     * Drops the cached achievement list
+     */
+    public void invalidateAchievements() {
+        synchronized (cache) {
+            invalidations++;
+            cache.remove(ACHIEVEMENTS_KEY);
+        }
+    }
+
+    /**
+     * Drops all cached results
+     */
+    public void invalidateAll() {
+        synchronized (cache) {
+            invalidations++;
+            cache.clear();
+        }
+    }
+
+    @Override
+    public boolean fetchLeaderboardEntries(String leaderBoardId, int limit, boolean relatedToPlayer,
+                                           final IFetchLeaderBoardEntriesResponseListener callback) {
+        final String key = leaderBoardId + '\n' + limit + '\n' + relatedToPlayer;
+        final CacheEntry cached = getValidEntry(key);
+
+        if (cached != null) {
+            callback.onLeaderBoardResponse(cached.leaderboard);
+            return true;
+        }
+
+        final String boardId = leaderBoardId;
+        final int requestedAt = getInvalidations();
+        return super.fetchLeaderboardEntries(leaderBoardId, limit, relatedToPlayer,
+                new IFetchLeaderBoardEntriesResponseListener() {
+                    @Override
+                    public void onLeaderBoardResponse(Array<ILeaderBoardEntry> leaderBoard) {
+                        if (leaderBoard != null) {
+                            CacheEntry entry = new CacheEntry(boardId);
+                            entry.leaderboard = leaderBoard;
+                            putEntry(key, entry, requestedAt);
+                        }
+                        callback.onLeaderBoardResponse(leaderBoard);
+                    }
+                });
+    }
+
+    @Override
+    public boolean fetchAchievements(final IFetchAchievementsResponseListener callback) {
+        final CacheEntry cached = getValidEntry(ACHIEVEMENTS_KEY);
+
+        if (cached != null) {
+            callback.onFetchAchievementsResponse(cached.achievements);
+            return true;
+        }
+
+        final int requestedAt = getInvalidations();
+        return super.fetchAchievements(new IFetchAchievementsResponseListener() {
+            @Override
+            public void onFetchAchievementsResponse(Array<IAchievement> achievements) {
+                if (achievements != null) {
+                    CacheEntry entry = new CacheEntry(null);
+                    entry.achievements = achievements;
+                    putEntry(ACHIEVEMENTS_KEY, entry, requestedAt);
+                }
+                callback.onFetchAchievementsResponse(achievements);
+            }
+        });
+    }
+
+    @Override
+    public boolean submitToLeaderboard(String leaderboardId, long score, String tag) {
+        boolean submitted = super.submitToLeaderboard(leaderboardId, score, tag);
+        if (submitted)
+            invalidateLeaderboard(leaderboardId);
+        return submitted;
+    }
+
+    @Override
+    public boolean unlockAchievement(String achievementId) {
+        boolean submitted = super.unlockAchievement(achievementId);
+        if (submitted)
+            invalidateAchievements();
+        return submitted;
+    }
+
+    @Override
+    public boolean incrementAchievement(String achievementId, int incNum, float completionPercentage) {
+        boolean submitted = super.incrementAchievement(achievementId, incNum, completionPercentage);
+        if (submitted)
+            invalidateAchievements();
+        return submitted;
+    }
+
+    @Override
+    public void logOff() {
+        // cached data belongs to the player logging off
+        invalidateAll();
+        super.logOff();
+    }
+
+    protected int getInvalidations() {
+        synchronized (cache) {
+            return invalidations;
+        }
+    }
+
+    protected CacheEntry getValidEntry(String key) {
+        synchronized (cache) {
+            CacheEntry entry = cache.get(key);
+
+            if (entry == null)
+                return null;
+
+            cache.remove(key);
+            if (TimeUtils.timeSinceMillis(entry.fetchTime) > timeToLive)
+                return null;
+
+            // put again to mark as most recently used
+            cache.put(key, entry);
+            return entry;
+        }
+    }
+
+    protected void putEntry(String key, CacheEntry entry, int requestedAt) {
+        synchronized (cache) {
+            // don't cache a result that might have been fetched before an invalidation took place
+            if (requestedAt != invalidations)
+                return;
+
+            cache.remove(key);
+            cache.put(key, entry);
+            trimToSize();
+        }
+    }
+
+    private void trimToSize() {
+        while (cache.size > maxEntries)
+            cache.remove(cache.orderedKeys().first());
+    }
+
+    protected static class CacheEntry {
+        protected final String leaderboardId;
+        protected final long fetchTime;
+        protected Array<ILeaderBoardEntry> leaderboard;
+        protected Array<IAchievement> achievements;
+
+        protected CacheEntry(String leaderboardId) {
+            this.leaderboardId = leaderboardId;
+            this.fetchTime = TimeUtils.millis();
+        }
+    }
+}
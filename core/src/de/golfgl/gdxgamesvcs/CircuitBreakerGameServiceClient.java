@@ -0,0 +1,406 @@
+package de.golfgl.gdxgamesvcs;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.TimeUtils;
+
+import de.golfgl.gdxgamesvcs.achievement.IAchievement;
+import de.golfgl.gdxgamesvcs.achievement.IFetchAchievementsResponseListener;
+import de.golfgl.gdxgamesvcs.gamestate.IFetchGameStatesListResponseListener;
+import de.golfgl.gdxgamesvcs.gamestate.ILoadGameStateResponseListener;
+import de.golfgl.gdxgamesvcs.gamestate.ISaveGameStateResponseListener;
+import de.golfgl.gdxgamesvcs.leaderboard.IFetchLeaderBoardEntriesResponseListener;
+import de.golfgl.gdxgamesvcs.leaderboard.ILeaderBoardEntry;
+import de.golfgl.gdxgamesvcs.net.IRequestResultListener;
+import de.golfgl.gdxgamesvcs.net.RequestPriority;
+import de.golfgl.gdxgamesvcs.net.RequestScheduler;
+
+/**
+ * Wrapper for a {@link IGameServiceClient} that stops calling a game service that is unreachable.
+ * <p>
+ * The circuit opens after a number of consecutive failures, or when too many of the recent calls failed. Failures
+ * are requests the {@link RequestScheduler} reports as failed because of the network or the server for the wrapped
+ * client's game service id, and errorServiceUnreachable errors reported by the wrapped client. Fetches delivering
+ * no result and failed saves or deletes are not counted, as they are caused by a missing session, unknown ids or
+ * missing files as well. While the circuit is open, calls fail immediately: submissions return false, fetches are
+ * not started, saving fails with {@link #ERROR_CIRCUIT_OPEN} and loading delivers null. Wrap this client in an
+ * {@link OfflineQueueGameServiceClient} to queue submissions instead of dropping them.
+ * <p>
+ * After the open duration, the circuit is half open: a single fetch, save or delete is let through as a probe.
+ * A request succeeding or the probe delivering a result closes the circuit, a request failing opens it again. A
+ * session getting active closes it as well.
+ * <p>
+ * {@link IGameServiceListener#gsShowErrorToUser(IGameServiceListener.GsErrorType, String, Throwable)} is called
+ * with errorServiceUnreachable once when the circuit opens, instead of for every failing call.
+ * <p>
+ * The scheduler's results are matched by game service id, so a {@link CompositeGameServiceClient} does not get
+ * them. Wrap each of its clients in a circuit breaker instead, which also keeps one unreachable game service from
+ * blocking the others. Call {@link #dispose()} when the circuit breaker is not used anymore, the scheduler holds on
+ * to it otherwise.
+ */
+
+public class CircuitBreakerGameServiceClient extends GameServiceClientWrapper implements Disposable {
+    public static final String TAG = "GS_CIRCUITBREAKER";
+    public static final String ERROR_CIRCUIT_OPEN = "SERVICE_UNREACHABLE";
+
+    public enum State {CLOSED, OPEN, HALF_OPEN}
+
+    protected IGameServiceListener gsListener;
+    protected RequestScheduler scheduler;
+    protected final IRequestResultListener resultListener = new IRequestResultListener() {
+        @Override
+        public void onRequestResult(String queueKey, RequestPriority priority, boolean success) {
+            if (!queueKey.equals(getGameServiceId()))
+                return;
+
+            if (success)
+                onCallSucceeded();
+            else
+                onCallFailed();
+        }
+    };
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private boolean probeInFlight;
+    private int consecutiveFailures;
+    private boolean[] recentFailures = new boolean[20];
+    private int recentCount;
+    private int recentIndex;
+
+    private int failureThreshold = 5;
+    private float failureRateThreshold = .5f;
+    private int minCallsForRate = 10;
+    private long openDurationMillis = 30000;
+
+    public CircuitBreakerGameServiceClient(IGameServiceClient client) {
+        super(client);
+        setRequestScheduler(RequestScheduler.getDefault());
+    }
+
+    /**
+     * @param scheduler scheduler the wrapped client sends its requests through, its failures are counted. Default
+     *                  {@link RequestScheduler#getDefault()}
+     * @return this for method chaining
+     */
+    public CircuitBreakerGameServiceClient setRequestScheduler(RequestScheduler scheduler) {
+        synchronized (this) {
+            if (this.scheduler != null)
+                this.scheduler.removeResultListener(resultListener);
+            this.scheduler = scheduler;
+            if (scheduler != null)
+                scheduler.addResultListener(resultListener);
+        }
+        return this;
+    }
+
+    /**
+     * Stops counting the scheduler's results
+     */
+    @Override
+    public void dispose() {
+        setRequestScheduler(null);
+    }
+
+    /**
+     * @param failureThreshold consecutive failures opening the circuit. Default 5
+     * @return this for method chaining
+     */
+    public CircuitBreakerGameServiceClient setFailureThreshold(int failureThreshold) {
+        synchronized (this) {
+            this.failureThreshold = failureThreshold;
+        }
+        return this;
+    }
+
+    /**
+     * @param failureRateThreshold share of failed calls opening the circuit. Default 0.5
+     * @param window               number of recent calls the share is computed on. Default 20
+     * @param minCalls             minimum number of recent calls before the share is considered. Default 10
+     * @return this for method chaining
+     */
+    public CircuitBreakerGameServiceClient setFailureRateThreshold(float failureRateThreshold, int window,
+                                                                   int minCalls) {
+        synchronized (this) {
+            this.failureRateThreshold = failureRateThreshold;
+            this.minCallsForRate = minCalls;
+            recentFailures = new boolean[Math.max(1, window)];
+            recentCount = 0;
+            recentIndex = 0;
+        }
+        return this;
+    }
+
+    /**
+     * @param seconds time the circuit stays open before a probe call is let through. Default 30
+     * @return this for method chaining
+     */
+    public CircuitBreakerGameServiceClient setOpenDuration(float seconds) {
+        synchronized (this) {
+            this.openDurationMillis = (long) (seconds * 1000);
+        }
+        return this;
+    }
+
+    /**
+     * @return current state of the circuit
+     */
+    public synchronized State getState() {
+        if (state == State.OPEN && TimeUtils.millis() - openedAt >= openDurationMillis)
+            state = State.HALF_OPEN;
+        return state;
+    }
+
+    /**
+     * Checks if a call may be made. In half open state, only one call with a result is let through.
+     *
+     * @param probe true if the call's result is reported, so it can serve as probe
+     */
+    protected boolean allowCall(boolean probe) {
+        synchronized (this) {
+            switch (getState()) {
+                case CLOSED:
+                    return true;
+                case HALF_OPEN:
+                    if (!probe)
+                        // no result would close the circuit, so don't let it hold back submissions
+                        return true;
+                    if (probeInFlight)
+                        return false;
+                    probeInFlight = true;
+                    return true;
+                default:
+                    return false;
+            }
+        }
+    }
+
+    protected void onCallSucceeded() {
+        synchronized (this) {
+            probeInFlight = false;
+            consecutiveFailures = 0;
+            recordRecent(false);
+
+            if (state == State.CLOSED)
+                return;
+
+            state = State.CLOSED;
+            recentCount = 0;
+            recentIndex = 0;
+        }
+        Gdx.app.log(TAG, "Circuit closed for " + getGameServiceId());
+    }
+
+    protected void onCallFailed() {
+        boolean opened;
+        synchronized (this) {
+            probeInFlight = false;
+            consecutiveFailures++;
+            recordRecent(true);
+
+            boolean trip = state == State.HALF_OPEN || consecutiveFailures >= failureThreshold
+                    || recentCount >= minCallsForRate && getRecentFailureRate() >= failureRateThreshold;
+
+            if (!trip || state == State.OPEN)
+                return;
+
+            // reopening after a failed probe is not reported again
+            opened = state == State.CLOSED;
+            state = State.OPEN;
+            openedAt = TimeUtils.millis();
+        }
+
+        Gdx.app.error(TAG, "Circuit opened for " + getGameServiceId());
+        if (opened && gsListener != null)
+            gsListener.gsShowErrorToUser(IGameServiceListener.GsErrorType.errorServiceUnreachable,
+                    "Game service not reachable", null);
+    }
+
+    private void recordRecent(boolean failed) {
+        recentFailures[recentIndex] = failed;
+        recentIndex = (recentIndex + 1) % recentFailures.length;
+        if (recentCount < recentFailures.length)
+            recentCount++;
+    }
+
+    private float getRecentFailureRate() {
+        int failures = 0;
+        for (int i = 0; i < recentCount; i++)
+            if (recentFailures[i])
+                failures++;
+        return recentCount > 0 ? (float) failures / recentCount : 0;
+    }
+
+    @Override
+    public void setListener(IGameServiceListener gsListener) {
+        this.gsListener = gsListener;
+        super.setListener(gsListener == null ? null : new CircuitBreakerListener(gsListener));
+    }
+
+    @Override
+    public boolean submitToLeaderboard(String leaderboardId, long score, String tag) {
+        return allowCall(false) && super.submitToLeaderboard(leaderboardId, score, tag);
+    }
+
+    @Override
+    public boolean submitEvent(String eventId, int increment) {
+        return allowCall(false) && super.submitEvent(eventId, increment);
+    }
+
+    @Override
+    public boolean unlockAchievement(String achievementId) {
+        return allowCall(false) && super.unlockAchievement(achievementId);
+    }
+
+    @Override
+    public boolean incrementAchievement(String achievementId, int incNum, float completionPercentage) {
+        return allowCall(false) && super.incrementAchievement(achievementId, incNum, completionPercentage);
+    }
+
+    @Override
+    public boolean fetchLeaderboardEntries(String leaderBoardId, int limit, boolean relatedToPlayer,
+                                           final IFetchLeaderBoardEntriesResponseListener callback) {
+        if (!allowCall(true))
+            return false;
+
+        boolean started = super.fetchLeaderboardEntries(leaderBoardId, limit, relatedToPlayer,
+                new IFetchLeaderBoardEntriesResponseListener() {
+                    @Override
+                    public void onLeaderBoardResponse(Array<ILeaderBoardEntry> leaderBoard) {
+                        onResult(leaderBoard != null);
+                        callback.onLeaderBoardResponse(leaderBoard);
+                    }
+                });
+
+        if (!started)
+            releaseProbe();
+        return started;
+    }
+
+    @Override
+    public boolean fetchAchievements(final IFetchAchievementsResponseListener callback) {
+        if (!allowCall(true))
+            return false;
+
+        boolean started = super.fetchAchievements(new IFetchAchievementsResponseListener() {
+            @Override
+            public void onFetchAchievementsResponse(Array<IAchievement> achievements) {
+                onResult(achievements != null);
+                callback.onFetchAchievementsResponse(achievements);
+            }
+        });
+
+        if (!started)
+            releaseProbe();
+        return started;
+    }
+
+    @Override
+    public boolean fetchGameStates(final IFetchGameStatesListResponseListener callback) {
+        if (!allowCall(true))
+            return false;
+
+        boolean started = super.fetchGameStates(new IFetchGameStatesListResponseListener() {
+            @Override
+            public void onFetchGameStatesListResponse(Array<String> gameStates) {
+                onResult(gameStates != null);
+                callback.onFetchGameStatesListResponse(gameStates);
+            }
+        });
+
+        if (!started)
+            releaseProbe();
+        return started;
+    }
+
+    @Override
+    public void saveGameState(String fileId, byte[] gameState, long progressValue,
+                              final ISaveGameStateResponseListener success) {
+        if (!allowCall(true)) {
+            if (success != null)
+                success.onGameStateSaved(false, ERROR_CIRCUIT_OPEN);
+            return;
+        }
+
+        super.saveGameState(fileId, gameState, progressValue, new ISaveGameStateResponseListener() {
+            @Override
+            public void onGameStateSaved(boolean saved, String errorCode) {
+                onResult(saved);
+                if (success != null)
+                    success.onGameStateSaved(saved, errorCode);
+            }
+        });
+    }
+
+    @Override
+    public void loadGameState(String fileId, ILoadGameStateResponseListener responseListener) {
+        // a missing game state is no failure, so loading is not used as probe
+        if (allowCall(false))
+            super.loadGameState(fileId, responseListener);
+        else
+            responseListener.gsGameStateLoaded(null);
+    }
+
+    @Override
+    public boolean deleteGameState(String fileId, final ISaveGameStateResponseListener success) {
+        if (!allowCall(true))
+            return false;
+
+        boolean started = super.deleteGameState(fileId, new ISaveGameStateResponseListener() {
+            @Override
+            public void onGameStateSaved(boolean deleted, String errorCode) {
+                onResult(deleted);
+                if (success != null)
+                    success.onGameStateSaved(deleted, errorCode);
+            }
+        });
+
+        if (!started)
+            releaseProbe();
+        return started;
+    }
+
+    /**
+     * A result shows the service is reachable. No result is not counted as failure, failures of the service are
+     * reported by the scheduler.
+     */
+    private void onResult(boolean gotResult) {
+        if (gotResult)
+            onCallSucceeded();
+        else
+            releaseProbe();
+    }
+
+    private synchronized void releaseProbe() {
+        probeInFlight = false;
+    }
+
+    protected class CircuitBreakerListener implements IGameServiceListener {
+        private final IGameServiceListener realListener;
+
+        protected CircuitBreakerListener(IGameServiceListener listener) {
+            realListener = listener;
+        }
+
+        @Override
+        public void gsOnSessionActive() {
+            onCallSucceeded();
+            realListener.gsOnSessionActive();
+        }
+
+        @Override
+        public void gsOnSessionInactive() {
+            realListener.gsOnSessionInactive();
+        }
+
+        @Override
+        public void gsShowErrorToUser(GsErrorType et, String msg, Throwable t) {
+            // reported once when the circuit opens
+            if (et == GsErrorType.errorServiceUnreachable)
+                onCallFailed();
+            else
+                realListener.gsShowErrorToUser(et, msg, t);
+        }
+    }
+}
@@ -0,0 +1,589 @@
+package de.golfgl.gdxgamesvcs;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.ObjectSet;
+
+import de.golfgl.gdxgamesvcs.achievement.IAchievement;
+import de.golfgl.gdxgamesvcs.achievement.IFetchAchievementsResponseListener;
+import de.golfgl.gdxgamesvcs.gamestate.IFetchGameStatesListResponseListener;
+import de.golfgl.gdxgamesvcs.gamestate.ILoadGameStateResponseListener;
+import de.golfgl.gdxgamesvcs.gamestate.ISaveGameStateResponseListener;
+import de.golfgl.gdxgamesvcs.leaderboard.IFetchLeaderBoardEntriesResponseListener;
+import de.golfgl.gdxgamesvcs.leaderboard.ILeaderBoardEntry;
+
+/**
+ * Game service client driving several game service clients at once, for games published on several portals.
+ * <p>
+ * Submissions and session calls are made on all clients without waiting for each other. Leaderboard entries fetched
+ * from all clients are merged into a single list ordered by {@link ILeaderBoardEntry#getSortValue()}. Entries keep
+ * the rank given by their game service. Achievements are merged by id, keeping the one with the highest completion.
+ * <p>
+ * Game states are saved to and deleted from all clients supporting them, but loaded from and listed by the first
+ * client supporting them only. Saving is reported successful if saving to that client succeeded.
+ * <p>
+ * The session is active as long as one of the clients has an active session. The result of every client is
+ * reported to an optional {@link IBackendResultListener}.
+ */
+
+public class CompositeGameServiceClient implements IGameServiceClient {
+    public static final String OP_SUBMIT_SCORE = "submitToLeaderboard";
+    public static final String OP_SUBMIT_EVENT = "submitEvent";
+    public static final String OP_UNLOCK = "unlockAchievement";
+    public static final String OP_INCREMENT = "incrementAchievement";
+    public static final String OP_FETCH_LEADERBOARD = "fetchLeaderboardEntries";
+    public static final String OP_FETCH_ACHIEVEMENTS = "fetchAchievements";
+    public static final String OP_SAVE = "saveGameState";
+    public static final String OP_DELETE = "deleteGameState";
+
+    protected final IGameServiceClient[] clients;
+    protected final boolean[] sessionActive;
+    protected final ObjectSet<String> lowerIsBetter = new ObjectSet<String>();
+    protected IGameServiceListener gsListener;
+    protected IBackendResultListener backendResultListener;
+    private boolean anySessionActive;
+
+    /**
+     * @param clients clients to drive, in order of preference
+     */
+    public CompositeGameServiceClient(IGameServiceClient... clients) {
+        if (clients.length == 0)
+            throw new IllegalArgumentException("At least one client is needed");
+
+        this.clients = clients;
+        sessionActive = new boolean[clients.length];
+    }
+
+    /**
+     * @return the driven clients
+     */
+    public IGameServiceClient[] getClients() {
+        return clients;
+    }
+
+    /**
+     * @param backendResultListener listener getting the result of every client, may be null
+     * @return this for method chaining
+     */
+    public CompositeGameServiceClient setBackendResultListener(IBackendResultListener backendResultListener) {
+        this.backendResultListener = backendResultListener;
+        return this;
+    }
+
+    /**
+     * @param leaderboardId leaderboard
+     * @param lowerIsBetter true if lower scores are better on this leaderboard, so merged entries are ordered
+     *                      ascending
+     * @return this for method chaining
+     */
+    public CompositeGameServiceClient setLowerIsBetter(String leaderboardId, boolean lowerIsBetter) {
+        synchronized (this.lowerIsBetter) {
+            if (lowerIsBetter)
+                this.lowerIsBetter.add(leaderboardId);
+            else
+                this.lowerIsBetter.remove(leaderboardId);
+        }
+        return this;
+    }
+
+    protected void reportResult(IGameServiceClient client, String operation, boolean success) {
+        IBackendResultListener listener = backendResultListener;
+        if (listener != null)
+            listener.onBackendResult(client.getGameServiceId(), operation, success);
+    }
+
+    protected IGameServiceClient getFirstSupporting(GameServiceFeature feature) {
+        for (int i = 0; i < clients.length; i++)
+            if (clients[i].isFeatureSupported(feature))
+                return clients[i];
+        return null;
+    }
+
+    @Override
+    public String getGameServiceId() {
+        StringBuilder id = new StringBuilder();
+        for (int i = 0; i < clients.length; i++) {
+            if (i > 0)
+                id.append('+');
+            id.append(clients[i].getGameServiceId());
+        }
+        return id.toString();
+    }
+
+    @Override
+    public void setListener(IGameServiceListener gsListener) {
+        this.gsListener = gsListener;
+        for (int i = 0; i < clients.length; i++)
+            clients[i].setListener(gsListener != null ? new BackendListener(i) : null);
+    }
+
+    @Override
+    public boolean resumeSession() {
+        boolean result = false;
+        for (int i = 0; i < clients.length; i++)
+            result = clients[i].resumeSession() || result;
+        return result;
+    }
+
+    @Override
+    public boolean logIn() {
+        boolean result = false;
+        for (int i = 0; i < clients.length; i++)
+            result = clients[i].logIn() || result;
+        return result;
+    }
+
+    @Override
+    public void pauseSession() {
+        for (int i = 0; i < clients.length; i++)
+            clients[i].pauseSession();
+    }
+
+    @Override
+    public void logOff() {
+        for (int i = 0; i < clients.length; i++)
+            clients[i].logOff();
+    }
+
+    @Override
+    public String getPlayerDisplayName() {
+        for (int i = 0; i < clients.length; i++) {
+            String name = clients[i].getPlayerDisplayName();
+            if (name != null)
+                return name;
+        }
+        return null;
+    }
+
+    @Override
+    public boolean isSessionActive() {
+        for (int i = 0; i < clients.length; i++)
+            if (clients[i].isSessionActive())
+                return true;
+        return false;
+    }
+
+    @Override
+    public boolean isConnectionPending() {
+        for (int i = 0; i < clients.length; i++)
+            if (clients[i].isConnectionPending())
+                return true;
+        return false;
+    }
+
+    @Override
+    public void showLeaderboards(String leaderBoardId) throws GameServiceException {
+        IGameServiceClient client = getFirstSupporting(leaderBoardId == null ? GameServiceFeature.ShowAllLeaderboardsUI
+                : GameServiceFeature.ShowLeaderboardUI);
+        if (client == null)
+            throw new GameServiceException.NotSupportedException();
+        client.showLeaderboards(leaderBoardId);
+    }
+
+    @Override
+    public void showAchievements() throws GameServiceException {
+        IGameServiceClient client = getFirstSupporting(GameServiceFeature.ShowAchievementsUI);
+        if (client == null)
+            throw new GameServiceException.NotSupportedException();
+        client.showAchievements();
+    }
+
+    @Override
+    public boolean submitToLeaderboard(String leaderboardId, long score, String tag) {
+        boolean result = false;
+        for (int i = 0; i < clients.length; i++) {
+            boolean submitted = clients[i].submitToLeaderboard(leaderboardId, score, tag);
+            reportResult(clients[i], OP_SUBMIT_SCORE, submitted);
+            result = result || submitted;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean submitEvent(String eventId, int increment) {
+        boolean result = false;
+        for (int i = 0; i < clients.length; i++) {
+            boolean submitted = clients[i].submitEvent(eventId, increment);
+            reportResult(clients[i], OP_SUBMIT_EVENT, submitted);
+            result = result || submitted;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean unlockAchievement(String achievementId) {
+        boolean result = false;
+        for (int i = 0; i < clients.length; i++) {
+            boolean submitted = clients[i].unlockAchievement(achievementId);
+            reportResult(clients[i], OP_UNLOCK, submitted);
+            result = result || submitted;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean incrementAchievement(String achievementId, int incNum, float completionPercentage) {
+        boolean result = false;
+        for (int i = 0; i < clients.length; i++) {
+            boolean submitted = clients[i].incrementAchievement(achievementId, incNum, completionPercentage);
+            reportResult(clients[i], OP_INCREMENT, submitted);
+            result = result || submitted;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean fetchLeaderboardEntries(String leaderBoardId, int limit, boolean relatedToPlayer,
+                                           IFetchLeaderBoardEntriesResponseListener callback) {
+        boolean ascending;
+        synchronized (lowerIsBetter) {
+            ascending = lowerIsBetter.contains(leaderBoardId);
+        }
+
+        Array<IGameServiceClient> supporting = new Array<IGameServiceClient>();
+        for (int i = 0; i < clients.length; i++)
+            if (clients[i].isFeatureSupported(GameServiceFeature.FetchLeaderBoardEntries))
+                supporting.add(clients[i]);
+
+        // one extra pending part for the loop, so requests answered synchronously don't complete it early
+        final LeaderboardMerge merge = new LeaderboardMerge(supporting.size + 1, limit, ascending, callback);
+        boolean started = false;
+
+        for (int i = 0; i < supporting.size; i++) {
+            final IGameServiceClient client = supporting.get(i);
+            boolean clientStarted = client.fetchLeaderboardEntries(leaderBoardId, limit, relatedToPlayer,
+                    new IFetchLeaderBoardEntriesResponseListener() {
+                        @Override
+                        public void onLeaderBoardResponse(Array<ILeaderBoardEntry> leaderBoard) {
+                            reportResult(client, OP_FETCH_LEADERBOARD, leaderBoard != null);
+                            merge.partDone(leaderBoard);
+                        }
+                    });
+
+            if (!clientStarted) {
+                reportResult(client, OP_FETCH_LEADERBOARD, false);
+                merge.partDone(null);
+            }
+            started = started || clientStarted;
+        }
+
+        if (started)
+            merge.partDone(null);
+
+        return started;
+    }
+
+    /**
+     * Merges leaderboards each ordered by sort value into one ordered list, without sorting everything again
+     *
+     * @param leaderboards leaderboards to merge
+     * @param limit        maximum number of entries
+     * @param ascending    true if lower sort values come first
+     * @return merged leaderboard
+     */
+    public static Array<ILeaderBoardEntry> mergeLeaderboards(Array<Array<ILeaderBoardEntry>> leaderboards, int limit,
+                                                            boolean ascending) {
+        int k = leaderboards.size;
+        int total = 0;
+        for (int i = 0; i < k; i++)
+            total += leaderboards.get(i).size;
+
+        Array<ILeaderBoardEntry> merged = new Array<ILeaderBoardEntry>(Math.min(limit, total));
+        if (k == 1) {
+            Array<ILeaderBoardEntry> single = leaderboards.first();
+            for (int i = 0; i < single.size && merged.size < limit; i++)
+                merged.add(single.get(i));
+            return merged;
+        }
+
+        // binary min heap of leaderboard indices, ordered by their current head entry
+        int[] heap = new int[k];
+        int[] positions = new int[k];
+        int heapSize = 0;
+        for (int i = 0; i < k; i++) {
+            if (leaderboards.get(i).size > 0) {
+                heap[heapSize] = i;
+                siftUp(heap, heapSize, leaderboards, positions, ascending);
+                heapSize++;
+            }
+        }
+
+        while (heapSize > 0 && merged.size < limit) {
+            int top = heap[0];
+            Array<ILeaderBoardEntry> leaderboard = leaderboards.get(top);
+            merged.add(leaderboard.get(positions[top]++));
+
+            if (positions[top] >= leaderboard.size)
+                heap[0] = heap[--heapSize];
+            siftDown(heap, heapSize, leaderboards, positions, ascending);
+        }
+
+        return merged;
+    }
+
+    private static boolean comesFirst(int a, int b, Array<Array<ILeaderBoardEntry>> leaderboards, int[] positions,
+                                      boolean ascending) {
+        long valueA = leaderboards.get(a).get(positions[a]).getSortValue();
+        long valueB = leaderboards.get(b).get(positions[b]).getSortValue();
+        if (valueA == valueB)
+            // keep order of clients for equal values
+            return a < b;
+        return ascending ? valueA < valueB : valueA > valueB;
+    }
+
+    private static void siftUp(int[] heap, int index, Array<Array<ILeaderBoardEntry>> leaderboards, int[] positions,
+                               boolean ascending) {
+        while (index > 0) {
+            int parent = (index - 1) >> 1;
+            if (!comesFirst(heap[index], heap[parent], leaderboards, positions, ascending))
+                break;
+            int swap = heap[index];
+            heap[index] = heap[parent];
+            heap[parent] = swap;
+            index = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, int size, Array<Array<ILeaderBoardEntry>> leaderboards, int[] positions,
+                                 boolean ascending) {
+        int index = 0;
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size)
+                break;
+            if (child + 1 < size && comesFirst(heap[child + 1], heap[child], leaderboards, positions, ascending))
+                child++;
+            if (!comesFirst(heap[child], heap[index], leaderboards, positions, ascending))
+                break;
+            int swap = heap[index];
+            heap[index] = heap[child];
+            heap[child] = swap;
+            index = child;
+        }
+    }
+
+    @Override
+    public boolean fetchAchievements(IFetchAchievementsResponseListener callback) {
+        Array<IGameServiceClient> supporting = new Array<IGameServiceClient>();
+        for (int i = 0; i < clients.length; i++)
+            if (clients[i].isFeatureSupported(GameServiceFeature.FetchAchievements))
+                supporting.add(clients[i]);
+
+        final AchievementsMerge merge = new AchievementsMerge(supporting.size + 1, callback);
+        boolean started = false;
+
+        for (int i = 0; i < supporting.size; i++) {
+            final IGameServiceClient client = supporting.get(i);
+            boolean clientStarted = client.fetchAchievements(new IFetchAchievementsResponseListener() {
+                @Override
+                public void onFetchAchievementsResponse(Array<IAchievement> achievements) {
+                    reportResult(client, OP_FETCH_ACHIEVEMENTS, achievements != null);
+                    merge.partDone(achievements);
+                }
+            });
+
+            if (!clientStarted) {
+                reportResult(client, OP_FETCH_ACHIEVEMENTS, false);
+                merge.partDone(null);
+            }
+            started = started || clientStarted;
+        }
+
+        if (started)
+            merge.partDone(null);
+
+        return started;
+    }
+
+    @Override
+    public void saveGameState(String fileId, byte[] gameState, long progressValue,
+                              final ISaveGameStateResponseListener success) {
+        final IGameServiceClient primary = getFirstSupporting(GameServiceFeature.GameStateStorage);
+        if (primary == null) {
+            if (success != null)
+                success.onGameStateSaved(false, "NOT_SUPPORTED");
+            return;
+        }
+
+        for (int i = 0; i < clients.length; i++) {
+            final IGameServiceClient client = clients[i];
+            if (!client.isFeatureSupported(GameServiceFeature.GameStateStorage))
+                continue;
+
+            client.saveGameState(fileId, gameState, progressValue, new ISaveGameStateResponseListener() {
+                @Override
+                public void onGameStateSaved(boolean saved, String errorCode) {
+                    reportResult(client, OP_SAVE, saved);
+                    if (client == primary && success != null)
+                        success.onGameStateSaved(saved, errorCode);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void loadGameState(String fileId, ILoadGameStateResponseListener responseListener) {
+        IGameServiceClient primary = getFirstSupporting(GameServiceFeature.GameStateStorage);
+        if (primary == null)
+            responseListener.gsGameStateLoaded(null);
+        else
+            primary.loadGameState(fileId, responseListener);
+    }
+
+    @Override
+    public boolean deleteGameState(String fileId, final ISaveGameStateResponseListener success) {
+        final IGameServiceClient primary = getFirstSupporting(GameServiceFeature.GameStateDelete);
+        if (primary == null)
+            return false;
+
+        boolean started = false;
+        for (int i = 0; i < clients.length; i++) {
+            final IGameServiceClient client = clients[i];
+            if (!client.isFeatureSupported(GameServiceFeature.GameStateDelete))
+                continue;
+
+            boolean clientStarted = client.deleteGameState(fileId, new ISaveGameStateResponseListener() {
+                @Override
+                public void onGameStateSaved(boolean deleted, String errorCode) {
+                    reportResult(client, OP_DELETE, deleted);
+                    if (client == primary && success != null)
+                        success.onGameStateSaved(deleted, errorCode);
+                }
+            });
+            if (client == primary)
+                started = clientStarted;
+        }
+        return started;
+    }
+
+    @Override
+    public boolean fetchGameStates(IFetchGameStatesListResponseListener callback) {
+        IGameServiceClient primary = getFirstSupporting(GameServiceFeature.FetchGameStates);
+        return primary != null && primary.fetchGameStates(callback);
+    }
+
+    @Override
+    public boolean isFeatureSupported(GameServiceFeature feature) {
+        return getFirstSupporting(feature) != null;
+    }
+
+    /**
+     * Gets the results of the single clients
+     */
+    public interface IBackendResultListener {
+        /**
+         * Called for every client with the result of an operation. Might not be called on the render thread.
+         *
+         * @param gameServiceId id of the client, see {@link IGameServiceClient#getGameServiceId()}
+         * @param operation     one of the OP_ constants
+         * @param success       true if the client accepted or performed the operation
+         */
+        void onBackendResult(String gameServiceId, String operation, boolean success);
+    }
+
+    private static class LeaderboardMerge {
+        private final Array<Array<ILeaderBoardEntry>> results = new Array<Array<ILeaderBoardEntry>>();
+        private final int limit;
+        private final boolean ascending;
+        private final IFetchLeaderBoardEntriesResponseListener callback;
+        private int pending;
+
+        private LeaderboardMerge(int pending, int limit, boolean ascending,
+                                 IFetchLeaderBoardEntriesResponseListener callback) {
+            this.pending = pending;
+            this.limit = limit;
+            this.ascending = ascending;
+            this.callback = callback;
+        }
+
+        private void partDone(Array<ILeaderBoardEntry> leaderBoard) {
+            synchronized (this) {
+                if (leaderBoard != null)
+                    results.add(leaderBoard);
+                if (--pending > 0)
+                    return;
+            }
+            callback.onLeaderBoardResponse(results.size == 0 ? null : mergeLeaderboards(results, limit, ascending));
+        }
+    }
+
+    private static class AchievementsMerge {
+        private final ObjectMap<String, IAchievement> merged = new ObjectMap<String, IAchievement>();
+        private final Array<String> order = new Array<String>();
+        private final IFetchAchievementsResponseListener callback;
+        private boolean anyResult;
+        private int pending;
+
+        private AchievementsMerge(int pending, IFetchAchievementsResponseListener callback) {
+            this.pending = pending;
+            this.callback = callback;
+        }
+
+        private void partDone(Array<IAchievement> achievements) {
+            synchronized (this) {
+                if (achievements != null) {
+                    anyResult = true;
+                    for (int i = 0; i < achievements.size; i++) {
+                        IAchievement achievement = achievements.get(i);
+                        IAchievement known = merged.get(achievement.getAchievementId());
+                        if (known == null)
+                            order.add(achievement.getAchievementId());
+                        if (known == null || known.getCompletionPercentage() < achievement.getCompletionPercentage())
+                            merged.put(achievement.getAchievementId(), achievement);
+                    }
+                }
+                if (--pending > 0)
+                    return;
+            }
+
+            Array<IAchievement> result = null;
+            if (anyResult) {
+                result = new Array<IAchievement>(order.size);
+                for (int i = 0; i < order.size; i++)
+                    result.add(merged.get(order.get(i)));
+            }
+            callback.onFetchAchievementsResponse(result);
+        }
+    }
+
+    protected class BackendListener implements IGameServiceListener {
+        private final int index;
+
+        protected BackendListener(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public void gsOnSessionActive() {
+            boolean notify;
+            synchronized (sessionActive) {
+                sessionActive[index] = true;
+                notify = !anySessionActive;
+                anySessionActive = true;
+            }
+            if (notify && gsListener != null)
+                gsListener.gsOnSessionActive();
+        }
+
+        @Override
+        public void gsOnSessionInactive() {
+            boolean notify;
+            synchronized (sessionActive) {
+                sessionActive[index] = false;
+                boolean stillActive = false;
+                for (int i = 0; i < sessionActive.length; i++)
+                    stillActive = stillActive || sessionActive[i];
+                notify = anySessionActive && !stillActive;
+                anySessionActive = stillActive;
+            }
+            if (notify && gsListener != null)
+                gsListener.gsOnSessionInactive();
+        }
+
+        @Override
+        public void gsShowErrorToUser(GsErrorType et, String msg, Throwable t) {
+            if (gsListener != null)
+                gsListener.gsShowErrorToUser(et, msg, t);
+        }
+    }
+}
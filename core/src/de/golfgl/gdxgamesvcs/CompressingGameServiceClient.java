@@ -0,0 +1,76 @@
+package de.golfgl.gdxgamesvcs;
+
+import com.badlogic.gdx.Gdx;
+
+import de.golfgl.gdxgamesvcs.gamestate.GameStateFrame;
+import de.golfgl.gdxgamesvcs.gamestate.IGameStateCodec;
+import de.golfgl.gdxgamesvcs.gamestate.ILoadGameStateResponseListener;
+import de.golfgl.gdxgamesvcs.gamestate.ISaveGameStateResponseListener;
+
+/**
+ * Wrapper for a {@link IGameServiceClient} encoding game states before they are saved and decoding them after
+ * loading, typically to compress them:
+ * <pre>
+ * gsClient = new CompressingGameServiceClient(gsClient, new DeflateGameStateCodec());
+ * </pre>
+ * Saved game states are framed by {@link GameStateFrame}. Game states saved before the wrapper was used are
+ * detected and loaded unchanged. Codecs used by older versions of your game can be registered with
+ * {@link #addCodec(IGameStateCodec)} to keep loading their game states.
+ * <p>
+ * Game states failing to decode are reported as failed loads.
+ */
+
+public class CompressingGameServiceClient extends GameServiceClientWrapper {
+    public static final String TAG = "GS_COMPRESSING";
+
+    protected final GameStateFrame frame = new GameStateFrame();
+    protected final IGameStateCodec codec;
+
+    /**
+     * @param client wrapped client
+     * @param codec  codec for saving game states, or null to save them framed but not encoded
+     */
+    public CompressingGameServiceClient(IGameServiceClient client, IGameStateCodec codec) {
+        super(client);
+        this.codec = codec;
+
+        if (codec != null)
+            frame.addCodec(codec);
+    }
+
+    /**
+     * Makes an additional codec known for loading game states
+     *
+     * @return this for method chaining
+     */
+    public CompressingGameServiceClient addCodec(IGameStateCodec codec) {
+        frame.addCodec(codec);
+        return this;
+    }
+
+    @Override
+    public void saveGameState(String fileId, byte[] gameState, long progressValue,
+                              ISaveGameStateResponseListener success) {
+        super.saveGameState(fileId, frame.frame(codec, gameState), progressValue, success);
+    }
+
+    @Override
+    public void loadGameState(String fileId, final ILoadGameStateResponseListener responseListener) {
+        super.loadGameState(fileId, new ILoadGameStateResponseListener() {
+            @Override
+            public void gsGameStateLoaded(byte[] gameState) {
+                byte[] decoded = null;
+
+                if (gameState != null) {
+                    try {
+                        decoded = frame.unframe(gameState);
+                    } catch (IllegalArgumentException e) {
+                        Gdx.app.error(TAG, "Could not decode game state", e);
+                    }
+                }
+
+                responseListener.gsGameStateLoaded(decoded);
+            }
+        });
+    }
+}
@@ -0,0 +1,121 @@
+package de.golfgl.gdxgamesvcs;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.TimeUtils;
+
+import de.golfgl.gdxgamesvcs.gamestate.GameStateConflictPolicies;
+import de.golfgl.gdxgamesvcs.gamestate.GameStateMetadata;
+import de.golfgl.gdxgamesvcs.gamestate.IFetchGameStateMetadataListener;
+import de.golfgl.gdxgamesvcs.gamestate.IGameStateConflictPolicy;
+import de.golfgl.gdxgamesvcs.gamestate.IGameStateMetadataClient;
+import de.golfgl.gdxgamesvcs.gamestate.ILoadGameStateResponseListener;
+import de.golfgl.gdxgamesvcs.gamestate.ISaveGameStateResponseListener;
+
+/**
+ * Wrapper for a {@link IGameServiceClient} checking the game state already saved before overwriting it.
+ * <p>
+ * Before saving, only the metadata of the saved game state is fetched and given to the
+ * {@link IGameStateConflictPolicy} together with the progress value of the game state to save. Depending on the
+ * policy, the game state is saved, the saved one is kept (saving fails with
+ * {@link GameStateConflictPolicies#ERROR_CONFLICT}) or both are merged. Only merging loads the saved game state.
+ * <p>
+ * The wrapped client must implement {@link IGameStateMetadataClient}, otherwise game states are saved without a
+ * check, so wrap the game service client directly and put other wrappers around this one. If fetching the metadata
+ * fails, saving fails as well.
+ */
+
+public class ConflictResolvingGameServiceClient extends GameServiceClientWrapper {
+    public static final String TAG = "GS_CONFLICTS";
+    public static final String ERROR_METADATA = "METADATA_NOT_AVAILABLE";
+
+    protected final IGameStateConflictPolicy policy;
+
+    /**
+     * @param client wrapped client
+     * @param policy policy deciding on conflicts, see {@link GameStateConflictPolicies}
+     */
+    public ConflictResolvingGameServiceClient(IGameServiceClient client, IGameStateConflictPolicy policy) {
+        super(client);
+        this.policy = policy;
+    }
+
+    /**
+     * Saves a game state changed right now. Use
+     * {@link #saveGameState(String, byte[], long, long, ISaveGameStateResponseListener)} for game states changed
+     * earlier.
+     */
+    @Override
+    public void saveGameState(String fileId, byte[] gameState, long progressValue,
+                              ISaveGameStateResponseListener listener) {
+        saveGameState(fileId, gameState, progressValue, TimeUtils.millis(), listener);
+    }
+
+    /**
+     * Saves a game state that was changed locally some time ago, for example while no session was active. Used by
+     * {@link WriteBehindGameServiceClient}.
+     *
+     * @param modifiedTime time the game state was changed locally in milliseconds since epoch, compared with the
+     *                     saved game state's time by {@link GameStateConflictPolicies#newestWins()}
+     */
+    public void saveGameState(final String fileId, final byte[] gameState, final long progressValue,
+                              long modifiedTime, final ISaveGameStateResponseListener listener) {
+        if (!(realClient instanceof IGameStateMetadataClient)) {
+            super.saveGameState(fileId, gameState, progressValue, listener);
+            return;
+        }
+
+        final GameStateMetadata local = new GameStateMetadata(fileId, true, progressValue, modifiedTime);
+        boolean started = ((IGameStateMetadataClient) realClient).fetchGameStateMetadata(fileId,
+                new IFetchGameStateMetadataListener() {
+                    @Override
+                    public void onGameStateMetadataResponse(GameStateMetadata remote) {
+                        if (remote == null) {
+                            Gdx.app.error(TAG, "Could not fetch metadata of game state " + fileId);
+                            notifyListener(listener, false, ERROR_METADATA);
+                        } else if (!remote.exists())
+                            ConflictResolvingGameServiceClient.super.saveGameState(fileId, gameState,
+                                    progressValue, listener);
+                        else
+                            resolveConflict(local, remote, gameState, listener);
+                    }
+                });
+
+        if (!started)
+            notifyListener(listener, false, isSessionActive() ? ERROR_METADATA : "NOT_CONNECTED");
+    }
+
+    protected void resolveConflict(final GameStateMetadata local, final GameStateMetadata remote,
+                                   final byte[] gameState, final ISaveGameStateResponseListener listener) {
+        switch (policy.resolve(local, remote)) {
+            case OVERWRITE:
+                super.saveGameState(local.getFileId(), gameState, local.getProgressValue(), listener);
+                break;
+
+            case KEEP_REMOTE:
+                Gdx.app.log(TAG, "Kept saved game state " + local.getFileId() + " with progress "
+                        + remote.getProgressValue());
+                notifyListener(listener, false, GameStateConflictPolicies.ERROR_CONFLICT);
+                break;
+
+            case MERGE:
+                super.loadGameState(local.getFileId(), new ILoadGameStateResponseListener() {
+                    @Override
+                    public void gsGameStateLoaded(byte[] remoteGameState) {
+                        byte[] merged = remoteGameState != null ? policy.merge(gameState, remoteGameState) : null;
+
+                        if (merged == null)
+                            notifyListener(listener, false, GameStateConflictPolicies.ERROR_CONFLICT);
+                        else
+                            ConflictResolvingGameServiceClient.super.saveGameState(local.getFileId(), merged,
+                                    Math.max(local.getProgressValue(), remote.getProgressValue()), listener);
+                    }
+                });
+                break;
+        }
+    }
+
+    private static void notifyListener(ISaveGameStateResponseListener listener, boolean success, String errorCode) {
+        if (listener != null)
+            listener.onGameStateSaved(success, errorCode);
+    }
+}
@@ -0,0 +1,168 @@
+package de.golfgl.gdxgamesvcs;
+
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.badlogic.gdx.utils.Timer;
+
+/**
+ * Sums up event increments per event id and hands them over to a batch sink instead of sending a request for
+ * every single {@link IGameServiceClient#submitEvent(String, int)} call.
+ * <p>
+ * Events are flushed when the flush delay after the first pending increment has passed, when the number of
+ * pending event ids reaches {@link #setMaxPendingEvents(int)}, or when a flush is forced by calling
+ * {@link #flush(boolean)}, typically in {@link IGameServiceClient#pauseSession()}. A minimum interval between two
+ * batches can be set for game services limiting how often events may be sent.
+ * <p>
+ * This class is thread-safe. Game service client implementations use it internally, there is normally no need
+ * to use it in your game.
+ */
+
+public class EventAggregator {
+    protected final IEventBatchSink sink;
+    protected final ObjectIntMap<String> pendingEvents = new ObjectIntMap<String>();
+    protected Timer.Task flushTask;
+    private float flushDelay = 5;
+    private float minSendInterval;
+    private int maxPendingEvents = 50;
+    private long lastSendTime;
+
+    /**
+     * @param sink the sink sending batches of events to the game service
+     */
+    public EventAggregator(IEventBatchSink sink) {
+        this.sink = sink;
+    }
+
+    /**
+     * @param flushDelay time in seconds increments are collected before they are sent, 0 to send them when they
+     *                   are added. Default 5
+     * @return this for method chaining
+     */
+    public EventAggregator setFlushDelay(float flushDelay) {
+        this.flushDelay = flushDelay;
+        return this;
+    }
+
+    /**
+     * @param minSendInterval minimum time in seconds between two batches, even when flushing is forced. Default 0
+     * @return this for method chaining
+     */
+    public EventAggregator setMinSendInterval(float minSendInterval) {
+        this.minSendInterval = minSendInterval;
+        return this;
+    }
+
+    /**
+     * @param maxPendingEvents number of different pending event ids causing an immediate flush. Default 50
+     * @return this for method chaining
+     */
+    public EventAggregator setMaxPendingEvents(int maxPendingEvents) {
+        this.maxPendingEvents = Math.max(1, maxPendingEvents);
+        return this;
+    }
+
+    /**
+     * Adds an increment for the given event
+     */
+    public void addEvent(String eventId, int increment) {
+        synchronized (pendingEvents) {
+            pendingEvents.getAndIncrement(eventId, 0, increment);
+
+            if (flushDelay <= 0)
+                flush(true);
+            else if (pendingEvents.size >= maxPendingEvents)
+                flush(false);
+            else
+                scheduleFlush(flushDelay);
+        }
+    }
+
+    /**
+     * Hands all pending increments to the sink, if the minimum send interval is not violated. Otherwise a flush
+     * is scheduled for when the interval has passed.
+     *
+     * @param force true to not wait for the flush delay, for example when the game is paused
+     * @return true if pending increments were handed to the sink
+     */
+    public boolean flush(boolean force) {
+        synchronized (pendingEvents) {
+            if (pendingEvents.size == 0)
+                return false;
+
+            float waitTime = minSendInterval - TimeUtils.timeSinceMillis(lastSendTime) / 1000f;
+            if (waitTime > 0) {
+                scheduleFlush(waitTime);
+                return false;
+            }
+
+            if (!force && flushTask != null && flushTask.isScheduled() && pendingEvents.size < maxPendingEvents)
+                return false;
+
+            cancelFlush();
+            if (!sink.sendEvents(pendingEvents)) {
+                // keep increments for the next try
+                scheduleFlush(flushDelay);
+                return false;
+            }
+
+            lastSendTime = TimeUtils.millis();
+            pendingEvents.clear();
+            return true;
+        }
+    }
+
+    /**
+     * @return number of event ids with pending increments
+     */
+    public int getPendingCount() {
+        synchronized (pendingEvents) {
+            return pendingEvents.size;
+        }
+    }
+
+    /**
+     * Drops all pending increments
+     */
+    public void clear() {
+        synchronized (pendingEvents) {
+            cancelFlush();
+            pendingEvents.clear();
+        }
+    }
+
+    protected void scheduleFlush(float delay) {
+        if (flushTask != null && flushTask.isScheduled())
+            return;
+
+        flushTask = Timer.schedule(new Timer.Task() {
+            @Override
+            public void run() {
+                synchronized (pendingEvents) {
+                    flushTask = null;
+                    flush(true);
+                }
+            }
+        }, delay);
+    }
+
+    protected void cancelFlush() {
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+    }
+
+    /**
+     * Sends a batch of summed up event increments
+     */
+    public interface IEventBatchSink {
+        /**
+         * Called with all pending increments. The map is cleared afterwards, so copy what is needed if the
+         * batch is not sent synchronously. Should not block.
+         *
+         * @param events event ids and their summed up increments
+         * @return true if the batch was taken, false if it should be kept and retried later
+         */
+        boolean sendEvents(ObjectIntMap<String> events);
+    }
+}
@@ -0,0 +1,145 @@
+package de.golfgl.gdxgamesvcs;
+
+import de.golfgl.gdxgamesvcs.achievement.IFetchAchievementsResponseListener;
+import de.golfgl.gdxgamesvcs.gamestate.IFetchGameStatesListResponseListener;
+import de.golfgl.gdxgamesvcs.gamestate.ILoadGameStateResponseListener;
+import de.golfgl.gdxgamesvcs.gamestate.ISaveGameStateResponseListener;
+import de.golfgl.gdxgamesvcs.leaderboard.IFetchLeaderBoardEntriesResponseListener;
+
+/**
+ * Base class for wrappers adding behaviour to an existing {@link IGameServiceClient}. All calls are forwarded to
+ * the wrapped client, subclasses override the methods they want to intercept.
+ * <p>
+ * Wrappers can be stacked, as every wrapper is a game service client itself.
+ */
+
+public class GameServiceClientWrapper implements IGameServiceClient {
+
+    protected final IGameServiceClient realClient;
+
+    public GameServiceClientWrapper(IGameServiceClient client) {
+        if (client == null)
+            throw new IllegalArgumentException("Wrapped client must not be null");
+
+        realClient = client;
+    }
+
+    /**
+     * @return the wrapped client
+     */
+    public IGameServiceClient getRealClient() {
+        return realClient;
+    }
+
+    @Override
+    public String getGameServiceId() {
+        return realClient.getGameServiceId();
+    }
+
+    @Override
+    public void setListener(IGameServiceListener gsListener) {
+        realClient.setListener(gsListener);
+    }
+
+    @Override
+    public boolean resumeSession() {
+        return realClient.resumeSession();
+    }
+
+    @Override
+    public boolean logIn() {
+        return realClient.logIn();
+    }
+
+    @Override
+    public void pauseSession() {
+        realClient.pauseSession();
+    }
+
+    @Override
+    public void logOff() {
+        realClient.logOff();
+    }
+
+    @Override
+    public String getPlayerDisplayName() {
+        return realClient.getPlayerDisplayName();
+    }
+
+    @Override
+    public boolean isSessionActive() {
+        return realClient.isSessionActive();
+    }
+
+    @Override
+    public boolean isConnectionPending() {
+        return realClient.isConnectionPending();
+    }
+
+    @Override
+    public void showLeaderboards(String leaderBoardId) throws GameServiceException {
+        realClient.showLeaderboards(leaderBoardId);
+    }
+
+    @Override
+    public void showAchievements() throws GameServiceException {
+        realClient.showAchievements();
+    }
+
+    @Override
+    public boolean fetchAchievements(IFetchAchievementsResponseListener callback) {
+        return realClient.fetchAchievements(callback);
+    }
+
+    @Override
+    public boolean submitToLeaderboard(String leaderboardId, long score, String tag) {
+        return realClient.submitToLeaderboard(leaderboardId, score, tag);
+    }
+
+    @Override
+    public boolean fetchLeaderboardEntries(String leaderBoardId, int limit, boolean relatedToPlayer,
+                                           IFetchLeaderBoardEntriesResponseListener callback) {
+        return realClient.fetchLeaderboardEntries(leaderBoardId, limit, relatedToPlayer, callback);
+    }
+
+    @Override
+    public boolean submitEvent(String eventId, int increment) {
+        return realClient.submitEvent(eventId, increment);
+    }
+
+    @Override
+    public boolean unlockAchievement(String achievementId) {
+        return realClient.unlockAchievement(achievementId);
+    }
+
+    @Override
+    public boolean incrementAchievement(String achievementId, int incNum, float completionPercentage) {
+        return realClient.incrementAchievement(achievementId, incNum, completionPercentage);
+    }
+
+    @Override
+    public void saveGameState(String fileId, byte[] gameState, long progressValue,
+                              ISaveGameStateResponseListener success) {
+        realClient.saveGameState(fileId, gameState, progressValue, success);
+    }
+
+    @Override
+    public void loadGameState(String fileId, ILoadGameStateResponseListener responseListener) {
+        realClient.loadGameState(fileId, responseListener);
+    }
+
+    @Override
+    public boolean deleteGameState(String fileId, ISaveGameStateResponseListener success) {
+        return realClient.deleteGameState(fileId, success);
+    }
+
+    @Override
+    public boolean fetchGameStates(IFetchGameStatesListResponseListener callback) {
+        return realClient.fetchGameStates(callback);
+    }
+
+    @Override
+    public boolean isFeatureSupported(GameServiceFeature feature) {
+        return realClient.isFeatureSupported(feature);
+    }
+}
@@ -0,0 +1,174 @@
+package de.golfgl.gdxgamesvcs;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * Id mappings for all game services of your game, read from a single JSON file:
+ * <pre>
+ * {
+ *   "GS_GAMEJOLT": {
+ *     "leaderboards": { "highscore": 12345 },
+ *     "achievements": { "firstwin": 67890 }
+ *   },
+ *   "GPGS": {
+ *     "leaderboards": { "highscore": "CgkI..." },
+ *     "achievements": { "firstwin": "CgkI..." },
+ *     "events": { "gamestarted": "CgkI..." }
+ *   }
+ * }
+ * </pre>
+ * Top level keys are the game service ids as returned by {@link IGameServiceClient#getGameServiceId()}, each holding
+ * the sections {@link #LEADERBOARDS}, {@link #ACHIEVEMENTS} and {@link #EVENTS}. Then get the mappers for your
+ * client:
+ * <pre>
+ * GameServiceIdMappings mappings = GameServiceIdMappings.fromJson(Gdx.files.internal("gameservices.json"));
+ * gjClient.setGjScoreTableMapper(mappings.getIntMapper(GameJoltClient.GAMESERVICE_ID,
+ *         GameServiceIdMappings.LEADERBOARDS));
+ * </pre>
+ * All ids are converted and boxed when a mapper is first requested, so mapping ids is a single hash lookup without
+ * creating garbage. Numeric ids are also kept unboxed, use {@link IntIdMapper#mapToGsId(String, int)} to read them
+ * as primitives. Unknown ids, sections and game services map to null.
+ */
+
+public class GameServiceIdMappings {
+    public static final String LEADERBOARDS = "leaderboards";
+    public static final String ACHIEVEMENTS = "achievements";
+    public static final String EVENTS = "events";
+
+    private static final IntIdMapper EMPTY_INT_MAPPER = new IntIdMapper(new ObjectMap<String, Integer>(0),
+            new ObjectIntMap<String>(0));
+    private static final StringIdMapper EMPTY_STRING_MAPPER = new StringIdMapper(new ObjectMap<String, String>(0));
+
+    protected final JsonValue root;
+    protected final ObjectMap<String, IntIdMapper> intMappers = new ObjectMap<String, IntIdMapper>();
+    protected final ObjectMap<String, StringIdMapper> stringMappers = new ObjectMap<String, StringIdMapper>();
+
+    /**
+     * @param root parsed mappings file
+     */
+    public GameServiceIdMappings(JsonValue root) {
+        this.root = root;
+    }
+
+    public static GameServiceIdMappings fromJson(FileHandle file) {
+        return new GameServiceIdMappings(new JsonReader().parse(file));
+    }
+
+    public static GameServiceIdMappings fromJson(String json) {
+        return new GameServiceIdMappings(new JsonReader().parse(json));
+    }
+
+    /**
+     * @param gameServiceId game service id, see {@link IGameServiceClient#getGameServiceId()}
+     * @param section       one of {@link #LEADERBOARDS}, {@link #ACHIEVEMENTS} and {@link #EVENTS}
+     * @return mapper for game services using numeric ids, like GameJolt
+     * @throws NumberFormatException if the section contains an id that is not numeric
+     */
+    public synchronized IntIdMapper getIntMapper(String gameServiceId, String section) {
+        String key = gameServiceId + '/' + section;
+        IntIdMapper mapper = intMappers.get(key);
+
+        if (mapper == null) {
+            JsonValue mappings = getSection(gameServiceId, section);
+            if (mappings == null)
+                mapper = EMPTY_INT_MAPPER;
+            else {
+                ObjectMap<String, Integer> boxedIds = new ObjectMap<String, Integer>(mappings.size);
+                ObjectIntMap<String> ids = new ObjectIntMap<String>(mappings.size);
+                for (JsonValue mapping = mappings.child; mapping != null; mapping = mapping.next) {
+                    int id = mapping.isNumber() ? mapping.asInt() : Integer.parseInt(mapping.asString());
+                    boxedIds.put(mapping.name, id);
+                    ids.put(mapping.name, id);
+                }
+                mapper = new IntIdMapper(boxedIds, ids);
+            }
+            intMappers.put(key, mapper);
+        }
+
+        return mapper;
+    }
+
+    /**
+     * @param gameServiceId game service id, see {@link IGameServiceClient#getGameServiceId()}
+     * @param section       one of {@link #LEADERBOARDS}, {@link #ACHIEVEMENTS} and {@link #EVENTS}
+     * @return mapper for game services using string ids, like Google Play Games
+     */
+    public synchronized StringIdMapper getStringMapper(String gameServiceId, String section) {
+        String key = gameServiceId + '/' + section;
+        StringIdMapper mapper = stringMappers.get(key);
+
+        if (mapper == null) {
+            JsonValue mappings = getSection(gameServiceId, section);
+            if (mappings == null)
+                mapper = EMPTY_STRING_MAPPER;
+            else {
+                ObjectMap<String, String> ids = new ObjectMap<String, String>(mappings.size);
+                for (JsonValue mapping = mappings.child; mapping != null; mapping = mapping.next)
+                    ids.put(mapping.name, mapping.asString());
+                mapper = new StringIdMapper(ids);
+            }
+            stringMappers.put(key, mapper);
+        }
+
+        return mapper;
+    }
+
+    protected JsonValue getSection(String gameServiceId, String section) {
+        JsonValue gameService = root.get(gameServiceId);
+        return gameService != null ? gameService.get(section) : null;
+    }
+
+    /**
+     * Mapper to numeric ids. The ids are held boxed for {@link IGameServiceIdMapper} as well as unboxed for
+     * {@link #mapToGsId(String, int)}, so neither creates garbage.
+     */
+    public static class IntIdMapper implements IGameServiceIdMapper<Integer> {
+        private final ObjectMap<String, Integer> boxedIds;
+        private final ObjectIntMap<String> ids;
+
+        protected IntIdMapper(ObjectMap<String, Integer> boxedIds, ObjectIntMap<String> ids) {
+            this.boxedIds = boxedIds;
+            this.ids = ids;
+        }
+
+        @Override
+        public Integer mapToGsId(String independantId) {
+            return independantId != null ? boxedIds.get(independantId) : null;
+        }
+
+        /**
+         * @return game service dependant id, or defaultValue if none available
+         */
+        public int mapToGsId(String independantId, int defaultValue) {
+            return independantId != null ? ids.get(independantId, defaultValue) : defaultValue;
+        }
+
+        public int size() {
+            return ids.size;
+        }
+    }
+
+    /**
+     * Mapper to string ids
+     */
+    public static class StringIdMapper implements IGameServiceIdMapper<String> {
+        private final ObjectMap<String, String> ids;
+
+        protected StringIdMapper(ObjectMap<String, String> ids) {
+            this.ids = ids;
+        }
+
+        @Override
+        public String mapToGsId(String independantId) {
+            return independantId != null ? ids.get(independantId) : null;
+        }
+
+        public int size() {
+            return ids.size;
+        }
+    }
+}
@@ -1,49 +1,54 @@
 package de.golfgl.gdxgamesvcs;
 
-import com.badlogic.gdx.Gdx;
-
 /**
  * Convinience wrapper for {@link IGameServiceListener} implementations: all calls are made on UI main render thread
  * when using this wrapper
  * <p>
+ * Calls are delivered by the {@link RenderThreadDispatcher}, so no garbage is produced per call.
+ * <p>
  * Created by Benjamin Schulte on 12.08.2017.
  */
 
 public class GameServiceRenderThreadListener implements IGameServiceListener {
+    private static final int SESSION_ACTIVE = 0;
+    private static final int SESSION_INACTIVE = 1;
+    private static final int SHOW_ERROR = 2;
 
     IGameServiceListener realListener;
 
+    private final RenderThreadDispatcher.IDispatchTarget dispatchTarget = new RenderThreadDispatcher.IDispatchTarget() {
+        @Override
+        public void dispatch(int what, Object arg1, Object arg2, Object arg3) {
+            switch (what) {
+                case SESSION_ACTIVE:
+                    realListener.gsOnSessionActive();
+                    break;
+                case SESSION_INACTIVE:
+                    realListener.gsOnSessionInactive();
+                    break;
+                case SHOW_ERROR:
+                    realListener.gsShowErrorToUser((GsErrorType) arg1, (String) arg2, (Throwable) arg3);
+                    break;
+            }
+        }
+    };
+
     public GameServiceRenderThreadListener(IGameServiceListener listener) {
         realListener = listener;
     }
 
     @Override
     public void gsOnSessionActive() {
-        Gdx.app.postRunnable(new Runnable() {
-            @Override
-            public void run() {
-                realListener.gsOnSessionActive();
-            }
-        });
+        RenderThreadDispatcher.getInstance().post(dispatchTarget, SESSION_ACTIVE, null, null, null);
     }
 
     @Override
     public void gsOnSessionInactive() {
-        Gdx.app.postRunnable(new Runnable() {
-            @Override
-            public void run() {
-                realListener.gsOnSessionInactive();
-            }
-        });
+        RenderThreadDispatcher.getInstance().post(dispatchTarget, SESSION_INACTIVE, null, null, null);
     }
 
     @Override
     public void gsShowErrorToUser(final GsErrorType et, final String msg, final Throwable t) {
-        Gdx.app.postRunnable(new Runnable() {
-            @Override
-            public void run() {
-                realListener.gsShowErrorToUser(et, msg, t);
-            }
-        });
+        RenderThreadDispatcher.getInstance().post(dispatchTarget, SHOW_ERROR, et, msg, t);
     }
 }
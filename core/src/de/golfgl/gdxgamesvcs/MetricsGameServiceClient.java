@@ -0,0 +1,399 @@
+package de.golfgl.gdxgamesvcs;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.TimeUtils;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import de.golfgl.gdxgamesvcs.achievement.IAchievement;
+import de.golfgl.gdxgamesvcs.achievement.IFetchAchievementsResponseListener;
+import de.golfgl.gdxgamesvcs.gamestate.IFetchGameStatesListResponseListener;
+import de.golfgl.gdxgamesvcs.gamestate.ILoadGameStateResponseListener;
+import de.golfgl.gdxgamesvcs.gamestate.ISaveGameStateResponseListener;
+import de.golfgl.gdxgamesvcs.leaderboard.IFetchLeaderBoardEntriesResponseListener;
+import de.golfgl.gdxgamesvcs.leaderboard.ILeaderBoardEntry;
+
+/**
+ * Wrapper for a {@link IGameServiceClient} recording call count, error count and latencies for every operation.
+ * <p>
+ * For operations with a response listener, the latency is the time until the listener is called. For
+ * {@link #logIn()} and {@link #resumeSession()}, it is the time until the session is active, which can only be
+ * measured when a listener is set with {@link #setListener(IGameServiceListener)}. Operations returning false
+ * count as errors, as well as responses signalling a failure.
+ * <p>
+ * Counters are lock-free, so {@link #getSnapshot(Snapshot)} is cheap enough to be called every frame, for example
+ * for a debug overlay. Wrap every client you use to get metrics per game service.
+ */
+
+public class MetricsGameServiceClient extends GameServiceClientWrapper {
+    /**
+     * Number of latency buckets. Bucket i holds latencies below 2^i milliseconds, the last one all longer ones.
+     */
+    public static final int BUCKET_COUNT = 24;
+
+    protected final OperationMetrics[] metrics;
+    protected final AtomicLong sessionRequestStart = new AtomicLong();
+    private volatile Operation sessionRequestOperation;
+
+    public MetricsGameServiceClient(IGameServiceClient client) {
+        super(client);
+
+        Operation[] operations = Operation.values();
+        metrics = new OperationMetrics[operations.length];
+        for (int i = 0; i < operations.length; i++)
+            metrics[i] = new OperationMetrics();
+    }
+
+    /**
+     * @return metrics of the given operation
+     */
+    public OperationMetrics getMetrics(Operation operation) {
+        return metrics[operation.ordinal()];
+    }
+
+    /**
+     * Copies the current metrics into the given snapshot. Does not allocate when a snapshot is reused.
+     *
+     * @param snapshot snapshot to fill, or null to create a new one
+     * @return the filled snapshot
+     */
+    public Snapshot getSnapshot(Snapshot snapshot) {
+        if (snapshot == null)
+            snapshot = new Snapshot();
+
+        snapshot.gameServiceId = getGameServiceId();
+        for (int i = 0; i < metrics.length; i++) {
+            OperationMetrics operation = metrics[i];
+            snapshot.counts[i] = operation.getCount();
+            snapshot.errors[i] = operation.getErrorCount();
+            snapshot.meanMillis[i] = operation.getMeanMillis();
+            snapshot.p50Millis[i] = operation.getPercentileMillis(.5f);
+            snapshot.p95Millis[i] = operation.getPercentileMillis(.95f);
+            snapshot.p99Millis[i] = operation.getPercentileMillis(.99f);
+        }
+
+        return snapshot;
+    }
+
+    /**
+     * Resets all metrics
+     */
+    public void reset() {
+        for (int i = 0; i < metrics.length; i++)
+            metrics[i].reset();
+    }
+
+    protected void record(Operation operation, long startTime, boolean error) {
+        metrics[operation.ordinal()].record(TimeUtils.nanoTime() - startTime, error);
+    }
+
+    @Override
+    public void setListener(IGameServiceListener gsListener) {
+        super.setListener(gsListener != null ? new MetricsListener(gsListener) : null);
+    }
+
+    @Override
+    public boolean resumeSession() {
+        return requestSession(Operation.resumeSession);
+    }
+
+    @Override
+    public boolean logIn() {
+        return requestSession(Operation.logIn);
+    }
+
+    protected boolean requestSession(Operation operation) {
+        long startTime = TimeUtils.nanoTime();
+        boolean alreadyActive = isSessionActive();
+
+        if (!alreadyActive) {
+            sessionRequestOperation = operation;
+            sessionRequestStart.set(startTime);
+        }
+
+        boolean started = operation == Operation.logIn ? super.logIn() : super.resumeSession();
+
+        if (alreadyActive)
+            record(operation, startTime, !started);
+        else if (!started)
+            finishSessionRequest(true);
+
+        return started;
+    }
+
+    protected void finishSessionRequest(boolean error) {
+        Operation operation = sessionRequestOperation;
+        long startTime = sessionRequestStart.getAndSet(0);
+
+        if (startTime != 0 && operation != null)
+            record(operation, startTime, error);
+    }
+
+    @Override
+    public boolean fetchAchievements(final IFetchAchievementsResponseListener callback) {
+        final long startTime = TimeUtils.nanoTime();
+        boolean started = super.fetchAchievements(new IFetchAchievementsResponseListener() {
+            @Override
+            public void onFetchAchievementsResponse(Array<IAchievement> achievements) {
+                record(Operation.fetchAchievements, startTime, achievements == null);
+                callback.onFetchAchievementsResponse(achievements);
+            }
+        });
+
+        if (!started)
+            record(Operation.fetchAchievements, startTime, true);
+
+        return started;
+    }
+
+    @Override
+    public boolean submitToLeaderboard(String leaderboardId, long score, String tag) {
+        long startTime = TimeUtils.nanoTime();
+        boolean submitted = super.submitToLeaderboard(leaderboardId, score, tag);
+        record(Operation.submitToLeaderboard, startTime, !submitted);
+        return submitted;
+    }
+
+    @Override
+    public boolean fetchLeaderboardEntries(String leaderBoardId, int limit, boolean relatedToPlayer,
+                                           final IFetchLeaderBoardEntriesResponseListener callback) {
+        final long startTime = TimeUtils.nanoTime();
+        boolean started = super.fetchLeaderboardEntries(leaderBoardId, limit, relatedToPlayer,
+                new IFetchLeaderBoardEntriesResponseListener() {
+                    @Override
+                    public void onLeaderBoardResponse(Array<ILeaderBoardEntry> leaderBoard) {
+                        record(Operation.fetchLeaderboardEntries, startTime, leaderBoard == null);
+                        callback.onLeaderBoardResponse(leaderBoard);
+                    }
+                });
+
+        if (!started)
+            record(Operation.fetchLeaderboardEntries, startTime, true);
+
+        return started;
+    }
+
+    @Override
+    public boolean submitEvent(String eventId, int increment) {
+        long startTime = TimeUtils.nanoTime();
+        boolean submitted = super.submitEvent(eventId, increment);
+        record(Operation.submitEvent, startTime, !submitted);
+        return submitted;
+    }
+
+    @Override
+    public boolean unlockAchievement(String achievementId) {
+        long startTime = TimeUtils.nanoTime();
+        boolean submitted = super.unlockAchievement(achievementId);
+        record(Operation.unlockAchievement, startTime, !submitted);
+        return submitted;
+    }
+
+    @Override
+    public boolean incrementAchievement(String achievementId, int incNum, float completionPercentage) {
+        long startTime = TimeUtils.nanoTime();
+        boolean submitted = super.incrementAchievement(achievementId, incNum, completionPercentage);
+        record(Operation.incrementAchievement, startTime, !submitted);
+        return submitted;
+    }
+
+    @Override
+    public void saveGameState(String fileId, byte[] gameState, long progressValue,
+                              final ISaveGameStateResponseListener success) {
+        final long startTime = TimeUtils.nanoTime();
+        super.saveGameState(fileId, gameState, progressValue, new ISaveGameStateResponseListener() {
+            @Override
+            public void onGameStateSaved(boolean saved, String errorCode) {
+                record(Operation.saveGameState, startTime, !saved);
+                if (success != null)
+                    success.onGameStateSaved(saved, errorCode);
+            }
+        });
+    }
+
+    @Override
+    public void loadGameState(String fileId, final ILoadGameStateResponseListener responseListener) {
+        final long startTime = TimeUtils.nanoTime();
+        super.loadGameState(fileId, new ILoadGameStateResponseListener() {
+            @Override
+            public void gsGameStateLoaded(byte[] gameState) {
+                record(Operation.loadGameState, startTime, gameState == null);
+                responseListener.gsGameStateLoaded(gameState);
+            }
+        });
+    }
+
+    @Override
+    public boolean deleteGameState(String fileId, final ISaveGameStateResponseListener success) {
+        final long startTime = TimeUtils.nanoTime();
+        boolean started = super.deleteGameState(fileId, new ISaveGameStateResponseListener() {
+            @Override
+            public void onGameStateSaved(boolean deleted, String errorCode) {
+                record(Operation.deleteGameState, startTime, !deleted);
+                if (success != null)
+                    success.onGameStateSaved(deleted, errorCode);
+            }
+        });
+
+        if (!started)
+            record(Operation.deleteGameState, startTime, true);
+
+        return started;
+    }
+
+    @Override
+    public boolean fetchGameStates(final IFetchGameStatesListResponseListener callback) {
+        final long startTime = TimeUtils.nanoTime();
+        boolean started = super.fetchGameStates(new IFetchGameStatesListResponseListener() {
+            @Override
+            public void onFetchGameStatesListResponse(Array<String> gameStates) {
+                record(Operation.fetchGameStates, startTime, gameStates == null);
+                callback.onFetchGameStatesListResponse(gameStates);
+            }
+        });
+
+        if (!started)
+            record(Operation.fetchGameStates, startTime, true);
+
+        return started;
+    }
+
+    /**
+     * Operations metrics are recorded for
+     */
+    public enum Operation {
+        logIn, resumeSession, fetchAchievements, submitToLeaderboard, fetchLeaderboardEntries, submitEvent,
+        unlockAchievement, incrementAchievement, saveGameState, loadGameState, deleteGameState, fetchGameStates
+    }
+
+    /**
+     * Counters and latency histogram of a single operation. All methods may be called from any thread.
+     */
+    public static class OperationMetrics {
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+        private final AtomicLong totalNanos = new AtomicLong();
+        private final AtomicLong[] buckets = new AtomicLong[BUCKET_COUNT];
+
+        protected OperationMetrics() {
+            for (int i = 0; i < BUCKET_COUNT; i++)
+                buckets[i] = new AtomicLong();
+        }
+
+        protected void record(long nanos, boolean error) {
+            count.incrementAndGet();
+            if (error)
+                errors.incrementAndGet();
+            totalNanos.addAndGet(nanos);
+            buckets[getBucket(nanos / 1000000)].incrementAndGet();
+        }
+
+        protected static int getBucket(long millis) {
+            if (millis <= 0)
+                return 0;
+
+            return Math.min(BUCKET_COUNT - 1, 64 - Long.numberOfLeadingZeros(millis));
+        }
+
+        public long getCount() {
+            return count.get();
+        }
+
+        public long getErrorCount() {
+            return errors.get();
+        }
+
+        /**
+         * @return number of calls with a latency in the given bucket, see {@link #BUCKET_COUNT}
+         */
+        public long getBucketCount(int bucket) {
+            return buckets[bucket].get();
+        }
+
+        public float getMeanMillis() {
+            long calls = count.get();
+            return calls == 0 ? 0 : totalNanos.get() / 1000000f / calls;
+        }
+
+        /**
+         * Estimates a percentile from the latency histogram. Latencies are assumed to be spread evenly within the
+         * bucket the percentile falls into, so the estimate is off by less than the bucket's width.
+         *
+         * @param percentile percentile between 0 and 1
+         * @return latency in milliseconds, 0 if nothing was recorded yet
+         */
+        public float getPercentileMillis(float percentile) {
+            long total = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++)
+                total += buckets[i].get();
+
+            if (total == 0)
+                return 0;
+
+            long rank = (long) Math.ceil(total * percentile);
+            long seen = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                long inBucket = buckets[i].get();
+                if (inBucket > 0 && seen + inBucket >= rank) {
+                    // bucket i > 0 holds latencies from 2^(i-1) to 2^i
+                    long lower = i == 0 ? 0 : 1L << (i - 1);
+                    long upper = 1L << i;
+                    return lower + (upper - lower) * (float) (rank - seen) / inBucket;
+                }
+                seen += inBucket;
+            }
+
+            return 1L << (BUCKET_COUNT - 1);
+        }
+
+        public void reset() {
+            count.set(0);
+            errors.set(0);
+            totalNanos.set(0);
+            for (int i = 0; i < BUCKET_COUNT; i++)
+                buckets[i].set(0);
+        }
+    }
+
+    /**
+     * Metrics of all operations at a point in time, arrays are indexed by {@link Operation#ordinal()}. The
+     * percentiles are estimated from power-of-two latency buckets, see
+     * {@link OperationMetrics#getPercentileMillis(float)}.
+     */
+    public static class Snapshot {
+        public String gameServiceId;
+        public final long[] counts = new long[Operation.values().length];
+        public final long[] errors = new long[counts.length];
+        public final float[] meanMillis = new float[counts.length];
+        public final float[] p50Millis = new float[counts.length];
+        public final float[] p95Millis = new float[counts.length];
+        public final float[] p99Millis = new float[counts.length];
+    }
+
+    protected class MetricsListener implements IGameServiceListener {
+        private final IGameServiceListener realListener;
+
+        protected MetricsListener(IGameServiceListener listener) {
+            realListener = listener;
+        }
+
+        @Override
+        public void gsOnSessionActive() {
+            finishSessionRequest(false);
+            realListener.gsOnSessionActive();
+        }
+
+        @Override
+        public void gsOnSessionInactive() {
+            finishSessionRequest(true);
+            realListener.gsOnSessionInactive();
+        }
+
+        @Override
+        public void gsShowErrorToUser(GsErrorType et, String msg, Throwable t) {
+            if (et == GsErrorType.errorLoginFailed || et == GsErrorType.errorServiceUnreachable)
+                finishSessionRequest(true);
+            realListener.gsShowErrorToUser(et, msg, t);
+        }
+    }
+}
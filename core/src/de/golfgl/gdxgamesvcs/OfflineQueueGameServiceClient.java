@@ -0,0 +1,366 @@
+package de.golfgl.gdxgamesvcs;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Preferences;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.JsonWriter;
+import com.badlogic.gdx.utils.Timer;
+
+/**
+ * Wrapper for a {@link IGameServiceClient} that does not lose fire and forget calls made while no user session is
+ * active.
+ * <p>
+ * Calls to {@link #unlockAchievement(String)}, {@link #incrementAchievement(String, int, float)},
+ * {@link #submitToLeaderboard(String, long, String)} and {@link #submitEvent(String, int)} are passed through when
+ * a session is active. Otherwise, or when the wrapped client refuses the call, they are journaled to the
+ * application's {@link Preferences} and replayed in original order as soon as the session is active again. The
+ * journal survives restarts of the game.
+ * <p>
+ * Replaying is done on the render thread by a {@link Timer} task and never blocks: at most
+ * {@link #setMaxReplaysPerDrain(int)} calls are handed to the wrapped client per drain interval.
+ * <p>
+ * Make sure to give a preferences name unique to your game.
+ */
+
+public class OfflineQueueGameServiceClient extends GameServiceClientWrapper {
+    public static final String TAG = "GS_OFFLINEQUEUE";
+    protected static final String PREFKEY_QUEUE = "gsqueue";
+    protected static final int TYPE_UNLOCK = 1;
+    protected static final int TYPE_INCREMENT = 2;
+    protected static final int TYPE_SCORE = 3;
+    protected static final int TYPE_EVENT = 4;
+
+    protected final String prefsName;
+    protected Preferences prefs;
+    protected Array<QueuedCall> queue;
+    protected Timer.Task drainTask;
+
+    private float drainInterval = 5;
+    private int maxReplaysPerDrain = 10;
+    private int maxQueueSize = 500;
+    private int maxAttempts = 5;
+
+    /**
+     * @param client    the client to wrap
+     * @param prefsName name of the preferences file the journal is written to
+     */
+    public OfflineQueueGameServiceClient(IGameServiceClient client, String prefsName) {
+        super(client);
+        this.prefsName = prefsName;
+    }
+
+    /**
+     * @param drainInterval interval in seconds the journal is checked for calls to replay. Default 5
+     * @return this for method chaining
+     */
+    public OfflineQueueGameServiceClient setDrainInterval(float drainInterval) {
+        this.drainInterval = drainInterval;
+        return this;
+    }
+
+    /**
+     * @param maxReplaysPerDrain maximum number of calls replayed at once, bounding the number of requests the
+     *                           wrapped client issues concurrently. Default 10
+     * @return this for method chaining
+     */
+    public OfflineQueueGameServiceClient setMaxReplaysPerDrain(int maxReplaysPerDrain) {
+        this.maxReplaysPerDrain = Math.max(1, maxReplaysPerDrain);
+        return this;
+    }
+
+    /**
+     * @param maxQueueSize maximum number of journaled calls. If exceeded, the oldest call is dropped. Default 500
+     * @return this for method chaining
+     */
+    public OfflineQueueGameServiceClient setMaxQueueSize(int maxQueueSize) {
+        this.maxQueueSize = Math.max(1, maxQueueSize);
+        return this;
+    }
+
+    /**
+     * @param maxAttempts number of times a call is replayed while a session is active before it is dropped. This
+     *                    prevents calls the wrapped client will never accept (for example because of a missing id
+     *                    mapping) from blocking the journal. Default 5
+     * @return this for method chaining
+     */
+    public OfflineQueueGameServiceClient setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        return this;
+    }
+
+    /**
+     * @return number of calls waiting to be replayed. Cheap to call every frame.
+     */
+    public int getQueueSize() {
+        synchronized (this) {
+            loadQueue();
+            return queue.size;
+        }
+    }
+
+    /**
+     * Removes all journaled calls without replaying them
+     */
+    public void clearQueue() {
+        synchronized (this) {
+            loadQueue();
+            queue.clear();
+            saveQueue();
+        }
+    }
+
+    @Override
+    public void setListener(IGameServiceListener gsListener) {
+        super.setListener(gsListener == null ? null : new DrainOnSessionActiveListener(gsListener));
+    }
+
+    @Override
+    public boolean submitToLeaderboard(String leaderboardId, long score, String tag) {
+        if (passThrough() && super.submitToLeaderboard(leaderboardId, score, tag))
+            return true;
+
+        QueuedCall call = new QueuedCall(TYPE_SCORE, leaderboardId);
+        call.longValue = score;
+        call.tag = tag;
+        enqueue(call);
+        return true;
+    }
+
+    @Override
+    public boolean submitEvent(String eventId, int increment) {
+        if (passThrough() && super.submitEvent(eventId, increment))
+            return true;
+
+        synchronized (this) {
+            loadQueue();
+            // events are counters, so a pending call for the same event can simply be increased
+            for (int i = 0; i < queue.size; i++) {
+                QueuedCall call = queue.get(i);
+                if (call.type == TYPE_EVENT && call.id.equals(eventId)) {
+                    call.intValue += increment;
+                    saveQueue();
+                    return true;
+                }
+            }
+        }
+
+        QueuedCall call = new QueuedCall(TYPE_EVENT, eventId);
+        call.intValue = increment;
+        enqueue(call);
+        return true;
+    }
+
+    @Override
+    public boolean unlockAchievement(String achievementId) {
+        if (passThrough() && super.unlockAchievement(achievementId))
+            return true;
+
+        enqueue(new QueuedCall(TYPE_UNLOCK, achievementId));
+        return true;
+    }
+
+    @Override
+    public boolean incrementAchievement(String achievementId, int incNum, float completionPercentage) {
+        if (passThrough() && super.incrementAchievement(achievementId, incNum, completionPercentage))
+            return true;
+
+        QueuedCall call = new QueuedCall(TYPE_INCREMENT, achievementId);
+        call.intValue = incNum;
+        call.floatValue = completionPercentage;
+        enqueue(call);
+        return true;
+    }
+
+    /**
+     * Replays journaled calls now, if a session is active. Is called automatically, so there is normally no need to
+     * call this method yourself.
+     */
+    public void drainQueue() {
+        synchronized (this) {
+            loadQueue();
+
+            int replayed = 0;
+            boolean changed = false;
+            while (queue.size > 0 && replayed < maxReplaysPerDrain && isSessionActive()) {
+                QueuedCall call = queue.first();
+                replayed++;
+                changed = true;
+
+                if (replay(call))
+                    queue.removeIndex(0);
+                else {
+                    call.attempts++;
+                    if (call.attempts < maxAttempts)
+                        break;
+
+                    Gdx.app.log(TAG, "Dropping call for " + call.id + " after " + call.attempts + " attempts.");
+                    queue.removeIndex(0);
+                }
+            }
+
+            if (changed)
+                saveQueue();
+
+            if (queue.size == 0 && drainTask != null) {
+                drainTask.cancel();
+                drainTask = null;
+            }
+        }
+    }
+
+    protected boolean replay(QueuedCall call) {
+        switch (call.type) {
+            case TYPE_UNLOCK:
+                return super.unlockAchievement(call.id);
+            case TYPE_INCREMENT:
+                return super.incrementAchievement(call.id, call.intValue, call.floatValue);
+            case TYPE_SCORE:
+                return super.submitToLeaderboard(call.id, call.longValue, call.tag);
+            case TYPE_EVENT:
+                return super.submitEvent(call.id, call.intValue);
+            default:
+                // unknown entries are dropped
+                return true;
+        }
+    }
+
+    /**
+     * @return true if a call should be handed to the wrapped client directly: there is an active session and no
+     * older calls are waiting, so the order of calls is kept
+     */
+    protected boolean passThrough() {
+        return getQueueSize() == 0 && isSessionActive();
+    }
+
+    protected void enqueue(QueuedCall call) {
+        synchronized (this) {
+            loadQueue();
+            queue.add(call);
+
+            while (queue.size > maxQueueSize) {
+                QueuedCall dropped = queue.removeIndex(0);
+                Gdx.app.log(TAG, "Queue full, dropping call for " + dropped.id);
+            }
+
+            saveQueue();
+            scheduleDrain();
+        }
+    }
+
+    protected void scheduleDrain() {
+        if (drainTask == null || !drainTask.isScheduled()) {
+            drainTask = Timer.schedule(new Timer.Task() {
+                @Override
+                public void run() {
+                    drainQueue();
+                }
+            }, drainInterval, drainInterval);
+        }
+    }
+
+    protected void loadQueue() {
+        if (queue != null)
+            return;
+
+        queue = new Array<QueuedCall>();
+        prefs = Gdx.app.getPreferences(prefsName);
+        String json = prefs.getString(PREFKEY_QUEUE, null);
+
+        if (json == null || json.isEmpty())
+            return;
+
+        try {
+            for (JsonValue entry = new JsonReader().parse(json).child; entry != null; entry = entry.next)
+                queue.add(QueuedCall.fromJson(entry));
+        } catch (Throwable t) {
+            Gdx.app.error(TAG, "Could not read journaled calls, dropping them", t);
+            queue.clear();
+        }
+
+        if (queue.size > 0)
+            scheduleDrain();
+    }
+
+    protected void saveQueue() {
+        JsonValue root = new JsonValue(JsonValue.ValueType.array);
+        for (int i = 0; i < queue.size; i++)
+            root.addChild(queue.get(i).toJson());
+
+        prefs.putString(PREFKEY_QUEUE, root.toJson(JsonWriter.OutputType.json));
+        prefs.flush();
+    }
+
+    protected static class QueuedCall {
+        protected int type;
+        protected String id;
+        protected long longValue;
+        protected int intValue;
+        protected float floatValue;
+        protected String tag;
+        protected int attempts;
+
+        protected QueuedCall(int type, String id) {
+            this.type = type;
+            this.id = id;
+        }
+
+        protected static QueuedCall fromJson(JsonValue json) {
+            QueuedCall call = new QueuedCall(json.getInt("type"), json.getString("id"));
+            call.longValue = json.getLong("long", 0);
+            call.intValue = json.getInt("int", 0);
+            call.floatValue = json.getFloat("float", 0);
+            call.tag = json.getString("tag", null);
+            call.attempts = json.getInt("attempts", 0);
+            return call;
+        }
+
+        protected JsonValue toJson() {
+            JsonValue json = new JsonValue(JsonValue.ValueType.object);
+            json.addChild("type", new JsonValue(type));
+            json.addChild("id", new JsonValue(id));
+            if (longValue != 0)
+                json.addChild("long", new JsonValue(longValue));
+            if (intValue != 0)
+                json.addChild("int", new JsonValue(intValue));
+            if (floatValue != 0)
+                json.addChild("float", new JsonValue(floatValue));
+            if (tag != null)
+                json.addChild("tag", new JsonValue(tag));
+            if (attempts != 0)
+                json.addChild("attempts", new JsonValue(attempts));
+            return json;
+        }
+    }
+
+    protected class DrainOnSessionActiveListener implements IGameServiceListener {
+        private final IGameServiceListener realListener;
+
+        protected DrainOnSessionActiveListener(IGameServiceListener listener) {
+            realListener = listener;
+        }
+
+        @Override
+        public void gsOnSessionActive() {
+            // might not be called on render thread, so let the timer do the replaying
+            Timer.post(new Timer.Task() {
+                @Override
+                public void run() {
+                    drainQueue();
+                }
+            });
+            realListener.gsOnSessionActive();
+        }
+
+        @Override
+        public void gsOnSessionInactive() {
+            realListener.gsOnSessionInactive();
+        }
+
+        @Override
+        public void gsShowErrorToUser(GsErrorType et, String msg, Throwable t) {
+            realListener.gsShowErrorToUser(et, msg, t);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package de.golfgl.gdxgamesvcs;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * Delivers callbacks on the render thread without allocating a {@link Runnable} for every callback.
+ * <p>
+ * Callbacks are put into a preallocated ring buffer and drained once per frame by a single runnable posted to
+ * {@link com.badlogic.gdx.Application#postRunnable(Runnable)}. If draining takes longer than the frame budget, the
+ * remaining callbacks are delivered in the next frame, so bursts of callbacks don't cause frame hitches.
+ * <p>
+ * Used by the render thread listener wrappers, see {@link GameServiceRenderThreadListener}.
+ */
+
+public class RenderThreadDispatcher implements Runnable {
+    private static RenderThreadDispatcher instance;
+
+    private IDispatchTarget[] targets;
+    private int[] whats;
+    private Object[] args1;
+    private Object[] args2;
+    private Object[] args3;
+    private int head;
+    private int size;
+    private boolean posted;
+    private long frameBudgetNanos = 2000000;
+
+    /**
+     * @param capacity initial capacity of the ring buffer. It grows if more callbacks are pending.
+     */
+    public RenderThreadDispatcher(int capacity) {
+        allocate(Math.max(8, capacity));
+    }
+
+    /**
+     * @return the dispatcher used by the render thread listener wrappers
+     */
+    public static RenderThreadDispatcher getInstance() {
+        synchronized (RenderThreadDispatcher.class) {
+            if (instance == null)
+                instance = new RenderThreadDispatcher(64);
+
+            return instance;
+        }
+    }
+
+    /**
+     * @param frameBudgetMillis time in milliseconds callbacks may take per frame. At least one callback is
+     *                          delivered per frame. Default 2 milliseconds
+     * @return this for method chaining
+     */
+    public RenderThreadDispatcher setFrameBudget(float frameBudgetMillis) {
+        synchronized (this) {
+            frameBudgetNanos = (long) (frameBudgetMillis * 1000000);
+        }
+        return this;
+    }
+
+    /**
+     * @return number of callbacks waiting to be delivered
+     */
+    public int getPendingCount() {
+        synchronized (this) {
+            return size;
+        }
+    }
+
+    /**
+     * Queues a callback to be delivered on the render thread. May be called from any thread.
+     *
+     * @param target target to call
+     * @param what   callback type, given to the target
+     * @param arg1   first argument, given to the target
+     * @param arg2   second argument, given to the target
+     * @param arg3   third argument, given to the target
+     */
+    public void post(IDispatchTarget target, int what, Object arg1, Object arg2, Object arg3) {
+        synchronized (this) {
+            if (size == targets.length)
+                grow();
+
+            int index = (head + size) % targets.length;
+            targets[index] = target;
+            whats[index] = what;
+            args1[index] = arg1;
+            args2[index] = arg2;
+            args3[index] = arg3;
+            size++;
+
+            if (!posted) {
+                posted = true;
+                Gdx.app.postRunnable(this);
+            }
+        }
+    }
+
+    /**
+     * Drains the queue on the render thread. Don't call this yourself.
+     */
+    @Override
+    public void run() {
+        long startTime = TimeUtils.nanoTime();
+        int delivered = 0;
+
+        while (true) {
+            IDispatchTarget target;
+            int what;
+            Object arg1, arg2, arg3;
+
+            synchronized (this) {
+                if (size == 0) {
+                    posted = false;
+                    return;
+                }
+
+                if (delivered > 0 && TimeUtils.nanoTime() - startTime > frameBudgetNanos) {
+                    // runnables posted while running are executed next frame
+                    Gdx.app.postRunnable(this);
+                    return;
+                }
+
+                target = targets[head];
+                what = whats[head];
+                arg1 = args1[head];
+                arg2 = args2[head];
+                arg3 = args3[head];
+                targets[head] = null;
+                args1[head] = null;
+                args2[head] = null;
+                args3[head] = null;
+                head = (head + 1) % targets.length;
+                size--;
+            }
+
+            boolean dispatched = false;
+            try {
+                target.dispatch(what, arg1, arg2, arg3);
+                dispatched = true;
+            } finally {
+                if (!dispatched)
+                    // the exception is passed on, but the remaining callbacks must still be delivered
+                    repost();
+            }
+            delivered++;
+        }
+    }
+
+    private void repost() {
+        synchronized (this) {
+            if (size > 0)
+                Gdx.app.postRunnable(this);
+            else
+                posted = false;
+        }
+    }
+
+    private void allocate(int capacity) {
+        targets = new IDispatchTarget[capacity];
+        whats = new int[capacity];
+        args1 = new Object[capacity];
+        args2 = new Object[capacity];
+        args3 = new Object[capacity];
+    }
+
+    private void grow() {
+        IDispatchTarget[] oldTargets = targets;
+        int[] oldWhats = whats;
+        Object[] oldArgs1 = args1;
+        Object[] oldArgs2 = args2;
+        Object[] oldArgs3 = args3;
+
+        allocate(oldTargets.length * 2);
+
+        for (int i = 0; i < size; i++) {
+            int oldIndex = (head + i) % oldTargets.length;
+            targets[i] = oldTargets[oldIndex];
+            whats[i] = oldWhats[oldIndex];
+            args1[i] = oldArgs1[oldIndex];
+            args2[i] = oldArgs2[oldIndex];
+            args3[i] = oldArgs3[oldIndex];
+        }
+        head = 0;
+    }
+
+    /**
+     * Receiver of callbacks queued with {@link #post(IDispatchTarget, int, Object, Object, Object)}
+     */
+    public interface IDispatchTarget {
+        /**
+         * Called on the render thread
+         */
+        void dispatch(int what, Object arg1, Object arg2, Object arg3);
+    }
+}
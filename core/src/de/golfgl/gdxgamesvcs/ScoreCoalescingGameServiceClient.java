@@ -0,0 +1,177 @@
+package de.golfgl.gdxgamesvcs;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.ObjectSet;
+import com.badlogic.gdx.utils.Timer;
+
+/**
+ * Wrapper for a {@link IGameServiceClient} reducing the number of score submissions.
+ * <p>
+ * {@link #submitToLeaderboard(String, long, String)} does not submit immediately. Only the best score given
+ * for a leaderboard within the flush window is submitted when the window ends. Scores not beating the best score
+ * already submitted in this session (or given by {@link #setKnownBestScore(String, long)}) are skipped entirely.
+ * <p>
+ * By default, higher scores are better. Use {@link #setLowerIsBetter(String, boolean)} for leaderboards where
+ * lower scores are better, for example time trials.
+ */
+
+public class ScoreCoalescingGameServiceClient extends GameServiceClientWrapper {
+
+    protected final ObjectMap<String, Score> pendingScores = new ObjectMap<String, Score>();
+    protected final ObjectMap<String, Score> bestScores = new ObjectMap<String, Score>();
+    protected final ObjectSet<String> lowerIsBetter = new ObjectSet<String>();
+    protected Timer.Task flushTask;
+    private float flushWindow = 10;
+
+    public ScoreCoalescingGameServiceClient(IGameServiceClient client) {
+        super(client);
+    }
+
+    /**
+     * @param flushWindow time in seconds scores are collected before the best one is submitted. Default 10
+     * @return this for method chaining
+     */
+    public ScoreCoalescingGameServiceClient setFlushWindow(float flushWindow) {
+        this.flushWindow = flushWindow;
+        return this;
+    }
+
+    /**
+     * @param leaderboardId leaderboard
+     * @param lowerIsBetter true if lower scores are better on this leaderboard
+     * @return this for method chaining
+     */
+    public ScoreCoalescingGameServiceClient setLowerIsBetter(String leaderboardId, boolean lowerIsBetter) {
+        synchronized (pendingScores) {
+            if (lowerIsBetter)
+                this.lowerIsBetter.add(leaderboardId);
+            else
+                this.lowerIsBetter.remove(leaderboardId);
+        }
+        return this;
+    }
+
+    /**
+     * Sets the player's best score already known to the game service, for example after fetching the leaderboard.
+     * Submissions not beating this score are skipped.
+     */
+    public void setKnownBestScore(String leaderboardId, long score) {
+        synchronized (pendingScores) {
+            Score best = bestScores.get(leaderboardId);
+            if (best == null) {
+                best = new Score();
+                bestScores.put(leaderboardId, best);
+            } else if (!isBetter(leaderboardId, score, best.score))
+                return;
+
+            best.score = score;
+        }
+    }
+
+    /**
+     * Forgets all known best scores, so the next submission to every leaderboard is made
+     */
+    public void resetKnownBestScores() {
+        synchronized (pendingScores) {
+            bestScores.clear();
+        }
+    }
+
+    /**
+     * @return true if the given score beats the other score on this leaderboard
+     */
+    public boolean isBetter(String leaderboardId, long score, long otherScore) {
+        synchronized (pendingScores) {
+            return lowerIsBetter.contains(leaderboardId) ? score < otherScore : score > otherScore;
+        }
+    }
+
+    @Override
+    public boolean submitToLeaderboard(String leaderboardId, long score, String tag) {
+        synchronized (pendingScores) {
+            Score best = bestScores.get(leaderboardId);
+            if (best != null && !isBetter(leaderboardId, score, best.score))
+                return true;
+
+            Score pending = pendingScores.get(leaderboardId);
+            if (pending == null) {
+                pending = new Score();
+                pendingScores.put(leaderboardId, pending);
+            } else if (!isBetter(leaderboardId, score, pending.score))
+                return true;
+
+            pending.score = score;
+            pending.tag = tag;
+
+            if (flushTask == null || !flushTask.isScheduled())
+                flushTask = Timer.schedule(new Timer.Task() {
+                    @Override
+                    public void run() {
+                        flush();
+                    }
+                }, flushWindow);
+        }
+
+        return true;
+    }
+
+    /**
+     * Submits all pending scores now. Scores the wrapped client does not accept stay pending for the next window.
+     */
+    public void flush() {
+        synchronized (pendingScores) {
+            if (flushTask != null) {
+                flushTask.cancel();
+                flushTask = null;
+            }
+
+            Array<String> submitted = new Array<String>();
+            for (ObjectMap.Entry<String, Score> pending : pendingScores.entries()) {
+                if (super.submitToLeaderboard(pending.key, pending.value.score, pending.value.tag)) {
+                    submitted.add(pending.key);
+                    setKnownBestScore(pending.key, pending.value.score);
+                }
+            }
+
+            for (int i = 0; i < submitted.size; i++)
+                pendingScores.remove(submitted.get(i));
+
+            if (pendingScores.size > 0)
+                flushTask = Timer.schedule(new Timer.Task() {
+                    @Override
+                    public void run() {
+                        flush();
+                    }
+                }, flushWindow);
+        }
+    }
+
+    /**
+     * @return number of leaderboards with a score waiting to be submitted
+     */
+    public int getPendingCount() {
+        synchronized (pendingScores) {
+            return pendingScores.size;
+        }
+    }
+
+    @Override
+    public void pauseSession() {
+        // game might get killed while paused, so don't wait for the window to end
+        flush();
+        super.pauseSession();
+    }
+
+    @Override
+    public void logOff() {
+        flush();
+        resetKnownBestScores();
+        super.logOff();
+    }
+
+    protected static class Score {
+        protected long score;
+        protected String tag;
+    }
+}
@@ -0,0 +1,784 @@
+package de.golfgl.gdxgamesvcs;
+
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.OrderedMap;
+import com.badlogic.gdx.utils.Timer;
+
+import de.golfgl.gdxgamesvcs.achievement.IAchievement;
+import de.golfgl.gdxgamesvcs.achievement.IFetchAchievementsResponseListener;
+import de.golfgl.gdxgamesvcs.gamestate.IFetchGameStatesListResponseListener;
+import de.golfgl.gdxgamesvcs.gamestate.ILoadGameStateResponseListener;
+import de.golfgl.gdxgamesvcs.gamestate.ISaveGameStateResponseListener;
+import de.golfgl.gdxgamesvcs.leaderboard.IFetchLeaderBoardEntriesResponseListener;
+import de.golfgl.gdxgamesvcs.leaderboard.ILeaderBoardEntry;
+
+/**
+ * In-memory game service for soak and performance tests of your game's online flows, without connecting to a real
+ * game service.
+ * <p>
+ * Unlike {@link MockGameServiceClient}, this client keeps real state: leaderboards are ordered and keep the best
+ * score per player, achievements are defined with {@link #addAchievement(String, String, int)} and unlocked or
+ * incremented, game states are stored in any number of slots and events are counted.
+ * <p>
+ * Every remote call is delayed by a latency drawn from a configurable {@link ILatencyDistribution} plus the time
+ * the payload needs with the configured bandwidth. Calls fail with the configured failure rate, or time out with the
+ * configured timeout rate. All random decisions are made by a seeded random generator, so runs are repeatable as
+ * long as your game makes the same calls in the same order.
+ * <p>
+ * Responses are delivered on the {@link Timer} thread, which is the render thread.
+ */
+
+public class SimulatedGameServiceClient implements IGameServiceClient {
+    public static final String GAMESERVICE_ID = "GS_SIMULATED";
+
+    /**
+     * Estimated size of a single leaderboard entry or achievement in a response, used for bandwidth simulation
+     */
+    protected static final int ENTRY_BYTES = 100;
+    /**
+     * Estimated size of a request without payload, used for bandwidth simulation
+     */
+    protected static final int REQUEST_BYTES = 500;
+
+    protected static final int OUTCOME_OK = 0;
+    protected static final int OUTCOME_FAILED = 1;
+    protected static final int OUTCOME_TIMEOUT = 2;
+
+    protected final RandomXS128 random;
+    protected final ObjectMap<String, Leaderboard> leaderboards = new ObjectMap<String, Leaderboard>();
+    protected final OrderedMap<String, SimulatedAchievement> achievements =
+            new OrderedMap<String, SimulatedAchievement>();
+    protected final OrderedMap<String, byte[]> gameStates = new OrderedMap<String, byte[]>();
+    protected final ObjectIntMap<String> events = new ObjectIntMap<String>();
+
+    protected IGameServiceListener gsListener;
+    protected volatile boolean connected;
+    protected volatile boolean connecting;
+    private String playerName = "Player";
+    private ILatencyDistribution latency = fixedLatency(.2f);
+    private float failureRate;
+    private float timeoutRate;
+    private float timeout = 30;
+    private int bandwidth;
+
+    /**
+     * @param seed seed for the random generator deciding latencies, failures and timeouts
+     */
+    public SimulatedGameServiceClient(long seed) {
+        random = new RandomXS128(seed);
+    }
+
+    /**
+     * @param playerName display name and user id of the simulated player. Default "Player"
+     * @return this for method chaining
+     */
+    public SimulatedGameServiceClient setPlayerName(String playerName) {
+        this.playerName = playerName;
+        return this;
+    }
+
+    /**
+     * @param latency distribution of the latencies of remote calls. Default is a fixed latency of 200 ms
+     * @return this for method chaining
+     */
+    public SimulatedGameServiceClient setLatency(ILatencyDistribution latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    /**
+     * @param failureRate probability between 0 and 1 that a remote call fails. Default 0
+     * @return this for method chaining
+     */
+    public SimulatedGameServiceClient setFailureRate(float failureRate) {
+        this.failureRate = failureRate;
+        return this;
+    }
+
+    /**
+     * @param timeoutRate probability between 0 and 1 that a remote call times out. Default 0
+     * @return this for method chaining
+     */
+    public SimulatedGameServiceClient setTimeoutRate(float timeoutRate) {
+        this.timeoutRate = timeoutRate;
+        return this;
+    }
+
+    /**
+     * @param timeout time in seconds after which a timed out call fails. Default 30
+     * @return this for method chaining
+     */
+    public SimulatedGameServiceClient setTimeout(float timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
+    /**
+     * @param bandwidth bandwidth in bytes per second, 0 for unlimited. Default 0
+     * @return this for method chaining
+     */
+    public SimulatedGameServiceClient setBandwidth(int bandwidth) {
+        this.bandwidth = bandwidth;
+        return this;
+    }
+
+    /**
+     * Defines an achievement
+     *
+     * @param achievementId id
+     * @param title         title
+     * @param steps         steps to unlock, 1 for non-incremental achievements
+     * @return this for method chaining
+     */
+    public SimulatedGameServiceClient addAchievement(String achievementId, String title, int steps) {
+        synchronized (this) {
+            achievements.put(achievementId, new SimulatedAchievement(achievementId, title, Math.max(1, steps)));
+        }
+        return this;
+    }
+
+    /**
+     * @param leaderboardId leaderboard
+     * @param lowerIsBetter true if lower scores are better on this leaderboard
+     * @return this for method chaining
+     */
+    public SimulatedGameServiceClient setLowerIsBetter(String leaderboardId, boolean lowerIsBetter) {
+        synchronized (this) {
+            getLeaderboard(leaderboardId).lowerIsBetter = lowerIsBetter;
+        }
+        return this;
+    }
+
+    /**
+     * Adds a score of another player to a leaderboard. Only the best score of every player is kept.
+     */
+    public void addScore(String leaderboardId, String userName, long score, String tag) {
+        synchronized (this) {
+            getLeaderboard(leaderboardId).add(userName, score, tag);
+        }
+    }
+
+    /**
+     * Fills a leaderboard with scores of generated players, drawn from the seeded random generator
+     *
+     * @param count    number of players to add
+     * @param minScore minimum score
+     * @param maxScore maximum score
+     */
+    public void populateLeaderboard(String leaderboardId, int count, long minScore, long maxScore) {
+        synchronized (this) {
+            Leaderboard leaderboard = getLeaderboard(leaderboardId);
+            int offset = leaderboard.scores.size;
+            for (int i = 0; i < count; i++) {
+                long score = minScore + (long) (random.nextDouble() * (maxScore - minScore + 1));
+                leaderboard.add("Simulated" + (offset + i), score, null);
+            }
+        }
+    }
+
+    /**
+     * @return the summed up increments of the given event received so far
+     */
+    public int getEventCount(String eventId) {
+        synchronized (this) {
+            return events.get(eventId, 0);
+        }
+    }
+
+    /**
+     * @return the game state stored in the given slot, or null
+     */
+    public byte[] getStoredGameState(String fileId) {
+        synchronized (this) {
+            return gameStates.get(fileId);
+        }
+    }
+
+    protected Leaderboard getLeaderboard(String leaderboardId) {
+        Leaderboard leaderboard = leaderboards.get(leaderboardId);
+        if (leaderboard == null) {
+            leaderboard = new Leaderboard();
+            leaderboards.put(leaderboardId, leaderboard);
+        }
+        return leaderboard;
+    }
+
+    /**
+     * Decides if the next remote call succeeds, fails or times out
+     */
+    protected int nextOutcome() {
+        synchronized (this) {
+            float roll = random.nextFloat();
+            if (roll < timeoutRate)
+                return OUTCOME_TIMEOUT;
+            if (roll < timeoutRate + failureRate)
+                return OUTCOME_FAILED;
+            return OUTCOME_OK;
+        }
+    }
+
+    /**
+     * @param outcome      outcome of the call
+     * @param payloadBytes bytes to transfer
+     * @return delay in seconds for the response
+     */
+    protected float nextDelay(int outcome, int payloadBytes) {
+        if (outcome == OUTCOME_TIMEOUT)
+            return timeout;
+
+        synchronized (this) {
+            float delay = Math.max(0, latency.nextLatency(random));
+            if (bandwidth > 0)
+                delay += (float) (REQUEST_BYTES + payloadBytes) / bandwidth;
+            return delay;
+        }
+    }
+
+    protected void respond(final int outcome, int payloadBytes, final ISimulatedResponse response) {
+        Timer.schedule(new Timer.Task() {
+            @Override
+            public void run() {
+                response.respond(outcome == OUTCOME_OK);
+            }
+        }, nextDelay(outcome, payloadBytes));
+    }
+
+    @Override
+    public String getGameServiceId() {
+        return GAMESERVICE_ID;
+    }
+
+    @Override
+    public void setListener(IGameServiceListener gsListener) {
+        this.gsListener = gsListener;
+    }
+
+    @Override
+    public boolean resumeSession() {
+        return connect(true);
+    }
+
+    @Override
+    public boolean logIn() {
+        return connect(false);
+    }
+
+    protected boolean connect(final boolean silent) {
+        if (connected || connecting)
+            return true;
+
+        connecting = true;
+        final int outcome = nextOutcome();
+        respond(outcome, 0, new ISimulatedResponse() {
+            @Override
+            public void respond(boolean success) {
+                if (!connecting)
+                    return;
+
+                connecting = false;
+                connected = success;
+                if (gsListener == null)
+                    return;
+
+                if (success)
+                    gsListener.gsOnSessionActive();
+                else {
+                    gsListener.gsOnSessionInactive();
+                    if (!silent)
+                        gsListener.gsShowErrorToUser(outcome == OUTCOME_TIMEOUT
+                                ? IGameServiceListener.GsErrorType.errorServiceUnreachable
+                                : IGameServiceListener.GsErrorType.errorLoginFailed, "Simulated failure", null);
+                }
+            }
+        });
+        return true;
+    }
+
+    @Override
+    public void pauseSession() {
+        // sessions are kept while paused, like most real game services do
+    }
+
+    @Override
+    public void logOff() {
+        boolean wasConnected = connected;
+        connected = false;
+        connecting = false;
+
+        if (wasConnected && gsListener != null)
+            gsListener.gsOnSessionInactive();
+    }
+
+    @Override
+    public String getPlayerDisplayName() {
+        return connected ? playerName : null;
+    }
+
+    @Override
+    public boolean isSessionActive() {
+        return connected;
+    }
+
+    @Override
+    public boolean isConnectionPending() {
+        return connecting;
+    }
+
+    @Override
+    public void showLeaderboards(String leaderBoardId) throws GameServiceException {
+        throw new GameServiceException.NotSupportedException();
+    }
+
+    @Override
+    public void showAchievements() throws GameServiceException {
+        throw new GameServiceException.NotSupportedException();
+    }
+
+    @Override
+    public boolean fetchAchievements(final IFetchAchievementsResponseListener callback) {
+        if (!connected)
+            return false;
+
+        int outcome = nextOutcome();
+        int payload;
+        synchronized (this) {
+            payload = achievements.size * ENTRY_BYTES;
+        }
+
+        respond(outcome, payload, new ISimulatedResponse() {
+            @Override
+            public void respond(boolean success) {
+                if (!success) {
+                    callback.onFetchAchievementsResponse(null);
+                    return;
+                }
+
+                Array<IAchievement> result = new Array<IAchievement>();
+                synchronized (SimulatedGameServiceClient.this) {
+                    for (SimulatedAchievement achievement : achievements.values())
+                        result.add(achievement.copy());
+                }
+                callback.onFetchAchievementsResponse(result);
+            }
+        });
+        return true;
+    }
+
+    @Override
+    public boolean submitToLeaderboard(final String leaderboardId, final long score, final String tag) {
+        if (!connected)
+            return false;
+
+        final String userName = playerName;
+        respond(nextOutcome(), 0, new ISimulatedResponse() {
+            @Override
+            public void respond(boolean success) {
+                if (success)
+                    addScore(leaderboardId, userName, score, tag);
+            }
+        });
+        return true;
+    }
+
+    @Override
+    public boolean fetchLeaderboardEntries(final String leaderBoardId, final int limit, final boolean relatedToPlayer,
+                                           final IFetchLeaderBoardEntriesResponseListener callback) {
+        if (relatedToPlayer && !connected)
+            return false;
+
+        final String userName = playerName;
+        int payload;
+        synchronized (this) {
+            Leaderboard leaderboard = leaderboards.get(leaderBoardId);
+            payload = Math.min(limit, leaderboard != null ? leaderboard.scores.size : 0) * ENTRY_BYTES;
+        }
+
+        respond(nextOutcome(), payload, new ISimulatedResponse() {
+            @Override
+            public void respond(boolean success) {
+                if (!success) {
+                    callback.onLeaderBoardResponse(null);
+                    return;
+                }
+
+                Array<ILeaderBoardEntry> result = new Array<ILeaderBoardEntry>();
+                synchronized (SimulatedGameServiceClient.this) {
+                    Leaderboard leaderboard = leaderboards.get(leaderBoardId);
+                    if (leaderboard != null)
+                        leaderboard.fetch(result, limit, relatedToPlayer ? userName : null, userName);
+                }
+                callback.onLeaderBoardResponse(result);
+            }
+        });
+        return true;
+    }
+
+    @Override
+    public boolean submitEvent(final String eventId, final int increment) {
+        respond(nextOutcome(), 0, new ISimulatedResponse() {
+            @Override
+            public void respond(boolean success) {
+                if (success)
+                    synchronized (SimulatedGameServiceClient.this) {
+                        events.getAndIncrement(eventId, 0, increment);
+                    }
+            }
+        });
+        return true;
+    }
+
+    @Override
+    public boolean unlockAchievement(String achievementId) {
+        return incrementAchievement(achievementId, Integer.MAX_VALUE, 1f);
+    }
+
+    @Override
+    public boolean incrementAchievement(final String achievementId, final int incNum,
+                                        float completionPercentage) {
+        synchronized (this) {
+            if (!connected || !achievements.containsKey(achievementId))
+                return false;
+        }
+
+        respond(nextOutcome(), 0, new ISimulatedResponse() {
+            @Override
+            public void respond(boolean success) {
+                if (success)
+                    synchronized (SimulatedGameServiceClient.this) {
+                        achievements.get(achievementId).increment(incNum);
+                    }
+            }
+        });
+        return true;
+    }
+
+    @Override
+    public void saveGameState(final String fileId, byte[] gameState, long progressValue,
+                              final ISaveGameStateResponseListener success) {
+        if (!connected) {
+            if (success != null)
+                success.onGameStateSaved(false, "NOT_CONNECTED");
+            return;
+        }
+
+        final byte[] copy = new byte[gameState.length];
+        System.arraycopy(gameState, 0, copy, 0, gameState.length);
+        final int outcome = nextOutcome();
+        respond(outcome, copy.length, new ISimulatedResponse() {
+            @Override
+            public void respond(boolean saved) {
+                if (saved)
+                    synchronized (SimulatedGameServiceClient.this) {
+                        gameStates.put(fileId, copy);
+                    }
+
+                if (success != null)
+                    success.onGameStateSaved(saved, saved ? null
+                            : outcome == OUTCOME_TIMEOUT ? "TIMEOUT" : "SIMULATED_FAILURE");
+            }
+        });
+    }
+
+    @Override
+    public void loadGameState(final String fileId, final ILoadGameStateResponseListener responseListener) {
+        if (!connected) {
+            responseListener.gsGameStateLoaded(null);
+            return;
+        }
+
+        byte[] stored = getStoredGameState(fileId);
+        respond(nextOutcome(), stored != null ? stored.length : 0, new ISimulatedResponse() {
+            @Override
+            public void respond(boolean success) {
+                byte[] loaded = success ? getStoredGameState(fileId) : null;
+                byte[] copy = null;
+                if (loaded != null) {
+                    copy = new byte[loaded.length];
+                    System.arraycopy(loaded, 0, copy, 0, loaded.length);
+                }
+                responseListener.gsGameStateLoaded(copy);
+            }
+        });
+    }
+
+    @Override
+    public boolean deleteGameState(final String fileId, final ISaveGameStateResponseListener success) {
+        if (!connected)
+            return false;
+
+        respond(nextOutcome(), 0, new ISimulatedResponse() {
+            @Override
+            public void respond(boolean deleted) {
+                if (deleted)
+                    synchronized (SimulatedGameServiceClient.this) {
+                        gameStates.remove(fileId);
+                    }
+
+                if (success != null)
+                    success.onGameStateSaved(deleted, deleted ? null : "SIMULATED_FAILURE");
+            }
+        });
+        return true;
+    }
+
+    @Override
+    public boolean fetchGameStates(final IFetchGameStatesListResponseListener callback) {
+        if (!connected)
+            return false;
+
+        respond(nextOutcome(), 0, new ISimulatedResponse() {
+            @Override
+            public void respond(boolean success) {
+                if (!success) {
+                    callback.onFetchGameStatesListResponse(null);
+                    return;
+                }
+
+                Array<String> result = new Array<String>();
+                synchronized (SimulatedGameServiceClient.this) {
+                    result.addAll(gameStates.orderedKeys());
+                }
+                callback.onFetchGameStatesListResponse(result);
+            }
+        });
+        return true;
+    }
+
+    @Override
+    public boolean isFeatureSupported(GameServiceFeature feature) {
+        switch (feature) {
+            case ShowAchievementsUI:
+            case ShowLeaderboardUI:
+            case ShowAllLeaderboardsUI:
+                return false;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * @return a distribution always returning the given latency in seconds
+     */
+    public static ILatencyDistribution fixedLatency(final float latency) {
+        return new ILatencyDistribution() {
+            @Override
+            public float nextLatency(RandomXS128 random) {
+                return latency;
+            }
+        };
+    }
+
+    /**
+     * @return a distribution returning latencies uniformly distributed between min and max seconds
+     */
+    public static ILatencyDistribution uniformLatency(final float min, final float max) {
+        return new ILatencyDistribution() {
+            @Override
+            public float nextLatency(RandomXS128 random) {
+                return min + random.nextFloat() * (max - min);
+            }
+        };
+    }
+
+    /**
+     * Log-normal distribution, the typical shape of network latencies: most calls are near the median, some take a
+     * lot longer.
+     *
+     * @param median median latency in seconds
+     * @param sigma  spread, 0.5 gives a 99th percentile about three times the median
+     */
+    public static ILatencyDistribution logNormalLatency(final float median, final float sigma) {
+        return new ILatencyDistribution() {
+            @Override
+            public float nextLatency(RandomXS128 random) {
+                return (float) (median * Math.exp(sigma * random.nextGaussian()));
+            }
+        };
+    }
+
+    /**
+     * Distribution of simulated latencies
+     */
+    public interface ILatencyDistribution {
+        /**
+         * @param random the seeded random generator to use
+         * @return latency in seconds
+         */
+        float nextLatency(RandomXS128 random);
+    }
+
+    protected interface ISimulatedResponse {
+        void respond(boolean success);
+    }
+
+    protected static class Leaderboard {
+        protected final Array<SimulatedLeaderBoardEntry> scores = new Array<SimulatedLeaderBoardEntry>();
+        protected final ObjectMap<String, SimulatedLeaderBoardEntry> bestByUser =
+                new ObjectMap<String, SimulatedLeaderBoardEntry>();
+        protected boolean lowerIsBetter;
+
+        protected boolean isBetter(long score, long otherScore) {
+            return lowerIsBetter ? score < otherScore : score > otherScore;
+        }
+
+        protected void add(String userName, long score, String tag) {
+            SimulatedLeaderBoardEntry entry = bestByUser.get(userName);
+            if (entry != null) {
+                if (!isBetter(score, entry.sortValue))
+                    return;
+                scores.removeValue(entry, true);
+            } else {
+                entry = new SimulatedLeaderBoardEntry();
+                entry.userName = userName;
+                bestByUser.put(userName, entry);
+            }
+            entry.sortValue = score;
+            entry.tag = tag;
+
+            // binary search for the insert position, equal scores keep submission order
+            int low = 0;
+            int high = scores.size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (isBetter(score, scores.get(mid).sortValue))
+                    high = mid;
+                else
+                    low = mid + 1;
+            }
+            scores.insert(low, entry);
+        }
+
+        protected void fetch(Array<ILeaderBoardEntry> result, int limit, String relatedTo, String currentPlayer) {
+            int start = 0;
+            if (relatedTo != null) {
+                SimulatedLeaderBoardEntry own = bestByUser.get(relatedTo);
+                if (own == null)
+                    return;
+                start = Math.max(0, Math.min(scores.indexOf(own, true) - limit / 2, scores.size - limit));
+            }
+
+            int end = Math.min(scores.size, start + limit);
+            for (int i = start; i < end; i++)
+                result.add(scores.get(i).copy(i + 1, currentPlayer));
+        }
+    }
+
+    protected static class SimulatedLeaderBoardEntry implements ILeaderBoardEntry {
+        protected String userName;
+        protected long sortValue;
+        protected String tag;
+        protected String rank;
+        protected boolean currentPlayer;
+
+        protected SimulatedLeaderBoardEntry copy(int rank, String currentPlayer) {
+            SimulatedLeaderBoardEntry copy = new SimulatedLeaderBoardEntry();
+            copy.userName = userName;
+            copy.sortValue = sortValue;
+            copy.tag = tag;
+            copy.rank = String.valueOf(rank);
+            copy.currentPlayer = userName.equals(currentPlayer);
+            return copy;
+        }
+
+        @Override
+        public String getFormattedValue() {
+            return String.valueOf(sortValue);
+        }
+
+        @Override
+        public long getSortValue() {
+            return sortValue;
+        }
+
+        @Override
+        public String getScoreTag() {
+            return tag;
+        }
+
+        @Override
+        public String getUserDisplayName() {
+            return userName;
+        }
+
+        @Override
+        public String getUserId() {
+            return userName;
+        }
+
+        @Override
+        public String getScoreRank() {
+            return rank;
+        }
+
+        @Override
+        public String getAvatarUrl() {
+            return null;
+        }
+
+        @Override
+        public boolean isCurrentPlayer() {
+            return currentPlayer;
+        }
+    }
+
+    protected static class SimulatedAchievement implements IAchievement {
+        protected final String achievementId;
+        protected final String title;
+        protected final int steps;
+        protected int currentSteps;
+
+        protected SimulatedAchievement(String achievementId, String title, int steps) {
+            this.achievementId = achievementId;
+            this.title = title;
+            this.steps = steps;
+        }
+
+        protected void increment(int incNum) {
+            currentSteps = (int) Math.min(steps, (long) currentSteps + incNum);
+        }
+
+        protected SimulatedAchievement copy() {
+            SimulatedAchievement copy = new SimulatedAchievement(achievementId, title, steps);
+            copy.currentSteps = currentSteps;
+            return copy;
+        }
+
+        @Override
+        public String getAchievementId() {
+            return achievementId;
+        }
+
+        @Override
+        public boolean isAchievementId(String achievementId) {
+            return this.achievementId.equals(achievementId);
+        }
+
+        @Override
+        public String getTitle() {
+            return title;
+        }
+
+        @Override
+        public String getDescription() {
+            return title;
+        }
+
+        @Override
+        public float getCompletionPercentage() {
+            return (float) currentSteps / steps;
+        }
+
+        @Override
+        public boolean isUnlocked() {
+            return currentSteps >= steps;
+        }
+
+        @Override
+        public String getIconUrl() {
+            return null;
+        }
+    }
+}
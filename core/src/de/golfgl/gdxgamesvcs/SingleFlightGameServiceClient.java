@@ -0,0 +1,254 @@
+package de.golfgl.gdxgamesvcs;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+
+import de.golfgl.gdxgamesvcs.achievement.IAchievement;
+import de.golfgl.gdxgamesvcs.achievement.IFetchAchievementsResponseListener;
+import de.golfgl.gdxgamesvcs.gamestate.IFetchGameStatesListResponseListener;
+import de.golfgl.gdxgamesvcs.gamestate.ILoadGameStateResponseListener;
+import de.golfgl.gdxgamesvcs.gamestate.ISaveGameStateResponseListener;
+import de.golfgl.gdxgamesvcs.leaderboard.IFetchLeaderBoardEntriesResponseListener;
+import de.golfgl.gdxgamesvcs.leaderboard.ILeaderBoardEntry;
+
+/**
+ * Wrapper for a {@link IGameServiceClient} collapsing concurrent identical fetches into one request.
+ * <p>
+ * When {@link #fetchAchievements(IFetchAchievementsResponseListener)},
+ * {@link #fetchLeaderboardEntries(String, int, boolean, IFetchLeaderBoardEntriesResponseListener)},
+ * {@link #fetchGameStates(IFetchGameStatesListResponseListener)} or
+ * {@link #loadGameState(String, ILoadGameStateResponseListener)} is called while the same fetch is already in
+ * flight, no new request is made. The listener is called with the in-flight request's result instead, the same
+ * {@link Array} instance being given to all listeners, so don't modify it.
+ * <p>
+ * Calls changing the fetched data, like submitting a score or saving a game state, detach the in-flight fetch:
+ * its listeners still get its result, but later calls make a new request.
+ * <p>
+ * Unlike {@link CachingGameServiceClient}, results are not kept after the request is done.
+ */
+
+public class SingleFlightGameServiceClient extends GameServiceClientWrapper {
+    protected static final String ACHIEVEMENTS_KEY = "\u0000achievements";
+    protected static final String GAMESTATES_KEY = "\u0000gamestates";
+    protected static final String LEADERBOARD_PREFIX = "\u0000leaderboard\n";
+    protected static final String GAMESTATE_PREFIX = "\u0000gamestate\n";
+
+    protected final ObjectMap<String, Array<Object>> inFlight = new ObjectMap<String, Array<Object>>();
+
+    public SingleFlightGameServiceClient(IGameServiceClient client) {
+        super(client);
+    }
+
+    /**
+     * @return number of fetches currently in flight
+     */
+    public int getInFlightCount() {
+        synchronized (inFlight) {
+            return inFlight.size;
+        }
+    }
+
+    @Override
+    public boolean fetchAchievements(IFetchAchievementsResponseListener callback) {
+        final Array<Object> flight = join(ACHIEVEMENTS_KEY, callback);
+        if (flight == null)
+            return true;
+
+        boolean started = super.fetchAchievements(new IFetchAchievementsResponseListener() {
+            @Override
+            public void onFetchAchievementsResponse(Array<IAchievement> achievements) {
+                Array<Object> callbacks = land(ACHIEVEMENTS_KEY, flight);
+                for (int i = 0; i < callbacks.size; i++)
+                    ((IFetchAchievementsResponseListener) callbacks.get(i)).onFetchAchievementsResponse(achievements);
+            }
+        });
+
+        if (!started) {
+            Array<Object> callbacks = abort(ACHIEVEMENTS_KEY, flight);
+            for (int i = 0; i < callbacks.size; i++)
+                ((IFetchAchievementsResponseListener) callbacks.get(i)).onFetchAchievementsResponse(null);
+        }
+        return started;
+    }
+
+    @Override
+    public boolean fetchLeaderboardEntries(String leaderBoardId, int limit, boolean relatedToPlayer,
+                                           IFetchLeaderBoardEntriesResponseListener callback) {
+        final String key = LEADERBOARD_PREFIX + leaderBoardId + '\n' + limit + '\n' + relatedToPlayer;
+        final Array<Object> flight = join(key, callback);
+        if (flight == null)
+            return true;
+
+        boolean started = super.fetchLeaderboardEntries(leaderBoardId, limit, relatedToPlayer,
+                new IFetchLeaderBoardEntriesResponseListener() {
+                    @Override
+                    public void onLeaderBoardResponse(Array<ILeaderBoardEntry> leaderBoard) {
+                        Array<Object> callbacks = land(key, flight);
+                        for (int i = 0; i < callbacks.size; i++)
+                            ((IFetchLeaderBoardEntriesResponseListener) callbacks.get(i))
+                                    .onLeaderBoardResponse(leaderBoard);
+                    }
+                });
+
+        if (!started) {
+            Array<Object> callbacks = abort(key, flight);
+            for (int i = 0; i < callbacks.size; i++)
+                ((IFetchLeaderBoardEntriesResponseListener) callbacks.get(i)).onLeaderBoardResponse(null);
+        }
+        return started;
+    }
+
+    @Override
+    public boolean fetchGameStates(IFetchGameStatesListResponseListener callback) {
+        final Array<Object> flight = join(GAMESTATES_KEY, callback);
+        if (flight == null)
+            return true;
+
+        boolean started = super.fetchGameStates(new IFetchGameStatesListResponseListener() {
+            @Override
+            public void onFetchGameStatesListResponse(Array<String> gameStates) {
+                Array<Object> callbacks = land(GAMESTATES_KEY, flight);
+                for (int i = 0; i < callbacks.size; i++)
+                    ((IFetchGameStatesListResponseListener) callbacks.get(i))
+                            .onFetchGameStatesListResponse(gameStates);
+            }
+        });
+
+        if (!started) {
+            Array<Object> callbacks = abort(GAMESTATES_KEY, flight);
+            for (int i = 0; i < callbacks.size; i++)
+                ((IFetchGameStatesListResponseListener) callbacks.get(i)).onFetchGameStatesListResponse(null);
+        }
+        return started;
+    }
+
+    /**
+     * Loading the same game state while it is being loaded gives the same byte array to all listeners, so don't
+     * modify it
+     */
+    @Override
+    public void loadGameState(String fileId, ILoadGameStateResponseListener responseListener) {
+        final String key = GAMESTATE_PREFIX + fileId;
+        final Array<Object> flight = join(key, responseListener);
+        if (flight == null)
+            return;
+
+        super.loadGameState(fileId, new ILoadGameStateResponseListener() {
+            @Override
+            public void gsGameStateLoaded(byte[] gameState) {
+                Array<Object> callbacks = land(key, flight);
+                for (int i = 0; i < callbacks.size; i++)
+                    ((ILoadGameStateResponseListener) callbacks.get(i)).gsGameStateLoaded(gameState);
+            }
+        });
+    }
+
+    @Override
+    public boolean submitToLeaderboard(String leaderboardId, long score, String tag) {
+        detachPrefix(LEADERBOARD_PREFIX + leaderboardId + '\n');
+        return super.submitToLeaderboard(leaderboardId, score, tag);
+    }
+
+    @Override
+    public boolean unlockAchievement(String achievementId) {
+        detach(ACHIEVEMENTS_KEY);
+        return super.unlockAchievement(achievementId);
+    }
+
+    @Override
+    public boolean incrementAchievement(String achievementId, int incNum, float completionPercentage) {
+        detach(ACHIEVEMENTS_KEY);
+        return super.incrementAchievement(achievementId, incNum, completionPercentage);
+    }
+
+    @Override
+    public void saveGameState(String fileId, byte[] gameState, long progressValue,
+                              ISaveGameStateResponseListener success) {
+        detach(GAMESTATE_PREFIX + fileId);
+        detach(GAMESTATES_KEY);
+        super.saveGameState(fileId, gameState, progressValue, success);
+    }
+
+    @Override
+    public boolean deleteGameState(String fileId, ISaveGameStateResponseListener success) {
+        detach(GAMESTATE_PREFIX + fileId);
+        detach(GAMESTATES_KEY);
+        return super.deleteGameState(fileId, success);
+    }
+
+    @Override
+    public void logOff() {
+        // fetches of the old player must not answer the next player's calls
+        detachPrefix("");
+        super.logOff();
+    }
+
+    /**
+     * Adds the callback to the in-flight fetch with the given key, or starts a new flight
+     *
+     * @return the new flight if the caller has to make the request, null if the callback joined a running one
+     */
+    protected Array<Object> join(String key, Object callback) {
+        synchronized (inFlight) {
+            Array<Object> flight = inFlight.get(key);
+            if (flight != null) {
+                flight.add(callback);
+                return null;
+            }
+
+            flight = new Array<Object>(false, 2);
+            flight.add(callback);
+            inFlight.put(key, flight);
+            return flight;
+        }
+    }
+
+    /**
+     * Ends a flight with its result
+     *
+     * @return all callbacks of the flight
+     */
+    protected Array<Object> land(String key, Array<Object> flight) {
+        synchronized (inFlight) {
+            if (inFlight.get(key) == flight)
+                inFlight.remove(key);
+            Array<Object> callbacks = new Array<Object>(flight);
+            flight.clear();
+            return callbacks;
+        }
+    }
+
+    /**
+     * Ends a flight whose request was not started. The first callback belongs to the caller, who is told by the
+     * return value.
+     *
+     * @return the callbacks that joined the flight and expect a result
+     */
+    protected Array<Object> abort(String key, Array<Object> flight) {
+        synchronized (inFlight) {
+            if (inFlight.get(key) == flight)
+                inFlight.remove(key);
+            Array<Object> joined = new Array<Object>(flight);
+            // already empty if the listener was called before the request was refused
+            if (joined.size > 0)
+                joined.removeIndex(0);
+            flight.clear();
+            return joined;
+        }
+    }
+
+    protected void detach(String key) {
+        synchronized (inFlight) {
+            inFlight.remove(key);
+        }
+    }
+
+    protected void detachPrefix(String prefix) {
+        synchronized (inFlight) {
+            ObjectMap.Keys<String> keys = inFlight.keys();
+            while (keys.hasNext())
+                if (keys.next().startsWith(prefix))
+                    keys.remove();
+        }
+    }
+}
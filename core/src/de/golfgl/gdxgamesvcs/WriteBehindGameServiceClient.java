@@ -0,0 +1,415 @@
+package de.golfgl.gdxgamesvcs;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Preferences;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Base64Coder;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.ObjectSet;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.badlogic.gdx.utils.Timer;
+
+import de.golfgl.gdxgamesvcs.gamestate.GameStateMetadata;
+import de.golfgl.gdxgamesvcs.gamestate.IFetchGameStateMetadataListener;
+import de.golfgl.gdxgamesvcs.gamestate.IGameStateMetadataClient;
+import de.golfgl.gdxgamesvcs.gamestate.ILoadGameStateResponseListener;
+import de.golfgl.gdxgamesvcs.gamestate.ISaveGameStateResponseListener;
+
+/**
+ * Wrapper for a {@link IGameServiceClient} keeping the latest game state of every file id locally and uploading
+ * it in the background.
+ * <p>
+ * {@link #saveGameState(String, byte[], long, ISaveGameStateResponseListener)} stores the game state in the
+ * application's {@link Preferences} and reports success immediately. The upload is made after the upload delay, so
+ * successive saves are collapsed into a single upload. It is skipped entirely if the game state's content hash equals
+ * the one of the last successful upload. Failed uploads are retried, pending uploads survive restarts of the game
+ * and are made when the session is active again. {@link #pauseSession()} starts pending uploads immediately.
+ * <p>
+ * {@link #loadGameState(String, ILoadGameStateResponseListener)} is served from the local copy when it is known to
+ * be current: when it was not uploaded yet, or was uploaded or loaded since the session got active.
+ * <p>
+ * When wrapping a {@link ConflictResolvingGameServiceClient}, uploads are given the time the game state was saved
+ * locally, so conflicts are resolved against that time instead of the upload's.
+ * <p>
+ * The local copies are not bound to a player. If another player might log in on the same device, call
+ * {@link #clearLocalCopies()} before. Make sure to give a preferences name unique to your game.
+ */
+
+public class WriteBehindGameServiceClient extends GameServiceClientWrapper {
+    public static final String TAG = "GS_WRITEBEHIND";
+    protected static final String PREFKEY_DATA = "data.";
+    protected static final String PREFKEY_PROGRESS = "progress.";
+    protected static final String PREFKEY_MODIFIED = "modified.";
+    protected static final String PREFKEY_HASH = "hash.";
+    protected static final String PREFKEY_UPLOADED_HASH = "uploaded.";
+
+    protected final String prefsName;
+    protected Preferences prefs;
+    protected final ObjectMap<String, Timer.Task> uploadTasks = new ObjectMap<String, Timer.Task>();
+    protected final ObjectSet<String> uploadsInFlight = new ObjectSet<String>();
+    protected final ObjectSet<String> currentFiles = new ObjectSet<String>();
+
+    private float uploadDelay = 5;
+    private float retryDelay = 30;
+
+    /**
+     * @param client    the client to wrap
+     * @param prefsName name of the preferences file game states are stored in
+     */
+    public WriteBehindGameServiceClient(IGameServiceClient client, String prefsName) {
+        super(client);
+        this.prefsName = prefsName;
+    }
+
+    /**
+     * @param uploadDelay time in seconds a saved game state is held back before it is uploaded. Saves made during
+     *                    this time are collapsed into one upload. Default 5
+     * @return this for method chaining
+     */
+    public WriteBehindGameServiceClient setUploadDelay(float uploadDelay) {
+        this.uploadDelay = uploadDelay;
+        return this;
+    }
+
+    /**
+     * @param retryDelay time in seconds after which a failed upload is retried. Default 30
+     * @return this for method chaining
+     */
+    public WriteBehindGameServiceClient setRetryDelay(float retryDelay) {
+        this.retryDelay = retryDelay;
+        return this;
+    }
+
+    /**
+     * @return true if the local copy of the given file was not uploaded yet
+     */
+    public boolean isUploadPending(String fileId) {
+        synchronized (this) {
+            return isDirty(fileId);
+        }
+    }
+
+    /**
+     * @return ids of all files with pending uploads
+     */
+    public Array<String> getPendingUploads() {
+        Array<String> pending = new Array<String>();
+        synchronized (this) {
+            for (String key : getPrefs().get().keySet()) {
+                if (key.startsWith(PREFKEY_HASH)) {
+                    String fileId = key.substring(PREFKEY_HASH.length());
+                    if (isDirty(fileId))
+                        pending.add(fileId);
+                }
+            }
+        }
+        return pending;
+    }
+
+    /**
+     * Starts all pending uploads now
+     */
+    public void flush() {
+        Array<String> pending = getPendingUploads();
+        for (int i = 0; i < pending.size; i++)
+            upload(pending.get(i));
+    }
+
+    /**
+     * Removes all local copies, including those not uploaded yet
+     */
+    public void clearLocalCopies() {
+        synchronized (this) {
+            for (Timer.Task task : uploadTasks.values())
+                task.cancel();
+            uploadTasks.clear();
+            currentFiles.clear();
+
+            // the preferences file might be shared with the game, so only remove own keys
+            Array<String> fileIds = new Array<String>();
+            for (String key : getPrefs().get().keySet())
+                if (key.startsWith(PREFKEY_HASH))
+                    fileIds.add(key.substring(PREFKEY_HASH.length()));
+            for (int i = 0; i < fileIds.size; i++)
+                removeLocally(fileIds.get(i));
+            getPrefs().flush();
+        }
+    }
+
+    /**
+     * FNV-1a 64 bit hash, used to detect unchanged game states
+     */
+    public static long hash(byte[] data) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < data.length; i++) {
+            hash ^= data[i] & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    protected Preferences getPrefs() {
+        if (prefs == null)
+            prefs = Gdx.app.getPreferences(prefsName);
+        return prefs;
+    }
+
+    protected boolean isDirty(String fileId) {
+        Preferences prefs = getPrefs();
+        return prefs.contains(PREFKEY_HASH + fileId)
+                && !prefs.getString(PREFKEY_HASH + fileId).equals(prefs.getString(PREFKEY_UPLOADED_HASH + fileId));
+    }
+
+    /**
+     * @param progressValue progress value, or null if unknown
+     */
+    protected void storeLocally(String fileId, byte[] gameState, Long progressValue, boolean uploaded) {
+        Preferences prefs = getPrefs();
+        String hash = Long.toHexString(hash(gameState));
+        prefs.putString(PREFKEY_DATA + fileId, new String(Base64Coder.encode(gameState)));
+        if (progressValue != null)
+            prefs.putLong(PREFKEY_PROGRESS + fileId, progressValue);
+        else
+            prefs.remove(PREFKEY_PROGRESS + fileId);
+        prefs.putString(PREFKEY_HASH + fileId, hash);
+        if (!uploaded)
+            prefs.putLong(PREFKEY_MODIFIED + fileId, TimeUtils.millis());
+        else
+            prefs.remove(PREFKEY_MODIFIED + fileId);
+        if (uploaded)
+            prefs.putString(PREFKEY_UPLOADED_HASH + fileId, hash);
+        prefs.flush();
+    }
+
+    protected byte[] loadLocally(String fileId) {
+        String data = getPrefs().getString(PREFKEY_DATA + fileId, null);
+        return data != null ? Base64Coder.decode(data) : null;
+    }
+
+    protected void removeLocally(String fileId) {
+        Preferences prefs = getPrefs();
+        prefs.remove(PREFKEY_DATA + fileId);
+        prefs.remove(PREFKEY_PROGRESS + fileId);
+        prefs.remove(PREFKEY_MODIFIED + fileId);
+        prefs.remove(PREFKEY_HASH + fileId);
+        prefs.remove(PREFKEY_UPLOADED_HASH + fileId);
+        prefs.flush();
+    }
+
+    protected void scheduleUpload(final String fileId, float delay) {
+        Timer.Task task = uploadTasks.get(fileId);
+        if (task != null)
+            task.cancel();
+
+        task = Timer.schedule(new Timer.Task() {
+            @Override
+            public void run() {
+                upload(fileId);
+            }
+        }, delay);
+        uploadTasks.put(fileId, task);
+    }
+
+    protected void upload(final String fileId) {
+        final byte[] gameState;
+        final long progressValue;
+        final long modifiedTime;
+        final String hash;
+
+        synchronized (this) {
+            Timer.Task task = uploadTasks.remove(fileId);
+            if (task != null)
+                task.cancel();
+
+            // a running upload reschedules when it is done
+            if (!isDirty(fileId) || uploadsInFlight.contains(fileId))
+                return;
+
+            if (!isSessionActive()) {
+                // uploaded when the session is active again, or retried if the activation is not reported
+                scheduleUpload(fileId, retryDelay);
+                return;
+            }
+
+            gameState = loadLocally(fileId);
+            progressValue = getPrefs().getLong(PREFKEY_PROGRESS + fileId);
+            modifiedTime = getPrefs().getLong(PREFKEY_MODIFIED + fileId, TimeUtils.millis());
+            hash = getPrefs().getString(PREFKEY_HASH + fileId);
+            uploadsInFlight.add(fileId);
+        }
+
+        ISaveGameStateResponseListener uploadListener = new ISaveGameStateResponseListener() {
+            @Override
+            public void onGameStateSaved(boolean success, String errorCode) {
+                synchronized (WriteBehindGameServiceClient.this) {
+                    uploadsInFlight.remove(fileId);
+
+                    if (success && getPrefs().contains(PREFKEY_HASH + fileId)) {
+                        getPrefs().putString(PREFKEY_UPLOADED_HASH + fileId, hash);
+                        getPrefs().flush();
+                        currentFiles.add(fileId);
+                    } else if (!success)
+                        Gdx.app.error(TAG, "Uploading game state " + fileId + " failed: " + errorCode);
+
+                    // saved again while uploading, or failed
+                    if (isDirty(fileId))
+                        scheduleUpload(fileId, success ? uploadDelay : retryDelay);
+                }
+            }
+        };
+
+        // the upload might be made long after the game state was saved, which has to be known to resolve conflicts
+        if (realClient instanceof ConflictResolvingGameServiceClient)
+            ((ConflictResolvingGameServiceClient) realClient).saveGameState(fileId, gameState, progressValue,
+                    modifiedTime, uploadListener);
+        else
+            super.saveGameState(fileId, gameState, progressValue, uploadListener);
+    }
+
+    @Override
+    public void saveGameState(String fileId, byte[] gameState, long progressValue,
+                              ISaveGameStateResponseListener listener) {
+        synchronized (this) {
+            storeLocally(fileId, gameState, progressValue, false);
+            currentFiles.add(fileId);
+
+            if (isDirty(fileId))
+                scheduleUpload(fileId, uploadDelay);
+        }
+
+        if (listener != null)
+            listener.onGameStateSaved(true, null);
+    }
+
+    @Override
+    public void loadGameState(final String fileId, final ILoadGameStateResponseListener responseListener) {
+        byte[] local = null;
+
+        synchronized (this) {
+            if (currentFiles.contains(fileId) || isDirty(fileId))
+                local = loadLocally(fileId);
+        }
+
+        if (local != null) {
+            responseListener.gsGameStateLoaded(local);
+            return;
+        }
+
+        super.loadGameState(fileId, new ILoadGameStateResponseListener() {
+            @Override
+            public void gsGameStateLoaded(byte[] gameState) {
+                if (gameState != null) {
+                    synchronized (WriteBehindGameServiceClient.this) {
+                        // a save made while loading is newer
+                        if (!isDirty(fileId)) {
+                            // the progress value is not loaded with the game state
+                            storeLocally(fileId, gameState, null, true);
+                            currentFiles.add(fileId);
+                        }
+                    }
+                    fetchRemoteProgress(fileId, gameState);
+                }
+                responseListener.gsGameStateLoaded(gameState);
+            }
+        });
+    }
+
+    /**
+     * Stores the progress value of a loaded game state with its local copy, if the wrapped client offers it
+     */
+    protected void fetchRemoteProgress(final String fileId, byte[] gameState) {
+        if (!(realClient instanceof IGameStateMetadataClient))
+            return;
+
+        final String hash = Long.toHexString(hash(gameState));
+        ((IGameStateMetadataClient) realClient).fetchGameStateMetadata(fileId, new IFetchGameStateMetadataListener() {
+            @Override
+            public void onGameStateMetadataResponse(GameStateMetadata metadata) {
+                if (metadata == null || !metadata.exists())
+                    return;
+
+                synchronized (WriteBehindGameServiceClient.this) {
+                    // only if the local copy is still the loaded game state
+                    if (hash.equals(getPrefs().getString(PREFKEY_UPLOADED_HASH + fileId, null)) && !isDirty(fileId)) {
+                        getPrefs().putLong(PREFKEY_PROGRESS + fileId, metadata.getProgressValue());
+                        getPrefs().flush();
+                    }
+                }
+            }
+        });
+    }
+
+    @Override
+    public boolean deleteGameState(String fileId, ISaveGameStateResponseListener success) {
+        synchronized (this) {
+            Timer.Task task = uploadTasks.remove(fileId);
+            if (task != null)
+                task.cancel();
+            removeLocally(fileId);
+            currentFiles.remove(fileId);
+        }
+
+        return super.deleteGameState(fileId, success);
+    }
+
+    /**
+     * Pending uploads are started when the session gets active, so the wrapped client always gets a listener, even
+     * if null is given
+     */
+    @Override
+    public void setListener(IGameServiceListener gsListener) {
+        super.setListener(new UploadOnSessionActiveListener(gsListener));
+    }
+
+    @Override
+    public void pauseSession() {
+        // game might get killed while paused, so don't wait for the delay to end
+        flush();
+        super.pauseSession();
+    }
+
+    @Override
+    public void logOff() {
+        synchronized (this) {
+            currentFiles.clear();
+        }
+        super.logOff();
+    }
+
+    protected class UploadOnSessionActiveListener implements IGameServiceListener {
+        private final IGameServiceListener realListener;
+
+        protected UploadOnSessionActiveListener(IGameServiceListener listener) {
+            realListener = listener;
+        }
+
+        @Override
+        public void gsOnSessionActive() {
+            // might not be called on render thread, so let the timer do the uploading
+            Timer.post(new Timer.Task() {
+                @Override
+                public void run() {
+                    flush();
+                }
+            });
+            if (realListener != null)
+                realListener.gsOnSessionActive();
+        }
+
+        @Override
+        public void gsOnSessionInactive() {
+            synchronized (WriteBehindGameServiceClient.this) {
+                // game states might get changed on other devices while no session is active
+                currentFiles.clear();
+            }
+            if (realListener != null)
+                realListener.gsOnSessionInactive();
+        }
+
+        @Override
+        public void gsShowErrorToUser(GsErrorType et, String msg, Throwable t) {
+            if (realListener != null)
+                realListener.gsShowErrorToUser(et, msg, t);
+        }
+    }
+}
@@ -1,8 +1,9 @@
 package de.golfgl.gdxgamesvcs.achievement;
 
-import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.utils.Array;
 
+import de.golfgl.gdxgamesvcs.RenderThreadDispatcher;
+
 /**
  * Convinience wrapper if response calls are only needed on render thread
  * <p>
@@ -13,18 +14,21 @@ public class FetchAchievementsResponseRenderThreadListener implements IFetchAchi
 
     private IFetchAchievementsResponseListener realListener;
 
+    private final RenderThreadDispatcher.IDispatchTarget dispatchTarget = new RenderThreadDispatcher.IDispatchTarget() {
+        @Override
+        @SuppressWarnings("unchecked")
+        public void dispatch(int what, Object arg1, Object arg2, Object arg3) {
+            realListener.onFetchAchievementsResponse((Array<IAchievement>) arg1);
+        }
+    };
+
     public FetchAchievementsResponseRenderThreadListener(IFetchAchievementsResponseListener listener) {
         realListener = listener;
     }
 
     @Override
     public void onFetchAchievementsResponse(final Array<IAchievement> achievements) {
-        Gdx.app.postRunnable(new Runnable() {
-            @Override
-            public void run() {
-                realListener.onFetchAchievementsResponse(achievements);
-            }
-        });
+        RenderThreadDispatcher.getInstance().post(dispatchTarget, 0, achievements, null, null);
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,311 @@
+package de.golfgl.gdxgamesvcs.async;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Timer;
+
+/**
+ * Result of an asynchronous game service operation, see {@link GameServiceFutures} to get one for calls on a
+ * {@link de.golfgl.gdxgamesvcs.IGameServiceClient}.
+ * <p>
+ * A future succeeds with a result, or fails with an error code. Listeners added with
+ * {@link #addListener(IFutureListener)} are called once it is done, or immediately if it is done already. By
+ * default, they are called on the thread completing the future, which is not always the render thread. Use
+ * {@link #addListener(IFutureListener, ICallbackExecutor)} with {@link ICallbackExecutor#RENDER_THREAD} to change
+ * this.
+ * <p>
+ * Operations depending on each other are chained with {@link #then(IFutureFunction)}, independent operations are
+ * started at once and joined with {@link #all(GameServiceFuture[])}:
+ * <pre>
+ * GameServiceFutures.loadGameState(gsClient, "save")
+ *     .then(new IFutureFunction&lt;byte[], Array&lt;IAchievement&gt;&gt;() {
+ *         public GameServiceFuture&lt;Array&lt;IAchievement&gt;&gt; apply(byte[] gameState) {
+ *             restoreGame(gameState);
+ *             return GameServiceFutures.fetchAchievements(gsClient);
+ *         }
+ *     })
+ *     .withTimeout(10)
+ *     .addListener(..., ICallbackExecutor.RENDER_THREAD);
+ * </pre>
+ * Cancelling a future or letting it time out does not abort the request made to the game service, its result is
+ * ignored.
+ */
+
+public class GameServiceFuture<T> {
+    public static final String ERROR_TIMEOUT = "TIMEOUT";
+    public static final String ERROR_CANCELLED = "CANCELLED";
+    /**
+     * The client refused to start the operation, for example because no session is active
+     */
+    public static final String ERROR_NOT_STARTED = "NOT_STARTED";
+    /**
+     * The operation did not deliver a result
+     */
+    public static final String ERROR_NO_RESULT = "NO_RESULT";
+
+    private final Array<IFutureListener<T>> listeners = new Array<IFutureListener<T>>(2);
+    private final Array<ICallbackExecutor> executors = new Array<ICallbackExecutor>(2);
+    private boolean done;
+    private boolean cancelled;
+    private T result;
+    private String errorCode;
+    private Timer.Task timeoutTask;
+
+    /**
+     * @return a future that succeeded already
+     */
+    public static <T> GameServiceFuture<T> succeeded(T result) {
+        GameServiceFuture<T> future = new GameServiceFuture<T>();
+        future.succeed(result);
+        return future;
+    }
+
+    /**
+     * @return a future that failed already
+     */
+    public static <T> GameServiceFuture<T> failed(String errorCode) {
+        GameServiceFuture<T> future = new GameServiceFuture<T>();
+        future.fail(errorCode);
+        return future;
+    }
+
+    /**
+     * Joins futures of independent operations
+     *
+     * @return future succeeding with the results of all given futures in order when all of them succeeded, or
+     * failing as soon as one of them failed
+     */
+    public static GameServiceFuture<Array<Object>> all(final GameServiceFuture<?>... futures) {
+        final GameServiceFuture<Array<Object>> joined = new GameServiceFuture<Array<Object>>();
+        final int[] pending = {futures.length};
+
+        if (futures.length == 0) {
+            joined.succeed(new Array<Object>(0));
+            return joined;
+        }
+
+        for (int i = 0; i < futures.length; i++) {
+            futures[i].addAnyListener(new IFutureListener<Object>() {
+                @Override
+                public void onDone(GameServiceFuture<Object> future) {
+                    if (!future.isSuccess()) {
+                        joined.fail(future.getErrorCode());
+                        return;
+                    }
+
+                    boolean allDone;
+                    synchronized (pending) {
+                        allDone = --pending[0] == 0;
+                    }
+                    if (allDone) {
+                        Array<Object> results = new Array<Object>(futures.length);
+                        for (int j = 0; j < futures.length; j++)
+                            results.add(futures[j].getResult());
+                        joined.succeed(results);
+                    }
+                }
+            });
+        }
+
+        return joined;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void addAnyListener(IFutureListener<Object> listener) {
+        addListener((IFutureListener<T>) (IFutureListener<?>) listener);
+    }
+
+    /**
+     * Completes the future successfully. Has no effect if it is done already.
+     *
+     * @return true if the future was completed by this call
+     */
+    public boolean succeed(T result) {
+        synchronized (this) {
+            if (done)
+                return false;
+            this.result = result;
+            done = true;
+        }
+        notifyListeners();
+        return true;
+    }
+
+    /**
+     * Completes the future with a failure. Has no effect if it is done already.
+     *
+     * @return true if the future was completed by this call
+     */
+    public boolean fail(String errorCode) {
+        synchronized (this) {
+            if (done)
+                return false;
+            this.errorCode = errorCode != null ? errorCode : ERROR_NO_RESULT;
+            done = true;
+        }
+        notifyListeners();
+        return true;
+    }
+
+    /**
+     * Cancels the future, it fails with {@link #ERROR_CANCELLED}. Has no effect if it is done already.
+     *
+     * @return true if the future was cancelled by this call
+     */
+    public boolean cancel() {
+        synchronized (this) {
+            if (done)
+                return false;
+            cancelled = true;
+            errorCode = ERROR_CANCELLED;
+            done = true;
+        }
+        notifyListeners();
+        return true;
+    }
+
+    /**
+     * Lets the future fail with {@link #ERROR_TIMEOUT} if it is not done within the given time
+     *
+     * @param seconds timeout in seconds
+     * @return this for method chaining
+     */
+    public GameServiceFuture<T> withTimeout(float seconds) {
+        Timer.Task task = new Timer.Task() {
+            @Override
+            public void run() {
+                fail(ERROR_TIMEOUT);
+            }
+        };
+
+        synchronized (this) {
+            if (done)
+                return this;
+            if (timeoutTask != null)
+                timeoutTask.cancel();
+            timeoutTask = task;
+        }
+
+        Timer.schedule(task, seconds);
+        return this;
+    }
+
+    /**
+     * Adds a listener called on the thread completing the future
+     *
+     * @return this for method chaining
+     */
+    public GameServiceFuture<T> addListener(IFutureListener<T> listener) {
+        return addListener(listener, ICallbackExecutor.DIRECT);
+    }
+
+    /**
+     * Adds a listener called by the given executor
+     *
+     * @return this for method chaining
+     */
+    public GameServiceFuture<T> addListener(IFutureListener<T> listener, ICallbackExecutor executor) {
+        synchronized (this) {
+            if (!done) {
+                listeners.add(listener);
+                executors.add(executor);
+                return this;
+            }
+        }
+        notifyListener(listener, executor);
+        return this;
+    }
+
+    /**
+     * Chains an operation depending on the result of this one
+     *
+     * @param function starts the next operation when this future succeeded
+     * @return future of the next operation. Fails if this future fails.
+     */
+    public <R> GameServiceFuture<R> then(final IFutureFunction<T, R> function) {
+        final GameServiceFuture<R> next = new GameServiceFuture<R>();
+
+        addListener(new IFutureListener<T>() {
+            @Override
+            public void onDone(GameServiceFuture<T> future) {
+                if (!future.isSuccess()) {
+                    next.fail(future.getErrorCode());
+                    return;
+                }
+
+                if (next.isDone())
+                    // cancelled or timed out meanwhile, don't start the next operation
+                    return;
+
+                GameServiceFuture<R> started = function.apply(future.getResult());
+                if (started == null)
+                    next.fail(ERROR_NOT_STARTED);
+                else
+                    started.addListener(new IFutureListener<R>() {
+                        @Override
+                        public void onDone(GameServiceFuture<R> future) {
+                            if (future.isSuccess())
+                                next.succeed(future.getResult());
+                            else
+                                next.fail(future.getErrorCode());
+                        }
+                    });
+            }
+        });
+
+        return next;
+    }
+
+    public synchronized boolean isDone() {
+        return done;
+    }
+
+    public synchronized boolean isSuccess() {
+        return done && errorCode == null;
+    }
+
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * @return result if the future succeeded, null otherwise
+     */
+    public synchronized T getResult() {
+        return result;
+    }
+
+    /**
+     * @return error code if the future failed, null otherwise
+     */
+    public synchronized String getErrorCode() {
+        return errorCode;
+    }
+
+    private void notifyListeners() {
+        Array<IFutureListener<T>> toNotify;
+        Array<ICallbackExecutor> toExecute;
+
+        synchronized (this) {
+            if (timeoutTask != null) {
+                timeoutTask.cancel();
+                timeoutTask = null;
+            }
+            toNotify = new Array<IFutureListener<T>>(listeners);
+            toExecute = new Array<ICallbackExecutor>(executors);
+            listeners.clear();
+            executors.clear();
+        }
+
+        for (int i = 0; i < toNotify.size; i++)
+            notifyListener(toNotify.get(i), toExecute.get(i));
+    }
+
+    private void notifyListener(final IFutureListener<T> listener, ICallbackExecutor executor) {
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                listener.onDone(GameServiceFuture.this);
+            }
+        });
+    }
+}
@@ -0,0 +1,153 @@
+package de.golfgl.gdxgamesvcs.async;
+
+import com.badlogic.gdx.utils.Array;
+
+import de.golfgl.gdxgamesvcs.IGameServiceClient;
+import de.golfgl.gdxgamesvcs.achievement.IAchievement;
+import de.golfgl.gdxgamesvcs.achievement.IFetchAchievementsResponseListener;
+import de.golfgl.gdxgamesvcs.gamestate.IFetchGameStatesListResponseListener;
+import de.golfgl.gdxgamesvcs.gamestate.ILoadGameStateResponseListener;
+import de.golfgl.gdxgamesvcs.gamestate.ISaveGameStateResponseListener;
+import de.golfgl.gdxgamesvcs.leaderboard.IFetchLeaderBoardEntriesResponseListener;
+import de.golfgl.gdxgamesvcs.leaderboard.ILeaderBoardEntry;
+
+/**
+ * Calls {@link IGameServiceClient} operations and returns their results as {@link GameServiceFuture}s instead of
+ * giving them to a listener.
+ * <p>
+ * Operations the client refuses to start fail with {@link GameServiceFuture#ERROR_NOT_STARTED}, operations
+ * delivering null fail with {@link GameServiceFuture#ERROR_NO_RESULT}. Saving and deleting game states fail with the
+ * error code given by the client. Submissions give no feedback besides being accepted by the client, so their
+ * futures are done immediately.
+ */
+
+public class GameServiceFutures {
+
+    public static GameServiceFuture<Array<ILeaderBoardEntry>> fetchLeaderboardEntries(IGameServiceClient client,
+                                                                                     String leaderBoardId, int limit,
+                                                                                     boolean relatedToPlayer) {
+        final GameServiceFuture<Array<ILeaderBoardEntry>> future = new GameServiceFuture<Array<ILeaderBoardEntry>>();
+
+        if (!client.fetchLeaderboardEntries(leaderBoardId, limit, relatedToPlayer,
+                new IFetchLeaderBoardEntriesResponseListener() {
+                    @Override
+                    public void onLeaderBoardResponse(Array<ILeaderBoardEntry> leaderBoard) {
+                        complete(future, leaderBoard);
+                    }
+                }))
+            future.fail(GameServiceFuture.ERROR_NOT_STARTED);
+
+        return future;
+    }
+
+    public static GameServiceFuture<Array<IAchievement>> fetchAchievements(IGameServiceClient client) {
+        final GameServiceFuture<Array<IAchievement>> future = new GameServiceFuture<Array<IAchievement>>();
+
+        if (!client.fetchAchievements(new IFetchAchievementsResponseListener() {
+            @Override
+            public void onFetchAchievementsResponse(Array<IAchievement> achievements) {
+                complete(future, achievements);
+            }
+        }))
+            future.fail(GameServiceFuture.ERROR_NOT_STARTED);
+
+        return future;
+    }
+
+    public static GameServiceFuture<Array<String>> fetchGameStates(IGameServiceClient client) {
+        final GameServiceFuture<Array<String>> future = new GameServiceFuture<Array<String>>();
+
+        if (!client.fetchGameStates(new IFetchGameStatesListResponseListener() {
+            @Override
+            public void onFetchGameStatesListResponse(Array<String> gameStates) {
+                complete(future, gameStates);
+            }
+        }))
+            future.fail(GameServiceFuture.ERROR_NOT_STARTED);
+
+        return future;
+    }
+
+    public static GameServiceFuture<byte[]> loadGameState(IGameServiceClient client, String fileId) {
+        final GameServiceFuture<byte[]> future = new GameServiceFuture<byte[]>();
+
+        client.loadGameState(fileId, new ILoadGameStateResponseListener() {
+            @Override
+            public void gsGameStateLoaded(byte[] gameState) {
+                complete(future, gameState);
+            }
+        });
+
+        return future;
+    }
+
+    /**
+     * @return future succeeding with the file id when the game state was saved
+     */
+    public static GameServiceFuture<String> saveGameState(IGameServiceClient client, final String fileId,
+                                                          byte[] gameState, long progressValue) {
+        final GameServiceFuture<String> future = new GameServiceFuture<String>();
+
+        client.saveGameState(fileId, gameState, progressValue, new ISaveGameStateResponseListener() {
+            @Override
+            public void onGameStateSaved(boolean success, String errorCode) {
+                if (success)
+                    future.succeed(fileId);
+                else
+                    future.fail(errorCode);
+            }
+        });
+
+        return future;
+    }
+
+    /**
+     * @return future succeeding with the file id when the game state was deleted
+     */
+    public static GameServiceFuture<String> deleteGameState(IGameServiceClient client, final String fileId) {
+        final GameServiceFuture<String> future = new GameServiceFuture<String>();
+
+        if (!client.deleteGameState(fileId, new ISaveGameStateResponseListener() {
+            @Override
+            public void onGameStateSaved(boolean success, String errorCode) {
+                if (success)
+                    future.succeed(fileId);
+                else
+                    future.fail(errorCode);
+            }
+        }))
+            future.fail(GameServiceFuture.ERROR_NOT_STARTED);
+
+        return future;
+    }
+
+    public static GameServiceFuture<Boolean> submitToLeaderboard(IGameServiceClient client, String leaderboardId,
+                                                                 long score, String tag) {
+        return accepted(client.submitToLeaderboard(leaderboardId, score, tag));
+    }
+
+    public static GameServiceFuture<Boolean> submitEvent(IGameServiceClient client, String eventId, int increment) {
+        return accepted(client.submitEvent(eventId, increment));
+    }
+
+    public static GameServiceFuture<Boolean> unlockAchievement(IGameServiceClient client, String achievementId) {
+        return accepted(client.unlockAchievement(achievementId));
+    }
+
+    public static GameServiceFuture<Boolean> incrementAchievement(IGameServiceClient client, String achievementId,
+                                                                  int incNum, float completionPercentage) {
+        return accepted(client.incrementAchievement(achievementId, incNum, completionPercentage));
+    }
+
+    private static GameServiceFuture<Boolean> accepted(boolean accepted) {
+        return accepted ? GameServiceFuture.succeeded(Boolean.TRUE)
+                : GameServiceFuture.<Boolean>failed(GameServiceFuture.ERROR_NOT_STARTED);
+    }
+
+    private static <T> void complete(GameServiceFuture<T> future, T result) {
+        if (result != null)
+            future.succeed(result);
+        else
+            future.fail(GameServiceFuture.ERROR_NO_RESULT);
+    }
+}
@@ -0,0 +1,31 @@
+package de.golfgl.gdxgamesvcs.async;
+
+import com.badlogic.gdx.Gdx;
+
+/**
+ * Decides on which thread {@link IFutureListener}s are called
+ */
+
+public interface ICallbackExecutor {
+    /**
+     * Calls the listener on the thread given by the future, without switching threads
+     */
+    ICallbackExecutor DIRECT = new ICallbackExecutor() {
+        @Override
+        public void execute(Runnable runnable) {
+            runnable.run();
+        }
+    };
+
+    /**
+     * Calls the listener on the render thread with the next frame
+     */
+    ICallbackExecutor RENDER_THREAD = new ICallbackExecutor() {
+        @Override
+        public void execute(Runnable runnable) {
+            Gdx.app.postRunnable(runnable);
+        }
+    };
+
+    void execute(Runnable runnable);
+}
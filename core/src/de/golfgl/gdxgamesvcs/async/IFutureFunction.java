@@ -0,0 +1,14 @@
+package de.golfgl.gdxgamesvcs.async;
+
+/**
+ * Function starting the next asynchronous operation with the result of a previous one, see
+ * {@link GameServiceFuture#then(IFutureFunction)}
+ */
+
+public interface IFutureFunction<T, R> {
+    /**
+     * @param result result of the previous operation
+     * @return future of the next operation
+     */
+    GameServiceFuture<R> apply(T result);
+}
@@ -0,0 +1,14 @@
+package de.golfgl.gdxgamesvcs.async;
+
+/**
+ * Listener called when a {@link GameServiceFuture} is done
+ */
+
+public interface IFutureListener<T> {
+    /**
+     * Called once when the future succeeded, failed or was cancelled
+     *
+     * @param future the future that is done
+     */
+    void onDone(GameServiceFuture<T> future);
+}
@@ -0,0 +1,92 @@
+package de.golfgl.gdxgamesvcs.gamestate;
+
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compresses game states with deflate. Game states are often JSON and compress well.
+ * <p>
+ * Not available on GWT, as java.util.zip is not emulated there. Game states compressed with this codec can
+ * therefore not be loaded by the HTML5 version of your game.
+ */
+
+public class DeflateGameStateCodec implements IGameStateCodec {
+    public static final byte CODEC_ID = 1;
+
+    private final int level;
+
+    public DeflateGameStateCodec() {
+        this(Deflater.BEST_COMPRESSION);
+    }
+
+    /**
+     * @param level compression level, see {@link Deflater}
+     */
+    public DeflateGameStateCodec(int level) {
+        this.level = level;
+    }
+
+    @Override
+    public byte getCodecId() {
+        return CODEC_ID;
+    }
+
+    @Override
+    public byte[] encode(byte[] raw) {
+        Deflater deflater = new Deflater(level, true);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+
+            byte[] buffer = new byte[Math.max(64, raw.length / 2)];
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == buffer.length) {
+                    byte[] newBuffer = new byte[buffer.length * 2];
+                    System.arraycopy(buffer, 0, newBuffer, 0, length);
+                    buffer = newBuffer;
+                }
+                length += deflater.deflate(buffer, length, buffer.length - length);
+            }
+
+            byte[] encoded = new byte[length];
+            System.arraycopy(buffer, 0, encoded, 0, length);
+            return encoded;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    @Override
+    public byte[] decode(byte[] data, int offset, int length, int rawLength) {
+        if (rawLength < 0)
+            throw new IllegalArgumentException("Compressed game state has wrong length");
+
+        Inflater inflater = new Inflater(true);
+        try {
+            // nowrap mode needs an extra dummy byte at the end of the input
+            byte[] input = new byte[length + 1];
+            System.arraycopy(data, offset, input, 0, length);
+            inflater.setInput(input);
+
+            byte[] raw = new byte[rawLength];
+            int inflated = 0;
+            while (inflated < rawLength && !inflater.finished()) {
+                int read = inflater.inflate(raw, inflated, rawLength - inflated);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+                    throw new IllegalArgumentException("Compressed game state is truncated");
+                inflated += read;
+            }
+
+            if (inflated != rawLength)
+                throw new IllegalArgumentException("Compressed game state has wrong length");
+
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Compressed game state is corrupt", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -1,8 +1,9 @@
 package de.golfgl.gdxgamesvcs.gamestate;
 
-import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.utils.Array;
 
+import de.golfgl.gdxgamesvcs.RenderThreadDispatcher;
+
 /**
  * Convinience wrapper if response calls are only needed on render thread
  * <p>
@@ -13,17 +14,20 @@ public class FetchGameStatesListResponseRenderThreadListener implements IFetchGa
 
     IFetchGameStatesListResponseListener realListener;
 
+    private final RenderThreadDispatcher.IDispatchTarget dispatchTarget = new RenderThreadDispatcher.IDispatchTarget() {
+        @Override
+        @SuppressWarnings("unchecked")
+        public void dispatch(int what, Object arg1, Object arg2, Object arg3) {
+            realListener.onFetchGameStatesListResponse((Array<String>) arg1);
+        }
+    };
+
     public FetchGameStatesListResponseRenderThreadListener(IFetchGameStatesListResponseListener listener) {
         realListener = listener;
     }
 
     @Override
     public void onFetchGameStatesListResponse(final Array<String> gameStates) {
-        Gdx.app.postRunnable(new Runnable() {
-            @Override
-            public void run() {
-                realListener.onFetchGameStatesListResponse(gameStates);
-            }
-        });
+        RenderThreadDispatcher.getInstance().post(dispatchTarget, 0, gameStates, null, null);
     }
 }
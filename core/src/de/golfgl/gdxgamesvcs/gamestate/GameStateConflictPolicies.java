@@ -0,0 +1,55 @@
+package de.golfgl.gdxgamesvcs.gamestate;
+
+/**
+ * Common {@link IGameStateConflictPolicy} implementations
+ */
+
+public class GameStateConflictPolicies {
+    /**
+     * Error code given to {@link ISaveGameStateResponseListener} when the saved game state was kept
+     */
+    public static final String ERROR_CONFLICT = "CONFLICT";
+
+    /**
+     * @return policy keeping the game state with the higher progress value. On equal progress, the local one is
+     * saved.
+     */
+    public static IGameStateConflictPolicy highestProgressWins() {
+        return new IGameStateConflictPolicy() {
+            @Override
+            public Resolution resolve(GameStateMetadata local, GameStateMetadata remote) {
+                return local.getProgressValue() >= remote.getProgressValue() ? Resolution.OVERWRITE
+                        : Resolution.KEEP_REMOTE;
+            }
+
+            @Override
+            public byte[] merge(byte[] local, byte[] remote) {
+                return null;
+            }
+        };
+    }
+
+    /**
+     * The local game state's time is the time it was changed, not the time it is uploaded. Game states given to
+     * {@link de.golfgl.gdxgamesvcs.ConflictResolvingGameServiceClient} later than they were changed, like the
+     * uploads of {@link de.golfgl.gdxgamesvcs.WriteBehindGameServiceClient}, need to be given with their time,
+     * otherwise they always win.
+     *
+     * @return policy keeping the newer game state. If the modified time of the saved game state is unknown, the
+     * local one is saved.
+     */
+    public static IGameStateConflictPolicy newestWins() {
+        return new IGameStateConflictPolicy() {
+            @Override
+            public Resolution resolve(GameStateMetadata local, GameStateMetadata remote) {
+                return remote.getModifiedTime() <= local.getModifiedTime() ? Resolution.OVERWRITE
+                        : Resolution.KEEP_REMOTE;
+            }
+
+            @Override
+            public byte[] merge(byte[] local, byte[] remote) {
+                return null;
+            }
+        };
+    }
+}
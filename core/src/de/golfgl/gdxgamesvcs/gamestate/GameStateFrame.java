@@ -0,0 +1,154 @@
+package de.golfgl.gdxgamesvcs.gamestate;
+
+import com.badlogic.gdx.utils.IntMap;
+
+/**
+ * Frames encoded game states with a small header, so they can be decoded and verified when loading.
+ * <p>
+ * The header consists of a magic number, the format version, the codec id, the length of the raw game state and an
+ * Adler-32 checksum of the raw game state, 14 bytes in total. Game states saved without a frame are detected when
+ * loading and returned unchanged.
+ */
+
+public class GameStateFrame {
+    /**
+     * Codec id for payloads stored without encoding
+     */
+    public static final byte CODEC_STORED = 0;
+    public static final int HEADER_LENGTH = 14;
+
+    protected static final byte[] MAGIC = {'G', 'S', 'V', 'F'};
+    protected static final byte VERSION = 1;
+    /**
+     * Deflate, the best compressing codec at hand, can't compress data to less than about a thousandth. Raw lengths
+     * beyond this multiple of the encoded length are taken as corrupt, instead of allocating a huge array.
+     */
+    protected static final int MAX_EXPANSION = 1032;
+
+    private final IntMap<IGameStateCodec> codecs = new IntMap<IGameStateCodec>();
+
+    /**
+     * Makes a codec known for decoding
+     *
+     * @return this for method chaining
+     */
+    public GameStateFrame addCodec(IGameStateCodec codec) {
+        if (codec.getCodecId() == CODEC_STORED)
+            throw new IllegalArgumentException("Codec id " + CODEC_STORED + " is reserved");
+
+        codecs.put(codec.getCodecId(), codec);
+        return this;
+    }
+
+    /**
+     * Encodes and frames a game state. If encoding does not make it smaller, it is framed unencoded.
+     *
+     * @param codec codec to use, or null to frame without encoding
+     * @param raw   game state
+     * @return framed game state
+     */
+    public byte[] frame(IGameStateCodec codec, byte[] raw) {
+        byte[] encoded = codec != null ? codec.encode(raw) : null;
+        byte codecId = codec != null ? codec.getCodecId() : CODEC_STORED;
+
+        if (encoded == null || encoded.length >= raw.length) {
+            encoded = raw;
+            codecId = CODEC_STORED;
+        }
+
+        byte[] framed = new byte[HEADER_LENGTH + encoded.length];
+        System.arraycopy(MAGIC, 0, framed, 0, MAGIC.length);
+        framed[4] = VERSION;
+        framed[5] = codecId;
+        writeInt(framed, 6, raw.length);
+        writeInt(framed, 10, adler32(raw, 0, raw.length));
+        System.arraycopy(encoded, 0, framed, HEADER_LENGTH, encoded.length);
+
+        return framed;
+    }
+
+    /**
+     * Decodes a framed game state. Game states without a frame are returned as they are.
+     *
+     * @param data framed or legacy game state
+     * @return decoded game state
+     * @throws IllegalArgumentException if the codec is unknown, the data is corrupt or the checksum does not match
+     */
+    public byte[] unframe(byte[] data) {
+        if (!isFramed(data))
+            return data;
+
+        byte codecId = data[5];
+        int rawLength = readInt(data, 6);
+        int checksum = readInt(data, 10);
+        int length = data.length - HEADER_LENGTH;
+        byte[] raw;
+
+        if (rawLength < 0 || (codecId == CODEC_STORED ? rawLength != length
+                : rawLength > (long) length * MAX_EXPANSION + HEADER_LENGTH))
+            throw new IllegalArgumentException("Game state has invalid length " + rawLength);
+
+        if (codecId == CODEC_STORED) {
+            raw = new byte[length];
+            System.arraycopy(data, HEADER_LENGTH, raw, 0, length);
+        } else {
+            IGameStateCodec codec = codecs.get(codecId);
+            if (codec == null)
+                throw new IllegalArgumentException("Unknown game state codec " + codecId);
+            raw = codec.decode(data, HEADER_LENGTH, length, rawLength);
+        }
+
+        if (raw.length != rawLength || adler32(raw, 0, raw.length) != checksum)
+            throw new IllegalArgumentException("Game state checksum mismatch");
+
+        return raw;
+    }
+
+    /**
+     * @return true if the data starts with a frame header
+     */
+    public static boolean isFramed(byte[] data) {
+        if (data == null || data.length < HEADER_LENGTH || data[4] != VERSION)
+            return false;
+
+        for (int i = 0; i < MAGIC.length; i++)
+            if (data[i] != MAGIC[i])
+                return false;
+
+        return true;
+    }
+
+    /**
+     * Adler-32 checksum, implemented here because java.util.zip is not available on GWT
+     */
+    public static int adler32(byte[] data, int offset, int length) {
+        int a = 1;
+        int b = 0;
+        int end = offset + length;
+
+        while (offset < end) {
+            // 3800 is the largest number of bytes that can be summed up without overflowing a signed int
+            int blockEnd = Math.min(end, offset + 3800);
+            while (offset < blockEnd) {
+                a += data[offset++] & 0xff;
+                b += a;
+            }
+            a %= 65521;
+            b %= 65521;
+        }
+
+        return (b << 16) | a;
+    }
+
+    private static void writeInt(byte[] data, int offset, int value) {
+        data[offset] = (byte) (value >>> 24);
+        data[offset + 1] = (byte) (value >>> 16);
+        data[offset + 2] = (byte) (value >>> 8);
+        data[offset + 3] = (byte) value;
+    }
+
+    private static int readInt(byte[] data, int offset) {
+        return ((data[offset] & 0xff) << 24) | ((data[offset + 1] & 0xff) << 16)
+                | ((data[offset + 2] & 0xff) << 8) | (data[offset + 3] & 0xff);
+    }
+}
@@ -0,0 +1,47 @@
+package de.golfgl.gdxgamesvcs.gamestate;
+
+/**
+ * Metadata of a saved game state, fetched without loading the game state itself
+ */
+
+public class GameStateMetadata {
+    protected final String fileId;
+    protected final boolean exists;
+    protected final long progressValue;
+    protected final long modifiedTime;
+
+    /**
+     * @param fileId        file id
+     * @param exists        false if no game state is saved with this id
+     * @param progressValue progress value given when the game state was saved
+     * @param modifiedTime  time the game state was saved in milliseconds since epoch, 0 if unknown
+     */
+    public GameStateMetadata(String fileId, boolean exists, long progressValue, long modifiedTime) {
+        this.fileId = fileId;
+        this.exists = exists;
+        this.progressValue = progressValue;
+        this.modifiedTime = modifiedTime;
+    }
+
+    public String getFileId() {
+        return fileId;
+    }
+
+    /**
+     * @return false if no game state is saved with this id
+     */
+    public boolean exists() {
+        return exists;
+    }
+
+    public long getProgressValue() {
+        return progressValue;
+    }
+
+    /**
+     * @return time the game state was saved in milliseconds since epoch, 0 if unknown
+     */
+    public long getModifiedTime() {
+        return modifiedTime;
+    }
+}
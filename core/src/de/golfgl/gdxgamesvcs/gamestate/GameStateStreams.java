@@ -0,0 +1,139 @@
+package de.golfgl.gdxgamesvcs.gamestate;
+
+import com.badlogic.gdx.Gdx;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import de.golfgl.gdxgamesvcs.IGameServiceClient;
+
+/**
+ * Saves and loads game states as streams with any {@link IGameServiceClient}. Clients implementing
+ * {@link IGameStateStreamingClient} stream the game state, for all other clients it is read into memory.
+ * <p>
+ * Wrappers like {@link de.golfgl.gdxgamesvcs.CompressingGameServiceClient} don't stream, so the byte array
+ * methods are used for them.
+ */
+
+public class GameStateStreams {
+    public static final String TAG = "GS_STREAMS";
+
+    private static final int BUFFER_SIZE = 4096;
+
+    /**
+     * Saves a game state from a stream. The stream is closed when saving is done.
+     *
+     * @param length length of the game state in bytes, or -1 if unknown
+     */
+    public static void saveGameState(IGameServiceClient client, String fileId, InputStream gameState, long length,
+                                     long progressValue, ISaveGameStateResponseListener listener) {
+        IGameStateStreamingClient streamingClient = getStreamingClient(client);
+
+        if (streamingClient != null) {
+            streamingClient.saveGameState(fileId, gameState, length, progressValue, listener);
+            return;
+        }
+
+        byte[] data;
+        try {
+            data = readFully(gameState, length);
+        } catch (IOException e) {
+            Gdx.app.error(TAG, "Could not read game state", e);
+            if (listener != null)
+                listener.onGameStateSaved(false, "READ_ERROR");
+            return;
+        } finally {
+            closeQuietly(gameState);
+        }
+
+        client.saveGameState(fileId, data, progressValue, listener);
+    }
+
+    /**
+     * Loads a game state as a stream
+     */
+    public static void loadGameState(IGameServiceClient client, String fileId,
+                                     final ILoadGameStateStreamListener listener) {
+        IGameStateStreamingClient streamingClient = getStreamingClient(client);
+
+        if (streamingClient != null) {
+            streamingClient.loadGameState(fileId, listener);
+            return;
+        }
+
+        client.loadGameState(fileId, new ILoadGameStateResponseListener() {
+            @Override
+            public void gsGameStateLoaded(byte[] gameState) {
+                notifyStreamListener(listener, gameState != null ? new ByteArrayInputStream(gameState) : null);
+            }
+        });
+    }
+
+    /**
+     * Calls the listener, if any, and closes the stream afterwards. Exceptions thrown by the listener are logged.
+     */
+    public static void notifyStreamListener(ILoadGameStateStreamListener listener, InputStream gameState) {
+        try {
+            if (listener != null)
+                listener.gsGameStateStreamLoaded(gameState);
+        } catch (IOException e) {
+            Gdx.app.error(TAG, "Could not read game state", e);
+        } finally {
+            closeQuietly(gameState);
+        }
+    }
+
+    /**
+     * Reads a stream into a byte array
+     *
+     * @param length expected length, or -1 if unknown
+     */
+    public static byte[] readFully(InputStream stream, long length) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(length > 0 ? (int) length : BUFFER_SIZE);
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = stream.read(buffer)) > 0)
+            out.write(buffer, 0, read);
+        return out.toByteArray();
+    }
+
+    /**
+     * Listener copying the loaded stream to a byte array, for implementing the byte array methods on top of the
+     * streaming ones
+     *
+     * @return the listener, or null if listener is null so the game state isn't read
+     */
+    public static ILoadGameStateStreamListener toByteArrayListener(final ILoadGameStateResponseListener listener) {
+        if (listener == null)
+            return null;
+
+        return new ILoadGameStateStreamListener() {
+            @Override
+            public void gsGameStateStreamLoaded(InputStream gameState) throws IOException {
+                byte[] data = null;
+                try {
+                    if (gameState != null)
+                        data = readFully(gameState, -1);
+                } finally {
+                    listener.gsGameStateLoaded(data);
+                }
+            }
+        };
+    }
+
+    protected static IGameStateStreamingClient getStreamingClient(IGameServiceClient client) {
+        return client instanceof IGameStateStreamingClient ? (IGameStateStreamingClient) client : null;
+    }
+
+    protected static void closeQuietly(InputStream stream) {
+        if (stream != null) {
+            try {
+                stream.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package de.golfgl.gdxgamesvcs.gamestate;
+
+/**
+ * Response listener for {@link IGameStateMetadataClient#fetchGameStateMetadata(String,
+ * IFetchGameStateMetadataListener)}
+ */
+
+public interface IFetchGameStateMetadataListener {
+    /**
+     * @param metadata metadata of the game state, null if fetching failed
+     */
+    void onGameStateMetadataResponse(GameStateMetadata metadata);
+}
@@ -0,0 +1,31 @@
+package de.golfgl.gdxgamesvcs.gamestate;
+
+/**
+ * Encodes game state payloads before they are saved and decodes them after loading, for example to compress them.
+ * <p>
+ * Encoded payloads are framed by {@link GameStateFrame}, which stores the codec id so the right codec is used when
+ * loading.
+ */
+
+public interface IGameStateCodec {
+    /**
+     * @return id stored in the frame header. 0 is reserved for {@link GameStateFrame#CODEC_STORED}
+     */
+    byte getCodecId();
+
+    /**
+     * @param raw game state to encode
+     * @return encoded game state
+     */
+    byte[] encode(byte[] raw);
+
+    /**
+     * @param data      array containing the encoded game state
+     * @param offset    start of the encoded game state in data
+     * @param length    length of the encoded game state
+     * @param rawLength length of the decoded game state
+     * @return decoded game state
+     * @throws IllegalArgumentException if the data could not be decoded
+     */
+    byte[] decode(byte[] data, int offset, int length, int rawLength);
+}
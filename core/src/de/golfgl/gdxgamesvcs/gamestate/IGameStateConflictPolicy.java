@@ -0,0 +1,41 @@
+package de.golfgl.gdxgamesvcs.gamestate;
+
+/**
+ * Decides what happens when a game state is saved while another one is already saved with the same id. See
+ * {@link GameStateConflictPolicies} for common policies.
+ */
+
+public interface IGameStateConflictPolicy {
+    /**
+     * @param local  metadata of the game state to save. Modified time is the time the game state was changed, or
+     *               the current time if the caller did not give it
+     * @param remote metadata of the game state already saved
+     * @return what to do
+     */
+    Resolution resolve(GameStateMetadata local, GameStateMetadata remote);
+
+    /**
+     * Called when {@link #resolve(GameStateMetadata, GameStateMetadata)} returned {@link Resolution#MERGE}. The
+     * merged game state is saved with the higher progress value of both.
+     *
+     * @param local  game state to save
+     * @param remote game state already saved
+     * @return merged game state, or null to keep the saved one
+     */
+    byte[] merge(byte[] local, byte[] remote);
+
+    enum Resolution {
+        /**
+         * Save the local game state
+         */
+        OVERWRITE,
+        /**
+         * Keep the saved game state, saving fails with {@link GameStateConflictPolicies#ERROR_CONFLICT}
+         */
+        KEEP_REMOTE,
+        /**
+         * Load the saved game state and save the result of {@link #merge(byte[], byte[])}
+         */
+        MERGE
+    }
+}
@@ -0,0 +1,17 @@
+package de.golfgl.gdxgamesvcs.gamestate;
+
+/**
+ * Implemented by game service clients storing the progress value of a saved game state as metadata, so it can be
+ * fetched without loading the game state. Used by {@link de.golfgl.gdxgamesvcs.ConflictResolvingGameServiceClient}.
+ */
+
+public interface IGameStateMetadataClient {
+    /**
+     * Fetches the metadata of a saved game state
+     *
+     * @param fileId   file id
+     * @param listener listener to call with the metadata
+     * @return false if the request could not be made, for example because no session is active
+     */
+    boolean fetchGameStateMetadata(String fileId, IFetchGameStateMetadataListener listener);
+}
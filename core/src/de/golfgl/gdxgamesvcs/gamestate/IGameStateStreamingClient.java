@@ -0,0 +1,36 @@
+package de.golfgl.gdxgamesvcs.gamestate;
+
+import java.io.InputStream;
+
+/**
+ * Implemented by game service clients able to save and load game states as streams, so large game states
+ * don't need to be held in memory as a whole.
+ * <p>
+ * Use {@link GameStateStreams} to save and load streams with any client, falling back to the byte array methods
+ * of {@link de.golfgl.gdxgamesvcs.IGameServiceClient} for clients not implementing this interface.
+ */
+
+public interface IGameStateStreamingClient {
+    /**
+     * Streaming version of
+     * {@link de.golfgl.gdxgamesvcs.IGameServiceClient#saveGameState(String, byte[], long, ISaveGameStateResponseListener)}.
+     * The stream is read, possibly on another thread, and closed when saving is done.
+     *
+     * @param fileId        file id to save to
+     * @param gameState     game state to save
+     * @param length        length of the game state in bytes, or -1 if unknown
+     * @param progressValue progress value of the game state
+     * @param listener      listener to call when saving is done, may be null
+     */
+    void saveGameState(String fileId, InputStream gameState, long length, long progressValue,
+                       ISaveGameStateResponseListener listener);
+
+    /**
+     * Streaming version of
+     * {@link de.golfgl.gdxgamesvcs.IGameServiceClient#loadGameState(String, ILoadGameStateResponseListener)}
+     *
+     * @param fileId   file id to load from
+     * @param listener listener to read the game state
+     */
+    void loadGameState(String fileId, ILoadGameStateStreamListener listener);
+}
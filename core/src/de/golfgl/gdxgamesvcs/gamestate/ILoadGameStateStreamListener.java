@@ -0,0 +1,20 @@
+package de.golfgl.gdxgamesvcs.gamestate;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Called when a game state is loaded or loading failed when
+ * {@link IGameStateStreamingClient#loadGameState(String, ILoadGameStateStreamListener)} was performed.
+ */
+
+public interface ILoadGameStateStreamListener {
+    /**
+     * Gives the loaded game state as a stream, so it can be read incrementally. The stream is only valid during
+     * this call and is closed afterwards by the client. Might not be called on the render thread.
+     *
+     * @param gameState null if loading failed
+     * @throws IOException if reading the stream failed
+     */
+    void gsGameStateStreamLoaded(InputStream gameState) throws IOException;
+}
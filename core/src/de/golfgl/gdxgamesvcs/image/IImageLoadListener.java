@@ -0,0 +1,16 @@
+package de.golfgl.gdxgamesvcs.image;
+
+import com.badlogic.gdx.graphics.Pixmap;
+
+/**
+ * Listener for {@link ImageCache#load(String, IImageLoadListener)}. Called on the render thread.
+ */
+
+public interface IImageLoadListener {
+    /**
+     * @param url    the loaded image's URL
+     * @param pixmap the image, or null if it could not be loaded. It is owned by the listener, dispose it when it
+     *               is not needed anymore.
+     */
+    void onImageLoaded(String url, Pixmap pixmap);
+}
@@ -0,0 +1,547 @@
+package de.golfgl.gdxgamesvcs.image;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Net;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.PropertiesUtils;
+import com.badlogic.gdx.utils.StreamUtils;
+import com.badlogic.gdx.utils.TimeUtils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import de.golfgl.gdxgamesvcs.net.IHttpTransport;
+import de.golfgl.gdxgamesvcs.net.IScheduledRequest;
+import de.golfgl.gdxgamesvcs.net.RequestPriority;
+import de.golfgl.gdxgamesvcs.net.RequestScheduler;
+
+/**
+ * Loads images like avatars from {@link de.golfgl.gdxgamesvcs.leaderboard.ILeaderBoardEntry#getAvatarUrl()} and
+ * achievement icons from {@link de.golfgl.gdxgamesvcs.achievement.IAchievement#getIconUrl()} asynchronously and
+ * caches them.
+ * <p>
+ * Downloaded images are kept in memory, up to {@link #setMaxMemoryBytes(long)}, dropping the least recently used
+ * ones first. If a cache directory is set with {@link #setCacheDir(FileHandle)}, they are also written to disk, up
+ * to {@link #setMaxDiskBytes(long)}. After {@link #setMaxAge(long)}, an image on disk is revalidated with its ETag
+ * or Last-Modified header, so unchanged images are not downloaded again. If revalidation fails, the image on disk
+ * is used.
+ * <p>
+ * Loading an image that is already being downloaded waits for that download. Downloads are made through their own
+ * {@link RequestScheduler} allowing 4 downloads at once, so images don't delay the game service requests. They are
+ * sent by the {@link IHttpTransport} of {@link RequestScheduler#getDefault()}, unless another scheduler is set with
+ * {@link #setRequestScheduler(RequestScheduler)}. The disk cache is read and written on a background thread.
+ * <p>
+ * Not available on GWT, as images can't be decoded from bytes there.
+ */
+
+public class ImageCache {
+    public static final String TAG = "GS_IMAGECACHE";
+    protected static final String QUEUE_KEY = "images";
+    protected static final String META_URL = "url";
+    protected static final String META_ETAG = "etag";
+    protected static final String META_LASTMODIFIED = "lastModified";
+    protected static final String META_CHECKED = "checked";
+    protected static final String META_SUFFIX = ".meta";
+
+    private final LinkedHashMap<String, byte[]> memory = new LinkedHashMap<String, byte[]>(16, .75f, true);
+    private final ObjectMap<String, Array<IImageLoadListener>> pending =
+            new ObjectMap<String, Array<IImageLoadListener>>();
+    private long memoryBytes;
+    private long maxMemoryBytes = 4 * 1024 * 1024;
+    private long maxDiskBytes = 16 * 1024 * 1024;
+    private long maxAgeMillis = 24 * 60 * 60 * 1000L;
+    private FileHandle cacheDir;
+    private RequestScheduler scheduler;
+    private boolean ownScheduler;
+    private ThreadPoolExecutor diskExecutor;
+    private boolean diskTrimmed;
+    private long writtenSinceTrim;
+
+    /**
+     * @param cacheDir directory images are cached in, for example {@code Gdx.files.local("imagecache")}, or null
+     *                 for no disk cache. Use a directory only used by this cache, as files in it are deleted.
+     * @return this for method chaining
+     */
+    public ImageCache setCacheDir(FileHandle cacheDir) {
+        synchronized (this) {
+            this.cacheDir = cacheDir;
+            diskTrimmed = false;
+        }
+        return this;
+    }
+
+    /**
+     * @param maxMemoryBytes maximum size of the images kept in memory. Default 4 MB
+     * @return this for method chaining
+     */
+    public ImageCache setMaxMemoryBytes(long maxMemoryBytes) {
+        synchronized (this) {
+            this.maxMemoryBytes = maxMemoryBytes;
+            trimMemory();
+        }
+        return this;
+    }
+
+    /**
+     * @param maxDiskBytes maximum size of the images kept on disk. Default 16 MB
+     * @return this for method chaining
+     */
+    public ImageCache setMaxDiskBytes(long maxDiskBytes) {
+        synchronized (this) {
+            this.maxDiskBytes = maxDiskBytes;
+            diskTrimmed = false;
+        }
+        return this;
+    }
+
+    /**
+     * @param maxAgeMillis time an image on disk is used before it is revalidated. Default one day
+     * @return this for method chaining
+     */
+    public ImageCache setMaxAge(long maxAgeMillis) {
+        this.maxAgeMillis = maxAgeMillis;
+        return this;
+    }
+
+    /**
+     * @param scheduler scheduler the downloads are made through, and whose transport sends them
+     * @return this for method chaining
+     */
+    public ImageCache setRequestScheduler(RequestScheduler scheduler) {
+        synchronized (this) {
+            this.scheduler = scheduler;
+            ownScheduler = false;
+        }
+        return this;
+    }
+
+    /**
+     * Loads an image from the cache, or downloads it
+     *
+     * @param url      URL of the image. If null, the listener is called with null.
+     * @param listener called on the render thread with the image
+     */
+    public void load(final String url, IImageLoadListener listener) {
+        if (url == null || url.isEmpty()) {
+            deliver(url, null, listener);
+            return;
+        }
+
+        byte[] bytes;
+        synchronized (this) {
+            bytes = memory.get(url);
+            if (bytes == null) {
+                Array<IImageLoadListener> waiting = pending.get(url);
+                if (waiting != null) {
+                    waiting.add(listener);
+                    return;
+                }
+
+                waiting = new Array<IImageLoadListener>(1);
+                waiting.add(listener);
+                pending.put(url, waiting);
+            }
+        }
+
+        if (bytes != null) {
+            deliver(url, bytes, listener);
+            return;
+        }
+
+        getRequestScheduler().submit(QUEUE_KEY, RequestPriority.USER_VISIBLE, new IScheduledRequest() {
+            @Override
+            public void execute(Runnable onDone) {
+                fetch(url, onDone);
+            }
+        });
+    }
+
+    /**
+     * Drops all images from memory. The disk cache is kept.
+     */
+    public synchronized void clearMemory() {
+        memory.clear();
+        memoryBytes = 0;
+    }
+
+    /**
+     * Drops all images from memory and disk
+     */
+    public void clear() {
+        final FileHandle dir;
+        synchronized (this) {
+            clearMemory();
+            dir = getCacheDir();
+        }
+        if (dir != null)
+            runOnDisk(new Runnable() {
+                @Override
+                public void run() {
+                    dir.emptyDirectory();
+                }
+            });
+    }
+
+    /**
+     * Called on the scheduler's thread, so the disk cache is looked up on the disk thread
+     */
+    protected void fetch(final String url, final Runnable onDone) {
+        final FileHandle dir = getCacheDir();
+        if (dir == null) {
+            download(url, null, null, null, onDone);
+            return;
+        }
+
+        runOnDisk(new Runnable() {
+            @Override
+            public void run() {
+                String fileName = getFileName(url);
+                ObjectMap<String, String> meta = readMeta(dir, fileName, url);
+
+                if (meta != null && TimeUtils.millis() - getLong(meta, META_CHECKED) < maxAgeMillis) {
+                    byte[] bytes = readImage(dir, fileName);
+                    if (bytes != null) {
+                        complete(url, bytes);
+                        onDone.run();
+                        return;
+                    }
+                }
+
+                download(url, dir, fileName, meta, onDone);
+            }
+        });
+    }
+
+    /**
+     * @param dir      cache directory, or null if there is none
+     * @param fileName name of the image's file in the cache directory
+     * @param meta     meta data of the image on disk, or null if there is none
+     */
+    protected void download(final String url, final FileHandle dir, final String fileName,
+                            final ObjectMap<String, String> meta, final Runnable onDone) {
+        Net.HttpRequest http = new Net.HttpRequest(Net.HttpMethods.GET);
+        http.setUrl(url);
+        if (meta != null && meta.get(META_ETAG) != null)
+            http.setHeader("If-None-Match", meta.get(META_ETAG));
+        if (meta != null && meta.get(META_LASTMODIFIED) != null)
+            http.setHeader("If-Modified-Since", meta.get(META_LASTMODIFIED));
+
+        getHttpTransport().sendHttpRequest(http, new Net.HttpResponseListener() {
+            @Override
+            public void handleHttpResponse(Net.HttpResponse httpResponse) {
+                int status = httpResponse.getStatus().getStatusCode();
+                try {
+                    getRequestScheduler().reportResult(QUEUE_KEY, RequestPriority.USER_VISIBLE, status < 500);
+
+                    if (status == 304 && meta != null) {
+                        runOnDisk(new Runnable() {
+                            @Override
+                            public void run() {
+                                FileHandle image = dir.child(fileName);
+                                byte[] bytes = image.exists() ? readImage(dir, fileName) : null;
+                                if (bytes == null) {
+                                    // trimmed from disk after its meta data was read
+                                    submitDownload(url, dir, fileName);
+                                    return;
+                                }
+
+                                long now = TimeUtils.millis();
+                                meta.put(META_CHECKED, String.valueOf(now));
+                                try {
+                                    // trimming the disk cache goes by the image's time of modification
+                                    image.file().setLastModified(now);
+                                    writeMeta(dir, fileName, meta);
+                                } catch (Throwable t) {
+                                    Gdx.app.error(TAG, "Could not update cache entry " + fileName, t);
+                                }
+                                complete(url, bytes);
+                            }
+                        });
+                    } else if (status >= 200 && status < 300) {
+                        final byte[] bytes = httpResponse.getResult();
+                        final String etag = httpResponse.getHeader("ETag");
+                        final String lastModified = httpResponse.getHeader("Last-Modified");
+                        if (dir != null)
+                            runOnDisk(new Runnable() {
+                                @Override
+                                public void run() {
+                                    writeImage(dir, fileName, url, bytes, etag, lastModified);
+                                }
+                            });
+                        complete(url, bytes);
+                    } else {
+                        Gdx.app.error(TAG, "Could not load image " + url + ", status " + status);
+                        completeFromDisk(url, dir, fileName, meta);
+                    }
+                } catch (Throwable t) {
+                    Gdx.app.error(TAG, "Could not load image " + url, t);
+                    complete(url, null);
+                } finally {
+                    onDone.run();
+                }
+            }
+
+            @Override
+            public void failed(Throwable t) {
+                try {
+                    getRequestScheduler().reportResult(QUEUE_KEY, RequestPriority.USER_VISIBLE, false);
+                    // use the outdated image when offline
+                    completeFromDisk(url, dir, fileName, meta);
+                } finally {
+                    onDone.run();
+                }
+            }
+
+            @Override
+            public void cancelled() {
+                try {
+                    complete(url, null);
+                } finally {
+                    onDone.run();
+                }
+            }
+        });
+    }
+
+    /**
+     * Downloads the image without validating the one on disk
+     */
+    protected void submitDownload(final String url, final FileHandle dir, final String fileName) {
+        getRequestScheduler().submit(QUEUE_KEY, RequestPriority.USER_VISIBLE, new IScheduledRequest() {
+            @Override
+            public void execute(Runnable onDone) {
+                download(url, dir, fileName, null, onDone);
+            }
+        });
+    }
+
+    /**
+     * Completes with the outdated image on disk, if there is one
+     */
+    protected void completeFromDisk(final String url, final FileHandle dir, final String fileName,
+                                    ObjectMap<String, String> meta) {
+        if (meta == null) {
+            complete(url, null);
+            return;
+        }
+
+        runOnDisk(new Runnable() {
+            @Override
+            public void run() {
+                complete(url, readImage(dir, fileName));
+            }
+        });
+    }
+
+    protected void complete(String url, byte[] bytes) {
+        Array<IImageLoadListener> waiting;
+        synchronized (this) {
+            if (bytes != null && bytes.length > 0) {
+                byte[] old = memory.put(url, bytes);
+                memoryBytes += bytes.length - (old != null ? old.length : 0);
+                trimMemory();
+            } else
+                bytes = null;
+            waiting = pending.remove(url);
+        }
+
+        if (waiting != null)
+            for (int i = 0; i < waiting.size; i++)
+                deliver(url, bytes, waiting.get(i));
+    }
+
+    protected void deliver(final String url, final byte[] bytes, final IImageLoadListener listener) {
+        Gdx.app.postRunnable(new Runnable() {
+            @Override
+            public void run() {
+                Pixmap pixmap = null;
+                if (bytes != null)
+                    try {
+                        pixmap = new Pixmap(bytes, 0, bytes.length);
+                    } catch (Throwable t) {
+                        Gdx.app.error(TAG, "Could not decode image " + url, t);
+                    }
+                listener.onImageLoaded(url, pixmap);
+            }
+        });
+    }
+
+    private void trimMemory() {
+        Iterator<Map.Entry<String, byte[]>> it = memory.entrySet().iterator();
+        while (memoryBytes > maxMemoryBytes && it.hasNext()) {
+            memoryBytes -= it.next().getValue().length;
+            it.remove();
+        }
+    }
+
+    protected synchronized RequestScheduler getRequestScheduler() {
+        if (scheduler == null) {
+            scheduler = new RequestScheduler(4);
+            ownScheduler = true;
+        }
+        return scheduler;
+    }
+
+    /**
+     * @return transport of the scheduler set, or of the default scheduler if none was set
+     */
+    protected IHttpTransport getHttpTransport() {
+        RequestScheduler scheduler = getRequestScheduler();
+        synchronized (this) {
+            if (ownScheduler)
+                scheduler = RequestScheduler.getDefault();
+        }
+        return scheduler.getHttpTransport();
+    }
+
+    /**
+     * Runs file reads and writes one after another on a background thread
+     */
+    protected void runOnDisk(Runnable runnable) {
+        ThreadPoolExecutor executor;
+        synchronized (this) {
+            if (diskExecutor == null) {
+                diskExecutor = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable r) {
+                        Thread thread = new Thread(r, "gdx-gamesvcs-imagecache");
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+                diskExecutor.allowCoreThreadTimeOut(true);
+            }
+            executor = diskExecutor;
+        }
+
+        executor.execute(runnable);
+    }
+
+    protected synchronized FileHandle getCacheDir() {
+        return cacheDir;
+    }
+
+    /**
+     * @return name of the cached image's file. Hash collisions are detected by the URL in the meta file.
+     */
+    protected String getFileName(String url) {
+        return Integer.toHexString(url.hashCode()) + "_" + url.length();
+    }
+
+    protected ObjectMap<String, String> readMeta(FileHandle dir, String fileName, String url) {
+        FileHandle file = dir.child(fileName + META_SUFFIX);
+        if (!file.exists())
+            return null;
+
+        Reader reader = null;
+        try {
+            reader = file.reader("UTF-8");
+            ObjectMap<String, String> meta = new ObjectMap<String, String>();
+            PropertiesUtils.load(meta, reader);
+            return url.equals(meta.get(META_URL)) && dir.child(fileName).exists() ? meta : null;
+        } catch (Throwable t) {
+            Gdx.app.error(TAG, "Could not read cache entry " + fileName, t);
+            return null;
+        } finally {
+            StreamUtils.closeQuietly(reader);
+        }
+    }
+
+    protected void writeMeta(FileHandle dir, String fileName, ObjectMap<String, String> meta) throws IOException {
+        Writer writer = null;
+        try {
+            writer = dir.child(fileName + META_SUFFIX).writer(false, "UTF-8");
+            PropertiesUtils.store(meta, writer, null);
+        } finally {
+            StreamUtils.closeQuietly(writer);
+        }
+    }
+
+    protected byte[] readImage(FileHandle dir, String fileName) {
+        try {
+            return dir.child(fileName).readBytes();
+        } catch (Throwable t) {
+            Gdx.app.error(TAG, "Could not read cached image " + fileName, t);
+            return null;
+        }
+    }
+
+    protected void writeImage(FileHandle dir, String fileName, String url, byte[] bytes, String etag,
+                              String lastModified) {
+        if (bytes == null || bytes.length == 0 || bytes.length > maxDiskBytes)
+            return;
+
+        try {
+            dir.child(fileName).writeBytes(bytes, false);
+
+            ObjectMap<String, String> meta = new ObjectMap<String, String>();
+            meta.put(META_URL, url);
+            meta.put(META_CHECKED, String.valueOf(TimeUtils.millis()));
+            if (etag != null)
+                meta.put(META_ETAG, etag);
+            if (lastModified != null)
+                meta.put(META_LASTMODIFIED, lastModified);
+            writeMeta(dir, fileName, meta);
+
+            trimDisk(dir, bytes.length);
+        } catch (Throwable t) {
+            Gdx.app.error(TAG, "Could not cache image " + url, t);
+        }
+    }
+
+    /**
+     * Deletes the least recently written images when the disk cache is too big
+     */
+    private void trimDisk(FileHandle dir, long written) {
+        synchronized (this) {
+            // trimming leaves a quarter free, so the directory is only listed when it might be full again
+            writtenSinceTrim += written;
+            if (diskTrimmed && writtenSinceTrim < maxDiskBytes / 4)
+                return;
+            diskTrimmed = true;
+            writtenSinceTrim = 0;
+        }
+
+        FileHandle[] files = dir.list();
+        long size = 0;
+        for (FileHandle file : files)
+            size += file.length();
+        if (size <= maxDiskBytes)
+            return;
+
+        Arrays.sort(files, new Comparator<FileHandle>() {
+            @Override
+            public int compare(FileHandle o1, FileHandle o2) {
+                long diff = o1.lastModified() - o2.lastModified();
+                return diff < 0 ? -1 : diff > 0 ? 1 : 0;
+            }
+        });
+
+        for (int i = 0; i < files.length && size > maxDiskBytes * 3 / 4; i++) {
+            size -= files[i].length();
+            files[i].delete();
+        }
+    }
+
+    private static long getLong(ObjectMap<String, String> meta, String key) {
+        try {
+            return Long.parseLong(meta.get(key, "0"));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package de.golfgl.gdxgamesvcs.leaderboard;
+
+/**
+ * Response to a leaderboard fetch into a {@link LeaderboardColumns}
+ */
+
+public interface IFetchLeaderboardColumnsListener {
+    /**
+     * Called when the leaderboard was fetched. Might not be called on the render thread.
+     *
+     * @param columns the filled columns, or null if an error occurred
+     */
+    void onLeaderboardColumnsResponse(LeaderboardColumns columns);
+}
@@ -0,0 +1,14 @@
+package de.golfgl.gdxgamesvcs.leaderboard;
+
+/**
+ * Response to a leaderboard page fetch, see {@link ILeaderboardPagingClient}
+ */
+
+public interface IFetchLeaderboardPageListener {
+    /**
+     * Called when a leaderboard page was fetched. Might not be called on the render thread.
+     *
+     * @param page the fetched page, or null if an error occurred
+     */
+    void onLeaderboardPageResponse(LeaderboardPage page);
+}
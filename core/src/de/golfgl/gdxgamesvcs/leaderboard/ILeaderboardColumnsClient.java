@@ -0,0 +1,25 @@
+package de.golfgl.gdxgamesvcs.leaderboard;
+
+/**
+ * Implemented by game service clients that parse fetched leaderboards directly into a {@link LeaderboardColumns},
+ * without creating an object per entry. Use
+ * {@link LeaderboardColumns#fetchLeaderboardColumns(de.golfgl.gdxgamesvcs.IGameServiceClient, String, int, boolean,
+ * LeaderboardColumns, IFetchLeaderboardColumnsListener)} to fetch into columns from any client.
+ */
+
+public interface ILeaderboardColumnsClient {
+    /**
+     * Fetches leaderboard entries into the given columns. The columns are cleared before the entries are added.
+     *
+     * @param leaderBoardId   leaderboard to fetch
+     * @param limit           as for
+     *                        {@link de.golfgl.gdxgamesvcs.IGameServiceClient#fetchLeaderboardEntries(String, int, boolean, IFetchLeaderBoardEntriesResponseListener)}
+     * @param relatedToPlayer as for
+     *                        {@link de.golfgl.gdxgamesvcs.IGameServiceClient#fetchLeaderboardEntries(String, int, boolean, IFetchLeaderBoardEntriesResponseListener)}
+     * @param target          columns to fill. Don't read them before the listener is called.
+     * @param listener        listener getting the filled columns
+     * @return false if the leaderboard could not be requested
+     */
+    boolean fetchLeaderboardColumns(String leaderBoardId, int limit, boolean relatedToPlayer,
+                                    LeaderboardColumns target, IFetchLeaderboardColumnsListener listener);
+}
@@ -0,0 +1,24 @@
+package de.golfgl.gdxgamesvcs.leaderboard;
+
+/**
+ * Implemented by game service clients that fetch leaderboards page by page, so scrolling leaderboards only
+ * transfer the entries shown. Use {@link LeaderboardPages} to fetch pages from any client.
+ */
+
+public interface ILeaderboardPagingClient {
+    /**
+     * Fetches a page of leaderboard entries
+     *
+     * @param leaderBoardId   leaderboard to fetch
+     * @param pageToken       token of the page to fetch, taken from {@link LeaderboardPage#getNextPageToken()} of
+     *                        the previous page, or null for the first page
+     * @param pageSize        maximum number of entries on the page. Game services might limit it further.
+     * @param relatedToPlayer as for
+     *                        {@link de.golfgl.gdxgamesvcs.IGameServiceClient#fetchLeaderboardEntries(String, int, boolean, IFetchLeaderBoardEntriesResponseListener)}.
+     *                        Must be the same for all pages.
+     * @param listener        listener getting the page
+     * @return false if the page could not be requested
+     */
+    boolean fetchLeaderboardPage(String leaderBoardId, String pageToken, int pageSize, boolean relatedToPlayer,
+                                 IFetchLeaderboardPageListener listener);
+}
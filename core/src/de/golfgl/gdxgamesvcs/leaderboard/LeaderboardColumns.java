@@ -0,0 +1,351 @@
+package de.golfgl.gdxgamesvcs.leaderboard;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectIntMap;
+
+import de.golfgl.gdxgamesvcs.IGameServiceClient;
+
+/**
+ * Leaderboard entries stored column by column in primitive arrays, for leaderboards with many entries.
+ * <p>
+ * Sort values are stored in a long array, ranks in an int array and all strings in a pool shared by all entries,
+ * so equal strings are stored once. No object is kept per entry. Entries are read with the index based getters,
+ * or through {@link ILeaderBoardEntry} views from {@link #getEntry(int, Entry)}. A view can be reused for all
+ * entries, it only holds the index.
+ * <p>
+ * The container can be cleared and filled again without allocating new arrays. Clients implementing
+ * {@link ILeaderboardColumnsClient} fill it directly from the game service's response.
+ */
+
+public class LeaderboardColumns {
+    private static final int NONE = -1;
+
+    private final Array<String> pool = new Array<String>();
+    private final ObjectIntMap<String> poolIndex = new ObjectIntMap<String>();
+
+    private long[] sortValues;
+    private int[] ranks;
+    private int[] rankTexts;
+    private int[] formattedValues;
+    private int[] tags;
+    private int[] displayNames;
+    private int[] userIds;
+    private int[] avatarUrls;
+    private int currentPlayer = NONE;
+    private int size;
+
+    public LeaderboardColumns() {
+        this(16);
+    }
+
+    /**
+     * @param capacity number of entries that can be added before the columns grow
+     */
+    public LeaderboardColumns(int capacity) {
+        allocate(Math.max(1, capacity));
+    }
+
+    /**
+     * Fetches leaderboard entries from any {@link IGameServiceClient} into columns. Clients implementing
+     * {@link ILeaderboardColumnsClient} fill the columns directly, for all other clients the fetched entries are
+     * copied.
+     *
+     * @see ILeaderboardColumnsClient#fetchLeaderboardColumns(String, int, boolean, LeaderboardColumns,
+     * IFetchLeaderboardColumnsListener)
+     */
+    public static boolean fetchLeaderboardColumns(IGameServiceClient client, String leaderBoardId, int limit,
+                                                  boolean relatedToPlayer, final LeaderboardColumns target,
+                                                  final IFetchLeaderboardColumnsListener listener) {
+        if (client instanceof ILeaderboardColumnsClient)
+            return ((ILeaderboardColumnsClient) client).fetchLeaderboardColumns(leaderBoardId, limit,
+                    relatedToPlayer, target, listener);
+
+        return client.fetchLeaderboardEntries(leaderBoardId, limit, relatedToPlayer,
+                new IFetchLeaderBoardEntriesResponseListener() {
+                    @Override
+                    public void onLeaderBoardResponse(Array<ILeaderBoardEntry> leaderBoard) {
+                        if (leaderBoard == null) {
+                            listener.onLeaderboardColumnsResponse(null);
+                            return;
+                        }
+                        target.clear();
+                        target.addAll(leaderBoard);
+                        listener.onLeaderboardColumnsResponse(target);
+                    }
+                });
+    }
+
+    /**
+     * Adds an entry
+     *
+     * @param rank     numeric rank, or 0 if unknown
+     * @param rankText rank as shown to the user, or null if it is the numeric rank
+     * @return index of the entry
+     */
+    public int add(long sortValue, String formattedValue, int rank, String rankText, String tag, String displayName,
+                   String userId, String avatarUrl, boolean isCurrentPlayer) {
+        if (size == sortValues.length)
+            allocate(size * 2);
+
+        int index = size++;
+        sortValues[index] = sortValue;
+        ranks[index] = rank;
+        rankTexts[index] = intern(rankText);
+        formattedValues[index] = intern(formattedValue);
+        tags[index] = intern(tag);
+        displayNames[index] = intern(displayName);
+        userIds[index] = intern(userId);
+        avatarUrls[index] = intern(avatarUrl);
+        if (isCurrentPlayer)
+            currentPlayer = index;
+
+        return index;
+    }
+
+    /**
+     * Adds a copy of an entry
+     *
+     * @return index of the entry
+     */
+    public int add(ILeaderBoardEntry entry) {
+        String rankText = entry.getScoreRank();
+        int rank = parseRank(rankText);
+        if (rankText != null && rank > 0 && rankText.length() == stringSize(rank))
+            // plain number, no need to keep the text
+            rankText = null;
+
+        return add(entry.getSortValue(), entry.getFormattedValue(), rank, rankText, entry.getScoreTag(),
+                entry.getUserDisplayName(), entry.getUserId(), entry.getAvatarUrl(), entry.isCurrentPlayer());
+    }
+
+    /**
+     * Adds copies of all given entries
+     */
+    public void addAll(Array<ILeaderBoardEntry> entries) {
+        if (size + entries.size > sortValues.length)
+            allocate(size + entries.size);
+
+        for (int i = 0; i < entries.size; i++)
+            add(entries.get(i));
+    }
+
+    /**
+     * Removes all entries, keeping the allocated columns
+     */
+    public void clear() {
+        pool.clear();
+        poolIndex.clear();
+        currentPlayer = NONE;
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getSortValue(int index) {
+        checkIndex(index);
+        return sortValues[index];
+    }
+
+    public int getRank(int index) {
+        checkIndex(index);
+        return ranks[index];
+    }
+
+    public String getScoreRank(int index) {
+        checkIndex(index);
+        if (rankTexts[index] != NONE)
+            return pool.get(rankTexts[index]);
+        return ranks[index] > 0 ? String.valueOf(ranks[index]) : null;
+    }
+
+    public String getFormattedValue(int index) {
+        checkIndex(index);
+        return lookup(formattedValues[index]);
+    }
+
+    public String getScoreTag(int index) {
+        checkIndex(index);
+        return lookup(tags[index]);
+    }
+
+    public String getUserDisplayName(int index) {
+        checkIndex(index);
+        return lookup(displayNames[index]);
+    }
+
+    public String getUserId(int index) {
+        checkIndex(index);
+        return lookup(userIds[index]);
+    }
+
+    public String getAvatarUrl(int index) {
+        checkIndex(index);
+        return lookup(avatarUrls[index]);
+    }
+
+    public boolean isCurrentPlayer(int index) {
+        checkIndex(index);
+        return index == currentPlayer;
+    }
+
+    /**
+     * @return index of the current player's entry, or -1 if none
+     */
+    public int getCurrentPlayerIndex() {
+        return currentPlayer;
+    }
+
+    /**
+     * @param index entry to view
+     * @param reuse view to reuse, or null to create a new one
+     * @return view of the entry. It is only valid until this container is cleared.
+     */
+    public Entry getEntry(int index, Entry reuse) {
+        checkIndex(index);
+        Entry entry = reuse != null ? reuse : new Entry();
+        entry.columns = this;
+        entry.index = index;
+        return entry;
+    }
+
+    /**
+     * @return views of all entries, for APIs expecting an array of entries
+     */
+    public Array<ILeaderBoardEntry> toArray() {
+        Array<ILeaderBoardEntry> entries = new Array<ILeaderBoardEntry>(size);
+        for (int i = 0; i < size; i++)
+            entries.add(getEntry(i, null));
+        return entries;
+    }
+
+    private int intern(String value) {
+        if (value == null)
+            return NONE;
+
+        int index = poolIndex.get(value, NONE);
+        if (index == NONE) {
+            index = pool.size;
+            pool.add(value);
+            poolIndex.put(value, index);
+        }
+        return index;
+    }
+
+    private String lookup(int poolIndex) {
+        return poolIndex != NONE ? pool.get(poolIndex) : null;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("index can't be >= size: " + index + " >= " + size);
+    }
+
+    private void allocate(int capacity) {
+        sortValues = copy(sortValues, new long[capacity]);
+        ranks = copy(ranks, new int[capacity]);
+        rankTexts = copy(rankTexts, new int[capacity]);
+        formattedValues = copy(formattedValues, new int[capacity]);
+        tags = copy(tags, new int[capacity]);
+        displayNames = copy(displayNames, new int[capacity]);
+        userIds = copy(userIds, new int[capacity]);
+        avatarUrls = copy(avatarUrls, new int[capacity]);
+    }
+
+    private long[] copy(long[] from, long[] to) {
+        if (from != null)
+            System.arraycopy(from, 0, to, 0, size);
+        return to;
+    }
+
+    private int[] copy(int[] from, int[] to) {
+        if (from != null)
+            System.arraycopy(from, 0, to, 0, size);
+        return to;
+    }
+
+    /**
+     * @return numeric value of a rank as returned by {@link ILeaderBoardEntry#getScoreRank()}, or 0 if unknown
+     */
+    static int parseRank(String rank) {
+        if (rank == null || rank.isEmpty())
+            return 0;
+
+        int value = 0;
+        for (int i = 0; i < rank.length(); i++) {
+            char c = rank.charAt(i);
+            if (value > 0 && (c == ',' || c == '.' || c == ' ' || c == '\u00a0' || c == '\''))
+                // grouping separator of a formatted rank like "1,234"
+                continue;
+            if (c < '0' || c > '9')
+                // formatted rank like "1st", keep leading digits
+                return value;
+            if (value > (Integer.MAX_VALUE - 9) / 10)
+                return 0;
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static int stringSize(int value) {
+        int digits = 1;
+        while (value >= 10) {
+            value /= 10;
+            digits++;
+        }
+        return digits;
+    }
+
+    /**
+     * View of an entry of a {@link LeaderboardColumns}
+     */
+    public static class Entry implements ILeaderBoardEntry {
+        private LeaderboardColumns columns;
+        private int index;
+
+        public int getIndex() {
+            return index;
+        }
+
+        @Override
+        public String getFormattedValue() {
+            return columns.getFormattedValue(index);
+        }
+
+        @Override
+        public long getSortValue() {
+            return columns.getSortValue(index);
+        }
+
+        @Override
+        public String getScoreTag() {
+            return columns.getScoreTag(index);
+        }
+
+        @Override
+        public String getUserDisplayName() {
+            return columns.getUserDisplayName(index);
+        }
+
+        @Override
+        public String getUserId() {
+            return columns.getUserId(index);
+        }
+
+        @Override
+        public String getScoreRank() {
+            return columns.getScoreRank(index);
+        }
+
+        @Override
+        public String getAvatarUrl() {
+            return columns.getAvatarUrl(index);
+        }
+
+        @Override
+        public boolean isCurrentPlayer() {
+            return columns.isCurrentPlayer(index);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package de.golfgl.gdxgamesvcs.leaderboard;
+
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * A page of leaderboard entries, see {@link ILeaderboardPagingClient}
+ */
+
+public class LeaderboardPage {
+    private final Array<ILeaderBoardEntry> entries;
+    private final String nextPageToken;
+
+    /**
+     * @param entries       entries of this page
+     * @param nextPageToken token to fetch the next page with, or null if this is the last page
+     */
+    public LeaderboardPage(Array<ILeaderBoardEntry> entries, String nextPageToken) {
+        this.entries = entries;
+        this.nextPageToken = nextPageToken;
+    }
+
+    public Array<ILeaderBoardEntry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * @return token to give to
+     * {@link ILeaderboardPagingClient#fetchLeaderboardPage(String, String, int, boolean, IFetchLeaderboardPageListener)}
+     * for the next page, or null if this is the last page
+     */
+    public String getNextPageToken() {
+        return nextPageToken;
+    }
+
+    public boolean hasNextPage() {
+        return nextPageToken != null;
+    }
+}
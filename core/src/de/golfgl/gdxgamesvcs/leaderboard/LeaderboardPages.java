@@ -0,0 +1,52 @@
+package de.golfgl.gdxgamesvcs.leaderboard;
+
+import com.badlogic.gdx.utils.Array;
+
+import de.golfgl.gdxgamesvcs.IGameServiceClient;
+
+/**
+ * Fetches leaderboard pages from any {@link IGameServiceClient}. Clients implementing
+ * {@link ILeaderboardPagingClient} fetch only the requested page. For all other clients, the leaderboard is fetched
+ * up to the end of the requested page and the entries before it are dropped.
+ */
+
+public class LeaderboardPages {
+
+    /**
+     * see {@link ILeaderboardPagingClient#fetchLeaderboardPage(String, String, int, boolean,
+     * IFetchLeaderboardPageListener)}
+     */
+    public static boolean fetchLeaderboardPage(IGameServiceClient client, String leaderBoardId, String pageToken,
+                                               int pageSize, boolean relatedToPlayer,
+                                               final IFetchLeaderboardPageListener listener) {
+        if (client instanceof ILeaderboardPagingClient)
+            return ((ILeaderboardPagingClient) client).fetchLeaderboardPage(leaderBoardId, pageToken, pageSize,
+                    relatedToPlayer, listener);
+
+        final int offset;
+        try {
+            offset = pageToken != null ? Integer.parseInt(pageToken) : 0;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid page token " + pageToken);
+        }
+
+        final int limit = offset + pageSize;
+        return client.fetchLeaderboardEntries(leaderBoardId, limit, relatedToPlayer,
+                new IFetchLeaderBoardEntriesResponseListener() {
+                    @Override
+                    public void onLeaderBoardResponse(Array<ILeaderBoardEntry> leaderBoard) {
+                        listener.onLeaderboardPageResponse(leaderBoard == null ? null
+                                : toPage(leaderBoard, offset, limit));
+                    }
+                });
+    }
+
+    protected static LeaderboardPage toPage(Array<ILeaderBoardEntry> leaderBoard, int offset, int limit) {
+        Array<ILeaderBoardEntry> entries = new Array<ILeaderBoardEntry>(Math.max(0, leaderBoard.size - offset));
+        for (int i = offset; i < leaderBoard.size && i < limit; i++)
+            entries.add(leaderBoard.get(i));
+
+        // a full leaderboard might have more entries
+        return new LeaderboardPage(entries, leaderBoard.size >= limit ? String.valueOf(limit) : null);
+    }
+}
@@ -0,0 +1,489 @@
+package de.golfgl.gdxgamesvcs.leaderboard;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * Index of fetched leaderboard entries, answering "where do I stand" after a score submission without fetching
+ * the leaderboard again.
+ * <p>
+ * Feed it the entries of fetched leaderboards and pages with {@link #addEntries(String, Array)}, or wrap the fetch
+ * listeners with {@link #recording(String, IFetchLeaderBoardEntriesResponseListener)}. Only feed it entries with
+ * global ranks: GameJolt's scores related to the player are the player's own scores, ranked among each other.
+ * The index keeps sort values and ranks in primitive arrays sorted by rank and is updated in place as new pages
+ * arrive. Entries contradicting newer ones are dropped, as the leaderboard changed in between.
+ * <p>
+ * After submitting a score, report it with {@link #onScoreSubmitted(String, long)} and get the player's rank with
+ * {@link #getPlayerRank(String)} and the entries around it with
+ * {@link #getEntriesAbove(String, long, int, Array)} and {@link #getEntriesBelow(String, long, int, Array)}.
+ * The rank is exact if the entries directly above and below the score are known, otherwise it is interpolated
+ * from the nearest known entries. See {@link #isRankExact(String, long)}.
+ * <p>
+ * The order of a leaderboard is detected from its entries, or set with {@link #setLowerIsBetter(String, boolean)}.
+ */
+
+public class LeaderboardRankIndex {
+    /**
+     * returned if no rank can be given
+     */
+    public static final int UNKNOWN = -1;
+
+    private final ObjectMap<String, Board> boards = new ObjectMap<String, Board>();
+    private int maxEntries = 1000;
+
+    /**
+     * @param maxEntries maximum number of entries kept per leaderboard. When exceeded, the entries farthest from
+     *                   the current player are dropped. Default 1000
+     * @return this for method chaining
+     */
+    public LeaderboardRankIndex setMaxEntries(int maxEntries) {
+        synchronized (this) {
+            this.maxEntries = Math.max(2, maxEntries);
+        }
+        return this;
+    }
+
+    /**
+     * @param lowerIsBetter true if lower scores rank higher on the leaderboard, like times
+     * @return this for method chaining
+     */
+    public LeaderboardRankIndex setLowerIsBetter(String leaderboardId, boolean lowerIsBetter) {
+        synchronized (this) {
+            Board board = getBoard(leaderboardId);
+            board.direction = lowerIsBetter ? -1 : 1;
+            board.dropContradicting();
+        }
+        return this;
+    }
+
+    /**
+     * Adds fetched entries with global ranks. Entries without a numeric rank are ignored.
+     */
+    public synchronized void addEntries(String leaderboardId, Array<ILeaderBoardEntry> entries) {
+        if (entries == null || entries.size == 0)
+            return;
+
+        Board board = getBoard(leaderboardId);
+        for (int i = 0; i < entries.size; i++)
+            board.add(entries.get(i));
+        board.trim(maxEntries);
+    }
+
+    /**
+     * @return listener adding the fetched entries to this index before passing them on
+     */
+    public IFetchLeaderBoardEntriesResponseListener recording(final String leaderboardId,
+                                                              final IFetchLeaderBoardEntriesResponseListener
+                                                                      listener) {
+        return new IFetchLeaderBoardEntriesResponseListener() {
+            @Override
+            public void onLeaderBoardResponse(Array<ILeaderBoardEntry> leaderBoard) {
+                addEntries(leaderboardId, leaderBoard);
+                listener.onLeaderBoardResponse(leaderBoard);
+            }
+        };
+    }
+
+    /**
+     * @return listener adding the fetched page's entries to this index before passing the page on
+     */
+    public IFetchLeaderboardPageListener recording(final String leaderboardId,
+                                                   final IFetchLeaderboardPageListener listener) {
+        return new IFetchLeaderboardPageListener() {
+            @Override
+            public void onLeaderboardPageResponse(LeaderboardPage page) {
+                if (page != null)
+                    addEntries(leaderboardId, page.getEntries());
+                listener.onLeaderboardPageResponse(page);
+            }
+        };
+    }
+
+    /**
+     * Remembers a score submitted by the current player. Game services show the best score of a player, so it is
+     * only kept if it is better than the player's previous score.
+     */
+    public synchronized void onScoreSubmitted(String leaderboardId, long score) {
+        Board board = getBoard(leaderboardId);
+        long best = board.getPlayerBest();
+        if (!board.hasPlayerScore() || board.isBetter(score, best)) {
+            board.submitted = true;
+            board.submittedScore = score;
+        }
+    }
+
+    /**
+     * @return the current player's best known score, or null if unknown
+     */
+    public synchronized Long getPlayerScore(String leaderboardId) {
+        Board board = boards.get(leaderboardId);
+        return board != null && board.hasPlayerScore() ? board.getPlayerBest() : null;
+    }
+
+    /**
+     * @return rank of the current player's best known score, or {@link #UNKNOWN}
+     */
+    public synchronized int getPlayerRank(String leaderboardId) {
+        Board board = boards.get(leaderboardId);
+        if (board == null || !board.hasPlayerScore())
+            return UNKNOWN;
+        return board.estimateRank(board.getPlayerBest());
+    }
+
+    /**
+     * @return rank the current player would have with the given score as best score, or {@link #UNKNOWN} if no
+     * entries are known
+     */
+    public synchronized int estimateRank(String leaderboardId, long score) {
+        Board board = boards.get(leaderboardId);
+        return board != null ? board.estimateRank(score) : UNKNOWN;
+    }
+
+    /**
+     * @return true if {@link #estimateRank(String, long)} is exact because the entries directly above and below
+     * the score are known
+     */
+    public synchronized boolean isRankExact(String leaderboardId, long score) {
+        Board board = boards.get(leaderboardId);
+        return board != null && board.isRankExact(score);
+    }
+
+    /**
+     * Adds the known entries ranked above the given score, the nearest last
+     *
+     * @param count maximum number of entries
+     * @param out   array to add the entries to
+     * @return out
+     */
+    public synchronized Array<ILeaderBoardEntry> getEntriesAbove(String leaderboardId, long score, int count,
+                                                                 Array<ILeaderBoardEntry> out) {
+        Board board = boards.get(leaderboardId);
+        if (board == null || board.size == 0)
+            return out;
+
+        int end = board.findInsertIndex(score);
+        int first = end;
+        for (int found = 0; first > 0 && found < count; first--)
+            if (first - 1 != board.playerIndex)
+                found++;
+
+        for (int i = first; i < end; i++)
+            if (i != board.playerIndex)
+                out.add(board.entries[i]);
+        return out;
+    }
+
+    /**
+     * Adds the known entries ranked below the given score, the nearest first
+     *
+     * @param count maximum number of entries
+     * @param out   array to add the entries to
+     * @return out
+     */
+    public synchronized Array<ILeaderBoardEntry> getEntriesBelow(String leaderboardId, long score, int count,
+                                                                 Array<ILeaderBoardEntry> out) {
+        Board board = boards.get(leaderboardId);
+        if (board == null)
+            return out;
+
+        int added = 0;
+        for (int i = board.findInsertIndex(score); i < board.size && added < count; i++)
+            if (i != board.playerIndex) {
+                out.add(board.entries[i]);
+                added++;
+            }
+        return out;
+    }
+
+    /**
+     * @return number of entries known for the leaderboard
+     */
+    public synchronized int size(String leaderboardId) {
+        Board board = boards.get(leaderboardId);
+        return board != null ? board.size : 0;
+    }
+
+    /**
+     * Forgets all entries and submitted scores of a leaderboard, for example when the player changed
+     */
+    public synchronized void clear(String leaderboardId) {
+        boards.remove(leaderboardId);
+    }
+
+    public synchronized void clear() {
+        boards.clear();
+    }
+
+    private Board getBoard(String leaderboardId) {
+        Board board = boards.get(leaderboardId);
+        if (board == null) {
+            board = new Board();
+            boards.put(leaderboardId, board);
+        }
+        return board;
+    }
+
+    /**
+     * Known entries of a leaderboard, sorted by rank
+     */
+    private static class Board {
+        private int[] ranks = new int[16];
+        private long[] sorts = new long[16];
+        private ILeaderBoardEntry[] entries = new ILeaderBoardEntry[16];
+        private int size;
+        // 1 if higher sort values are better, -1 if lower ones are, 0 if not known yet
+        private int direction;
+        private int playerIndex = -1;
+        private boolean submitted;
+        private long submittedScore;
+
+        private void add(ILeaderBoardEntry entry) {
+            int rank = LeaderboardColumns.parseRank(entry.getScoreRank());
+            if (rank <= 0)
+                return;
+
+            long sort = entry.getSortValue();
+            if (entry.isCurrentPlayer() && playerIndex >= 0)
+                remove(playerIndex);
+
+            int index = findRank(rank);
+            if (index >= 0) {
+                set(index, rank, sort, entry);
+            } else {
+                index = -(index + 1);
+                insert(index, rank, sort, entry);
+            }
+            if (entry.isCurrentPlayer())
+                playerIndex = index;
+
+            if (direction == 0)
+                detectDirection();
+            else
+                dropContradicting(index);
+        }
+
+        /**
+         * @return index of the entry with the given rank, or -(insertion point + 1)
+         */
+        private int findRank(int rank) {
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (ranks[mid] < rank)
+                    low = mid + 1;
+                else if (ranks[mid] > rank)
+                    high = mid - 1;
+                else
+                    return mid;
+            }
+            return -(low + 1);
+        }
+
+        private void set(int index, int rank, long sort, ILeaderBoardEntry entry) {
+            if (index == playerIndex)
+                playerIndex = -1;
+            ranks[index] = rank;
+            sorts[index] = sort;
+            entries[index] = entry;
+        }
+
+        private void insert(int index, int rank, long sort, ILeaderBoardEntry entry) {
+            if (size == ranks.length) {
+                int capacity = size * 2;
+                int[] newRanks = new int[capacity];
+                long[] newSorts = new long[capacity];
+                ILeaderBoardEntry[] newEntries = new ILeaderBoardEntry[capacity];
+                System.arraycopy(ranks, 0, newRanks, 0, size);
+                System.arraycopy(sorts, 0, newSorts, 0, size);
+                System.arraycopy(entries, 0, newEntries, 0, size);
+                ranks = newRanks;
+                sorts = newSorts;
+                entries = newEntries;
+            }
+
+            System.arraycopy(ranks, index, ranks, index + 1, size - index);
+            System.arraycopy(sorts, index, sorts, index + 1, size - index);
+            System.arraycopy(entries, index, entries, index + 1, size - index);
+            ranks[index] = rank;
+            sorts[index] = sort;
+            entries[index] = entry;
+            size++;
+            if (playerIndex >= index)
+                playerIndex++;
+        }
+
+        private void remove(int index) {
+            removeRange(index, index + 1);
+        }
+
+        private void removeRange(int from, int to) {
+            if (from >= to)
+                return;
+
+            int count = to - from;
+            System.arraycopy(ranks, to, ranks, from, size - to);
+            System.arraycopy(sorts, to, sorts, from, size - to);
+            System.arraycopy(entries, to, entries, from, size - to);
+            size -= count;
+            for (int i = size; i < size + count; i++)
+                entries[i] = null;
+
+            if (playerIndex >= to)
+                playerIndex -= count;
+            else if (playerIndex >= from)
+                playerIndex = -1;
+        }
+
+        private void detectDirection() {
+            for (int i = 1; i < size; i++)
+                if (sorts[i] != sorts[0]) {
+                    direction = sorts[0] > sorts[i] ? 1 : -1;
+                    dropContradicting();
+                    return;
+                }
+        }
+
+        /**
+         * Drops entries around the given one that are out of order, left over from before the leaderboard changed
+         */
+        private void dropContradicting(int index) {
+            if (direction == 0)
+                return;
+
+            int from = index;
+            while (from > 0 && isBetter(sorts[index], sorts[from - 1]))
+                from--;
+            removeRange(from, index);
+            index = from;
+
+            int to = index + 1;
+            while (to < size && isBetter(sorts[to], sorts[index]))
+                to++;
+            removeRange(index + 1, to);
+        }
+
+        private void dropContradicting() {
+            if (direction == 0)
+                return;
+
+            for (int i = 1; i < size; i++)
+                if (isBetter(sorts[i], sorts[i - 1])) {
+                    remove(i - 1);
+                    i = Math.max(0, i - 2);
+                }
+        }
+
+        /**
+         * Keeps the entries nearest to the current player
+         */
+        private void trim(int maxEntries) {
+            if (size <= maxEntries)
+                return;
+
+            int center = playerIndex >= 0 ? playerIndex
+                    : hasPlayerScore() ? Math.min(findInsertIndex(getPlayerBest()), size - 1) : 0;
+            int from = Math.max(0, Math.min(center - maxEntries / 2, size - maxEntries));
+            removeRange(from + maxEntries, size);
+            removeRange(0, from);
+        }
+
+        private boolean isBetter(long sort, long than) {
+            return direction < 0 ? sort < than : sort > than;
+        }
+
+        private boolean hasPlayerScore() {
+            return submitted || playerIndex >= 0;
+        }
+
+        private long getPlayerBest() {
+            if (playerIndex < 0)
+                return submittedScore;
+            if (!submitted)
+                return sorts[playerIndex];
+            return isBetter(submittedScore, sorts[playerIndex]) ? submittedScore : sorts[playerIndex];
+        }
+
+        /**
+         * @return index of the first entry ranked below the given score. Entries with the same score stay above.
+         */
+        private int findInsertIndex(long score) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (isBetter(score, sorts[mid]))
+                    high = mid;
+                else
+                    low = mid + 1;
+            }
+            return low;
+        }
+
+        private int estimateRank(long score) {
+            if (size == 0)
+                return UNKNOWN;
+
+            int next = findNext(score);
+            int previous = findPrevious(next);
+
+            if (previous < 0) {
+                if (next < size)
+                    // nothing better known: somewhere above the first known entry, at worst taking its place
+                    return getRankWithoutPlayer(next);
+
+                // only the player's own entry is known, its rank is the nearest estimate
+                return ranks[playerIndex];
+            }
+
+            int rank = getRankWithoutPlayer(previous) + 1;
+            if (next >= size)
+                return rank;
+
+            int gap = getRankWithoutPlayer(next) - rank;
+            if (gap <= 0 || sorts[previous] == sorts[next])
+                return rank;
+
+            // unknown entries in between, assume their scores are evenly distributed
+            double share = (double) (sorts[previous] - score) / (sorts[previous] - sorts[next]);
+            return rank + (int) (Math.max(0, Math.min(1, share)) * gap);
+        }
+
+        private boolean isRankExact(long score) {
+            if (size == 0)
+                return false;
+
+            int next = findNext(score);
+            int previous = findPrevious(next);
+
+            if (next >= size)
+                // only the player's own entry is known: exact only if it is first and stays first
+                return previous < 0 && ranks[playerIndex] == 1 && !isBetter(sorts[playerIndex], score);
+
+            return getRankWithoutPlayer(next) == (previous < 0 ? 1 : getRankWithoutPlayer(previous) + 1);
+        }
+
+        /**
+         * @return index of the first entry other than the player's ranked below the given score
+         */
+        private int findNext(long score) {
+            int next = findInsertIndex(score);
+            return next == playerIndex ? next + 1 : next;
+        }
+
+        /**
+         * @return index of the last entry other than the player's ranked above the given next entry
+         */
+        private int findPrevious(int next) {
+            int previous = next - 1;
+            return previous == playerIndex ? previous - 1 : previous;
+        }
+
+        /**
+         * @return rank of the entry when the player's entry is moved away
+         */
+        private int getRankWithoutPlayer(int index) {
+            return playerIndex >= 0 && playerIndex < index ? ranks[index] - 1 : ranks[index];
+        }
+    }
+}
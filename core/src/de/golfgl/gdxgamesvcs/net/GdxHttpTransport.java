@@ -0,0 +1,18 @@
+package de.golfgl.gdxgamesvcs.net;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Net;
+
+/**
+ * Sends HTTP requests with {@link Net#sendHttpRequest(Net.HttpRequest, Net.HttpResponseListener)}. Works on all
+ * platforms.
+ */
+
+public class GdxHttpTransport implements IHttpTransport {
+    public static final GdxHttpTransport INSTANCE = new GdxHttpTransport();
+
+    @Override
+    public void sendHttpRequest(Net.HttpRequest httpRequest, Net.HttpResponseListener listener) {
+        Gdx.net.sendHttpRequest(httpRequest, listener);
+    }
+}
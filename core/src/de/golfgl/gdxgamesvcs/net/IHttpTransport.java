@@ -0,0 +1,16 @@
+package de.golfgl.gdxgamesvcs.net;
+
+import com.badlogic.gdx.Net;
+
+/**
+ * Sends the HTTP requests of game service clients. {@link GdxHttpTransport} uses {@link com.badlogic.gdx.Net}, set
+ * another transport with {@link RequestScheduler#setHttpTransport(IHttpTransport)}.
+ */
+
+public interface IHttpTransport {
+    /**
+     * Sends a request. Like {@link Net#sendHttpRequest(Net.HttpRequest, Net.HttpResponseListener)}, the listener
+     * may be called on another thread.
+     */
+    void sendHttpRequest(Net.HttpRequest httpRequest, Net.HttpResponseListener listener);
+}
@@ -0,0 +1,16 @@
+package de.golfgl.gdxgamesvcs.net;
+
+/**
+ * Informed by the {@link RequestScheduler} about the outcome of requests, see
+ * {@link RequestScheduler#addResultListener(IRequestResultListener)}
+ */
+
+public interface IRequestResultListener {
+    /**
+     * Called on the thread the result was reported on
+     *
+     * @param queueKey key of the submitter's queue, typically its game service id
+     * @param success  false if the request failed because of the network or the server
+     */
+    void onRequestResult(String queueKey, RequestPriority priority, boolean success);
+}
@@ -0,0 +1,15 @@
+package de.golfgl.gdxgamesvcs.net;
+
+/**
+ * Request executed by the {@link RequestScheduler} when a slot is free
+ */
+
+public interface IScheduledRequest {
+    /**
+     * Starts the request. Must not block, blocking work has to be done on another thread.
+     *
+     * @param onDone to be run when the request is done, successful or not, to free its slot. Running it more than
+     *               once has no effect.
+     */
+    void execute(Runnable onDone);
+}
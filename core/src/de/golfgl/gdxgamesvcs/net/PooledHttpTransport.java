@@ -0,0 +1,240 @@
+package de.golfgl.gdxgamesvcs.net;
+
+import com.badlogic.gdx.Net;
+import com.badlogic.gdx.net.HttpStatus;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.StreamUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Sends HTTP requests on a fixed pool of threads, reusing connections.
+ * <p>
+ * {@link com.badlogic.gdx.Net} on desktop starts a new thread for every request. This transport runs the requests
+ * on at most the given number of threads, asks for gzip compressed responses and always reads and closes the
+ * response, so the JVM keeps the connection alive and the next request to the same host saves the connection
+ * setup and TLS handshake. The JVM keeps up to 5 idle connections per host by default, change it with the
+ * http.maxConnections system property before the first request.
+ * <p>
+ * For desktop and Android, not available on GWT. Use it for all clients with
+ * <pre>
+ * RequestScheduler.getDefault().setHttpTransport(new PooledHttpTransport(4));
+ * </pre>
+ */
+
+public class PooledHttpTransport implements IHttpTransport, Disposable {
+    private final ThreadPoolExecutor executor;
+    private boolean gzip = true;
+
+    /**
+     * @param threads number of requests running at the same time
+     */
+    public PooledHttpTransport(int threads) {
+        final AtomicInteger threadNum = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "gdx-gamesvcs-http-" + threadNum.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * @param gzip true to ask for gzip compressed responses. Default true
+     * @return this for method chaining
+     */
+    public PooledHttpTransport setGzip(boolean gzip) {
+        this.gzip = gzip;
+        return this;
+    }
+
+    /**
+     * @param threads number of requests running at the same time
+     * @return this for method chaining
+     */
+    public PooledHttpTransport setThreads(int threads) {
+        if (threads > executor.getMaximumPoolSize()) {
+            executor.setMaximumPoolSize(threads);
+            executor.setCorePoolSize(threads);
+        } else {
+            executor.setCorePoolSize(threads);
+            executor.setMaximumPoolSize(threads);
+        }
+        return this;
+    }
+
+    @Override
+    public void sendHttpRequest(final Net.HttpRequest httpRequest, final Net.HttpResponseListener listener) {
+        if (httpRequest.getUrl() == null) {
+            listener.failed(new IllegalArgumentException("can't process a HTTP request without URL set"));
+            return;
+        }
+
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    Response response;
+                    try {
+                        response = execute(httpRequest);
+                    } catch (Throwable t) {
+                        listener.failed(t);
+                        return;
+                    }
+                    listener.handleHttpResponse(response);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // disposed
+            listener.failed(e);
+        }
+    }
+
+    protected Response execute(Net.HttpRequest httpRequest) throws IOException {
+        String method = httpRequest.getMethod();
+        String url = httpRequest.getUrl();
+        String content = httpRequest.getContent();
+        boolean isGet = Net.HttpMethods.GET.equalsIgnoreCase(method);
+
+        // same as Gdx.net: content of GET requests is the query string
+        if (isGet && content != null && !content.isEmpty())
+            url = url + "?" + content;
+
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        try {
+            boolean doOutput = !isGet && (content != null || httpRequest.getContentStream() != null);
+            connection.setDoOutput(doOutput);
+            connection.setDoInput(true);
+            connection.setRequestMethod(method);
+            connection.setInstanceFollowRedirects(httpRequest.getFollowRedirects());
+            connection.setConnectTimeout(httpRequest.getTimeOut());
+            connection.setReadTimeout(httpRequest.getTimeOut());
+            if (gzip)
+                connection.setRequestProperty("Accept-Encoding", "gzip");
+            for (Map.Entry<String, String> header : httpRequest.getHeaders().entrySet())
+                connection.setRequestProperty(header.getKey(), header.getValue());
+
+            if (doOutput)
+                writeContent(connection, httpRequest);
+
+            int status = connection.getResponseCode();
+            InputStream in = status >= 400 ? connection.getErrorStream() : connection.getInputStream();
+            byte[] result;
+            try {
+                if (in != null && "gzip".equalsIgnoreCase(connection.getContentEncoding()))
+                    in = new GZIPInputStream(in);
+                // reading to the end lets the connection be reused
+                result = in != null ? StreamUtils.copyStreamToByteArray(in, Math.max(0,
+                        connection.getContentLength())) : new byte[0];
+            } finally {
+                StreamUtils.closeQuietly(in);
+            }
+
+            return new Response(status, result, connection.getHeaderFields());
+        } catch (IOException e) {
+            // the error stream has to be consumed as well, or the connection is dropped
+            InputStream err = connection.getErrorStream();
+            if (err != null) {
+                try {
+                    StreamUtils.copyStreamToByteArray(err);
+                } catch (IOException ignored) {
+                    // connection is dropped
+                } finally {
+                    StreamUtils.closeQuietly(err);
+                }
+            }
+            throw e;
+        }
+    }
+
+    private void writeContent(HttpURLConnection connection, Net.HttpRequest httpRequest) throws IOException {
+        OutputStream out = connection.getOutputStream();
+        try {
+            String content = httpRequest.getContent();
+            if (content != null)
+                out.write(content.getBytes("UTF-8"));
+            else
+                StreamUtils.copyStream(httpRequest.getContentStream(), out);
+        } finally {
+            StreamUtils.closeQuietly(out);
+        }
+    }
+
+    /**
+     * Requests already queued are still sent, new ones are refused
+     */
+    @Override
+    public void dispose() {
+        executor.shutdown();
+    }
+
+    protected static class Response implements Net.HttpResponse {
+        private final HttpStatus status;
+        private final byte[] result;
+        private final Map<String, List<String>> headers;
+
+        protected Response(int status, byte[] result, Map<String, List<String>> headers) {
+            this.status = new HttpStatus(status);
+            this.result = result;
+            this.headers = headers;
+        }
+
+        @Override
+        public byte[] getResult() {
+            return result;
+        }
+
+        @Override
+        public String getResultAsString() {
+            try {
+                return new String(result, "UTF-8");
+            } catch (UnsupportedEncodingException e) {
+                return "";
+            }
+        }
+
+        @Override
+        public InputStream getResultAsStream() {
+            return new ByteArrayInputStream(result);
+        }
+
+        @Override
+        public HttpStatus getStatus() {
+            return status;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            for (Map.Entry<String, List<String>> header : headers.entrySet())
+                if (header.getKey() != null && header.getKey().equalsIgnoreCase(name)) {
+                    List<String> values = header.getValue();
+                    return values.isEmpty() ? null : values.get(0);
+                }
+            return null;
+        }
+
+        @Override
+        public Map<String, List<String>> getHeaders() {
+            return headers;
+        }
+    }
+}
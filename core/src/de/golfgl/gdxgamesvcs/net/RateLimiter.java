@@ -0,0 +1,98 @@
+package de.golfgl.gdxgamesvcs.net;
+
+import com.badlogic.gdx.math.MathUtils;
+
+/**
+ * Limits the requests of a backend and priority class, see
+ * {@link RequestScheduler#setRateLimit(String, RequestPriority, float, int)}.
+ * <p>
+ * A token bucket lets bursts of requests start at once and limits the sustained rate. After failures, requests are
+ * held back for an exponentially growing delay with random jitter, so clients don't retry in lockstep. The first
+ * success ends the backoff.
+ */
+
+public class RateLimiter {
+    private final float requestsPerSecond;
+    private final int burst;
+    private final long baseBackoffMillis;
+    private final long maxBackoffMillis;
+
+    private float tokens;
+    private long lastRefill;
+    private int failures;
+    private long blockedUntil;
+
+    /**
+     * @param requestsPerSecond sustained rate, or 0 for no limit
+     * @param burst             requests that may start at once
+     * @param baseBackoffMillis delay after the first failure
+     * @param maxBackoffMillis  maximum delay after failures
+     */
+    public RateLimiter(float requestsPerSecond, int burst, long baseBackoffMillis, long maxBackoffMillis) {
+        this.requestsPerSecond = requestsPerSecond;
+        this.burst = Math.max(1, burst);
+        this.baseBackoffMillis = baseBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        tokens = this.burst;
+    }
+
+    /**
+     * @return milliseconds until the next request may start, 0 if it may start now
+     */
+    public long getDelayMillis(long now) {
+        if (now < blockedUntil)
+            return blockedUntil - now;
+
+        if (requestsPerSecond <= 0)
+            return 0;
+
+        refill(now);
+        return tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) * 1000 / requestsPerSecond);
+    }
+
+    /**
+     * Takes a token for a starting request
+     */
+    public void take(long now) {
+        if (requestsPerSecond <= 0)
+            return;
+
+        refill(now);
+        tokens = Math.max(0, tokens - 1);
+    }
+
+    public void onSuccess() {
+        failures = 0;
+        blockedUntil = 0;
+    }
+
+    /**
+     * Holds back further requests for a jittered, exponentially growing delay
+     */
+    public void onFailure(long now) {
+        failures = Math.min(failures + 1, 30);
+        blockedUntil = now + getBackoffMillis(failures);
+    }
+
+    /**
+     * @return delay after the given number of consecutive failures, half of it randomized
+     */
+    public long getBackoffMillis(int failures) {
+        long delay = baseBackoffMillis;
+        for (int i = 1; i < failures && delay < maxBackoffMillis; i++)
+            delay = delay * 2;
+        delay = Math.min(delay, maxBackoffMillis);
+
+        return delay / 2 + (long) (MathUtils.random() * (delay - delay / 2));
+    }
+
+    public int getFailureCount() {
+        return failures;
+    }
+
+    private void refill(long now) {
+        if (lastRefill > 0 && now > lastRefill)
+            tokens = Math.min(burst, tokens + (now - lastRefill) * requestsPerSecond / 1000f);
+        lastRefill = now;
+    }
+}
@@ -0,0 +1,20 @@
+package de.golfgl.gdxgamesvcs.net;
+
+/**
+ * Priority classes of requests made by game service clients, in descending order
+ */
+
+public enum RequestPriority {
+    /**
+     * Requests the player is waiting for, like logging in or fetching leaderboards
+     */
+    USER_VISIBLE,
+    /**
+     * Requests storing player data, like submitting scores and saving game states
+     */
+    SAVE,
+    /**
+     * Fire and forget requests, like events and session pings
+     */
+    ANALYTICS
+}
@@ -0,0 +1,457 @@
+package de.golfgl.gdxgamesvcs.net;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Net;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.Queue;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.badlogic.gdx.utils.Timer;
+
+/**
+ * Limits the number of requests game service clients have in flight at the same time.
+ * <p>
+ * Requests exceeding the limit are queued by {@link RequestPriority}. Requests of a higher priority class always
+ * start first, and some slots are reserved for {@link RequestPriority#USER_VISIBLE} requests so bursts of saves
+ * and events don't delay them. Within a priority class, the queues of the submitting clients take turns so one
+ * client can't starve the others.
+ * <p>
+ * Every client and priority class has its own {@link RateLimiter}. Failed requests make it back off, and a rate
+ * limit can be set with {@link #setRateLimit(String, RequestPriority, float, int)}. HTTP requests answered with
+ * status 429 or 503 are retried after the backoff delay.
+ * <p>
+ * HTTP requests are sent by the scheduler's {@link IHttpTransport}, {@link GdxHttpTransport} by default.
+ * <p>
+ * All clients use the {@link #getDefault()} scheduler unless told otherwise. Change its limits or replace it
+ * before the first requests are made:
+ * <pre>
+ * RequestScheduler.getDefault().setMaxInFlight(2);
+ * </pre>
+ */
+
+public class RequestScheduler {
+    public static final String TAG = "GS_SCHEDULER";
+
+    private static RequestScheduler defaultScheduler;
+
+    private final PriorityClass[] priorityClasses;
+    private int maxInFlight;
+    private int reservedSlots = 1;
+    private int inFlight;
+    private long baseBackoffMillis = 1000;
+    private long maxBackoffMillis = 60000;
+    private int maxRetries = 3;
+    private IHttpTransport httpTransport = GdxHttpTransport.INSTANCE;
+    private Timer.Task wakeUpTask;
+    private final Array<IRequestResultListener> resultListeners = new Array<IRequestResultListener>();
+    private long wakeUpTime;
+
+    /**
+     * @param maxInFlight maximum number of requests running at the same time
+     */
+    public RequestScheduler(int maxInFlight) {
+        RequestPriority[] priorities = RequestPriority.values();
+        priorityClasses = new PriorityClass[priorities.length];
+        for (int i = 0; i < priorities.length; i++)
+            priorityClasses[i] = new PriorityClass();
+
+        setMaxInFlight(maxInFlight);
+    }
+
+    /**
+     * @return scheduler used by all clients, allowing 4 requests in flight by default
+     */
+    public static synchronized RequestScheduler getDefault() {
+        if (defaultScheduler == null)
+            defaultScheduler = new RequestScheduler(4);
+        return defaultScheduler;
+    }
+
+    /**
+     * Replaces the scheduler used by all clients. Requests queued on the old one are not moved.
+     */
+    public static synchronized void setDefault(RequestScheduler scheduler) {
+        defaultScheduler = scheduler;
+    }
+
+    /**
+     * @param maxInFlight maximum number of requests running at the same time
+     * @return this for method chaining
+     */
+    public RequestScheduler setMaxInFlight(int maxInFlight) {
+        if (maxInFlight < 1)
+            throw new IllegalArgumentException("maxInFlight must be at least 1");
+
+        synchronized (this) {
+            this.maxInFlight = maxInFlight;
+        }
+        // might allow more requests to run now
+        schedule();
+        return this;
+    }
+
+    /**
+     * @param reservedSlots slots only {@link RequestPriority#USER_VISIBLE} requests may use. At least one slot is
+     *                      always left to the other priorities. Default 1
+     * @return this for method chaining
+     */
+    public RequestScheduler setReservedSlots(int reservedSlots) {
+        synchronized (this) {
+            this.reservedSlots = Math.max(0, reservedSlots);
+        }
+        return this;
+    }
+
+    /**
+     * @param baseBackoffMillis delay after the first failure of a client's requests. Default 1000
+     * @param maxBackoffMillis  maximum delay after failures. Default 60000
+     * @return this for method chaining
+     */
+    public RequestScheduler setBackoff(long baseBackoffMillis, long maxBackoffMillis) {
+        synchronized (this) {
+            this.baseBackoffMillis = baseBackoffMillis;
+            this.maxBackoffMillis = maxBackoffMillis;
+        }
+        return this;
+    }
+
+    /**
+     * @param maxRetries retries of HTTP requests throttled by the server. Default 3
+     * @return this for method chaining
+     */
+    public RequestScheduler setMaxRetries(int maxRetries) {
+        synchronized (this) {
+            this.maxRetries = maxRetries;
+        }
+        return this;
+    }
+
+    /**
+     * @param httpTransport transport HTTP requests are sent with. Default {@link GdxHttpTransport}
+     * @return this for method chaining
+     */
+    public RequestScheduler setHttpTransport(IHttpTransport httpTransport) {
+        if (httpTransport == null)
+            throw new IllegalArgumentException("httpTransport must not be null");
+
+        synchronized (this) {
+            this.httpTransport = httpTransport;
+        }
+        return this;
+    }
+
+    public synchronized IHttpTransport getHttpTransport() {
+        return httpTransport;
+    }
+
+    /**
+     * Limits the rate of a client's requests of a priority class. Replaces the current backoff state.
+     *
+     * @param queueKey          key of the client's queue, typically its game service id
+     * @param priority          priority class to limit
+     * @param requestsPerSecond sustained rate, or 0 for no limit
+     * @param burst             requests that may start at once
+     * @return this for method chaining
+     */
+    public RequestScheduler setRateLimit(String queueKey, RequestPriority priority, float requestsPerSecond,
+                                         int burst) {
+        synchronized (this) {
+            priorityClasses[priority.ordinal()].limiters.put(queueKey,
+                    new RateLimiter(requestsPerSecond, burst, baseBackoffMillis, maxBackoffMillis));
+        }
+        return this;
+    }
+
+    /**
+     * Reports the outcome of a request not sent with
+     * {@link #sendHttpRequest(String, RequestPriority, Net.HttpRequest, Net.HttpResponseListener)}, so failures
+     * make the client's requests back off
+     *
+     * @param success false if the request failed because of the network or the server
+     */
+    public void reportResult(String queueKey, RequestPriority priority, boolean success) {
+        IRequestResultListener[] listeners = null;
+        synchronized (this) {
+            RateLimiter limiter = getLimiter(queueKey, priority);
+            if (success)
+                limiter.onSuccess();
+            else
+                limiter.onFailure(TimeUtils.millis());
+            if (resultListeners.size > 0)
+                listeners = resultListeners.toArray(IRequestResultListener.class);
+        }
+
+        if (listeners != null)
+            for (IRequestResultListener listener : listeners)
+                listener.onRequestResult(queueKey, priority, success);
+
+        if (success)
+            schedule();
+    }
+
+    /**
+     * @param listener listener informed about the outcome of all requests, like failures of the network or server
+     */
+    public void addResultListener(IRequestResultListener listener) {
+        synchronized (this) {
+            if (!resultListeners.contains(listener, true))
+                resultListeners.add(listener);
+        }
+    }
+
+    public void removeResultListener(IRequestResultListener listener) {
+        synchronized (this) {
+            resultListeners.removeValue(listener, true);
+        }
+    }
+
+    private RateLimiter getLimiter(String queueKey, RequestPriority priority) {
+        PriorityClass priorityClass = priorityClasses[priority.ordinal()];
+        RateLimiter limiter = priorityClass.limiters.get(queueKey);
+        if (limiter == null) {
+            limiter = new RateLimiter(0, 1, baseBackoffMillis, maxBackoffMillis);
+            priorityClass.limiters.put(queueKey, limiter);
+        }
+        return limiter;
+    }
+
+    public synchronized int getInFlightCount() {
+        return inFlight;
+    }
+
+    public synchronized int getQueuedCount() {
+        int queued = 0;
+        for (int i = 0; i < priorityClasses.length; i++)
+            queued += priorityClasses[i].size;
+        return queued;
+    }
+
+    /**
+     * Queues a request and starts it as soon as a slot is free, which might be immediately
+     *
+     * @param queueKey key of the submitter's queue, typically its game service id
+     * @param priority priority of the request
+     * @param request  the request
+     */
+    public void submit(String queueKey, RequestPriority priority, IScheduledRequest request) {
+        synchronized (this) {
+            priorityClasses[priority.ordinal()].add(queueKey, request);
+        }
+        schedule();
+    }
+
+    /**
+     * Sends a request with the scheduler's {@link IHttpTransport} when a slot is free
+     *
+     * @param queueKey key of the submitter's queue, typically its game service id
+     * @param priority priority of the request
+     */
+    public void sendHttpRequest(String queueKey, RequestPriority priority, Net.HttpRequest httpRequest,
+                                Net.HttpResponseListener listener) {
+        sendHttpRequest(queueKey, priority, null, httpRequest, listener);
+    }
+
+    /**
+     * Sends a request with the given transport when a slot is free
+     *
+     * @param queueKey      key of the submitter's queue, typically its game service id
+     * @param priority      priority of the request
+     * @param httpTransport transport to send the request with, or null for the scheduler's one
+     */
+    public void sendHttpRequest(String queueKey, RequestPriority priority, IHttpTransport httpTransport,
+                                Net.HttpRequest httpRequest, Net.HttpResponseListener listener) {
+        submit(queueKey, priority, new HttpRequestTask(queueKey, priority, httpTransport, httpRequest, listener));
+    }
+
+    protected void schedule() {
+        while (true) {
+            IScheduledRequest request = null;
+
+            synchronized (this) {
+                long now = TimeUtils.millis();
+                long wait = Long.MAX_VALUE;
+
+                for (int i = 0; i < priorityClasses.length && request == null; i++) {
+                    int limit = i == 0 ? maxInFlight : Math.max(1, maxInFlight - reservedSlots);
+                    if (inFlight < limit && priorityClasses[i].size > 0) {
+                        request = priorityClasses[i].poll(now);
+                        if (request == null)
+                            wait = Math.min(wait, priorityClasses[i].wait);
+                    }
+                }
+
+                if (request == null) {
+                    if (wait < Long.MAX_VALUE)
+                        wakeUpIn(now, wait);
+                    return;
+                }
+                inFlight++;
+            }
+
+            Completion completion = new Completion();
+            try {
+                request.execute(completion);
+            } catch (RuntimeException e) {
+                Gdx.app.error(TAG, "Request failed to start", e);
+                completion.run();
+            }
+        }
+    }
+
+    /**
+     * Schedules again when the first rate limited request may start
+     */
+    private void wakeUpIn(long now, long wait) {
+        if (wakeUpTask != null && wakeUpTask.isScheduled() && wakeUpTime <= now + wait)
+            return;
+
+        if (wakeUpTask != null)
+            wakeUpTask.cancel();
+
+        wakeUpTime = now + wait;
+        wakeUpTask = Timer.schedule(new Timer.Task() {
+            @Override
+            public void run() {
+                schedule();
+            }
+        }, wait / 1000f);
+    }
+
+    private class Completion implements Runnable {
+        private boolean done;
+
+        @Override
+        public void run() {
+            synchronized (RequestScheduler.this) {
+                if (done)
+                    return;
+                done = true;
+                inFlight--;
+            }
+            schedule();
+        }
+    }
+
+    /**
+     * Queues of all submitters of a priority class, taking turns
+     */
+    private static class PriorityClass {
+        private final ObjectMap<String, Queue<IScheduledRequest>> queues =
+                new ObjectMap<String, Queue<IScheduledRequest>>();
+        private final ObjectMap<String, RateLimiter> limiters = new ObjectMap<String, RateLimiter>();
+        private final Queue<String> turns = new Queue<String>();
+        private int size;
+        private long wait;
+
+        private void add(String queueKey, IScheduledRequest request) {
+            Queue<IScheduledRequest> queue = queues.get(queueKey);
+            if (queue == null) {
+                queue = new Queue<IScheduledRequest>();
+                queues.put(queueKey, queue);
+            }
+            if (queue.size == 0)
+                turns.addLast(queueKey);
+            queue.addLast(request);
+            size++;
+        }
+
+        /**
+         * @return next request of the first queue its limiter lets start, or null. Then {@link #wait} is set to
+         * the time until the first one may start.
+         */
+        private IScheduledRequest poll(long now) {
+            wait = Long.MAX_VALUE;
+
+            for (int i = turns.size; i > 0; i--) {
+                String queueKey = turns.removeFirst();
+                Queue<IScheduledRequest> queue = queues.get(queueKey);
+                RateLimiter limiter = limiters.get(queueKey);
+                long delay = limiter != null ? limiter.getDelayMillis(now) : 0;
+
+                if (delay > 0) {
+                    turns.addLast(queueKey);
+                    wait = Math.min(wait, delay);
+                    continue;
+                }
+
+                if (limiter != null)
+                    limiter.take(now);
+                IScheduledRequest request = queue.removeFirst();
+                if (queue.size > 0)
+                    turns.addLast(queueKey);
+                size--;
+                return request;
+            }
+
+            return null;
+        }
+    }
+
+    /**
+     * Sends a HTTP request, reports its outcome and retries it when the server throttles
+     */
+    private class HttpRequestTask implements IScheduledRequest {
+        private final String queueKey;
+        private final RequestPriority priority;
+        private final IHttpTransport httpTransport;
+        private final Net.HttpRequest httpRequest;
+        private final Net.HttpResponseListener listener;
+        private int attempts;
+
+        private HttpRequestTask(String queueKey, RequestPriority priority, IHttpTransport httpTransport,
+                                Net.HttpRequest httpRequest, Net.HttpResponseListener listener) {
+            this.queueKey = queueKey;
+            this.priority = priority;
+            this.httpTransport = httpTransport;
+            this.httpRequest = httpRequest;
+            this.listener = listener;
+        }
+
+        @Override
+        public void execute(final Runnable onDone) {
+            attempts++;
+            IHttpTransport transport = httpTransport != null ? httpTransport : getHttpTransport();
+            transport.sendHttpRequest(httpRequest, new Net.HttpResponseListener() {
+                @Override
+                public void handleHttpResponse(Net.HttpResponse httpResponse) {
+                    int status = httpResponse.getStatus().getStatusCode();
+                    boolean throttled = status == 429 || status == 503;
+
+                    try {
+                        reportResult(queueKey, priority, !throttled && status < 500);
+                        if (throttled && attempts <= getMaxRetries()) {
+                            Gdx.app.log(TAG, "Request throttled with status " + status + ", retrying");
+                            submit(queueKey, priority, HttpRequestTask.this);
+                        } else
+                            listener.handleHttpResponse(httpResponse);
+                    } finally {
+                        onDone.run();
+                    }
+                }
+
+                @Override
+                public void failed(Throwable t) {
+                    try {
+                        reportResult(queueKey, priority, false);
+                        listener.failed(t);
+                    } finally {
+                        onDone.run();
+                    }
+                }
+
+                @Override
+                public void cancelled() {
+                    try {
+                        listener.cancelled();
+                    } finally {
+                        onDone.run();
+                    }
+                }
+            });
+        }
+    }
+
+    private synchronized int getMaxRetries() {
+        return maxRetries;
+    }
+}
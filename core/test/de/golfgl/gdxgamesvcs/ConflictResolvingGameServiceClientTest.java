@@ -0,0 +1,100 @@
+package de.golfgl.gdxgamesvcs;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.Gdx;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import de.golfgl.gdxgamesvcs.gamestate.GameStateConflictPolicies;
+import de.golfgl.gdxgamesvcs.gamestate.GameStateMetadata;
+import de.golfgl.gdxgamesvcs.gamestate.IFetchGameStateMetadataListener;
+import de.golfgl.gdxgamesvcs.gamestate.IGameStateMetadataClient;
+import de.golfgl.gdxgamesvcs.gamestate.ISaveGameStateResponseListener;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ConflictResolvingGameServiceClientTest {
+    private static final String FILE_ID = "save";
+
+    @BeforeClass
+    public static void setUpGdx() {
+        // only logging is used
+        Gdx.app = (Application) Proxy.newProxyInstance(Application.class.getClassLoader(),
+                new Class<?>[]{Application.class}, new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) {
+                        return null;
+                    }
+                });
+    }
+
+    @Test
+    public void newestWinsKeepsNewerRemoteGameState() {
+        MetadataClient remote = new MetadataClient(new GameStateMetadata(FILE_ID, true, 10, 2000));
+        ConflictResolvingGameServiceClient client = new ConflictResolvingGameServiceClient(remote,
+                GameStateConflictPolicies.newestWins());
+        SaveListener listener = new SaveListener();
+
+        // changed locally before the remote game state was saved on another device
+        client.saveGameState(FILE_ID, new byte[]{1}, 20, 1000, listener);
+
+        assertNull(remote.savedGameState);
+        assertFalse(listener.success);
+        assertEquals(GameStateConflictPolicies.ERROR_CONFLICT, listener.errorCode);
+    }
+
+    @Test
+    public void newestWinsOverwritesOlderRemoteGameState() {
+        MetadataClient remote = new MetadataClient(new GameStateMetadata(FILE_ID, true, 10, 1000));
+        ConflictResolvingGameServiceClient client = new ConflictResolvingGameServiceClient(remote,
+                GameStateConflictPolicies.newestWins());
+        SaveListener listener = new SaveListener();
+
+        client.saveGameState(FILE_ID, new byte[]{1}, 5, 2000, listener);
+
+        assertEquals(1, remote.savedGameState.length);
+        assertTrue(listener.success);
+    }
+
+    private static class MetadataClient extends GameServiceClientWrapper implements IGameStateMetadataClient {
+        private final GameStateMetadata metadata;
+        private byte[] savedGameState;
+
+        private MetadataClient(GameStateMetadata metadata) {
+            super(new SimulatedGameServiceClient(0));
+            this.metadata = metadata;
+        }
+
+        @Override
+        public boolean fetchGameStateMetadata(String fileId, IFetchGameStateMetadataListener listener) {
+            listener.onGameStateMetadataResponse(metadata);
+            return true;
+        }
+
+        @Override
+        public void saveGameState(String fileId, byte[] gameState, long progressValue,
+                                  ISaveGameStateResponseListener success) {
+            savedGameState = gameState;
+            success.onGameStateSaved(true, null);
+        }
+    }
+
+    private static class SaveListener implements ISaveGameStateResponseListener {
+        private boolean success;
+        private String errorCode;
+
+        @Override
+        public void onGameStateSaved(boolean success, String errorCode) {
+            this.success = success;
+            this.errorCode = errorCode;
+        }
+    }
+}
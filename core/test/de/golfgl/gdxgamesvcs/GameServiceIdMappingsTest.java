@@ -0,0 +1,60 @@
+package de.golfgl.gdxgamesvcs;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class GameServiceIdMappingsTest {
+    private static final String GAMESERVICE_ID = "GS_GAMEJOLT";
+
+    private final GameServiceIdMappings mappings = GameServiceIdMappings.fromJson("{\"" + GAMESERVICE_ID
+            + "\": {\"leaderboards\": {\"numeric\": 12345, \"stringNumeric\": \"67890\", \"zero\": 0}}}");
+
+    @Test
+    public void mapsNumericIds() {
+        GameServiceIdMappings.IntIdMapper mapper = getMapper();
+
+        assertEquals(Integer.valueOf(12345), mapper.mapToGsId("numeric"));
+        assertEquals(12345, mapper.mapToGsId("numeric", -1));
+    }
+
+    @Test
+    public void mapsStringNumericIds() {
+        GameServiceIdMappings.IntIdMapper mapper = getMapper();
+
+        assertEquals(Integer.valueOf(67890), mapper.mapToGsId("stringNumeric"));
+        assertEquals(67890, mapper.mapToGsId("stringNumeric", -1));
+    }
+
+    @Test
+    public void mapsZeroIds() {
+        GameServiceIdMappings.IntIdMapper mapper = getMapper();
+
+        assertEquals(Integer.valueOf(0), mapper.mapToGsId("zero"));
+        assertEquals(0, mapper.mapToGsId("zero", -1));
+    }
+
+    @Test
+    public void mapsMissingIdsToNull() {
+        GameServiceIdMappings.IntIdMapper mapper = getMapper();
+
+        assertNull(mapper.mapToGsId("missing"));
+        assertNull(mapper.mapToGsId(null));
+        assertEquals(-1, mapper.mapToGsId("missing", -1));
+        assertNull(mappings.getIntMapper(GAMESERVICE_ID, GameServiceIdMappings.ACHIEVEMENTS).mapToGsId("numeric"));
+        assertNull(mappings.getIntMapper("GPGS", GameServiceIdMappings.LEADERBOARDS).mapToGsId("numeric"));
+    }
+
+    @Test
+    public void returnsSameBoxedIdOnEveryCall() {
+        GameServiceIdMappings.IntIdMapper mapper = getMapper();
+
+        assertSame(mapper.mapToGsId("numeric"), mapper.mapToGsId("numeric"));
+    }
+
+    private GameServiceIdMappings.IntIdMapper getMapper() {
+        return mappings.getIntMapper(GAMESERVICE_ID, GameServiceIdMappings.LEADERBOARDS);
+    }
+}
@@ -0,0 +1,39 @@
+package de.golfgl.gdxgamesvcs;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MetricsGameServiceClientTest {
+    private static final long MILLIS = 1000000;
+
+    @Test
+    public void percentileIsInterpolatedWithinBucket() {
+        MetricsGameServiceClient.OperationMetrics metrics = new MetricsGameServiceClient.OperationMetrics();
+
+        // 100 calls between 256 and 512 ms
+        for (int i = 0; i < 100; i++)
+            metrics.record((256 + i * 256 / 100) * MILLIS, false);
+
+        assertEquals(384, metrics.getPercentileMillis(.5f), 3);
+        assertEquals(499, metrics.getPercentileMillis(.95f), 3);
+        assertEquals(509, metrics.getPercentileMillis(.99f), 3);
+    }
+
+    @Test
+    public void percentileFallsIntoRightBucket() {
+        MetricsGameServiceClient.OperationMetrics metrics = new MetricsGameServiceClient.OperationMetrics();
+
+        for (int i = 0; i < 90; i++)
+            metrics.record(10 * MILLIS, false);
+        for (int i = 0; i < 10; i++)
+            metrics.record(300 * MILLIS, false);
+
+        float p50 = metrics.getPercentileMillis(.5f);
+        float p99 = metrics.getPercentileMillis(.99f);
+        assertTrue(p50 >= 8 && p50 <= 16);
+        assertTrue(p99 >= 256 && p99 <= 512);
+        assertEquals(0, new MetricsGameServiceClient.OperationMetrics().getPercentileMillis(.5f), 0);
+    }
+}
@@ -0,0 +1,49 @@
+package de.golfgl.gdxgamesvcs.gamestate;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.Adler32;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class GameStateFrameTest {
+    private static final int[] LENGTHS = {0, 1, 3800, 3801, 5552, 5553, 100000};
+
+    @Test
+    public void adler32MatchesJavaUtilZip() {
+        Random random = new Random(42);
+
+        for (int length : LENGTHS) {
+            byte[] data = new byte[length];
+            random.nextBytes(data);
+            assertEquals("length " + length, expectedAdler32(data), GameStateFrame.adler32(data, 0, length));
+        }
+    }
+
+    @Test
+    public void adler32MatchesJavaUtilZipForMaximumBytes() {
+        for (int length : LENGTHS) {
+            byte[] data = new byte[length];
+            Arrays.fill(data, (byte) 0xff);
+            assertEquals("length " + length, expectedAdler32(data), GameStateFrame.adler32(data, 0, length));
+        }
+    }
+
+    @Test
+    public void framedGameStateIsUnframedUnchanged() {
+        byte[] raw = new byte[100000];
+        new Random(7).nextBytes(raw);
+        GameStateFrame frame = new GameStateFrame();
+
+        assertArrayEquals(raw, frame.unframe(frame.frame(null, raw)));
+    }
+
+    private static int expectedAdler32(byte[] data) {
+        Adler32 adler32 = new Adler32();
+        adler32.update(data, 0, data.length);
+        return (int) adler32.getValue();
+    }
+}
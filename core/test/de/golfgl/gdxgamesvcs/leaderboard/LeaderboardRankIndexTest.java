@@ -0,0 +1,103 @@
+package de.golfgl.gdxgamesvcs.leaderboard;
+
+import com.badlogic.gdx.utils.Array;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LeaderboardRankIndexTest {
+    private static final String BOARD = "board";
+
+    @Test
+    public void betterScoreWithOnlyPlayersEntryKnownIsNotRankedFirst() {
+        LeaderboardRankIndex index = new LeaderboardRankIndex();
+        index.addEntries(BOARD, entries(new Entry(1234, 500, true)));
+
+        index.onScoreSubmitted(BOARD, 600);
+
+        assertEquals(1234, index.getPlayerRank(BOARD));
+        assertFalse(index.isRankExact(BOARD, 600));
+    }
+
+    @Test
+    public void betterScoreOfFirstPlayerStaysFirst() {
+        LeaderboardRankIndex index = new LeaderboardRankIndex();
+        index.addEntries(BOARD, entries(new Entry(1, 500, true)));
+
+        index.onScoreSubmitted(BOARD, 600);
+
+        assertEquals(1, index.getPlayerRank(BOARD));
+        assertTrue(index.isRankExact(BOARD, 600));
+    }
+
+    @Test
+    public void rankBetweenKnownNeighboursIsExact() {
+        LeaderboardRankIndex index = new LeaderboardRankIndex();
+        index.addEntries(BOARD, entries(new Entry(1, 900, false), new Entry(2, 800, false),
+                new Entry(3, 500, true)));
+
+        index.onScoreSubmitted(BOARD, 850);
+
+        assertEquals(2, index.getPlayerRank(BOARD));
+        assertTrue(index.isRankExact(BOARD, 850));
+    }
+
+    private static Array<ILeaderBoardEntry> entries(ILeaderBoardEntry... entries) {
+        return new Array<ILeaderBoardEntry>(entries);
+    }
+
+    private static class Entry implements ILeaderBoardEntry {
+        private final int rank;
+        private final long sortValue;
+        private final boolean currentPlayer;
+
+        private Entry(int rank, long sortValue, boolean currentPlayer) {
+            this.rank = rank;
+            this.sortValue = sortValue;
+            this.currentPlayer = currentPlayer;
+        }
+
+        @Override
+        public String getFormattedValue() {
+            return String.valueOf(sortValue);
+        }
+
+        @Override
+        public long getSortValue() {
+            return sortValue;
+        }
+
+        @Override
+        public String getScoreTag() {
+            return null;
+        }
+
+        @Override
+        public String getUserDisplayName() {
+            return currentPlayer ? "me" : "player" + rank;
+        }
+
+        @Override
+        public String getUserId() {
+            return getUserDisplayName();
+        }
+
+        @Override
+        public String getScoreRank() {
+            return String.valueOf(rank);
+        }
+
+        @Override
+        public String getAvatarUrl() {
+            return null;
+        }
+
+        @Override
+        public boolean isCurrentPlayer() {
+            return currentPlayer;
+        }
+    }
+}
@@ -10,6 +10,10 @@ import java.net.URL;
 
 public class DownloadUtil {
 
+    /**
+     * Downloads an image synchronously, without caching. Use {@link de.golfgl.gdxgamesvcs.image.ImageCache} to load
+     * avatars and achievement icons.
+     */
     public static Pixmap downloadImage(String imageUrl) throws IOException {
         byte[] bytes = download(imageUrl);
         return new Pixmap(bytes, 0, bytes.length);
@@ -6,24 +6,33 @@ import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectIntMap;
 import com.badlogic.gdx.utils.ObjectMap;
 import com.badlogic.gdx.utils.StreamUtils;
-import com.google.api.client.http.FileContent;
+import com.google.api.client.http.HttpResponseException;
+import com.google.api.client.http.InputStreamContent;
 import com.google.api.services.drive.model.File;
 import com.google.api.services.drive.model.FileList;
 import com.google.api.services.games.model.AchievementDefinition;
+import com.google.api.services.games.model.EventPeriodRange;
+import com.google.api.services.games.model.EventPeriodUpdate;
+import com.google.api.services.games.model.EventRecordRequest;
+import com.google.api.services.games.model.EventUpdateRequest;
 import com.google.api.services.games.model.Leaderboard;
 import com.google.api.services.games.model.LeaderboardEntry;
 import com.google.api.services.games.model.LeaderboardScores;
 import com.google.api.services.games.model.Player;
 import com.google.api.services.games.model.PlayerAchievement;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.security.GeneralSecurityException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -31,11 +40,23 @@ import de.golfgl.gdxgamesvcs.GameServiceException.NotSupportedException;
 import de.golfgl.gdxgamesvcs.IGameServiceListener.GsErrorType;
 import de.golfgl.gdxgamesvcs.achievement.IAchievement;
 import de.golfgl.gdxgamesvcs.achievement.IFetchAchievementsResponseListener;
+import de.golfgl.gdxgamesvcs.gamestate.GameStateMetadata;
+import de.golfgl.gdxgamesvcs.gamestate.GameStateStreams;
+import de.golfgl.gdxgamesvcs.gamestate.IFetchGameStateMetadataListener;
 import de.golfgl.gdxgamesvcs.gamestate.IFetchGameStatesListResponseListener;
+import de.golfgl.gdxgamesvcs.gamestate.IGameStateMetadataClient;
+import de.golfgl.gdxgamesvcs.gamestate.IGameStateStreamingClient;
+import de.golfgl.gdxgamesvcs.gamestate.ILoadGameStateStreamListener;
 import de.golfgl.gdxgamesvcs.gamestate.ILoadGameStateResponseListener;
 import de.golfgl.gdxgamesvcs.gamestate.ISaveGameStateResponseListener;
 import de.golfgl.gdxgamesvcs.leaderboard.IFetchLeaderBoardEntriesResponseListener;
+import de.golfgl.gdxgamesvcs.leaderboard.IFetchLeaderboardPageListener;
 import de.golfgl.gdxgamesvcs.leaderboard.ILeaderBoardEntry;
+import de.golfgl.gdxgamesvcs.leaderboard.ILeaderboardPagingClient;
+import de.golfgl.gdxgamesvcs.leaderboard.LeaderboardPage;
+import de.golfgl.gdxgamesvcs.net.IScheduledRequest;
+import de.golfgl.gdxgamesvcs.net.RequestPriority;
+import de.golfgl.gdxgamesvcs.net.RequestScheduler;
 
 /**
  * Google Play Games Services Desktop implementation based on REST API :
@@ -64,9 +85,23 @@ import de.golfgl.gdxgamesvcs.leaderboard.ILeaderBoardEntry;
  *
  * @author mgsx
  */
-public class GpgsClient implements IGameServiceClient {
+public class GpgsClient implements IGameServiceClient, IGameStateStreamingClient, IGameStateMetadataClient,
+        ILeaderboardPagingClient {
     private static final String TAG = IGameServiceClient.GS_GOOGLEPLAYGAMES_ID;
+    //GPGS does not allow sending events more frequent
+    public static final int GPGS_SENDEVENTS_INTERVAL = 61;
+    public static final int GPGS_CHECKEVENTS_INTERVAL = 5;
+    /**
+     * Maximum number of leaderboard entries fetched with one request
+     */
+    public static final int GPGS_MAX_PAGE_SIZE = 30;
+    /**
+     * Drive app property the progress value of a game state is stored in
+     */
+    public static final String APPPROPERTY_PROGRESS = "progressValue";
     protected boolean driveApiEnabled;
+    protected RequestScheduler requestScheduler;
+    protected final ObjectMap<String, String> leaderboardOrders = new ObjectMap<String, String>();
 
     /**
      * Shortcut for current user as per Google API doc.
@@ -93,6 +128,23 @@ public class GpgsClient implements IGameServiceClient {
 
     private String playerName;
 
+    protected final EventAggregator eventAggregator = new EventAggregator(new EventAggregator.IEventBatchSink() {
+        @Override
+        public boolean sendEvents(ObjectIntMap<String> events) {
+            if (!connected)
+                return false;
+
+            final ObjectIntMap<String> eventsToRecord = new ObjectIntMap<String>(events);
+            background(RequestPriority.ANALYTICS, new SafeRunnable() {
+                @Override
+                public void run() throws IOException {
+                    recordEventsSync(eventsToRecord);
+                }
+            });
+            return true;
+        }
+    }).setFlushDelay(GPGS_CHECKEVENTS_INTERVAL).setMinSendInterval(GPGS_SENDEVENTS_INTERVAL);
+
     /**
      * Gdx to Log4j log level mapping
      */
@@ -111,18 +163,41 @@ public class GpgsClient implements IGameServiceClient {
         }
     }
 
-    private void background(final SafeRunnable runnable) {
-        new Thread(new Runnable() {
+    private void background(final RequestPriority priority, final SafeRunnable runnable) {
+        final RequestScheduler scheduler = requestScheduler != null ? requestScheduler
+                : RequestScheduler.getDefault();
+        scheduler.submit(IGameServiceClient.GS_GOOGLEPLAYGAMES_ID, priority, new IScheduledRequest() {
             @Override
-            public void run() {
-                try {
-                    runnable.run();
-                } catch (Throwable e) {
-                    Gdx.app.error(TAG, "Gpgs Error", e);
-                    if (gameListener != null) gameListener.gsShowErrorToUser(GsErrorType.errorUnknown, e.getMessage(), e);
-                }
+            public void execute(final Runnable onDone) {
+                new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            runnable.run();
+                            scheduler.reportResult(IGameServiceClient.GS_GOOGLEPLAYGAMES_ID, priority, true);
+                        } catch (Throwable e) {
+                            scheduler.reportResult(IGameServiceClient.GS_GOOGLEPLAYGAMES_ID, priority,
+                                    !isThrottledOrUnreachable(e));
+                            Gdx.app.error(TAG, "Gpgs Error", e);
+                            if (gameListener != null) gameListener.gsShowErrorToUser(GsErrorType.errorUnknown, e.getMessage(), e);
+                        } finally {
+                            onDone.run();
+                        }
+                    }
+                }).start();
             }
-        }).start();
+        });
+    }
+
+    /**
+     * @return true if the request failed because of the network, or the server is throttling or failing
+     */
+    private static boolean isThrottledOrUnreachable(Throwable e) {
+        if (e instanceof HttpResponseException) {
+            int status = ((HttpResponseException) e).getStatusCode();
+            return status == 429 || status >= 500;
+        }
+        return e instanceof IOException;
     }
 
     /**
@@ -244,6 +319,16 @@ public class GpgsClient implements IGameServiceClient {
         return this;
     }
 
+    /**
+     * sets the scheduler background work is run through. Default is {@link RequestScheduler#getDefault()}
+     *
+     * @return this for method chaining
+     */
+    public GpgsClient setRequestScheduler(RequestScheduler requestScheduler) {
+        this.requestScheduler = requestScheduler;
+        return this;
+    }
+
     /**
      * Try to authorize user. This method is blocking until user accept
      * autorization.
@@ -317,6 +402,7 @@ public class GpgsClient implements IGameServiceClient {
     @Override
     public void pauseSession() {
         // nothing special to do here since there is no resources to freeup.
+        eventAggregator.flush(true);
         if (gameListener != null) gameListener.gsOnSessionInactive();
     }
 
@@ -356,7 +442,7 @@ public class GpgsClient implements IGameServiceClient {
     @Override
     public boolean submitToLeaderboard(final String leaderboardId, final long score, final String tag) {
         if (connected) {
-            background(new SafeRunnable() {
+            background(RequestPriority.SAVE, new SafeRunnable() {
                 @Override
                 public void run() throws IOException {
                     submitToLeaderboardSync(leaderboardId, score, tag);
@@ -384,32 +470,59 @@ public class GpgsClient implements IGameServiceClient {
 
     @Override
     public boolean submitEvent(final String eventId, final int increment) {
-        if (connected) {
-            background(new SafeRunnable() {
-                @Override
-                public void run() throws IOException {
-                    submitEventSync(eventId, increment);
-                }
-            });
-        }
+        // events are summed up and recorded in intervals, as GPGS does not allow recording them more frequent
+        if (connected)
+            eventAggregator.addEvent(eventId, increment);
+
         return connected;
     }
 
     /**
-     * Blocking version of {@link #submitEvent(String, int)}
+     * Blocking version of {@link #submitEvent(String, int)}. Note that GPGS does not allow recording events more
+     * often than every {@link #GPGS_SENDEVENTS_INTERVAL} seconds.
      *
      * @param eventId
      * @param increment
+     * @throws IOException
      */
-    public void submitEventSync(String eventId, int increment) {
-        // TODO don't know the API for this use case
-        throw new IllegalStateException("Not implemented");
+    public void submitEventSync(String eventId, int increment) throws IOException {
+        ObjectIntMap<String> events = new ObjectIntMap<String>(1);
+        events.put(eventId, increment);
+        recordEventsSync(events);
+    }
+
+    /**
+     * Records a batch of event increments
+     *
+     * @param events event ids and their increments
+     * @throws IOException
+     */
+    public void recordEventsSync(ObjectIntMap<String> events) throws IOException {
+        if (events.size == 0)
+            return;
+
+        long time = System.currentTimeMillis();
+
+        List<EventUpdateRequest> updates = new ArrayList<EventUpdateRequest>(events.size);
+        for (ObjectIntMap.Entry<String> event : events)
+            updates.add(new EventUpdateRequest().setDefinitionId(event.key).setUpdateCount((long) event.value));
+
+        EventPeriodUpdate timePeriod = new EventPeriodUpdate()
+                .setTimePeriod(new EventPeriodRange()
+                        .setPeriodStartMillis(time - GPGS_SENDEVENTS_INTERVAL * 1000)
+                        .setPeriodEndMillis(time - 10))
+                .setUpdates(updates);
+
+        GApiGateway.games.events().record(new EventRecordRequest()
+                .setRequestId(time)
+                .setCurrentTimeMillis(time)
+                .setTimePeriods(Collections.singletonList(timePeriod))).execute();
     }
 
     @Override
     public boolean unlockAchievement(final String achievementId) {
         if (connected) {
-            background(new SafeRunnable() {
+            background(RequestPriority.SAVE, new SafeRunnable() {
                 @Override
                 public void run() throws IOException {
                     unlockAchievementSync(achievementId);
@@ -437,7 +550,7 @@ public class GpgsClient implements IGameServiceClient {
     public boolean incrementAchievement(final String achievementId, final int incNum, final float
             completionPercentage) {
         if (connected) {
-            background(new SafeRunnable() {
+            background(RequestPriority.SAVE, new SafeRunnable() {
                 @Override
                 public void run() throws IOException {
                     incrementAchievementSync(achievementId, incNum, completionPercentage);
@@ -470,7 +583,7 @@ public class GpgsClient implements IGameServiceClient {
             throw new UnsupportedOperationException("To use game states, enable Drive API when initializing");
 
         if (connected) {
-            background(new SafeRunnable() {
+            background(RequestPriority.USER_VISIBLE, new SafeRunnable() {
                 @Override
                 public void run() throws IOException {
                     Array<String> result = null;
@@ -516,7 +629,7 @@ public class GpgsClient implements IGameServiceClient {
             throw new UnsupportedOperationException("To use game states, enable Drive API when initializing");
 
         if (connected) {
-            background(new SafeRunnable() {
+            background(RequestPriority.SAVE, new SafeRunnable() {
                 @Override
                 public void run() throws IOException {
                     try {
@@ -540,22 +653,29 @@ public class GpgsClient implements IGameServiceClient {
     }
 
     @Override
-    public void saveGameState(final String fileId, final byte[] gameState, final long progressValue, final
-	ISaveGameStateResponseListener listener) {
+    public void saveGameState(String fileId, byte[] gameState, long progressValue,
+                              ISaveGameStateResponseListener listener) {
+        saveGameState(fileId, new ByteArrayInputStream(gameState), gameState.length, progressValue, listener);
+    }
+
+    @Override
+    public void saveGameState(final String fileId, final InputStream gameState, final long length,
+                              final long progressValue, final ISaveGameStateResponseListener listener) {
         if (!driveApiEnabled)
             throw new UnsupportedOperationException();
 
         if (!isSessionActive()) {
+            StreamUtils.closeQuietly(gameState);
             if (listener != null)
                 listener.onGameStateSaved(false, "NOT_CONNECTED");
             return;
         }
 
-        background(new SafeRunnable() {
+        background(RequestPriority.SAVE, new SafeRunnable() {
             @Override
             public void run() throws IOException {
                 try {
-                    saveGameStateSync(fileId, gameState, progressValue);
+                    saveGameStateSync(fileId, gameState, length, progressValue);
                     if (listener != null) listener.onGameStateSaved(true, null);
                 } catch (IOException e) {
                     if (listener != null) listener.onGameStateSaved(false, "Cannot save game");
@@ -568,6 +688,7 @@ public class GpgsClient implements IGameServiceClient {
     private File findFileByNameSync(String name) throws IOException {
         // escape some chars (') see : https://developers.google.com/drive/v3/web/search-parameters#fn1
         List<File> files = GApiGateway.drive.files().list().setSpaces("appDataFolder").setQ("name='" + name + "'")
+                .setFields("files(id,name,mimeType,modifiedTime,appProperties)")
                 .execute().getFiles();
         if (files.size() > 1) {
             File snapshotFile = null;
@@ -599,22 +720,47 @@ public class GpgsClient implements IGameServiceClient {
      * @throws IOException
      */
     public void saveGameStateSync(String fileId, byte[] gameState, long progressValue) throws IOException {
+        saveGameStateSync(fileId, new ByteArrayInputStream(gameState), gameState.length, progressValue);
+    }
 
-        java.io.File file = java.io.File.createTempFile("games", "dat");
-        new FileHandle(file).writeBytes(gameState, false);
+    /**
+     * Blocking version of {@link #saveGameState(String, InputStream, long, long, ISaveGameStateResponseListener)}.
+     * The game state is uploaded while it is read from the stream. The stream is closed afterwards.
+     *
+     * @param fileId
+     * @param gameState
+     * @param length        length of the game state, or -1 if unknown
+     * @param progressValue
+     * @throws IOException
+     */
+    public void saveGameStateSync(String fileId, InputStream gameState, long length, long progressValue)
+            throws IOException {
 
         // no type since it is binary data
-        FileContent mediaContent = new FileContent(null, file);
+        InputStreamContent mediaContent = new InputStreamContent(null, gameState).setCloseInputStream(true);
+        if (length >= 0)
+            mediaContent.setLength(length);
 
         // find file on server
-        File remoteFile = findFileByNameSync(fileId);
+        File remoteFile;
+        try {
+            remoteFile = findFileByNameSync(fileId);
+        } catch (IOException e) {
+            StreamUtils.closeQuietly(gameState);
+            throw e;
+        }
+
+        // stored as app property, so it can be fetched without downloading the game state
+        Map<String, String> appProperties = Collections.singletonMap(APPPROPERTY_PROGRESS,
+                Long.toString(progressValue));
 
         // file exists then update it
         if (remoteFile != null) {
 
-            // just update content, leave metadata intact.
+            // update content and progress value, leave other metadata intact.
 
-            GApiGateway.drive.files().update(remoteFile.getId(), null, mediaContent).execute();
+            GApiGateway.drive.files().update(remoteFile.getId(), new File().setAppProperties(appProperties),
+                    mediaContent).execute();
 
             Gdx.app.log(TAG, "File updated ID: " + remoteFile.getId());
         }
@@ -625,6 +771,7 @@ public class GpgsClient implements IGameServiceClient {
 
             // app folder is a reserved keyyword for current application private folder.
             fileMetadata.setParents(Collections.singletonList("appDataFolder"));
+            fileMetadata.setAppProperties(appProperties);
 
             remoteFile = GApiGateway.drive.files().create(fileMetadata, mediaContent)
                     .setFields("id")
@@ -636,28 +783,84 @@ public class GpgsClient implements IGameServiceClient {
     }
 
     @Override
-    public void loadGameState(final String fileId, final ILoadGameStateResponseListener listener) {
+    public void loadGameState(String fileId, ILoadGameStateResponseListener listener) {
+        loadGameState(fileId, GameStateStreams.toByteArrayListener(listener));
+    }
+
+    @Override
+    public void loadGameState(final String fileId, final ILoadGameStateStreamListener listener) {
         if (!driveApiEnabled)
             throw new UnsupportedOperationException();
 
+        // nobody to hand the game state to
+        if (listener == null)
+            return;
+
         if (!isSessionActive()) {
-            listener.gsGameStateLoaded(null);
+            GameStateStreams.notifyStreamListener(listener, null);
             return;
         }
 
-        background(new SafeRunnable() {
+        background(RequestPriority.USER_VISIBLE, new SafeRunnable() {
 
             @Override
             public void run() throws IOException {
+                InputStream stream;
                 try {
-                    byte[] data = loadGameStateSync(fileId);
-                    if (listener != null) listener.gsGameStateLoaded(data);
+                    stream = openGameStateSync(fileId);
                 } catch (IOException e) {
-                    if (listener != null) listener.gsGameStateLoaded(null);
+                    GameStateStreams.notifyStreamListener(listener, null);
                     throw e;
                 }
+                GameStateStreams.notifyStreamListener(listener, stream);
+            }
+        });
+    }
+
+    @Override
+    public boolean fetchGameStateMetadata(final String fileId, final IFetchGameStateMetadataListener listener) {
+        if (!driveApiEnabled || !isSessionActive())
+            return false;
+
+        background(RequestPriority.SAVE, new SafeRunnable() {
+            @Override
+            public void run() throws IOException {
+                GameStateMetadata metadata = null;
+                try {
+                    metadata = fetchGameStateMetadataSync(fileId);
+                } finally {
+                    listener.onGameStateMetadataResponse(metadata);
+                }
             }
         });
+        return true;
+    }
+
+    /**
+     * Blocking version of {@link #fetchGameStateMetadata(String, IFetchGameStateMetadataListener)}. Game states
+     * saved without progress value have a progress value of 0.
+     *
+     * @param fileId
+     * @return metadata of the game state
+     * @throws IOException
+     */
+    public GameStateMetadata fetchGameStateMetadataSync(String fileId) throws IOException {
+        File remoteFile = findFileByNameSync(fileId);
+        if (remoteFile == null)
+            return new GameStateMetadata(fileId, false, 0, 0);
+
+        long progressValue = 0;
+        Map<String, String> appProperties = remoteFile.getAppProperties();
+        if (appProperties != null && appProperties.containsKey(APPPROPERTY_PROGRESS)) {
+            try {
+                progressValue = Long.parseLong(appProperties.get(APPPROPERTY_PROGRESS));
+            } catch (NumberFormatException e) {
+                Gdx.app.error(TAG, "Invalid progress value of file " + fileId);
+            }
+        }
+
+        return new GameStateMetadata(fileId, true, progressValue,
+                remoteFile.getModifiedTime() != null ? remoteFile.getModifiedTime().getValue() : 0);
     }
 
     /**
@@ -672,23 +875,35 @@ public class GpgsClient implements IGameServiceClient {
         InputStream stream = null;
         byte[] data = null;
         try {
-            File remoteFile = findFileByNameSync(fileId);
-            if (remoteFile != null) {
-
-                stream = GApiGateway.drive.files().get(remoteFile.getId()).executeMediaAsInputStream();
-
+            stream = openGameStateSync(fileId);
+            if (stream != null)
                 data = StreamUtils.copyStreamToByteArray(stream);
-            }
         } finally {
             StreamUtils.closeQuietly(stream);
         }
         return data;
     }
 
+    /**
+     * Blocking version of {@link #loadGameState(String, ILoadGameStateStreamListener)}. The game state is
+     * downloaded while it is read from the returned stream, so close it when done.
+     *
+     * @param fileId
+     * @return stream of game state data, null if there is no game state
+     * @throws IOException
+     */
+    public InputStream openGameStateSync(String fileId) throws IOException {
+        File remoteFile = findFileByNameSync(fileId);
+        if (remoteFile == null)
+            return null;
+
+        return GApiGateway.drive.files().get(remoteFile.getId()).executeMediaAsInputStream();
+    }
+
     @Override
     public boolean fetchAchievements(final IFetchAchievementsResponseListener callback) {
         if (connected) {
-            background(new SafeRunnable() {
+            background(RequestPriority.USER_VISIBLE, new SafeRunnable() {
                 @Override
                 public void run() throws IOException {
                     Array<IAchievement> result = null;
@@ -764,7 +979,7 @@ public class GpgsClient implements IGameServiceClient {
     public boolean fetchLeaderboardEntries(final String leaderBoardId, final int limit, final boolean
             relatedToPlayer, final IFetchLeaderBoardEntriesResponseListener callback) {
         if (connected) {
-            background(new SafeRunnable() {
+            background(RequestPriority.USER_VISIBLE, new SafeRunnable() {
                 @Override
                 public void run() throws IOException {
                     Array<ILeaderBoardEntry> result = null;
@@ -788,8 +1003,33 @@ public class GpgsClient implements IGameServiceClient {
      */
     public Array<ILeaderBoardEntry> fetchLeaderboardSync(String leaderBoardId, int limit, boolean aroundPlayer,
                                                          boolean friendsOnly) throws IOException {
-        // TODO implement limit
+        Array<ILeaderBoardEntry> result = new Array<ILeaderBoardEntry>();
+        String pageToken = null;
 
+        do {
+            LeaderboardPage page = fetchLeaderboardPageSync(leaderBoardId, pageToken,
+                    Math.min(limit - result.size, GPGS_MAX_PAGE_SIZE), aroundPlayer, friendsOnly);
+            if (page == null)
+                return null;
+
+            result.addAll(page.getEntries());
+            pageToken = page.getNextPageToken();
+        } while (pageToken != null && result.size < limit);
+
+        result.truncate(limit);
+        return result;
+    }
+
+    /**
+     * Blocking version of
+     * {@link #fetchLeaderboardPage(String, String, int, boolean, IFetchLeaderboardPageListener)}
+     *
+     * @param pageSize maximum number of entries, limited to {@link #GPGS_MAX_PAGE_SIZE}
+     * @return the page, or null if the leaderboard is not known
+     * @throws IOException
+     */
+    public LeaderboardPage fetchLeaderboardPageSync(String leaderBoardId, String pageToken, int pageSize,
+                                                    boolean aroundPlayer, boolean friendsOnly) throws IOException {
         if (gpgsLeaderboardIdMapper != null)
             leaderBoardId = gpgsLeaderboardIdMapper.mapToGsId(leaderBoardId);
 
@@ -797,26 +1037,21 @@ public class GpgsClient implements IGameServiceClient {
             return null;
 
         Array<ILeaderBoardEntry> result = new Array<ILeaderBoardEntry>();
-        Leaderboard lb = GApiGateway.games.leaderboards().get(leaderBoardId).execute();
-
-        // XXX no longer LB info ...
-//		result.id = lb.getId();
-//		result.name = lb.getName();
-//		result.scores = new Array<LeaderBoard.Score>();
-//		result.iconUrl = lb.getIconUrl();
+        int maxResults = Math.max(1, Math.min(pageSize, GPGS_MAX_PAGE_SIZE));
 
         LeaderboardScores r;
         if (aroundPlayer) {
             r = GApiGateway.games.scores().listWindow(leaderBoardId, friendsOnly ? "SOCIAL" : "PUBLIC", "ALL_TIME")
-                    .execute();
+                    .setMaxResults(maxResults).setPageToken(pageToken).execute();
         } else {
-            r = GApiGateway.games.scores().list(leaderBoardId, friendsOnly ? "SOCIAL" : "PUBLIC", "ALL_TIME").execute();
+            r = GApiGateway.games.scores().list(leaderBoardId, friendsOnly ? "SOCIAL" : "PUBLIC", "ALL_TIME")
+                    .setMaxResults(maxResults).setPageToken(pageToken).execute();
         }
         LeaderboardEntry playerScore = r.getPlayerScore();
         // player is null when not having a score yet.
-        // we add it to the list because non-public profile won't appear in
+        // we add it to the first page because non-public profile won't appear in
         // the full list.
-        if (playerScore != null) {
+        if (playerScore != null && pageToken == null) {
             GpgsLeaderBoardEntry ps = mapPlayerScore(r.getPlayerScore());
             ps.setCurrentPlayer(true);
             result.add(ps);
@@ -837,14 +1072,52 @@ public class GpgsClient implements IGameServiceClient {
         // maybe already sorted but API doesn't say anything about it :
         // https://developers.google.com/games/services/web/api/scores/list
         // so we sort list depending of score meaning.
-        final int order = "SMALLER_IS_BETTER".equals(lb.getOrder()) ? 1 : -1;
+        final int order = "SMALLER_IS_BETTER".equals(getLeaderboardOrder(leaderBoardId)) ? 1 : -1;
         result.sort(new Comparator<ILeaderBoardEntry>() {
             @Override
             public int compare(ILeaderBoardEntry o1, ILeaderBoardEntry o2) {
                 return order * Long.compare(o1.getSortValue(), o2.getSortValue());
             }
         });
-        return result;
+        return new LeaderboardPage(result, r.getNextPageToken());
+    }
+
+    /**
+     * @return order of the leaderboard, fetched once per leaderboard
+     */
+    protected String getLeaderboardOrder(String leaderBoardId) throws IOException {
+        synchronized (leaderboardOrders) {
+            String order = leaderboardOrders.get(leaderBoardId);
+            if (order != null)
+                return order;
+        }
+
+        Leaderboard lb = GApiGateway.games.leaderboards().get(leaderBoardId).execute();
+        String order = lb.getOrder() != null ? lb.getOrder() : "";
+        synchronized (leaderboardOrders) {
+            leaderboardOrders.put(leaderBoardId, order);
+        }
+        return order;
+    }
+
+    @Override
+    public boolean fetchLeaderboardPage(final String leaderBoardId, final String pageToken, final int pageSize,
+                                        final boolean relatedToPlayer, final IFetchLeaderboardPageListener listener) {
+        if (connected) {
+            background(RequestPriority.USER_VISIBLE, new SafeRunnable() {
+                @Override
+                public void run() throws IOException {
+                    LeaderboardPage result = null;
+                    try {
+                        result = fetchLeaderboardPageSync(leaderBoardId, pageToken, pageSize, relatedToPlayer,
+                                false);
+                    } finally {
+                        listener.onLeaderboardPageResponse(result);
+                    }
+                }
+            });
+        }
+        return connected;
     }
 
     protected GpgsLeaderBoardEntry mapPlayerScore(LeaderboardEntry score) throws IOException {
@@ -869,6 +1142,7 @@ public class GpgsClient implements IGameServiceClient {
                 return driveApiEnabled;
             case FetchAchievements:
             case FetchLeaderBoardEntries:
+            case SubmitEvents:
             case PlayerLogOut:
                 return true;
             default:
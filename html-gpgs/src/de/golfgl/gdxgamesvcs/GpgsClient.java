@@ -4,15 +4,20 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Net;
 import com.badlogic.gdx.utils.JsonValue;
 import com.badlogic.gdx.utils.JsonWriter;
-import com.badlogic.gdx.utils.Timer;
-
-import java.util.HashMap;
+import com.badlogic.gdx.utils.ObjectIntMap;
 
 import de.golfgl.gdxgamesvcs.achievement.IFetchAchievementsResponseListener;
+import de.golfgl.gdxgamesvcs.gamestate.GameStateMetadata;
+import de.golfgl.gdxgamesvcs.gamestate.IFetchGameStateMetadataListener;
 import de.golfgl.gdxgamesvcs.gamestate.IFetchGameStatesListResponseListener;
+import de.golfgl.gdxgamesvcs.gamestate.IGameStateMetadataClient;
 import de.golfgl.gdxgamesvcs.gamestate.ILoadGameStateResponseListener;
 import de.golfgl.gdxgamesvcs.gamestate.ISaveGameStateResponseListener;
 import de.golfgl.gdxgamesvcs.leaderboard.IFetchLeaderBoardEntriesResponseListener;
+import de.golfgl.gdxgamesvcs.net.IHttpTransport;
+import de.golfgl.gdxgamesvcs.net.IScheduledRequest;
+import de.golfgl.gdxgamesvcs.net.RequestPriority;
+import de.golfgl.gdxgamesvcs.net.RequestScheduler;
 
 /**
  * Gpgs Web REST Client
@@ -25,9 +30,13 @@ import de.golfgl.gdxgamesvcs.leaderboard.IFetchLeaderBoardEntriesResponseListene
  * Created by Benjamin Schulte on 03.11.2017.
  */
 
-public class GpgsClient implements IGameServiceClient {
+public class GpgsClient implements IGameServiceClient, IGameStateMetadataClient {
     public static final String GAMESERVICE_ID = IGameServiceClient.GS_GOOGLEPLAYGAMES_ID;
     private static final String CONTENT_BOUNDARY = "foo_bar_baz";
+    /**
+     * Drive app property the progress value of a game state is stored in
+     */
+    public static final String APPPROPERTY_PROGRESS = "progressValue";
     //GPGS does not allow sending events more frequent
     public static final int GPGS_SENDEVENTS_INTERVAL = 61;
     public static final int GPGS_CHECKEVENTS_INTERVAL = 5;
@@ -40,9 +49,9 @@ public class GpgsClient implements IGameServiceClient {
     protected boolean connectionPending;
     protected boolean enableDrive;
     protected String oAuthToken;
-    protected Timer.Task updateEventsTask;
-    protected HashMap<String, Integer> eventsToRecord;
-    protected long lastEventRecordTime;
+    protected EventAggregator eventAggregator;
+    protected RequestScheduler requestScheduler;
+    protected IHttpTransport httpTransport;
     private boolean isSilentConnect;
     private String clientId;
 
@@ -70,6 +79,44 @@ public class GpgsClient implements IGameServiceClient {
         return this;
     }
 
+    /**
+     * sets the scheduler requests to the REST API and Google's JS API are made through. Default is
+     * {@link RequestScheduler#getDefault()}
+     *
+     * @return this for method chaining
+     */
+    public GpgsClient setRequestScheduler(RequestScheduler requestScheduler) {
+        this.requestScheduler = requestScheduler;
+        return this;
+    }
+
+    /**
+     * sets the transport requests to the REST API are sent with. Default is the request scheduler's transport, see
+     * {@link RequestScheduler#setHttpTransport(IHttpTransport)}
+     *
+     * @return this for method chaining
+     */
+    public GpgsClient setHttpTransport(IHttpTransport httpTransport) {
+        this.httpTransport = httpTransport;
+        return this;
+    }
+
+    protected RequestScheduler getRequestScheduler() {
+        return requestScheduler != null ? requestScheduler : RequestScheduler.getDefault();
+    }
+
+    protected void sendHttpRequest(RequestPriority priority, Net.HttpRequest httpRequest,
+                                   Net.HttpResponseListener listener) {
+        getRequestScheduler().sendHttpRequest(GAMESERVICE_ID, priority, httpTransport, httpRequest, listener);
+    }
+
+    /**
+     * Queues a request made with Google's JS API on the request scheduler
+     */
+    protected void sendGApiRequest(GApiRequest request) {
+        request.scheduler.submit(GAMESERVICE_ID, request.priority, request);
+    }
+
     @Override
     public String getGameServiceId() {
         return GAMESERVICE_ID;
@@ -101,7 +148,12 @@ public class GpgsClient implements IGameServiceClient {
 
         this.clientId = clientId;
         this.enableDrive = enableDriveAPI;
-        eventsToRecord = new HashMap<>();
+        eventAggregator = new EventAggregator(new EventAggregator.IEventBatchSink() {
+            @Override
+            public boolean sendEvents(ObjectIntMap<String> events) {
+                return recordEvents(events);
+            }
+        }).setFlushDelay(GPGS_CHECKEVENTS_INTERVAL).setMinSendInterval(GPGS_SENDEVENTS_INTERVAL);
 
         return this;
     }
@@ -146,19 +198,10 @@ public class GpgsClient implements IGameServiceClient {
         displayName = "";
         boolean sessionActive = isSessionActive();
 
-        if (updateEventsTask != null)
-            updateEventsTask.cancel();
-
         if (sessionActive) {
             oAuthToken = getOAuthToken();
             sendNowPlayingEvent();
             refreshDisplayname();
-            updateEventsTask = Timer.schedule(new Timer.Task() {
-                @Override
-                public void run() {
-                    recordEvents();
-                }
-            }, GPGS_CHECKEVENTS_INTERVAL, GPGS_CHECKEVENTS_INTERVAL);
         }
 
         if (gsListener != null) {
@@ -169,58 +212,18 @@ public class GpgsClient implements IGameServiceClient {
         }
     }
 
-    protected void recordEvents() {
-        JsonValue root = null;
-
-        synchronized (eventsToRecord) {
-            long time = System.currentTimeMillis();
-
-            // do not record if there is nothing to record or if minimal waiting time not reached
-            if (eventsToRecord.size() == 0 || time - lastEventRecordTime < GPGS_SENDEVENTS_INTERVAL * 1000)
-                return;
-
-            JsonValue recordList = new JsonValue(JsonValue.ValueType.array);
-
-            for (String eventId : eventsToRecord.keySet()) {
-                JsonValue event = new JsonValue(JsonValue.ValueType.object);
-                event.addChild("kind", new JsonValue("games#eventUpdateRequest"));
-                event.addChild("definitionId", new JsonValue(eventId));
-                event.addChild("updateCount", new JsonValue(eventsToRecord.get(eventId)));
-                recordList.addChild(event);
-            }
-
-            eventsToRecord.clear();
-            lastEventRecordTime = time;
-
-            root = new JsonValue(JsonValue.ValueType.object);
-            root.addChild("kind", new JsonValue("games#eventRecordRequest"));
-            root.addChild("requestId", new JsonValue(time));
-            root.addChild("currentTimeMillis", new JsonValue(time));
-
-            JsonValue timePeriodParams = new JsonValue(JsonValue.ValueType.object);
-            timePeriodParams.addChild("kind", new JsonValue("games#eventPeriodRange"));
-            timePeriodParams.addChild("periodStartMillis", new JsonValue(time - GPGS_SENDEVENTS_INTERVAL * 1000));
-            timePeriodParams.addChild("periodEndMillis", new JsonValue(time - 10));
-
-            JsonValue timePeriods = new JsonValue(JsonValue.ValueType.array);
-            JsonValue timePeriod = new JsonValue(JsonValue.ValueType.object);
-            timePeriod.addChild("kind", new JsonValue("games#eventPeriodUpdate"));
-            timePeriod.addChild("timePeriod", timePeriodParams);
-            timePeriod.addChild("updates", recordList);
-            timePeriods.addChild(timePeriod);
-
-            root.addChild("timePeriods", timePeriods);
-        }
+    protected boolean recordEvents(ObjectIntMap<String> events) {
+        if (!isSessionActive())
+            return false;
 
-        if (root == null)
-            return;
+        JsonValue root = buildEventRecordRequest(events, System.currentTimeMillis());
 
         Net.HttpRequest httpRequest = new Net.HttpRequest(Net.HttpMethods.POST);
         httpRequest.setUrl("https://www.googleapis.com/games/v1/events");
         httpRequest.setHeader("Authorization", "Bearer " + oAuthToken);
         httpRequest.setHeader("Content-Type", "application/json");
         httpRequest.setContent(root.toJson(JsonWriter.OutputType.json));
-        Gdx.net.sendHttpRequest(httpRequest, new Net.HttpResponseListener() {
+        sendHttpRequest(RequestPriority.ANALYTICS, httpRequest, new Net.HttpResponseListener() {
             @Override
             public void handleHttpResponse(Net.HttpResponse httpResponse) {
                 // check if ok?
@@ -237,6 +240,40 @@ public class GpgsClient implements IGameServiceClient {
             }
         });
 
+        return true;
+    }
+
+    protected JsonValue buildEventRecordRequest(ObjectIntMap<String> events, long time) {
+        JsonValue recordList = new JsonValue(JsonValue.ValueType.array);
+
+        for (ObjectIntMap.Entry<String> eventEntry : events) {
+            JsonValue event = new JsonValue(JsonValue.ValueType.object);
+            event.addChild("kind", new JsonValue("games#eventUpdateRequest"));
+            event.addChild("definitionId", new JsonValue(eventEntry.key));
+            event.addChild("updateCount", new JsonValue(eventEntry.value));
+            recordList.addChild(event);
+        }
+
+        JsonValue root = new JsonValue(JsonValue.ValueType.object);
+        root.addChild("kind", new JsonValue("games#eventRecordRequest"));
+        root.addChild("requestId", new JsonValue(time));
+        root.addChild("currentTimeMillis", new JsonValue(time));
+
+        JsonValue timePeriodParams = new JsonValue(JsonValue.ValueType.object);
+        timePeriodParams.addChild("kind", new JsonValue("games#eventPeriodRange"));
+        timePeriodParams.addChild("periodStartMillis", new JsonValue(time - GPGS_SENDEVENTS_INTERVAL * 1000));
+        timePeriodParams.addChild("periodEndMillis", new JsonValue(time - 10));
+
+        JsonValue timePeriods = new JsonValue(JsonValue.ValueType.array);
+        JsonValue timePeriod = new JsonValue(JsonValue.ValueType.object);
+        timePeriod.addChild("kind", new JsonValue("games#eventPeriodUpdate"));
+        timePeriod.addChild("timePeriod", timePeriodParams);
+        timePeriod.addChild("updates", recordList);
+        timePeriods.addChild(timePeriod);
+
+        root.addChild("timePeriods", timePeriods);
+
+        return root;
     }
 
     private native String getOAuthToken() /*-{
@@ -244,21 +281,40 @@ public class GpgsClient implements IGameServiceClient {
         return user.getAuthResponse().access_token;
     }-*/;
 
-    private native void sendNowPlayingEvent() /*-{
+    private void sendNowPlayingEvent() {
+        sendGApiRequest(new GApiRequest(RequestPriority.ANALYTICS) {
+            @Override
+            protected void send() {
+                nativeSendNowPlayingEvent(this);
+            }
+        });
+    }
+
+    private native void nativeSendNowPlayingEvent(GApiRequest request) /*-{
         $wnd.gapi.client.request({
               path: 'games/v1/applications/played',
               method: 'POST',
               callback: function(response) {
-                //nothing to do
+                request.@de.golfgl.gdxgamesvcs.GpgsClient.GApiRequest::onResponse(I)(response ? (response.error ? response.error.code : 200) : 0);
               }
         });
     }-*/;
 
-    private native void refreshDisplayname() /*-{
+    private void refreshDisplayname() {
+        sendGApiRequest(new GApiRequest(RequestPriority.USER_VISIBLE) {
+            @Override
+            protected void send() {
+                nativeRefreshDisplayname(this);
+            }
+        });
+    }
+
+    private native void nativeRefreshDisplayname(GApiRequest request) /*-{
         var that = this;
         $wnd.gapi.client.request({
               path: 'games/v1/players/me',
               callback: function(response) {
+                request.@de.golfgl.gdxgamesvcs.GpgsClient.GApiRequest::onResponse(I)(response ? (response.error ? response.error.code : 200) : 0);
                 that.@de.golfgl.gdxgamesvcs.GpgsClient::onDisplayName(Ljava/lang/String;)(response.displayName);
               }
         });
@@ -314,7 +370,8 @@ public class GpgsClient implements IGameServiceClient {
 
     @Override
     public void pauseSession() {
-        //nothing to do
+        if (eventAggregator != null)
+            eventAggregator.flush(true);
     }
 
     @Override
@@ -363,13 +420,22 @@ public class GpgsClient implements IGameServiceClient {
             leaderboardId = gpgsLeaderboardIdMapper.mapToGsId(leaderboardId);
 
         if (leaderboardId != null && isSessionActive()) {
-            nativeSubmitScore(leaderboardId, score, tag);
+            final String gsLeaderboardId = leaderboardId;
+            final double scoreVar = score;
+            final String scoreTag = tag;
+            sendGApiRequest(new GApiRequest(RequestPriority.SAVE) {
+                @Override
+                protected void send() {
+                    nativeSubmitScore(gsLeaderboardId, scoreVar, scoreTag, this);
+                }
+            });
             return true;
         } else
             return false;
     }
 
-    private native void nativeSubmitScore(String leaderboardId, double scoreVar, String tag) /*-{
+    private native void nativeSubmitScore(String leaderboardId, double scoreVar, String tag,
+                                          GApiRequest request) /*-{
         var param;
 
         if (tag == null)
@@ -382,6 +448,7 @@ public class GpgsClient implements IGameServiceClient {
               params: param,
               method: 'POST',
               callback: function(response) {
+                request.@de.golfgl.gdxgamesvcs.GpgsClient.GApiRequest::onResponse(I)(response ? (response.error ? response.error.code : 200) : 0);
                 //response.beatenScoreTimeSpans existance could be checked to toast
               }
         });
@@ -399,12 +466,7 @@ public class GpgsClient implements IGameServiceClient {
         if (!isSessionActive())
             return false;
 
-        synchronized (eventsToRecord) {
-            if (eventsToRecord.containsKey(eventId))
-                increment = increment + eventsToRecord.get(eventId);
-
-            eventsToRecord.put(eventId, increment);
-        }
+        eventAggregator.addEvent(eventId, increment);
 
         return true;
     }
@@ -415,18 +477,25 @@ public class GpgsClient implements IGameServiceClient {
             achievementId = gpgsAchievementIdMapper.mapToGsId(achievementId);
 
         if (achievementId != null && isSessionActive()) {
-            nativeUnlockAchievement(achievementId);
+            final String gsAchievementId = achievementId;
+            sendGApiRequest(new GApiRequest(RequestPriority.SAVE) {
+                @Override
+                protected void send() {
+                    nativeUnlockAchievement(gsAchievementId, this);
+                }
+            });
             return true;
         } else
             return false;
 
     }
 
-    private native void nativeUnlockAchievement(String achievementId) /*-{
+    private native void nativeUnlockAchievement(String achievementId, GApiRequest request) /*-{
         $wnd.gapi.client.request({
               path: 'games/v1/achievements/' + achievementId + '/unlock',
               method: 'POST',
               callback: function(response) {
+                request.@de.golfgl.gdxgamesvcs.GpgsClient.GApiRequest::onResponse(I)(response ? (response.error ? response.error.code : 200) : 0);
                 //response.newlyUnlocked could be checked to toast
               }
         });
@@ -438,25 +507,33 @@ public class GpgsClient implements IGameServiceClient {
             achievementId = gpgsAchievementIdMapper.mapToGsId(achievementId);
 
         if (achievementId != null && isSessionActive()) {
-            nativeIncAchievement(achievementId, incNum);
+            final String gsAchievementId = achievementId;
+            final int steps = incNum;
+            sendGApiRequest(new GApiRequest(RequestPriority.SAVE) {
+                @Override
+                protected void send() {
+                    nativeIncAchievement(gsAchievementId, steps, this);
+                }
+            });
             return true;
         } else
             return false;
     }
 
-    private native void nativeIncAchievement(String achievementId, int incNum) /*-{
+    private native void nativeIncAchievement(String achievementId, int incNum, GApiRequest request) /*-{
         $wnd.gapi.client.request({
               path: 'games/v1/achievements/' + achievementId + '/increment',
               params: {stepsToIncrement: incNum},
               method: 'POST',
               callback: function(response) {
+                request.@de.golfgl.gdxgamesvcs.GpgsClient.GApiRequest::onResponse(I)(response ? (response.error ? response.error.code : 200) : 0);
                 //response.newlyUnlocked could be checked to toast
               }
         });
     }-*/;
 
     @Override
-    public void saveGameState(final String fileId, final byte[] gameState, long progressValue, final ISaveGameStateResponseListener success) {
+    public void saveGameState(final String fileId, final byte[] gameState, final long progressValue, final ISaveGameStateResponseListener success) {
         if (!enableDrive)
             throw new UnsupportedOperationException();
 
@@ -466,19 +543,27 @@ public class GpgsClient implements IGameServiceClient {
             return;
         }
 
-        findDriveFileId(fileId, new IDoWithDriveFileId() {
+        findDriveFileId(RequestPriority.SAVE, fileId, new IDoWithDriveFileId() {
             @Override
             public void doWithDriveFileId(String driveFileId) {
-                saveFileToDrive(fileId, driveFileId, gameState, success);
+                saveFileToDrive(fileId, driveFileId, gameState, progressValue, success);
             }
         });
     }
 
-    protected void saveFileToDrive(String fileName, String driveFileId, byte[] gameState, final ISaveGameStateResponseListener success) {
+    protected void saveFileToDrive(String fileName, String driveFileId, byte[] gameState, long progressValue,
+                                   final ISaveGameStateResponseListener success) {
+        // progress value is stored as app property, so it can be fetched without downloading the game state.
+        // v2 used for updating knows app properties as private properties
+        String progressProperty = driveFileId == null
+                ? ", \"appProperties\": {\"" + APPPROPERTY_PROGRESS + "\": \"" + progressValue + "\"}"
+                : ", \"properties\": [{\"key\": \"" + APPPROPERTY_PROGRESS + "\", \"value\": \"" + progressValue
+                + "\", \"visibility\": \"PRIVATE\"}]";
+
         String request = "--" + CONTENT_BOUNDARY + "\n" +
                 "Content-Type: application/json; charset=UTF-8\n" +
                 "\n" +
-                "{\"name\": \"" + fileName + "\", \"parents\": [\"appDataFolder\"]}\n" +
+                "{\"name\": \"" + fileName + "\", \"parents\": [\"appDataFolder\"]" + progressProperty + "}\n" +
                 "\n" +
                 "--" + CONTENT_BOUNDARY + "\n" +
                 "Content-Type: application/octet-stream\n" +
@@ -499,7 +584,7 @@ public class GpgsClient implements IGameServiceClient {
         httpRequest.setHeader("Content-Type", "multipart/related; boundary=" + CONTENT_BOUNDARY);
         //httpRequest.setHeader("Content-Length", String.valueOf(request.length()));
         httpRequest.setContent(request);
-        Gdx.net.sendHttpRequest(httpRequest, new Net.HttpResponseListener() {
+        sendHttpRequest(RequestPriority.SAVE, httpRequest, new Net.HttpResponseListener() {
             @Override
             public void handleHttpResponse(Net.HttpResponse httpResponse) {
                 if (success != null)
@@ -530,7 +615,7 @@ public class GpgsClient implements IGameServiceClient {
             return;
         }
 
-        findDriveFileId(fileId, new IDoWithDriveFileId() {
+        findDriveFileId(RequestPriority.USER_VISIBLE, fileId, new IDoWithDriveFileId() {
             @Override
             public void doWithDriveFileId(String driveFileId) {
                 if (driveFileId == null)
@@ -544,14 +629,27 @@ public class GpgsClient implements IGameServiceClient {
     /**
      * finds a file with the given id (name) and calls dowithDriveFileId with the internal drive id, or null
      *
+     * @param priority          priority of the request
      * @param fileId            the file name
      * @param doWithDriveFileId callback interface
      */
-    protected native void findDriveFileId(String fileId, IDoWithDriveFileId doWithDriveFileId) /*-{
+    protected void findDriveFileId(RequestPriority priority, final String fileId,
+                                   final IDoWithDriveFileId doWithDriveFileId) {
+        sendGApiRequest(new GApiRequest(priority) {
+            @Override
+            protected void send() {
+                nativeFindDriveFileId(fileId, doWithDriveFileId, this);
+            }
+        });
+    }
+
+    private native void nativeFindDriveFileId(String fileId, IDoWithDriveFileId doWithDriveFileId,
+                                              GApiRequest request) /*-{
         $wnd.gapi.client.request({
               path: 'drive/v3/files',
               params: {spaces: 'appDataFolder'},
               callback: function(response) {
+                request.@de.golfgl.gdxgamesvcs.GpgsClient.GApiRequest::onResponse(I)(response ? (response.error ? response.error.code : 200) : 0);
                 var driveFileId = null;
                 if (response.files) {
                     response.files.forEach(function (file) {
@@ -565,16 +663,98 @@ public class GpgsClient implements IGameServiceClient {
 
     }-*/;
 
+    @Override
+    public boolean fetchGameStateMetadata(final String fileId, final IFetchGameStateMetadataListener listener) {
+        if (!enableDrive || !isSessionActive())
+            return false;
+
+        findDriveFileMetadata(RequestPriority.SAVE, fileId, new IDoWithDriveFileMetadata() {
+            @Override
+            public void doWithDriveFileMetadata(boolean success, boolean exists, String progressValue,
+                                                double modifiedTime) {
+                if (!success) {
+                    listener.onGameStateMetadataResponse(null);
+                    return;
+                }
+
+                long progress = 0;
+                try {
+                    if (progressValue != null)
+                        progress = Long.parseLong(progressValue);
+                } catch (NumberFormatException e) {
+                    Gdx.app.error(GAMESERVICE_ID, "Invalid progress value of file " + fileId);
+                }
+                listener.onGameStateMetadataResponse(new GameStateMetadata(fileId, exists, progress,
+                        (long) modifiedTime));
+            }
+        });
+        return true;
+    }
+
+    /**
+     * finds a file with the given id (name) and calls doWithDriveFileMetadata with its progress value and
+     * modified time
+     */
+    protected void findDriveFileMetadata(RequestPriority priority, final String fileId,
+                                         final IDoWithDriveFileMetadata doWithDriveFileMetadata) {
+        sendGApiRequest(new GApiRequest(priority) {
+            @Override
+            protected void send() {
+                nativeFindDriveFileMetadata(fileId, doWithDriveFileMetadata, this);
+            }
+        });
+    }
+
+    private native void nativeFindDriveFileMetadata(String fileId, IDoWithDriveFileMetadata doWithDriveFileMetadata,
+                                                    GApiRequest request) /*-{
+        $wnd.gapi.client.request({
+              path: 'drive/v3/files',
+              params: {spaces: 'appDataFolder', fields: 'files(id,name,modifiedTime,appProperties)'},
+              callback: function(response) {
+                request.@de.golfgl.gdxgamesvcs.GpgsClient.GApiRequest::onResponse(I)(response ? (response.error ? response.error.code : 200) : 0);
+                var success = !!(response && !response.error);
+                var exists = false;
+                var progressValue = null;
+                var modifiedTime = 0;
+                if (success && response.files) {
+                    response.files.forEach(function (file) {
+                       if (file.name == fileId) {
+                          exists = true;
+                          if (file.appProperties && file.appProperties.progressValue)
+                              progressValue = file.appProperties.progressValue;
+                          if (file.modifiedTime)
+                              modifiedTime = new Date(file.modifiedTime).getTime();
+                       }
+                    });
+                }
+                doWithDriveFileMetadata.@de.golfgl.gdxgamesvcs.GpgsClient.IDoWithDriveFileMetadata::doWithDriveFileMetadata(ZZLjava/lang/String;D)(success, exists, progressValue, modifiedTime);
+              }
+        });
+
+    }-*/;
+
     /**
      * gets the real download url and calls downloadFileFromDrive, or the response listener
      * @param driveFileId
      * @param responseListener
      */
-    protected native void loadFileFromDrive(String driveFileId, final ILoadGameStateResponseListener responseListener) /*-{
+    protected void loadFileFromDrive(final String driveFileId,
+                                     final ILoadGameStateResponseListener responseListener) {
+        sendGApiRequest(new GApiRequest(RequestPriority.USER_VISIBLE) {
+            @Override
+            protected void send() {
+                nativeLoadFileFromDrive(driveFileId, responseListener, this);
+            }
+        });
+    }
+
+    private native void nativeLoadFileFromDrive(String driveFileId, ILoadGameStateResponseListener responseListener,
+                                                GApiRequest request) /*-{
         var that=this;
         $wnd.gapi.client.request({
               path: 'drive/v2/files/' + driveFileId,
               callback: function(response) {
+                request.@de.golfgl.gdxgamesvcs.GpgsClient.GApiRequest::onResponse(I)(response ? (response.error ? response.error.code : 200) : 0);
                 if (response.downloadUrl)
                   that.@de.golfgl.gdxgamesvcs.GpgsClient::downloadFileFromDrive(Ljava/lang/String;Lde/golfgl/gdxgamesvcs/gamestate/ILoadGameStateResponseListener;)(response.downloadUrl, responseListener);
                 else
@@ -588,7 +768,7 @@ public class GpgsClient implements IGameServiceClient {
         Net.HttpRequest httpRequest = new Net.HttpRequest(Net.HttpMethods.GET);
         httpRequest.setUrl(url);
         httpRequest.setHeader("Authorization", "Bearer " + oAuthToken);
-        Gdx.net.sendHttpRequest(httpRequest, new Net.HttpResponseListener() {
+        sendHttpRequest(RequestPriority.USER_VISIBLE, httpRequest, new Net.HttpResponseListener() {
             @Override
             public void handleHttpResponse(Net.HttpResponse httpResponse) {
                 byte[] result = httpResponse.getResultAsString().getBytes();
@@ -617,7 +797,7 @@ public class GpgsClient implements IGameServiceClient {
         Net.HttpRequest httpRequest = new Net.HttpRequest(Net.HttpMethods.GET);
         httpRequest.setUrl("https://content.googleapis.com/drive/v3/files/" + driveFileId + "?alt=media");
         httpRequest.setHeader("Authorization", "Bearer " + oAuthToken);
-        Gdx.net.sendHttpRequest(httpRequest, new Net.HttpResponseListener() {
+        sendHttpRequest(RequestPriority.USER_VISIBLE, httpRequest, new Net.HttpResponseListener() {
             @Override
             public void handleHttpResponse(Net.HttpResponse httpResponse) {
                 byte[] result = httpResponse.getResultAsString().getBytes();
@@ -645,7 +825,7 @@ public class GpgsClient implements IGameServiceClient {
         if (!isSessionActive())
             return false;
 
-        findDriveFileId(fileId, new IDoWithDriveFileId() {
+        findDriveFileId(RequestPriority.SAVE, fileId, new IDoWithDriveFileId() {
             @Override
             public void doWithDriveFileId(String driveFileId) {
                 if (driveFileId == null)
@@ -654,7 +834,7 @@ public class GpgsClient implements IGameServiceClient {
                     Net.HttpRequest httpRequest = new Net.HttpRequest(Net.HttpMethods.DELETE);
                     httpRequest.setUrl("https://www.googleapis.com/drive/v3/files/" + driveFileId);
                     httpRequest.setHeader("Authorization", "Bearer " + oAuthToken);
-                    Gdx.net.sendHttpRequest(httpRequest, new Net.HttpResponseListener() {
+                    sendHttpRequest(RequestPriority.SAVE, httpRequest, new Net.HttpResponseListener() {
                         @Override
                         public void handleHttpResponse(Net.HttpResponse httpResponse) {
                             if (success != null)
@@ -682,26 +862,29 @@ public class GpgsClient implements IGameServiceClient {
     }
 
     @Override
-    public boolean fetchGameStates(IFetchGameStatesListResponseListener callback) {
+    public boolean fetchGameStates(final IFetchGameStatesListResponseListener callback) {
         if (!enableDrive)
             throw new UnsupportedOperationException("To use game states, enable Drive API when initializing");
 
         if (!isSessionActive())
             return false;
 
-        try {
-            nativeFetchGameStates(callback);
-        } catch (Throwable t) {
-            return false;
-        }
+        sendGApiRequest(new GApiRequest(RequestPriority.USER_VISIBLE) {
+            @Override
+            protected void send() {
+                nativeFetchGameStates(callback, this);
+            }
+        });
         return true;
     }
 
-    private native void nativeFetchGameStates(IFetchGameStatesListResponseListener callback) /*-{
+    private native void nativeFetchGameStates(IFetchGameStatesListResponseListener callback,
+                                              GApiRequest request) /*-{
         $wnd.gapi.client.request({
               path: 'drive/v3/files',
               params: {spaces: 'appDataFolder'},
               callback: function(response) {
+                request.@de.golfgl.gdxgamesvcs.GpgsClient.GApiRequest::onResponse(I)(response ? (response.error ? response.error.code : 200) : 0);
                 var stringarray;
                 if (response.files) {
                     stringarray = @com.badlogic.gdx.utils.Array::new()();
@@ -730,7 +913,42 @@ public class GpgsClient implements IGameServiceClient {
         }
     }
 
+    /**
+     * Request made with Google's JS API. The callback of the JS API has to call {@link #onResponse(int)} to free the
+     * request's slot and report its outcome to the scheduler.
+     */
+    protected abstract class GApiRequest implements IScheduledRequest {
+        private final RequestPriority priority;
+        private final RequestScheduler scheduler;
+        private Runnable onDone;
+
+        protected GApiRequest(RequestPriority priority) {
+            this.priority = priority;
+            this.scheduler = getRequestScheduler();
+        }
+
+        @Override
+        public void execute(Runnable onDone) {
+            this.onDone = onDone;
+            send();
+        }
+
+        protected abstract void send();
+
+        /**
+         * @param status HTTP status of the response, or 0 if there was none
+         */
+        protected void onResponse(int status) {
+            scheduler.reportResult(GAMESERVICE_ID, priority, status != 0 && status != 429 && status < 500);
+            onDone.run();
+        }
+    }
+
     protected interface IDoWithDriveFileId {
         void doWithDriveFileId(String driveFileId);
     }
+
+    protected interface IDoWithDriveFileMetadata {
+        void doWithDriveFileMetadata(boolean success, boolean exists, String progressValue, double modifiedTime);
+    }
 }
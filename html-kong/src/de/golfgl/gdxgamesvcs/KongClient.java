@@ -5,6 +5,7 @@ import com.badlogic.gdx.Net;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.JsonReader;
 import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.ObjectIntMap;
 
 import de.golfgl.gdxgamesvcs.achievement.IFetchAchievementsResponseListener;
 import de.golfgl.gdxgamesvcs.gamestate.IFetchGameStatesListResponseListener;
@@ -12,6 +13,9 @@ import de.golfgl.gdxgamesvcs.gamestate.ILoadGameStateResponseListener;
 import de.golfgl.gdxgamesvcs.gamestate.ISaveGameStateResponseListener;
 import de.golfgl.gdxgamesvcs.leaderboard.IFetchLeaderBoardEntriesResponseListener;
 import de.golfgl.gdxgamesvcs.leaderboard.ILeaderBoardEntry;
+import de.golfgl.gdxgamesvcs.net.IHttpTransport;
+import de.golfgl.gdxgamesvcs.net.RequestPriority;
+import de.golfgl.gdxgamesvcs.net.RequestScheduler;
 
 /**
  * Kongegrate Client
@@ -29,9 +33,22 @@ public class KongClient implements IGameServiceClient {
     public static final String GAMESERVICE_ID = IGameServiceClient.GS_KONGREGATE_ID;
     protected IGameServiceListener gsListener;
     protected IGameServiceIdMapper<Integer> statIdMapper;
+    protected RequestScheduler requestScheduler;
+    protected IHttpTransport httpTransport;
 
     protected boolean initialized;
     protected boolean connectionPending;
+    protected EventAggregator eventAggregator = new EventAggregator(new EventAggregator.IEventBatchSink() {
+        @Override
+        public boolean sendEvents(ObjectIntMap<String> events) {
+            if (!initialized)
+                return false;
+
+            for (ObjectIntMap.Entry<String> event : events)
+                submitKongStat(event.key, event.value);
+            return true;
+        }
+    });
 
     @Override
     public String getGameServiceId() {
@@ -43,6 +60,28 @@ public class KongClient implements IGameServiceClient {
         this.gsListener = gsListener;
     }
 
+    /**
+     * sets the scheduler requests to Kongregate's REST API are made through. Default is
+     * {@link RequestScheduler#getDefault()}
+     *
+     * @return this for method chaining
+     */
+    public KongClient setRequestScheduler(RequestScheduler requestScheduler) {
+        this.requestScheduler = requestScheduler;
+        return this;
+    }
+
+    /**
+     * sets the transport requests to Kongregate's REST API are sent with. Default is the request scheduler's
+     * transport, see {@link RequestScheduler#setHttpTransport(IHttpTransport)}
+     *
+     * @return this for method chaining
+     */
+    public KongClient setHttpTransport(IHttpTransport httpTransport) {
+        this.httpTransport = httpTransport;
+        return this;
+    }
+
     public KongClient setStatIdMapper(IGameServiceIdMapper<Integer> statIds) {
         this.statIdMapper = statIds;
         return this;
@@ -104,7 +143,7 @@ public class KongClient implements IGameServiceClient {
 
     @Override
     public void pauseSession() {
-        //nothing to do
+        eventAggregator.flush(true);
     }
 
     @Override
@@ -193,31 +232,16 @@ public class KongClient implements IGameServiceClient {
         if (statId == null)
             return false;
 
-        Gdx.net.sendHttpRequest(buildQueryStatRequest(statId, relatedToPlayer),
+        RequestScheduler scheduler = requestScheduler != null ? requestScheduler : RequestScheduler.getDefault();
+        scheduler.sendHttpRequest(GAMESERVICE_ID, RequestPriority.USER_VISIBLE, httpTransport,
+                buildQueryStatRequest(statId, relatedToPlayer),
                 new Net.HttpResponseListener() {
                     @Override
                     public void handleHttpResponse(Net.HttpResponse httpResponse) {
-                        JsonValue response = null;
                         String json = httpResponse.getResultAsString();
                         // looks like a CORS error when fetching :-(
                         try {
-                            response = new JsonReader().parse(json).get(0);
-                            int rank = 0;
-                            Array<ILeaderBoardEntry> le = new Array<ILeaderBoardEntry>();
-                            for (JsonValue statEntry = response.child; statEntry != null && rank < limit;
-                                 statEntry = statEntry.next) {
-                                rank++;
-                                KongStatEntry kse = new KongStatEntry();
-                                kse.username = statEntry.getString("username");
-                                kse.currentPlayer = kse.username.equalsIgnoreCase(getPlayerDisplayName());
-                                kse.avatarUrl = statEntry.getString("avatar_url");
-                                kse.score = statEntry.getLong("score");
-                                kse.rank = Integer.toString(rank);
-
-                                le.add(kse);
-                            }
-
-                            callback.onLeaderBoardResponse(le);
+                            callback.onLeaderBoardResponse(parseStats(json, limit));
 
                         } catch (Throwable t) {
                             Gdx.app.error(GAMESERVICE_ID, "Error querying stats " + json, t);
@@ -241,6 +265,23 @@ public class KongClient implements IGameServiceClient {
         return true;
     }
 
+    /**
+     * Parses Kongregate's answer to a stats query
+     *
+     * @param limit maximum number of entries to parse
+     */
+    protected Array<ILeaderBoardEntry> parseStats(String json, int limit) {
+        JsonValue response = new JsonReader().parse(json).get(0);
+        String currentPlayer = getPlayerDisplayName();
+        int rank = 0;
+        Array<ILeaderBoardEntry> le = new Array<ILeaderBoardEntry>();
+        for (JsonValue statEntry = response.child; statEntry != null && rank < limit; statEntry = statEntry.next) {
+            rank++;
+            le.add(KongStatEntry.fromJson(statEntry, rank, currentPlayer));
+        }
+        return le;
+    }
+
     /**
      * override this method for tunneling through own server or other needs
      */
@@ -257,10 +298,25 @@ public class KongClient implements IGameServiceClient {
         return http;
     }
 
+    /**
+     * Events are summed up and submitted in intervals. Set the time increments are collected before they are
+     * submitted. Default is 5 seconds.
+     * <p>
+     * Summing up is only correct for Kongregate statistics of type "Add". If you submit events for "Max", "Min" or
+     * "Replace" statistics, set the delay to 0 so every value is submitted as it is.
+     *
+     * @param eventFlushDelay delay in seconds, 0 to submit events immediately
+     * @return this for method chaining
+     */
+    public KongClient setEventFlushDelay(float eventFlushDelay) {
+        eventAggregator.setFlushDelay(eventFlushDelay);
+        return this;
+    }
+
     @Override
     public boolean submitEvent(String eventId, int increment) {
         if (initialized)
-            submitKongStat(eventId, increment);
+            eventAggregator.addEvent(eventId, increment);
 
         return initialized;
     }
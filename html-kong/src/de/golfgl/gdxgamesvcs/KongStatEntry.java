@@ -1,5 +1,7 @@
 package de.golfgl.gdxgamesvcs;
 
+import com.badlogic.gdx.utils.JsonValue;
+
 import de.golfgl.gdxgamesvcs.leaderboard.ILeaderBoardEntry;
 
 /**
@@ -14,6 +16,17 @@ public class KongStatEntry implements ILeaderBoardEntry {
     protected String avatarUrl;
     protected boolean currentPlayer;
 
+    protected static KongStatEntry fromJson(JsonValue json, int rank, String currentPlayer) {
+        KongStatEntry kse = new KongStatEntry();
+        kse.username = json.getString("username");
+        kse.currentPlayer = kse.username.equalsIgnoreCase(currentPlayer);
+        kse.avatarUrl = json.getString("avatar_url");
+        kse.score = json.getLong("score");
+        kse.rank = Integer.toString(rank);
+
+        return kse;
+    }
+
     @Override
     public String getFormattedValue() {
         return Long.toString(score);